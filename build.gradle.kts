@@ -232,4 +232,43 @@ spotbugs {
 
 tasks.withType<com.github.spotbugs.snom.SpotBugsTask>().configureEach {
     reports.create("html") { required.set(true) }
+}
+
+// ---------------------------------------------------------------------------
+// JMH -- microbenchmarks for the image hot paths (src/jmh/java)
+// Benchmarks live in the same packages as the code they measure so they can
+// reach package-private kernels. Not part of "check"; run on demand:
+//   ./gradlew jmh
+//   ./gradlew jmh -Pjmh.includes=LiveFrameBenchmark -Pjmh.args="-wi 2 -i 3 -f 1"
+// Results are written to build/reports/jmh/results.json for comparison
+// between releases.
+// ---------------------------------------------------------------------------
+val jmhVersion = "1.37"
+
+sourceSets {
+    create("jmh") {
+        java.srcDir("src/jmh/java")
+        compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+        runtimeClasspath += output + compileClasspath
+    }
+}
+
+dependencies {
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:$jmhVersion")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
+}
+
+tasks.register<JavaExec>("jmh") {
+    description = "Runs the JMH image-processing benchmarks"
+    group = "benchmark"
+    val jmhSourceSet = sourceSets["jmh"]
+    dependsOn(jmhSourceSet.classesTaskName)
+    classpath = jmhSourceSet.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    val resultFile = layout.buildDirectory.file("reports/jmh/results.json")
+    outputs.upToDateWhen { false }
+    doFirst { resultFile.get().asFile.parentFile.mkdirs() }
+    args(listOf("-rf", "json", "-rff", resultFile.get().asFile.absolutePath))
+    (project.findProperty("jmh.args") as String?)?.let { args(it.split(" ").filter(String::isNotBlank)) }
+    (project.findProperty("jmh.includes") as String?)?.let { args(it) }
 }
\ No newline at end of file
@@ -0,0 +1,185 @@
+package qupath.ext.qpsc.benchmark;
+
+import java.awt.image.BufferedImage;
+import java.util.SplittableRandom;
+import qupath.ext.qpsc.ui.liveviewer.FrameData;
+
+/**
+ * Deterministic synthetic images for the JMH benchmarks.
+ *
+ * <p>Content is a smooth illumination gradient with blob-shaped "tissue",
+ * fine texture and shot-like noise, so focus metrics, histograms and filters
+ * see realistic value distributions rather than constant or random data. The
+ * same seed always yields the same pixels, so runs are comparable across
+ * releases.
+ */
+public final class SyntheticImages {
+
+    private static final long SEED = 0x5EED_C0FFEEL;
+
+    private SyntheticImages() {}
+
+    /** Camera formats seen on the supported microscopes. */
+    public enum CameraFormat {
+        /** 4 MP 8-bit monochrome (sCMOS in 8-bit mode). */
+        MONO8_2048X2048(2048, 2048, 1, 1),
+        /** 4 MP 16-bit monochrome (sCMOS, the common fluorescence case). */
+        MONO16_2048X2048(2048, 2048, 1, 2),
+        /** 20 MP 16-bit monochrome (large-sensor CMOS). */
+        MONO16_5472X3648(5472, 3648, 1, 2),
+        /** 5 MP 8-bit RGB (brightfield colour camera). */
+        RGB8_2448X2048(2448, 2048, 3, 1),
+        /** 5 MP 16-bit RGB (colour camera in high-bit-depth mode). */
+        RGB16_2448X2048(2448, 2048, 3, 2);
+
+        public final int width;
+        public final int height;
+        public final int channels;
+        public final int bytesPerPixel;
+
+        CameraFormat(int width, int height, int channels, int bytesPerPixel) {
+            this.width = width;
+            this.height = height;
+            this.channels = channels;
+            this.bytesPerPixel = bytesPerPixel;
+        }
+    }
+
+    /**
+     * Builds a live frame in wire layout: interleaved channels, uint16 samples
+     * big-endian. 16-bit frames use a 12-bit-like range with a few saturated
+     * highlights.
+     */
+    public static FrameData frame(CameraFormat format) {
+        int w = format.width;
+        int h = format.height;
+        int nCh = format.channels;
+        int bpp = format.bytesPerPixel;
+        int maxValue = bpp == 2 ? 65535 : 255;
+        double scale = bpp == 2 ? 4095.0 / 255.0 : 1.0;
+        byte[] raw = new byte[w * h * nCh * bpp];
+        SplittableRandom rnd = new SplittableRandom(SEED);
+
+        int offset = 0;
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                double base = intensity(x, y, w, h);
+                for (int c = 0; c < nCh; c++) {
+                    // Stain-like channel tint for RGB: tissue darker in G than R/B
+                    double tint = nCh == 1 ? 1.0 : (c == 1 ? 0.8 : 1.0);
+                    double v = base * tint * scale + rnd.nextGaussian() * 2.0 * scale;
+                    int value = (int) Math.max(0, Math.min(maxValue, v));
+                    if (bpp == 2 && rnd.nextInt(20000) == 0) value = maxValue;
+                    if (bpp == 1) {
+                        raw[offset++] = (byte) value;
+                    } else {
+                        raw[offset++] = (byte) (value >> 8);
+                        raw[offset++] = (byte) value;
+                    }
+                }
+            }
+        }
+        return new FrameData(w, h, nCh, bpp, raw, 0);
+    }
+
+    /**
+     * Builds a slide macro image: bright glass, pink tissue blobs, and a green
+     * annotation box of the given edge thickness around the tissue.
+     */
+    public static BufferedImage macroImage(int width, int height, int boxEdge) {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        SplittableRandom rnd = new SplittableRandom(SEED);
+        int bx0 = width / 4;
+        int by0 = height / 6;
+        int bx1 = width * 3 / 4;
+        int by1 = height * 5 / 6;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int rgb;
+                boolean onBox = x >= bx0 && x < bx1 && y >= by0 && y < by1
+                        && (x < bx0 + boxEdge || x >= bx1 - boxEdge || y < by0 + boxEdge || y >= by1 - boxEdge);
+                if (onBox) {
+                    rgb = rgb(40 + rnd.nextInt(20), 170 + rnd.nextInt(40), 50 + rnd.nextInt(20));
+                } else if (isTissue(x, y, width, height)) {
+                    rgb = rgb(200 + rnd.nextInt(30), 110 + rnd.nextInt(40), 170 + rnd.nextInt(30));
+                } else {
+                    int glass = 225 + rnd.nextInt(25);
+                    rgb = rgb(glass, glass, glass);
+                }
+                img.setRGB(x, y, rgb);
+            }
+        }
+        return img;
+    }
+
+    /**
+     * Builds a brightfield tile of mixed tissue and background, as scored when
+     * picking autofocus positions.
+     */
+    public static BufferedImage tissueTile(int width, int height) {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        SplittableRandom rnd = new SplittableRandom(SEED);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int base = (int) intensity(x, y, width, height);
+                int r = clamp8(base + 20 + rnd.nextInt(10));
+                int g = clamp8(base - 30 + rnd.nextInt(10));
+                int b = clamp8(base + 5 + rnd.nextInt(10));
+                img.setRGB(x, y, rgb(r, g, b));
+            }
+        }
+        return img;
+    }
+
+    /**
+     * Builds a binary (0/1) tissue mask with salt-and-pepper speckle, as fed to
+     * the macro-image median and morphology filters.
+     *
+     * @param noiseFraction Fraction of pixels flipped at random
+     */
+    public static int[] binaryMask(int width, int height, double noiseFraction) {
+        int[] mask = new int[width * height];
+        SplittableRandom rnd = new SplittableRandom(SEED);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int v = isTissue(x, y, width, height) ? 1 : 0;
+                if (rnd.nextDouble() < noiseFraction) v ^= 1;
+                mask[y * width + x] = v;
+            }
+        }
+        return mask;
+    }
+
+    /** Brightness 0-255: vignetted glass with darker tissue blobs and texture. */
+    private static double intensity(int x, int y, int w, int h) {
+        double nx = (double) x / w - 0.5;
+        double ny = (double) y / h - 0.5;
+        double vignette = 1.0 - 0.35 * (nx * nx + ny * ny);
+        double glass = 230.0 * vignette;
+        if (!isTissue(x, y, w, h)) return glass;
+        // Cell-scale texture so gradients are non-trivial
+        double texture = 25.0 * Math.sin(x * 0.21) * Math.cos(y * 0.17) + 15.0 * Math.sin((x + y) * 0.05);
+        return glass * 0.55 + texture;
+    }
+
+    /** Three overlapping elliptical blobs covering roughly 40% of the image. */
+    private static boolean isTissue(int x, int y, int w, int h) {
+        return inEllipse(x, y, w * 0.35, h * 0.45, w * 0.22, h * 0.30)
+                || inEllipse(x, y, w * 0.62, h * 0.55, w * 0.18, h * 0.25)
+                || inEllipse(x, y, w * 0.48, h * 0.30, w * 0.12, h * 0.15);
+    }
+
+    private static boolean inEllipse(int x, int y, double cx, double cy, double rx, double ry) {
+        double dx = (x - cx) / rx;
+        double dy = (y - cy) / ry;
+        return dx * dx + dy * dy <= 1.0;
+    }
+
+    private static int clamp8(int v) {
+        return Math.max(0, Math.min(255, v));
+    }
+
+    private static int rgb(int r, int g, int b) {
+        return (r << 16) | (g << 8) | b;
+    }
+}
@@ -0,0 +1,58 @@
+package qupath.ext.qpsc.controller.workflow;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import qupath.ext.qpsc.benchmark.SyntheticImages;
+
+/**
+ * Tissue-content scoring of candidate autofocus tiles: one overview of
+ * {@code overviewSize} px split into a 16 x 16 grid of tiles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TissueScoreBenchmark {
+
+    private static final int GRID = 16;
+
+    /** Edge of the downsampled overview covering every tile. */
+    @Param({"256", "1024", "2048"})
+    public int overviewSize;
+
+    private BufferedImage overview;
+    private int[] rects;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        overview = SyntheticImages.tissueTile(overviewSize, overviewSize);
+        // Tiles in full-resolution pixels, as if the overview were read at downsample 4
+        int tile = overviewSize * 4 / GRID;
+        rects = new int[GRID * GRID * 4];
+        for (int i = 0; i < GRID * GRID; i++) {
+            rects[4 * i] = (i % GRID) * tile;
+            rects[4 * i + 1] = (i / GRID) * tile;
+            rects[4 * i + 2] = tile;
+            rects[4 * i + 3] = tile;
+        }
+    }
+
+    @Benchmark
+    public double[] tissueFractions() {
+        return TissueFractionMap.fractions(overview, overviewSize * 4, overviewSize * 4, rects, 230, 20);
+    }
+}
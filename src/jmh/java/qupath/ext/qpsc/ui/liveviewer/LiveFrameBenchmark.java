@@ -0,0 +1,109 @@
+package qupath.ext.qpsc.ui.liveviewer;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import qupath.ext.qpsc.benchmark.SyntheticImages;
+import qupath.ext.qpsc.benchmark.SyntheticImages.CameraFormat;
+
+/**
+ * Per-frame Live Viewer work: display rendering and the fused statistics pass
+ * (histogram, noise stats and focus trace).
+ *
+ * <p>{@code parallelism} 1 measures the single-threaded kernels; higher values
+ * measure the row-striped path the viewer uses on multi-core machines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LiveFrameBenchmark {
+
+    @Param({"MONO8_2048X2048", "MONO16_2048X2048", "MONO16_5472X3648", "RGB8_2448X2048", "RGB16_2448X2048"})
+    public CameraFormat format;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    /** Viewport the frame is fitted into, as on a typical 1080p monitor. */
+    @Param({"1280x960"})
+    public String viewport;
+
+    private FrameData frame;
+    private RowStripes stripes;
+    private FrameRenderer renderer;
+    private ContrastLut lut;
+    private int dstW;
+    private int dstH;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        frame = SyntheticImages.frame(format);
+        stripes = new RowStripes("Benchmark-Worker", parallelism);
+        renderer = new FrameRenderer(stripes);
+        int maxValue = frame.maxValue();
+        lut = ContrastLut.of(frame.bytesPerPixel(), maxValue / 20, maxValue * 3 / 4, 1.0);
+        String[] parts = viewport.split("x");
+        int[] size = FrameRenderer.displaySize(
+                frame.width(),
+                frame.height(),
+                true,
+                1.0,
+                Double.parseDouble(parts[0]),
+                Double.parseDouble(parts[1]));
+        dstW = size[0];
+        dstH = size[1];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stripes.close();
+    }
+
+    /** Render to display resolution; the buffer is recycled as the FX thread does. */
+    @Benchmark
+    public FrameRenderer.Rendered renderFitToViewport() {
+        FrameRenderer.Rendered out = renderer.render(frame, dstW, dstH, lut);
+        renderer.recycle(out.argb());
+        return out;
+    }
+
+    /** Render at 1:1, the worst case when the user picks 100% zoom. */
+    @Benchmark
+    public FrameRenderer.Rendered renderFullResolution() {
+        FrameRenderer.Rendered out = renderer.render(frame, frame.width(), frame.height(), lut);
+        renderer.recycle(out.argb());
+        return out;
+    }
+
+    /** Full statistics pass run when the histogram or noise panel is due. */
+    @Benchmark
+    public FrameStats fullStats() {
+        return FrameStats.compute(frame, stripes);
+    }
+
+    /** Focus-only pass run on the frames in between. */
+    @Benchmark
+    public FrameStats focusOnly() {
+        return FrameStats.focusOnly(frame);
+    }
+
+    /** Building a contrast table, paid whenever the display range changes. */
+    @Benchmark
+    public ContrastLut buildContrastLut() {
+        return ContrastLut.of(frame.bytesPerPixel(), 100, frame.maxValue() - 100, 0.8);
+    }
+}
@@ -0,0 +1,65 @@
+package qupath.ext.qpsc.utilities;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import qupath.ext.qpsc.benchmark.SyntheticImages;
+import qupath.ext.qpsc.benchmark.SyntheticImages.CameraFormat;
+import qupath.ext.qpsc.ui.liveviewer.FrameData;
+
+/**
+ * Client-side focus metrics on full camera frames and on the centre crop the
+ * Live Viewer focus trace uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FocusMetricBenchmark {
+
+    @Param({"MONO8_2048X2048", "MONO16_2048X2048", "RGB8_2448X2048"})
+    public CameraFormat format;
+
+    @Param({"brenner_gradient", "tenengrad", "laplacian_variance", "normalized_variance", "vollath_f5"})
+    public String metricName;
+
+    private FrameData frame;
+    private FocusMetric metric;
+    private FocusMetric.Region centre;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        frame = SyntheticImages.frame(format);
+        metric = FocusMetricCalculator.metric(metricName)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown focus metric: " + metricName));
+        centre = FocusMetric.Region.centreCrop(frame, 0.5);
+    }
+
+    @Benchmark
+    public double fullFrame() {
+        return metric.evaluate(frame);
+    }
+
+    @Benchmark
+    public double centreCrop() {
+        return metric.evaluate(frame, centre);
+    }
+
+    /** The row-sampled Brenner used when no streaming metric is configured. */
+    @Benchmark
+    public double sampledBrenner() {
+        return FocusMetricCalculator.brennerGradient(frame);
+    }
+}
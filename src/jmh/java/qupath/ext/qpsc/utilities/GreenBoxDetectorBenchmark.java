@@ -0,0 +1,48 @@
+package qupath.ext.qpsc.utilities;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import qupath.ext.qpsc.benchmark.SyntheticImages;
+
+/**
+ * Green annotation-box colour classification on synthetic macro images.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GreenBoxDetectorBenchmark {
+
+    @Param({"1024x384", "2048x768"})
+    public String size;
+
+    private BufferedImage macro;
+    private GreenBoxDetector.DetectionParams params;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] parts = size.split("x");
+        macro = SyntheticImages.macroImage(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), 3);
+        // Explicit defaults: the no-arg constructor reads QuPath preferences
+        params = new GreenBoxDetector.DetectionParams(0.4, 0.3, 0.3, 0.9, 0.25, 0.42, 3, 20, 20);
+    }
+
+    @Benchmark
+    public BinaryMask createGreenMask() {
+        return GreenBoxDetector.createGreenMask(macro, params);
+    }
+}
@@ -0,0 +1,75 @@
+package qupath.ext.qpsc.utilities;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import qupath.ext.qpsc.benchmark.SyntheticImages;
+
+/**
+ * Binary median and morphology filters and connected-component labelling
+ * from the macro-image tissue pipeline, on masks the size of typical
+ * slide-scanner macro images.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MacroFilterBenchmark {
+
+    @Param({"1024x384", "2048x768"})
+    public String size;
+
+    @Param({"3", "7", "15", "31"})
+    public int kernelSize;
+
+    private BinaryMask mask;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] parts = size.split("x");
+        int width = Integer.parseInt(parts[0]);
+        int height = Integer.parseInt(parts[1]);
+        int[] values = SyntheticImages.binaryMask(width, height, 0.02);
+        mask = new BinaryMask(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (values[y * width + x] == 1) {
+                    mask.set(x, y);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public BinaryMask median() {
+        return BinaryMasks.median(mask, kernelSize);
+    }
+
+    @Benchmark
+    public BinaryMask dilate() {
+        return BinaryMasks.dilate(mask, kernelSize);
+    }
+
+    @Benchmark
+    public BinaryMask erode() {
+        return BinaryMasks.erode(mask, kernelSize);
+    }
+
+    @Benchmark
+    public List<BinaryMasks.Region> connectedComponents() {
+        return BinaryMasks.connectedComponents(mask);
+    }
+}
@@ -183,6 +183,7 @@ public class QPScopeChecks {
                     controller.getSocketClient().getFrame();
             liveW = frame.width();
             liveH = frame.height();
+            frame.release();
         } catch (Exception e) {
             logger.warn("Could not query live frame dims for ROI validation: {}", e.getMessage());
             return true;
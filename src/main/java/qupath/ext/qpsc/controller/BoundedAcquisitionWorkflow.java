@@ -13,6 +13,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import qupath.ext.qpsc.QPScopeChecks;
 import qupath.ext.qpsc.controller.workflow.StitchingHelper;
+import qupath.ext.qpsc.controller.workflow.StitchingScheduler;
 import qupath.ext.qpsc.controller.workflow.TileCleanupHelper;
 import qupath.ext.qpsc.modality.ModalityHandler;
 import qupath.ext.qpsc.modality.ModalityRegistry;
@@ -55,16 +56,6 @@ public class BoundedAcquisitionWorkflow {
 
     private static final Logger logger = LoggerFactory.getLogger(BoundedAcquisitionWorkflow.class);
 
-    /**
-     * Executor for running stitching jobs.
-     * Daemon threads so they won't block JVM shutdown.
-     */
-    private static final ExecutorService STITCH_EXECUTOR = Executors.newCachedThreadPool(r -> {
-        Thread t = new Thread(r, "bounded-stitching-worker");
-        t.setDaemon(true);
-        return t;
-    });
-
     /**
      * Entry point for the "boundedAcquisition" menu command.
      * Shows the unified dialog, then handles acquisition and stitching.
@@ -562,7 +553,14 @@ public class BoundedAcquisitionWorkflow {
                                                     finalWSI_pixelSize_um,
                                                     qupathGUI,
                                                     project,
-                                                    STITCH_EXECUTOR,
+                                                    // A bounded scan creates a new image rather than
+                                                    // stitching for an open slide, so no viewer priority
+                                                    StitchingScheduler.getInstance()
+                                                            .executorFor(
+                                                                    actualSampleName + "/" + boundsMode,
+                                                                    StitchingScheduler.estimateTileBytes(
+                                                                            tempTilePath.resolve(boundsMode)),
+                                                                    () -> false),
                                                     modalityHandler,
                                                     actualSampleName, // Use derived sample name for correct path
                                                     actualProjectsFolder, // Use derived projectsFolder for correct path
@@ -3,13 +3,17 @@ package qupath.ext.qpsc.controller;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import qupath.ext.qpsc.preferences.QPPreferenceDialog;
 import qupath.ext.qpsc.ui.PropagationGroupItem;
 import qupath.ext.qpsc.ui.PropagationManagerDialog;
 import qupath.ext.qpsc.utilities.AffineTransformManager;
+import qupath.ext.qpsc.utilities.BatchTransforms;
 import qupath.ext.qpsc.utilities.ImageMetadataManager;
 import qupath.ext.qpsc.utilities.MicroscopeConfigManager;
 import qupath.lib.common.GeneralTools;
@@ -37,6 +41,15 @@ public class ForwardPropagationWorkflow {
 
     private static final Logger logger = LoggerFactory.getLogger(ForwardPropagationWorkflow.class);
 
+    /** Per-object back-propagation diagnostics are listed for at most this many source objects. */
+    private static final int MAX_LOGGED_SOURCE_OBJECTS = 20;
+
+    /** transformAndClip splits object lists at least this long into parallel chunks. */
+    private static final int PARALLEL_CLIP_MIN_OBJECTS = 2048;
+
+    /** Objects per parallel transformAndClip chunk. */
+    private static final int CLIP_CHUNK = 512;
+
     /** Direction of propagation. */
     public enum Direction {
         FORWARD,
@@ -393,6 +406,47 @@ public class ForwardPropagationWorkflow {
             ProjectImageEntry<BufferedImage> subEntry,
             boolean excludePartial)
             throws Exception {
+        return propagateForwardReplacing(
+                        baseToStage,
+                        alignFlipX,
+                        alignFlipY,
+                        baseWidth,
+                        baseHeight,
+                        sourceObjects,
+                        subEntry,
+                        excludePartial,
+                        null)
+                .propagated();
+    }
+
+    /**
+     * Objects written to one sub-image by forward propagation.
+     *
+     * @param propagated the new objects, in sub-image pixels
+     * @param removed    existing objects removed first because they matched the replace filter
+     */
+    public record ForwardResult(List<PathObject> propagated, int removed) {}
+
+    /**
+     * Like {@link #propagateForwardAndCapture(AffineTransform, boolean, boolean, int, int, List,
+     * ProjectImageEntry, boolean)}, but first removes existing objects on the sub that match
+     * {@code replace}. The removal and the new objects go into one read and one save of the
+     * sub's hierarchy instead of two. Safe to call for several subs at once: it only reads
+     * {@code sourceObjects} and only writes {@code subEntry}.
+     *
+     * @param replace objects to remove before propagating, or null to keep everything
+     */
+    public static ForwardResult propagateForwardReplacing(
+            AffineTransform baseToStage,
+            boolean alignFlipX,
+            boolean alignFlipY,
+            int baseWidth,
+            int baseHeight,
+            List<PathObject> sourceObjects,
+            ProjectImageEntry<BufferedImage> subEntry,
+            boolean excludePartial,
+            Predicate<PathObject> replace)
+            throws Exception {
         ImageData<BufferedImage> subData = subEntry.readImageData();
         PathObjectHierarchy subHierarchy = subData.getHierarchy();
         double subPixelSize = subData.getServer().getPixelCalibration().getAveragedPixelSizeMicrons();
@@ -424,11 +478,24 @@ public class ForwardPropagationWorkflow {
             combined.concatenate(alignFlip);
         }
         List<PathObject> propagated = transformAndClip(sourceObjects, combined, subWidth, subHeight, excludePartial);
+        int removed = 0;
+        if (replace != null) {
+            List<PathObject> stale = new ArrayList<>();
+            for (PathObject obj : subHierarchy.getAllObjects(false)) {
+                if (!obj.isRootObject() && replace.test(obj)) stale.add(obj);
+            }
+            if (!stale.isEmpty()) {
+                subHierarchy.removeObjects(stale, true);
+                removed = stale.size();
+            }
+        }
         if (!propagated.isEmpty()) {
             subHierarchy.addObjects(propagated);
+        }
+        if (removed > 0 || !propagated.isEmpty()) {
             subEntry.saveImageData(subData);
         }
-        return propagated;
+        return new ForwardResult(propagated, removed);
     }
 
     /**
@@ -455,8 +522,36 @@ public class ForwardPropagationWorkflow {
             ProjectImageEntry<BufferedImage> subEntry,
             ImageData<BufferedImage> baseData)
             throws Exception {
+        List<PathObject> propagated = backPropagated(
+                baseToStage,
+                alignFlipX,
+                alignFlipY,
+                sourceObjects,
+                subEntry,
+                baseData.getServer().getWidth(),
+                baseData.getServer().getHeight(),
+                baseData.getServer().getMetadata().getName());
+        if (!propagated.isEmpty()) {
+            baseData.getHierarchy().addObjects(propagated);
+        }
+        return propagated.size();
+    }
 
-        PathObjectHierarchy baseHierarchy = baseData.getHierarchy();
+    /**
+     * The transform-and-clip part of {@link #propagateBack}: returns the objects
+     * in unflipped-base pixels without touching the base hierarchy, so several
+     * subs can be computed at once and written in one batch.
+     */
+    private static List<PathObject> backPropagated(
+            AffineTransform baseToStage,
+            boolean alignFlipX,
+            boolean alignFlipY,
+            List<PathObject> sourceObjects,
+            ProjectImageEntry<BufferedImage> subEntry,
+            int baseWidth,
+            int baseHeight,
+            String baseLabel)
+            throws Exception {
 
         ImageData<BufferedImage> subData = subEntry.readImageData();
         int subWidth = subData.getServer().getWidth();
@@ -466,9 +561,6 @@ public class ForwardPropagationWorkflow {
             throw new IllegalStateException("Sub-image has no valid pixel size");
         }
 
-        int baseWidth = baseData.getServer().getWidth();
-        int baseHeight = baseData.getServer().getHeight();
-
         // Ground-truth path: if the sub has a recorded source rectangle on the
         // unflipped base, use it directly. The annotation's relative position
         // within the sub maps to the same relative position within the base
@@ -497,7 +589,7 @@ public class ForwardPropagationWorkflow {
                     subHeight,
                     subPixelSize,
                     ImageMetadataManager.getOriginalImageId(subEntry),
-                    baseData.getServer().getMetadata().getName(),
+                    baseLabel,
                     baseWidth,
                     baseHeight);
             // Build sub_px -> base_px linear map. Flip flags reverse the
@@ -506,9 +598,11 @@ public class ForwardPropagationWorkflow {
             AffineTransform combined = new AffineTransform();
             combined.translate(roiFlipX ? rx + rw : rx, roiFlipY ? ry + rh : ry);
             combined.scale((roiFlipX ? -1.0 : 1.0) * rw / subWidth, (roiFlipY ? -1.0 : 1.0) * rh / subHeight);
+            int logged = 0;
             for (PathObject obj : sourceObjects) {
                 ROI src = obj.getROI();
                 if (src == null) continue;
+                if (logged++ >= MAX_LOGGED_SOURCE_OBJECTS) break;
                 double sx = src.getBoundsX(), sy = src.getBoundsY();
                 double sw = src.getBoundsWidth(), sh = src.getBoundsHeight();
                 double[] in = new double[] {sx, sy, sx + sw, sy + sh};
@@ -539,6 +633,9 @@ public class ForwardPropagationWorkflow {
                         fmt(tw),
                         fmt(th));
             }
+            if (sourceObjects.size() > MAX_LOGGED_SOURCE_OBJECTS) {
+                logger.info("  ... source objects after the first {} not listed [GT]", MAX_LOGGED_SOURCE_OBJECTS);
+            }
             List<PathObject> propagated = transformAndClip(sourceObjects, combined, baseWidth, baseHeight);
             logger.info(
                     "BackProp(GT): {} of {} object(s) survived clip onto base ({}x{})",
@@ -546,8 +643,7 @@ public class ForwardPropagationWorkflow {
                     sourceObjects.size(),
                     baseWidth,
                     baseHeight);
-            if (!propagated.isEmpty()) baseHierarchy.addObjects(propagated);
-            return propagated.size();
+            return propagated;
         }
 
         double[] xyOffset = ImageMetadataManager.getXYOffset(subEntry);
@@ -649,35 +745,49 @@ public class ForwardPropagationWorkflow {
         }
 
         // Per-source-object transform diagnostics (caller-side; transformAndClip itself is shared
-        // with forward-prop and stays quiet).
-        for (PathObject obj : sourceObjects) {
-            ROI src = obj.getROI();
-            if (src == null) continue;
-            double sx = src.getBoundsX();
-            double sy = src.getBoundsY();
-            double sw = src.getBoundsWidth();
-            double sh = src.getBoundsHeight();
-            double[] in = new double[] {sx, sy, sx + sw, sy + sh};
-            double[] out = new double[4];
-            combined.transform(in, 0, out, 0, 2);
-            double tx = Math.min(out[0], out[2]);
-            double ty = Math.min(out[1], out[3]);
-            double tw = Math.abs(out[2] - out[0]);
-            double th = Math.abs(out[3] - out[1]);
-            boolean intersects = (tx + tw) >= 0 && tx <= baseWidth && (ty + th) >= 0 && ty <= baseHeight;
+        // with forward-prop and stays quiet). Capped, since back-propagating detections can mean
+        // tens of thousands of objects.
+        double[] boxes = new double[sourceObjects.size() * 4];
+        for (int i = 0; i < sourceObjects.size(); i++) {
+            ROI src = sourceObjects.get(i).getROI();
+            if (src == null) {
+                Arrays.fill(boxes, i * 4, i * 4 + 4, Double.NaN);
+                continue;
+            }
+            boxes[i * 4] = src.getBoundsX();
+            boxes[i * 4 + 1] = src.getBoundsY();
+            boxes[i * 4 + 2] = src.getBoundsWidth();
+            boxes[i * 4 + 3] = src.getBoundsHeight();
+        }
+        double[] envelopes = BatchTransforms.envelopes(boxes, combined);
+        int logged = 0;
+        int noOverlap = 0;
+        for (int i = 0; i < sourceObjects.size(); i++) {
+            if (Double.isNaN(boxes[i * 4])) continue;
+            boolean intersects = BatchTransforms.place(envelopes, i, baseWidth, baseHeight)
+                    != BatchTransforms.Placement.OUTSIDE;
+            if (!intersects) noOverlap++;
+            if (logged++ >= MAX_LOGGED_SOURCE_OBJECTS) continue;
             logger.info(
                     "  source obj '{}' src px=({}, {}, {}x{}) -> base px=({}, {}, {}x{}) -- {}",
-                    obj.getDisplayedName(),
-                    fmt(sx),
-                    fmt(sy),
-                    fmt(sw),
-                    fmt(sh),
-                    fmt(tx),
-                    fmt(ty),
-                    fmt(tw),
-                    fmt(th),
+                    sourceObjects.get(i).getDisplayedName(),
+                    fmt(boxes[i * 4]),
+                    fmt(boxes[i * 4 + 1]),
+                    fmt(boxes[i * 4 + 2]),
+                    fmt(boxes[i * 4 + 3]),
+                    fmt(envelopes[i * 4]),
+                    fmt(envelopes[i * 4 + 1]),
+                    fmt(envelopes[i * 4 + 2] - envelopes[i * 4]),
+                    fmt(envelopes[i * 4 + 3] - envelopes[i * 4 + 1]),
                     intersects ? "intersects base" : "NO OVERLAP with base");
         }
+        if (logged > MAX_LOGGED_SOURCE_OBJECTS) {
+            logger.info(
+                    "  ... {} more source object(s) not listed; {} of {} in total have NO OVERLAP with base",
+                    logged - MAX_LOGGED_SOURCE_OBJECTS,
+                    noOverlap,
+                    logged);
+        }
 
         List<PathObject> propagated = transformAndClip(sourceObjects, combined, baseWidth, baseHeight);
         logger.info(
@@ -687,11 +797,7 @@ public class ForwardPropagationWorkflow {
                 baseWidth,
                 baseHeight);
 
-        if (!propagated.isEmpty()) {
-            baseHierarchy.addObjects(propagated);
-        }
-
-        return propagated.size();
+        return propagated;
     }
 
     private static String formatAffine(AffineTransform t) {
@@ -765,7 +871,9 @@ public class ForwardPropagationWorkflow {
      * since the project no longer carries flipped duplicates, there is nothing
      * to fan to. The {@link FanOutResult} return type is preserved as a thin
      * legacy wrapper around the single-target write so existing callers
-     * (PropagationManagerDialog) keep compiling unchanged.
+     * keep compiling unchanged. This is {@link #propagateBackGroup} for a
+     * group of one; callers with several subs per slide should use that
+     * directly so the base is written once.
      *
      * @param project the QuPath project (must contain the unflipped base entry)
      * @param baseName the base image name (without extension)
@@ -783,9 +891,254 @@ public class ForwardPropagationWorkflow {
             ProjectImageEntry<BufferedImage> subEntry,
             boolean allowAutoCreate)
             throws Exception {
+        // allowAutoCreate is preserved in the signature for back-compat but is no longer used.
+        if (allowAutoCreate) {
+            logger.debug("propagateBackFanOut: allowAutoCreate is now a no-op under Step B (no flipped siblings).");
+        }
+        Map<ProjectImageEntry<BufferedImage>, List<PathObject>> single = new LinkedHashMap<>();
+        single.put(subEntry, sourceObjects);
+        PropagationEngine.Outcome<FanOutResult> outcome;
+        try (PropagationEngine engine = new PropagationEngine(1, null)) {
+            outcome = propagateBackGroup(project, baseName, baseToStage, single, engine).get(subEntry);
+        }
+        if (!outcome.succeeded()) {
+            throw outcome.error();
+        }
+        return outcome.value();
+    }
 
-        List<String> perSiblingLog = new ArrayList<>();
+    /**
+     * Back-propagates the objects of several sub-acquisitions of one slide onto
+     * its unflipped base, reading and saving the base (and each "(Camera View)"
+     * companion) once for the whole group instead of once per sub.
+     *
+     * <p>Alignment routing, flip resolution and the ground-truth auto-stamp may
+     * write sub metadata and sync the project, so they run one sub at a time
+     * on the calling thread. The transform-and-clip for each sub then runs on
+     * {@code engine}, and the results are written in one batch. A sub that
+     * fails or is skipped by cancellation does not stop the others; its
+     * outcome carries the exception.
+     *
+     * @param project the QuPath project (must contain the unflipped base entry)
+     * @param baseName the base image name (without extension)
+     * @param baseToStage the per-slide alignment for the active microscope
+     * @param sourcesBySub sub-image-frame objects to back-propagate, per sub-acquisition
+     * @param engine runs the per-sub transforms and carries the cancellation token
+     * @return one outcome per sub, in the order of {@code sourcesBySub}
+     * @throws Exception if the base entry cannot be found or read, or the base cannot be saved
+     */
+    public static Map<ProjectImageEntry<BufferedImage>, PropagationEngine.Outcome<FanOutResult>> propagateBackGroup(
+            Project<BufferedImage> project,
+            String baseName,
+            AffineTransform baseToStage,
+            Map<ProjectImageEntry<BufferedImage>, List<PathObject>> sourcesBySub,
+            PropagationEngine engine)
+            throws Exception {
+        ProjectImageEntry<BufferedImage> base = resolveUnflippedBase(project, baseName);
+        ImageData<BufferedImage> baseData = base.readImageData();
+        int baseWidth = baseData.getServer().getWidth();
+        int baseHeight = baseData.getServer().getHeight();
+        String baseLabel = baseData.getServer().getMetadata().getName();
+
+        Map<ProjectImageEntry<BufferedImage>, PropagationEngine.Outcome<FanOutResult>> failed = new HashMap<>();
+        Map<ProjectImageEntry<BufferedImage>, BackPlan> plans = new LinkedHashMap<>();
+        for (ProjectImageEntry<BufferedImage> sub : sourcesBySub.keySet()) {
+            if (engine.isCancelled()) {
+                failed.put(sub, new PropagationEngine.Outcome<>(sub, null, new CancellationException("Cancelled")));
+                continue;
+            }
+            try {
+                plans.put(sub, resolveBackPlan(project, baseName, baseToStage, sub));
+            } catch (Exception e) {
+                failed.put(sub, new PropagationEngine.Outcome<>(sub, null, e));
+                continue;
+            }
+            // Auto-stamp ground-truth source rectangle from tile detections on
+            // the parent entry the sub was generated against. No-op if the sub
+            // already has a stamp, has no parent reference, or the parent has
+            // no matching tile detections. Once stamped, the GT path inside
+            // propagateBack picks it up and bypasses alignment / flip /
+            // half-FOV math entirely.
+            if (ImageMetadataManager.getSourceRoiPx(sub) == null) {
+                try {
+                    autoStampSourceRoiFromTiles(project, sub, base, baseData);
+                } catch (Exception e) {
+                    logger.warn("Auto-stamp from tile detections failed: {}", e.getMessage());
+                }
+            }
+        }
+
+        List<PropagationEngine.Outcome<List<PathObject>>> computed =
+                engine.forEachTarget(new ArrayList<>(plans.keySet()), sub -> {
+                    BackPlan plan = plans.get(sub);
+                    return backPropagated(
+                            plan.baseToStage(),
+                            plan.alignFlipX(),
+                            plan.alignFlipY(),
+                            sourcesBySub.get(sub),
+                            sub,
+                            baseWidth,
+                            baseHeight,
+                            baseLabel);
+                });
+
+        // One write for every sub's objects
+        Map<ProjectImageEntry<BufferedImage>, List<PathObject>> writtenBySub = new LinkedHashMap<>();
+        List<PathObject> allWritten = new ArrayList<>();
+        for (PropagationEngine.Outcome<List<PathObject>> o : computed) {
+            if (!o.succeeded()) {
+                failed.put(o.target(), new PropagationEngine.Outcome<>(o.target(), null, o.error()));
+            } else if (!o.value().isEmpty()) {
+                writtenBySub.put(o.target(), o.value());
+                allWritten.addAll(o.value());
+            }
+        }
+        if (!allWritten.isEmpty()) {
+            baseData.getHierarchy().addObjects(allWritten);
+            base.saveImageData(baseData);
+        }
+
+        Map<ProjectImageEntry<BufferedImage>, List<String>> logs = new HashMap<>();
+        Map<ProjectImageEntry<BufferedImage>, Map<ProjectImageEntry<BufferedImage>, List<PathObject>>> byEntry =
+                new HashMap<>();
+        Map<ProjectImageEntry<BufferedImage>, int[]> counts = new HashMap<>(); // {totalWritten, siblingsUpdated}
+        for (ProjectImageEntry<BufferedImage> sub : plans.keySet()) {
+            if (failed.containsKey(sub)) continue;
+            BackPlan plan = plans.get(sub);
+            List<String> log = new ArrayList<>();
+            Map<ProjectImageEntry<BufferedImage>, List<PathObject>> entries = new LinkedHashMap<>();
+            List<PathObject> written = writtenBySub.get(sub);
+            if (written != null) {
+                entries.put(base, new ArrayList<>(written));
+                counts.put(sub, new int[] {written.size(), 1});
+                log.add(String.format(
+                        "  %s -> %s: %d objects (alignFlip=(%s, %s))",
+                        sub.getImageName(), base.getImageName(), written.size(), plan.alignFlipX(), plan.alignFlipY()));
+            } else {
+                counts.put(sub, new int[] {0, 0});
+                log.add(String.format("  %s -> %s: 0 objects (no overlap)", sub.getImageName(), base.getImageName()));
+            }
+            logs.put(sub, log);
+            byEntry.put(sub, entries);
+        }
+
+        // Fan-out to legacy flipped sibling entries (e.g. "(flipped X)",
+        // "(flipped Y)", "(flipped XY)") that may still exist in pre-Step-B
+        // projects. Step B prefers a single unflipped base entry, but until
+        // every project is migrated the duplicates remain and the user
+        // expects the back-propagated annotation to appear on them too.
+        // Each duplicate is the same image content with axis flips, so the
+        // transform is a simple per-axis mirror around base width/height.
+        // Each sibling is read and saved once for the whole group.
+        if (!allWritten.isEmpty()) {
+            for (ProjectImageEntry<BufferedImage> sibling : project.getImageList()) {
+                if (sibling == base) continue;
+                String name = sibling.getImageName();
+                if (name == null) continue;
+                String stripped = GeneralTools.stripExtension(name);
+                String rawBase = ImageMetadataManager.getBaseImage(sibling);
+                String effectiveBase = (rawBase != null && !rawBase.isEmpty()) ? rawBase : stripped;
+                if (!baseName.equals(effectiveBase)) continue;
+                if (!ImageMetadataManager.isCameraView(sibling)) continue; // only fan to the corrected companion
+
+                boolean[] sibParity = ImageMetadataManager.bakedParity(sibling);
+                boolean flipX = sibParity[0];
+                boolean flipY = sibParity[1];
+                if (!flipX && !flipY) continue;
 
+                AffineTransform mirror = createFlip(flipX, flipY, baseWidth, baseHeight);
+                try {
+                    ImageData<BufferedImage> sibData = sibling.readImageData();
+                    Map<ProjectImageEntry<BufferedImage>, List<PathObject>> mirroredBySub = new LinkedHashMap<>();
+                    List<PathObject> allMirrored = new ArrayList<>();
+                    for (Map.Entry<ProjectImageEntry<BufferedImage>, List<PathObject>> e : writtenBySub.entrySet()) {
+                        List<PathObject> mirrored = new ArrayList<>(e.getValue().size());
+                        for (PathObject obj : e.getValue()) {
+                            try {
+                                PathObject m = PathObjectTools.transformObject(obj, mirror, true, true);
+                                if (m != null && m.getROI() != null && !m.getROI().isEmpty()) mirrored.add(m);
+                            } catch (Exception trEx) {
+                                logger.debug("Sibling fan-out: could not mirror object: {}", trEx.getMessage());
+                            }
+                        }
+                        mirroredBySub.put(e.getKey(), mirrored);
+                        allMirrored.addAll(mirrored);
+                    }
+                    if (!allMirrored.isEmpty()) {
+                        sibData.getHierarchy().addObjects(allMirrored);
+                        sibling.saveImageData(sibData);
+                    }
+                    for (Map.Entry<ProjectImageEntry<BufferedImage>, List<PathObject>> e : mirroredBySub.entrySet()) {
+                        ProjectImageEntry<BufferedImage> sub = e.getKey();
+                        List<PathObject> mirrored = e.getValue();
+                        if (!mirrored.isEmpty()) {
+                            byEntry.get(sub).put(sibling, new ArrayList<>(mirrored));
+                            counts.get(sub)[0] += mirrored.size();
+                            counts.get(sub)[1]++;
+                            logs.get(sub)
+                                    .add(String.format(
+                                            "  %s -> %s: %d objects (mirror=(%s, %s))",
+                                            sub.getImageName(), name, mirrored.size(), flipX, flipY));
+                        } else {
+                            logs.get(sub)
+                                    .add(String.format(
+                                            "  %s -> %s: 0 objects (mirror produced empty ROIs)",
+                                            sub.getImageName(),
+                                            name));
+                        }
+                    }
+                } catch (Exception sibEx) {
+                    for (ProjectImageEntry<BufferedImage> sub : writtenBySub.keySet()) {
+                        logs.get(sub)
+                                .add(String.format(
+                                        "  %s -> %s: FAILED (%s)", sub.getImageName(), name, sibEx.getMessage()));
+                    }
+                    logger.warn("Sibling fan-out to '{}' failed: {}", name, sibEx.getMessage());
+                }
+            }
+        }
+
+        try {
+            project.syncChanges();
+        } catch (Exception e) {
+            logger.debug("project.syncChanges after sibling fan-out: {}", e.getMessage());
+        }
+
+        Map<ProjectImageEntry<BufferedImage>, PropagationEngine.Outcome<FanOutResult>> results = new LinkedHashMap<>();
+        int groupTotal = 0;
+        for (ProjectImageEntry<BufferedImage> sub : sourcesBySub.keySet()) {
+            PropagationEngine.Outcome<FanOutResult> fail = failed.get(sub);
+            if (fail != null) {
+                results.put(sub, fail);
+                continue;
+            }
+            int[] c = counts.get(sub);
+            groupTotal += c[0];
+            FanOutResult result = new FanOutResult(c[0], c[1], 0, logs.get(sub), byEntry.get(sub));
+            results.put(sub, new PropagationEngine.Outcome<>(sub, result, null));
+        }
+        logger.info(
+                "Back-prop complete for '{}': {} sub(s), {} object(s) total, base saved {}",
+                baseName,
+                sourcesBySub.size(),
+                groupTotal,
+                allWritten.isEmpty() ? "0 times" : "once");
+        return results;
+    }
+
+    /** Alignment and alignment-frame flip to invert for one sub-acquisition. */
+    private record BackPlan(AffineTransform baseToStage, boolean alignFlipX, boolean alignFlipY) {}
+
+    /**
+     * Resolves the alignment and alignment-frame flip for back-propagating one
+     * sub, routing to the sub's source-scope alignment when it was acquired on
+     * a different microscope than the active one.
+     */
+    private static BackPlan resolveBackPlan(
+            Project<BufferedImage> project,
+            String baseName,
+            AffineTransform baseToStage,
+            ProjectImageEntry<BufferedImage> subEntry) {
         // Cross-scope diagnostic: the sub may have been acquired on a different microscope
         // than the one currently active. The alignment file is scope-locked to the active
         // microscope, so an offset stored in another scope's stage frame will not invert
@@ -883,7 +1236,12 @@ public class ForwardPropagationWorkflow {
                 logger.warn("BackProp: could not resolve fallback flip from preset: {}", e.getMessage());
             }
         }
+        return new BackPlan(baseToStage, alignFlipX, alignFlipY);
+    }
 
+    /** The unflipped base entry for {@code baseName}; throws if the project has none. */
+    private static ProjectImageEntry<BufferedImage> resolveUnflippedBase(
+            Project<BufferedImage> project, String baseName) {
         // Find the unflipped base entry. The project must contain it -- with Step B
         // there are no flipped duplicates to auto-create as a substitute.
         ProjectImageEntry<BufferedImage> base = findUnflippedBase(project, baseName);
@@ -904,123 +1262,7 @@ public class ForwardPropagationWorkflow {
         if (base == null) {
             throw new IllegalStateException("No unflipped base entry for '" + baseName + "' found in project.");
         }
-
-        ImageData<BufferedImage> baseData = base.readImageData();
-        PathObjectHierarchy baseHierarchy = baseData.getHierarchy();
-
-        // Auto-stamp ground-truth source rectangle from tile detections on
-        // the parent entry the sub was generated against. No-op if the sub
-        // already has a stamp, has no parent reference, or the parent has
-        // no matching tile detections. Once stamped, the GT path inside
-        // propagateBack picks it up and bypasses alignment / flip /
-        // half-FOV math entirely.
-        if (ImageMetadataManager.getSourceRoiPx(subEntry) == null) {
-            try {
-                autoStampSourceRoiFromTiles(project, subEntry, base, baseData);
-            } catch (Exception e) {
-                logger.warn("Auto-stamp from tile detections failed: {}", e.getMessage());
-            }
-        }
-
-        int beforeCount = baseHierarchy.getAllObjects(false).size();
-        int written = propagateBack(baseToStage, alignFlipX, alignFlipY, sourceObjects, subEntry, baseData);
-        int afterCount = baseHierarchy.getAllObjects(false).size();
-        int siblingsUpdated = 0;
-        int totalWritten = 0;
-        List<PathObject> writtenObjects = java.util.Collections.emptyList();
-        java.util.Map<ProjectImageEntry<BufferedImage>, List<PathObject>> writtenByEntry =
-                new java.util.LinkedHashMap<>();
-        if (afterCount > beforeCount) {
-            // Capture the freshly-added objects so we can fan them out to legacy
-            // flipped siblings without re-running the math.
-            List<PathObject> all = new ArrayList<>(baseHierarchy.getAllObjects(false));
-            writtenObjects = all.subList(beforeCount, all.size());
-            writtenObjects = new ArrayList<>(writtenObjects); // detach view
-            base.saveImageData(baseData);
-            writtenByEntry.put(base, new ArrayList<>(writtenObjects));
-            siblingsUpdated = 1;
-            totalWritten += written;
-            perSiblingLog.add(String.format(
-                    "  %s -> %s: %d objects (alignFlip=(%s, %s))",
-                    subEntry.getImageName(), base.getImageName(), written, alignFlipX, alignFlipY));
-        } else {
-            perSiblingLog.add(
-                    String.format("  %s -> %s: 0 objects (no overlap)", subEntry.getImageName(), base.getImageName()));
-        }
-
-        // Fan-out to legacy flipped sibling entries (e.g. "(flipped X)",
-        // "(flipped Y)", "(flipped XY)") that may still exist in pre-Step-B
-        // projects. Step B prefers a single unflipped base entry, but until
-        // every project is migrated the duplicates remain and the user
-        // expects the back-propagated annotation to appear on them too.
-        // Each duplicate is the same image content with axis flips, so the
-        // transform is a simple per-axis mirror around base width/height.
-        int baseWidth = baseData.getServer().getWidth();
-        int baseHeight = baseData.getServer().getHeight();
-        if (!writtenObjects.isEmpty()) {
-            for (ProjectImageEntry<BufferedImage> sibling : project.getImageList()) {
-                if (sibling == base) continue;
-                String name = sibling.getImageName();
-                if (name == null) continue;
-                String stripped = GeneralTools.stripExtension(name);
-                String rawBase = ImageMetadataManager.getBaseImage(sibling);
-                String effectiveBase = (rawBase != null && !rawBase.isEmpty()) ? rawBase : stripped;
-                if (!baseName.equals(effectiveBase)) continue;
-                if (!ImageMetadataManager.isCameraView(sibling)) continue; // only fan to the corrected companion
-
-                boolean[] sibParity = ImageMetadataManager.bakedParity(sibling);
-                boolean flipX = sibParity[0];
-                boolean flipY = sibParity[1];
-                if (!flipX && !flipY) continue;
-
-                AffineTransform mirror = createFlip(flipX, flipY, baseWidth, baseHeight);
-                try {
-                    ImageData<BufferedImage> sibData = sibling.readImageData();
-                    PathObjectHierarchy sibHierarchy = sibData.getHierarchy();
-                    int beforeSib = sibHierarchy.getAllObjects(false).size();
-                    List<PathObject> mirrored = new ArrayList<>(writtenObjects.size());
-                    for (PathObject obj : writtenObjects) {
-                        try {
-                            PathObject m = PathObjectTools.transformObject(obj, mirror, true, true);
-                            if (m != null && m.getROI() != null && !m.getROI().isEmpty()) mirrored.add(m);
-                        } catch (Exception trEx) {
-                            logger.debug("Sibling fan-out: could not mirror object: {}", trEx.getMessage());
-                        }
-                    }
-                    if (!mirrored.isEmpty()) {
-                        sibHierarchy.addObjects(mirrored);
-                        sibling.saveImageData(sibData);
-                        int added = sibHierarchy.getAllObjects(false).size() - beforeSib;
-                        writtenByEntry.put(sibling, new ArrayList<>(mirrored));
-                        siblingsUpdated++;
-                        totalWritten += added;
-                        perSiblingLog.add(String.format(
-                                "  %s -> %s: %d objects (mirror=(%s, %s))",
-                                subEntry.getImageName(), name, added, flipX, flipY));
-                    } else {
-                        perSiblingLog.add(String.format(
-                                "  %s -> %s: 0 objects (mirror produced empty ROIs)", subEntry.getImageName(), name));
-                    }
-                } catch (Exception sibEx) {
-                    perSiblingLog.add(String.format(
-                            "  %s -> %s: FAILED (%s)", subEntry.getImageName(), name, sibEx.getMessage()));
-                    logger.warn("Sibling fan-out to '{}' failed: {}", name, sibEx.getMessage());
-                }
-            }
-        }
-
-        try {
-            project.syncChanges();
-        } catch (Exception e) {
-            logger.debug("project.syncChanges after sibling fan-out: {}", e.getMessage());
-        }
-
-        // allowAutoCreate is preserved in the signature for back-compat but is no longer used.
-        if (allowAutoCreate) {
-            logger.debug("propagateBackFanOut: allowAutoCreate is now a no-op under Step B (no flipped siblings).");
-        }
-        logger.info("Back-prop complete: {} sibling(s) updated, {} object(s) total", siblingsUpdated, totalWritten);
-        return new FanOutResult(totalWritten, siblingsUpdated, 0, perSiblingLog, writtenByEntry);
+        return base;
     }
 
     /**
@@ -1219,6 +1461,10 @@ public class ForwardPropagationWorkflow {
      *   <li>If no overlap with the image: exclude</li>
      * </ul>
      *
+     * <p>Bounding boxes are placed against the image in one batch first
+     * ({@link BatchTransforms}), so objects that land outside are dropped
+     * without being copied and only objects crossing the edge reach JTS.
+     *
      * <p>Note: Clipping currently uses rectangular image bounds. Future enhancement:
      * clip to the actual tile coverage polygon from TileConfiguration.txt.
      */
@@ -1239,32 +1485,105 @@ public class ForwardPropagationWorkflow {
             List<PathObject> objects, AffineTransform transform, int imgWidth, int imgHeight, boolean excludePartial) {
         List<PathObject> result = new ArrayList<>();
 
-        // Image bounds as a JTS geometry for intersection
-        org.locationtech.jts.geom.GeometryFactory gf = new org.locationtech.jts.geom.GeometryFactory();
-        org.locationtech.jts.geom.Geometry imageBounds = gf.createPolygon(new org.locationtech.jts.geom.Coordinate[] {
-            new org.locationtech.jts.geom.Coordinate(0, 0),
-            new org.locationtech.jts.geom.Coordinate(imgWidth, 0),
-            new org.locationtech.jts.geom.Coordinate(imgWidth, imgHeight),
-            new org.locationtech.jts.geom.Coordinate(0, imgHeight),
-            new org.locationtech.jts.geom.Coordinate(0, 0)
-        });
+        // Place every object's transformed bounding box against the image in one
+        // bulk transform, so objects that land outside are never copied or clipped
+        double[] boxes = new double[objects.size() * 4];
+        for (int i = 0; i < objects.size(); i++) {
+            ROI src = objects.get(i).getROI();
+            if (src == null) {
+                Arrays.fill(boxes, i * 4, i * 4 + 4, Double.NaN);
+                continue;
+            }
+            boxes[i * 4] = src.getBoundsX();
+            boxes[i * 4 + 1] = src.getBoundsY();
+            boxes[i * 4 + 2] = src.getBoundsWidth();
+            boxes[i * 4 + 3] = src.getBoundsHeight();
+        }
+        double[] envelopes = BatchTransforms.envelopes(boxes, transform);
+
+        // Transform and clip in chunks, in parallel for large object lists. Source
+        // objects are only read, and each chunk builds its own JTS image bounds.
+        int chunkSize = objects.size() < PARALLEL_CLIP_MIN_OBJECTS ? Math.max(1, objects.size()) : CLIP_CHUNK;
+        int nChunks = (objects.size() + chunkSize - 1) / chunkSize;
+        IntStream chunkIndices = IntStream.range(0, nChunks);
+        if (nChunks > 1) {
+            chunkIndices = chunkIndices.parallel();
+        }
+        List<ClipChunk> chunks = chunkIndices
+                .mapToObj(c -> clipChunk(
+                        objects,
+                        transform,
+                        imgWidth,
+                        imgHeight,
+                        excludePartial,
+                        envelopes,
+                        c * chunkSize,
+                        Math.min(objects.size(), (c + 1) * chunkSize)))
+                .collect(Collectors.toList());
+        int outside = 0;
+        int clipped = 0;
+        for (ClipChunk chunk : chunks) {
+            result.addAll(chunk.kept);
+            outside += chunk.outside;
+            clipped += chunk.clipped;
+        }
+        logger.debug(
+                "transformAndClip: {} of {} object(s) kept ({} clipped), {} skipped by envelope as outside {}x{}",
+                result.size(),
+                objects.size(),
+                clipped,
+                outside,
+                imgWidth,
+                imgHeight);
+        return result;
+    }
+
+    /** Objects kept from one chunk of {@link #transformAndClip}, in source order. */
+    private static final class ClipChunk {
+        final List<PathObject> kept = new ArrayList<>();
+        int outside;
+        int clipped;
+    }
 
-        for (PathObject obj : objects) {
+    private static ClipChunk clipChunk(
+            List<PathObject> objects,
+            AffineTransform transform,
+            int imgWidth,
+            int imgHeight,
+            boolean excludePartial,
+            double[] envelopes,
+            int from,
+            int to) {
+        ClipChunk chunk = new ClipChunk();
+        // Image bounds as a JTS geometry for intersection, built only if something straddles the edge
+        org.locationtech.jts.geom.Geometry imageBounds = null;
+        for (int i = from; i < to; i++) {
+            PathObject obj = objects.get(i);
+            BatchTransforms.Placement placement = BatchTransforms.place(envelopes, i, imgWidth, imgHeight);
+            if (placement == BatchTransforms.Placement.OUTSIDE) {
+                chunk.outside++;
+                continue;
+            }
             try {
                 PathObject transformed = PathObjectTools.transformObject(obj, transform, true, true);
                 if (transformed == null || transformed.getROI() == null) continue;
 
+                if (placement == BatchTransforms.Placement.INSIDE) {
+                    chunk.kept.add(transformed);
+                    continue;
+                }
+
                 ROI roi = transformed.getROI();
                 double bx = roi.getBoundsX();
                 double by = roi.getBoundsY();
                 double bw = roi.getBoundsWidth();
                 double bh = roi.getBoundsHeight();
 
-                // Check if fully contained: all 4 corners within image
+                // The box envelope is conservative under rotation: check all 4 corners of the real bounds
                 boolean fullyContained = bx >= 0 && by >= 0 && (bx + bw) <= imgWidth && (by + bh) <= imgHeight;
 
                 if (fullyContained) {
-                    result.add(transformed);
+                    chunk.kept.add(transformed);
                     continue;
                 }
 
@@ -1278,14 +1597,17 @@ public class ForwardPropagationWorkflow {
 
                 // Check if there's any overlap with the image bounds
                 try {
+                    if (imageBounds == null) {
+                        imageBounds = createImageBounds(imgWidth, imgHeight);
+                    }
                     org.locationtech.jts.geom.Geometry roiGeom = roi.getGeometry();
                     if (roiGeom == null || !roiGeom.intersects(imageBounds)) continue;
 
                     // Clip the ROI to the image bounds
-                    org.locationtech.jts.geom.Geometry clipped = roiGeom.intersection(imageBounds);
-                    if (clipped.isEmpty()) continue;
+                    org.locationtech.jts.geom.Geometry clippedGeom = roiGeom.intersection(imageBounds);
+                    if (clippedGeom.isEmpty()) continue;
 
-                    ROI clippedRoi = qupath.lib.roi.GeometryTools.geometryToROI(clipped, roi.getImagePlane());
+                    ROI clippedRoi = qupath.lib.roi.GeometryTools.geometryToROI(clippedGeom, roi.getImagePlane());
                     if (clippedRoi == null || clippedRoi.isEmpty()) continue;
 
                     // Create a new object with the clipped ROI
@@ -1303,7 +1625,8 @@ public class ForwardPropagationWorkflow {
                     if (transformed.getName() != null) clippedObj.setName(transformed.getName());
                     if (transformed.isLocked()) clippedObj.setLocked(true);
 
-                    result.add(clippedObj);
+                    chunk.kept.add(clippedObj);
+                    chunk.clipped++;
                     logger.debug("Clipped oversized annotation '{}' to image bounds", obj.getDisplayedName());
                 } catch (Exception e) {
                     logger.debug("Could not clip annotation '{}': {}", obj.getDisplayedName(), e.getMessage());
@@ -1312,7 +1635,18 @@ public class ForwardPropagationWorkflow {
                 logger.debug("Could not transform object: {}", e.getMessage());
             }
         }
-        return result;
+        return chunk;
+    }
+
+    private static org.locationtech.jts.geom.Geometry createImageBounds(int imgWidth, int imgHeight) {
+        org.locationtech.jts.geom.GeometryFactory gf = new org.locationtech.jts.geom.GeometryFactory();
+        return gf.createPolygon(new org.locationtech.jts.geom.Coordinate[] {
+            new org.locationtech.jts.geom.Coordinate(0, 0),
+            new org.locationtech.jts.geom.Coordinate(imgWidth, 0),
+            new org.locationtech.jts.geom.Coordinate(imgWidth, imgHeight),
+            new org.locationtech.jts.geom.Coordinate(0, imgHeight),
+            new org.locationtech.jts.geom.Coordinate(0, 0)
+        });
     }
 
     /**
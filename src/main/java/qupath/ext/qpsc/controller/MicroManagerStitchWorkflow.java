@@ -26,6 +26,7 @@ import javafx.stage.DirectoryChooser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import qupath.ext.basicstitching.config.StitchingConfig;
+import qupath.ext.qpsc.controller.workflow.StitchingScheduler;
 import qupath.ext.qpsc.preferences.PersistentPreferences;
 import qupath.ext.qpsc.preferences.QPPreferenceDialog;
 import qupath.ext.qpsc.preferences.StitchingFormatPreference;
@@ -34,6 +35,7 @@ import qupath.ext.qpsc.service.notification.NotificationPriority;
 import qupath.ext.qpsc.service.notification.NotificationService;
 import qupath.ext.qpsc.utilities.ImageNameGenerator;
 import qupath.ext.qpsc.utilities.StageImageTransform;
+import qupath.ext.qpsc.utilities.StitchOrientationGate;
 import qupath.ext.qpsc.utilities.TileFolderInspector;
 import qupath.fx.dialogs.Dialogs;
 import qupath.lib.images.writers.ome.OMEPyramidWriter;
@@ -66,6 +68,14 @@ public class MicroManagerStitchWorkflow {
     // Kept working only because OWS3 still ran an older t2p where the old name matched.
     private static final String STRATEGY_NAME = "MicroManager metadata (MMStack or TIFF series)";
 
+    // Gate over MicroManagerMetadataStrategy's static flip flags, so two folder stitches with
+    // different axis inversions started back to back cannot overwrite each other's flags.
+    private static final StitchOrientationGate MMSTACK_ORIENTATION =
+            new StitchOrientationGate("MicroManager", (flipX, flipY) -> {
+                qupath.ext.basicstitching.stitching.MicroManagerMetadataStrategy.flipStitchingX = flipX;
+                qupath.ext.basicstitching.stitching.MicroManagerMetadataStrategy.flipStitchingY = flipY;
+            });
+
     /** Entry point - shows the dialog and runs the stitch. */
     public static void run() {
         logger.info("Starting MicroManager folder stitch workflow");
@@ -287,11 +297,21 @@ public class MicroManagerStitchWorkflow {
             PersistentPreferences.setMmStitchInvertX(invertX);
             PersistentPreferences.setMmStitchInvertY(invertY);
 
-            Thread t = new Thread(() -> executeStitch(
-                    inFolder, outFolder, baseName, pixelSize, compression, outputFormat, invertX, invertY));
-            t.setDaemon(true);
-            t.setName("MicroManagerStitch");
-            t.start();
+            // The user is waiting on this stitch, so it goes ahead of queued acquisition stitches
+            StitchingScheduler.getInstance()
+                    .submit(
+                            "MicroManager " + baseName,
+                            StitchingScheduler.estimateTileBytes(new File(inFolder).toPath()),
+                            () -> true,
+                            () -> executeStitch(
+                                    inFolder,
+                                    outFolder,
+                                    baseName,
+                                    pixelSize,
+                                    compression,
+                                    outputFormat,
+                                    invertX,
+                                    invertY));
         });
     }
 
@@ -399,15 +419,12 @@ public class MicroManagerStitchWorkflow {
         // MicroManagerMetadataStrategy -- the strategy this workflow actually uses -- NOT on
         // TileConfigurationTxtStrategy (an earlier version set the wrong class, and hardcoded false,
         // which is why an inverted-axis scope stitched mirrored with no way to correct it). The
-        // flags are process-global volatile statics, so reset them in a finally the way the
-        // acquisition stitch path does, or they leak into an unrelated later stitch.
-        boolean prevFlipX = qupath.ext.basicstitching.stitching.MicroManagerMetadataStrategy.flipStitchingX;
-        boolean prevFlipY = qupath.ext.basicstitching.stitching.MicroManagerMetadataStrategy.flipStitchingY;
+        // flags are process-global volatile statics, so they are set through MMSTACK_ORIENTATION,
+        // which also clears them afterwards so they cannot leak into an unrelated later stitch.
         try {
-            qupath.ext.basicstitching.stitching.MicroManagerMetadataStrategy.flipStitchingX = invertX;
-            qupath.ext.basicstitching.stitching.MicroManagerMetadataStrategy.flipStitchingY = invertY;
             logger.info("MicroManager stitch axis inversion: X={}, Y={}", invertX, invertY);
-            stitchedOutPath = qupath.ext.basicstitching.workflow.StitchingWorkflow.run(cfg);
+            stitchedOutPath = MMSTACK_ORIENTATION.run(
+                    invertX, invertY, () -> qupath.ext.basicstitching.workflow.StitchingWorkflow.run(cfg));
             if (stitchedOutPath == null) {
                 throw new IllegalStateException("Stitching produced no output");
             }
@@ -423,9 +440,6 @@ public class MicroManagerStitchWorkflow {
                             NotificationPriority.HIGH,
                             NotificationEvent.STITCHING_ERROR);
             return;
-        } finally {
-            qupath.ext.basicstitching.stitching.MicroManagerMetadataStrategy.flipStitchingX = prevFlipX;
-            qupath.ext.basicstitching.stitching.MicroManagerMetadataStrategy.flipStitchingY = prevFlipY;
         }
 
         // Rename "<baseName>_<sourceFolderName>.ext" to just "<baseName>.ext"
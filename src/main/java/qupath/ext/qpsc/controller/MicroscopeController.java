@@ -10,6 +10,7 @@ import javafx.beans.property.ReadOnlyObjectWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import qupath.ext.qpsc.model.StagePositionProvider;
+import qupath.ext.qpsc.model.StageState;
 import qupath.ext.qpsc.preferences.PersistentPreferences;
 import qupath.ext.qpsc.preferences.QPPreferenceDialog;
 import qupath.ext.qpsc.service.AcquisitionCommandBuilder;
@@ -308,6 +309,22 @@ public class MicroscopeController implements StagePositionProvider {
         }
     }
 
+    /**
+     * Queries every stage axis plus motion flags in a single command.
+     *
+     * @return the stage state, or null if the server does not support the batched query
+     * @throws IOException if communication fails
+     */
+    @Override
+    public StageState getStageState() throws IOException {
+        try {
+            return socketClient.getStageState();
+        } catch (IOException e) {
+            logger.debug("Failed to get stage state: {}", e.getMessage());
+            throw new IOException("Failed to get stage state via socket", e);
+        }
+    }
+
     // Remove the isWithinBoundsXY and isWithinBoundsZ methods entirely
     // Update the moveStageXY method:
 
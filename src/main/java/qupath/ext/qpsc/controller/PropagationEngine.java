@@ -0,0 +1,167 @@
+package qupath.ext.qpsc.controller;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import qupath.ext.qpsc.controller.workflow.CancellationToken;
+import qupath.lib.projects.ProjectImageEntry;
+
+/**
+ * Runs per-entry propagation work on a small bounded pool, with progress and
+ * cancellation.
+ *
+ * <p>Forward and back propagation used to visit every sub-acquisition in turn
+ * on one thread. Each visit read an {@code ImageData}, transformed the
+ * objects, and saved the hierarchy. With dozens of sub-acquisitions per slide,
+ * the reads and saves dominated. The engine runs one task per target entry on
+ * at most {@link #defaultThreads()} threads. Results come back in target
+ * order, so callers can report them exactly as the serial loop did.
+ *
+ * <p>The pool stays small because each task may hold a whole hierarchy in
+ * memory. Tasks never touch the project file itself: {@code syncChanges} and
+ * anything else shared across entries stays with the caller.
+ *
+ * <p>Cancellation is cooperative. Tasks that have not started when the token
+ * trips are skipped and reported with a {@link CancellationException}. Tasks
+ * already running are left to finish, so a hierarchy is never cut off halfway
+ * through a save.
+ */
+public final class PropagationEngine implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropagationEngine.class);
+
+    /** Upper bound on concurrent targets; each may hold a full hierarchy in memory. */
+    private static final int MAX_THREADS = 4;
+
+    /** Work to run for one target entry. */
+    @FunctionalInterface
+    public interface TargetTask<T> {
+        T run(ProjectImageEntry<BufferedImage> target) throws Exception;
+    }
+
+    /** Notified from a pool thread each time a task finishes, fails or is skipped. */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * @param finished Number of tasks finished so far by this engine, across all calls
+         */
+        void taskFinished(int finished);
+    }
+
+    /**
+     * Result of one target's task.
+     *
+     * @param target The target entry
+     * @param value  The task's result, or null if it failed or was skipped
+     * @param error  The failure, a {@link CancellationException} if skipped, or null on success
+     */
+    public record Outcome<T>(ProjectImageEntry<BufferedImage> target, T value, Exception error) {
+        /** True if the task ran and returned normally. */
+        public boolean succeeded() {
+            return error == null;
+        }
+
+        /** True if the task was skipped because the engine was cancelled. */
+        public boolean cancelled() {
+            return error instanceof CancellationException;
+        }
+    }
+
+    private final ExecutorService pool;
+    private final CancellationToken cancellation;
+    private final AtomicInteger finished = new AtomicInteger();
+    private volatile ProgressListener listener;
+
+    /**
+     * Creates an engine.
+     *
+     * @param threads      Number of worker threads (at least 1)
+     * @param cancellation Token checked before each task starts; null for a run that cannot be cancelled
+     */
+    public PropagationEngine(int threads, CancellationToken cancellation) {
+        int workers = Math.max(1, threads);
+        AtomicInteger count = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "propagation-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.cancellation = cancellation;
+    }
+
+    /** Half the available processors, between 1 and {@value #MAX_THREADS}. */
+    public static int defaultThreads() {
+        return Math.max(1, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /** Sets the listener notified as tasks finish; null to stop notifying. */
+    public void setProgressListener(ProgressListener listener) {
+        this.listener = listener;
+    }
+
+    /** True once the cancellation token has tripped. */
+    public boolean isCancelled() {
+        return cancellation != null && cancellation.isCancelled();
+    }
+
+    /**
+     * Runs {@code task} once per target and waits for all of them.
+     *
+     * <p>A failing task does not stop the others; its exception is returned in
+     * its {@link Outcome}.
+     *
+     * @param targets Target entries, each run once
+     * @param task    The work for one target
+     * @return One outcome per target, in the order of {@code targets}
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public <T> List<Outcome<T>> forEachTarget(List<ProjectImageEntry<BufferedImage>> targets, TargetTask<T> task)
+            throws InterruptedException {
+        List<Future<Outcome<T>>> futures = new ArrayList<>(targets.size());
+        for (ProjectImageEntry<BufferedImage> target : targets) {
+            futures.add(pool.submit(() -> runOne(target, task)));
+        }
+        List<Outcome<T>> outcomes = new ArrayList<>(targets.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                outcomes.add(futures.get(i).get());
+            } catch (ExecutionException e) {
+                // runOne catches Exception; only an Error gets here
+                throw new IllegalStateException("Propagation task failed", e.getCause());
+            }
+        }
+        return outcomes;
+    }
+
+    private <T> Outcome<T> runOne(ProjectImageEntry<BufferedImage> target, TargetTask<T> task) {
+        try {
+            if (isCancelled()) {
+                return new Outcome<>(target, null, new CancellationException("Propagation cancelled"));
+            }
+            return new Outcome<>(target, task.run(target), null);
+        } catch (Exception e) {
+            logger.debug("Propagation task for '{}' failed: {}", target.getImageName(), e.getMessage());
+            return new Outcome<>(target, null, e);
+        } finally {
+            int done = finished.incrementAndGet();
+            ProgressListener l = listener;
+            if (l != null) {
+                l.taskFinished(done);
+            }
+        }
+    }
+
+    /** Releases the pool threads once any outstanding tasks have finished. */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
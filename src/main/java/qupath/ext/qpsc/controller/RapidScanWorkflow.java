@@ -19,6 +19,7 @@ import qupath.ext.qpsc.ui.components.ObjectiveSelector;
 import qupath.ext.qpsc.utilities.MicroscopeConfigManager;
 import qupath.ext.qpsc.utilities.StageImageTransform;
 import qupath.ext.qpsc.utilities.StitchingConfiguration;
+import qupath.ext.qpsc.utilities.TileProcessingUtilities;
 import qupath.fx.dialogs.Dialogs;
 import qupath.lib.gui.QuPathGUI;
 
@@ -506,16 +507,10 @@ public class RapidScanWorkflow {
 
         StageImageTransform siTransform = StageImageTransform.current();
         boolean[] stitcherFlags = siTransform.stitcherFlipFlags();
-        qupath.ext.basicstitching.stitching.TileConfigurationTxtStrategy.flipStitchingX = stitcherFlags[0];
-        qupath.ext.basicstitching.stitching.TileConfigurationTxtStrategy.flipStitchingY = stitcherFlags[1];
         logger.info(
                 "Rapid scan stitching: flipX={}, flipY={} (from {})", stitcherFlags[0], stitcherFlags[1], siTransform);
-        try {
-            String outPath = StitchingWorkflow.run(config);
-            logger.info("Rapid scan stitched output: {}", outPath);
-        } finally {
-            qupath.ext.basicstitching.stitching.TileConfigurationTxtStrategy.flipStitchingX = false;
-            qupath.ext.basicstitching.stitching.TileConfigurationTxtStrategy.flipStitchingY = false;
-        }
+        String outPath = TileProcessingUtilities.TILE_CONFIG_ORIENTATION.run(
+                stitcherFlags[0], stitcherFlags[1], () -> StitchingWorkflow.run(config));
+        logger.info("Rapid scan stitched output: {}", outPath);
     }
 }
@@ -22,6 +22,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import qupath.ext.basicstitching.config.StitchingConfig;
 import qupath.ext.qpsc.controller.workflow.StitchingRegistration;
+import qupath.ext.qpsc.controller.workflow.StitchingScheduler;
 import qupath.ext.qpsc.modality.ModalityHandler;
 import qupath.ext.qpsc.modality.ModalityRegistry;
 import qupath.ext.qpsc.preferences.PersistentPreferences;
@@ -35,6 +36,7 @@ import qupath.ext.qpsc.utilities.ImageNameGenerator;
 import qupath.ext.qpsc.utilities.MicroscopeConfigManager;
 import qupath.ext.qpsc.utilities.QPProjectFunctions;
 import qupath.ext.qpsc.utilities.TileFolderInspector;
+import qupath.ext.qpsc.utilities.TileProcessingUtilities;
 import qupath.fx.dialogs.Dialogs;
 import qupath.lib.gui.QuPathGUI;
 import qupath.lib.images.writers.ome.OMEPyramidWriter;
@@ -273,15 +275,23 @@ public class StitchingRecoveryWorkflow {
                 StitchingConfig.OutputFormat outputFormat = formatCombo.getValue();
                 boolean parallel = parallelCheck.isSelected();
 
-                // Run stitching in background
+                // Run stitching in background, alongside any acquisition stitches.
+                // The user asked for this one and is waiting on it, so it goes first.
                 final String finalMatch = matchingString;
-                Thread stitchThread = new Thread(() -> {
-                    executeRecoveryStitching(
-                            tileFolder, pixelSize, compression, finalMatch, outputFormat, parallel, gui, project);
-                });
-                stitchThread.setDaemon(true);
-                stitchThread.setName("StitchingRecovery");
-                stitchThread.start();
+                StitchingScheduler.getInstance()
+                        .submit(
+                                "recovery " + new File(tileFolder).getName(),
+                                StitchingScheduler.estimateTileBytes(new File(tileFolder).toPath()),
+                                () -> true,
+                                () -> executeRecoveryStitching(
+                                        tileFolder,
+                                        pixelSize,
+                                        compression,
+                                        finalMatch,
+                                        outputFormat,
+                                        parallel,
+                                        gui,
+                                        project));
             }
         });
     }
@@ -533,6 +543,11 @@ public class StitchingRecoveryWorkflow {
         // featureless to the matcher.
         java.util.List<String> angleNames =
                 angleDirs.stream().map(java.io.File::getName).toList();
+        // Composite stage/camera transform; must match the acquisition path so
+        // re-stitching reproduces the original layout. Captured once so every
+        // angle of this recovery carries the same orientation.
+        final boolean[] stitcherFlags =
+                qupath.ext.qpsc.utilities.StageImageTransform.current().stitcherFlipFlags();
         java.util.List<String> stitchedPaths = StitchingRegistration.stitchTargets(
                 angleDirs,
                 tileFolderFile.toPath(),
@@ -579,24 +594,13 @@ public class StitchingRecoveryWorkflow {
                     // rest, so the angles stay co-registered.
                     StitchingRegistration.attachMode(config, registrationMode, ".");
 
-                    // Composite stage/camera transform; must match the acquisition path so
-                    // re-stitching reproduces the original layout.
-                    boolean[] stitcherFlags = qupath.ext.qpsc.utilities.StageImageTransform.current()
-                            .stitcherFlipFlags();
                     final String outputStem =
                             ImageNameGenerator.sanitizeForFilename(finalSampleName) + "_" + angleDir.getName();
 
-                    String stitchedOutPath;
-                    try {
-                        qupath.ext.basicstitching.stitching.TileConfigurationTxtStrategy.flipStitchingX =
-                                stitcherFlags[0];
-                        qupath.ext.basicstitching.stitching.TileConfigurationTxtStrategy.flipStitchingY =
-                                stitcherFlags[1];
-                        stitchedOutPath = qupath.ext.basicstitching.workflow.StitchingWorkflow.run(config);
-                    } finally {
-                        qupath.ext.basicstitching.stitching.TileConfigurationTxtStrategy.flipStitchingX = false;
-                        qupath.ext.basicstitching.stitching.TileConfigurationTxtStrategy.flipStitchingY = false;
-                    }
+                    String stitchedOutPath = TileProcessingUtilities.TILE_CONFIG_ORIENTATION.run(
+                            stitcherFlags[0],
+                            stitcherFlags[1],
+                            () -> qupath.ext.basicstitching.workflow.StitchingWorkflow.run(config));
                     if (stitchedOutPath == null) {
                         deleteStitchOutputs(new File(outputFolder), outputStem);
                         throw new IllegalStateException("Stitching produced no output for " + angleName);
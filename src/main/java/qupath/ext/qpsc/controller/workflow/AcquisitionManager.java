@@ -13,7 +13,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -21,6 +20,8 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
 import javafx.scene.control.Alert;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,7 +59,9 @@ import qupath.ext.qpsc.utilities.FlipResolver;
 import qupath.ext.qpsc.utilities.LiveTileMeasurementPoller;
 import qupath.ext.qpsc.utilities.MicroscopeConfigManager;
 import qupath.ext.qpsc.utilities.MinorFunctions;
+import qupath.ext.qpsc.utilities.StagePathPlanner;
 import qupath.ext.qpsc.utilities.StitchingConfiguration;
+import qupath.ext.qpsc.utilities.TileLayout;
 import qupath.ext.qpsc.utilities.TilingUtilities;
 import qupath.ext.qpsc.utilities.TransformationFunctions;
 import qupath.ext.qpsc.utilities.ZFocusPredictionModel;
@@ -100,13 +103,6 @@ public class AcquisitionManager {
     /** Filename for acquisition metadata written to the scan type directory */
     private static final String ACQUISITION_INFO_FILENAME = "acquisition_info.txt";
 
-    /** Single-threaded executor for stitching operations to prevent overwhelming system resources */
-    private static final ExecutorService STITCH_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
-        Thread t = new Thread(r, "stitching-queue");
-        t.setDaemon(true);
-        return t;
-    });
-
     /** Shared scheduled executor for live NDJSON tile-measurement polling. */
     private static final ScheduledExecutorService LIVE_POLL_EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
         Thread t = new Thread(r, "tile-measurement-live-poller");
@@ -172,6 +168,25 @@ public class AcquisitionManager {
         return capturedImageData != null && gui.getImageData() == capturedImageData;
     }
 
+    /** Snapshot of {@link #isSessionImageActive()}, written on the FX thread for the stitching scheduler. */
+    private volatile boolean sessionImageViewed = false;
+
+    /** Held here so the weak registration lives exactly as long as this manager (and its queued stitches). */
+    private final ChangeListener<ImageData<BufferedImage>> sessionImageViewedListener =
+            (obs, oldData, newData) -> sessionImageViewed = capturedImageData != null && newData == capturedImageData;
+
+    /**
+     * Starts tracking whether the session image is on screen. The stitching
+     * scheduler reads the flag from its own threads while holding its lock, so
+     * it must not query the viewer itself.
+     */
+    private void watchSessionImage() {
+        Platform.runLater(() -> {
+            gui.imageDataProperty().addListener(new WeakChangeListener<>(sessionImageViewedListener));
+            sessionImageViewed = isSessionImageActive();
+        });
+    }
+
     /**
      * Creates a new acquisition manager.
      *
@@ -365,6 +380,7 @@ public class AcquisitionManager {
                 if (gui.getViewer().hasServer() && gui.getImageData() != null && captureProject != null) {
                     capturedImageData = gui.getImageData();
                     parentEntry = captureProject.getEntry(capturedImageData);
+                    watchSessionImage();
                     logger.info(
                             "Captured parent entry for session: {}",
                             parentEntry != null ? parentEntry.getImageName() : "null");
@@ -546,7 +562,12 @@ public class AcquisitionManager {
 
         // Sort remaining annotations by proximity to the first (for efficient travel and tilt model building)
         if (state.transform != null && state.annotations.size() > 1) {
-            state.annotations = AnnotationOrderingService.sortByProximity(state.annotations, state.transform);
+            if (QPPreferenceDialog.getOptimizeStagePath()) {
+                state.annotations = AnnotationOrderingService.sortForStageTravel(
+                        state.annotations, state.transform, StagePathPlanner.MotionModel.fromCurrentConfig());
+            } else {
+                state.annotations = AnnotationOrderingService.sortByProximity(state.annotations, state.transform);
+            }
             logger.info("Annotations ordered by proximity for tilt model optimization");
         }
 
@@ -578,6 +599,7 @@ public class AcquisitionManager {
             if (captureProject != null) {
                 capturedImageData = gui.getImageData();
                 parentEntry = captureProject.getEntry(capturedImageData);
+                watchSessionImage();
                 logger.info(
                         "Late-captured parent entry for metadata: {}",
                         parentEntry != null ? parentEntry.getImageName() : "null");
@@ -1537,11 +1559,12 @@ public class AcquisitionManager {
     /**
      * Launches stitching for a completed acquisition.
      *
-     * <p>Stitching is performed asynchronously on a dedicated thread to:
+     * <p>Stitching is submitted to the shared {@link StitchingScheduler} to:
      * <ul>
      *   <li>Allow the next acquisition to start immediately</li>
      *   <li>Prevent UI blocking during intensive stitching operations</li>
-     *   <li>Process stitching jobs sequentially to manage resources</li>
+     *   <li>Overlap annotations when cores and heap allow, stitching the
+     *       slide open in the viewer first</li>
      * </ul>
      *
      * @param annotation The annotation that was acquired
@@ -1601,7 +1624,11 @@ public class AcquisitionManager {
                 WSI_pixelSize_um,
                 gui,
                 project,
-                STITCH_EXECUTOR,
+                StitchingScheduler.getInstance()
+                        .executorFor(
+                                annotation.getName(),
+                                StitchingScheduler.estimateTileBytes(Paths.get(tempTileDir, annotation.getName())),
+                                () -> sessionImageViewed),
                 handler,
                 // Use the transform CAPTURED in the workflow state, not the live
                 // MicroscopeController transform. Stitching runs asynchronously and the
@@ -1807,10 +1834,15 @@ public class AcquisitionManager {
             double fovWidthMicrons = fovMicrons[0];
             double fovHeightMicrons = fovMicrons[1];
 
-            // Get overlap percentage and delegate to the shared grid math (same formula the tiler uses)
+            // Get overlap percentage and count the grid cells the tiler keeps for this
+            // annotation (same grid, buffer and ROI filter the tiler uses)
             double overlapPercent = QPPreferenceDialog.getTileOverlapPercentProperty();
             int totalTiles = TilingUtilities.estimateTileCount(
-                    annWidthMicrons, annHeightMicrons, fovWidthMicrons, fovHeightMicrons, overlapPercent);
+                    annotation.getROI(),
+                    fovWidthMicrons / imagePixelSize,
+                    fovHeightMicrons / imagePixelSize,
+                    overlapPercent,
+                    true);
 
             logger.info(
                     "Tile estimate: annotation {}x{} um, FOV {}x{} um, overlap {}% = {} tiles",
@@ -2035,43 +2067,28 @@ public class AcquisitionManager {
         }
     }
 
-    // Pattern matches a transformed TileConfiguration.txt line: "123.tif; ; (x.xxx, y.yyy)"
-    // where x/y are signed decimals in stage micrometers (post-transformTileConfiguration).
-    private static final java.util.regex.Pattern TILE_CONFIG_LINE =
-            java.util.regex.Pattern.compile("(\\S+\\.tif);\\s*;\\s*\\(([^,]+),\\s*([^)]+)\\)");
-
     /**
-     * Parses {@code TileConfiguration.txt} from the given region directory into per-tile stage centroids.
-     * Used by the MDA writer integration -- mirrors the data that just got written there by
+     * Reads the per-tile stage centroids of a region directory through {@link TileLayout} (the
+     * binary sidecar when current, else {@code TileConfiguration.txt}). Used by the MDA writer
+     * integration -- mirrors the data that just got written there by
      * {@code TransformationFunctions.transformTileConfiguration}. Returns an empty list (with a WARN)
      * if the file is missing or unparseable so the caller can decide whether to abort.
      */
     private static List<TileStagePos> readTilesFromConfig(Path regionDir) {
-        Path configFile = regionDir.resolve("TileConfiguration.txt");
-        if (!Files.exists(configFile)) {
+        Path configFile = regionDir.resolve(TileLayout.STAGE_CONFIG);
+        if (!Files.exists(configFile) && !Files.exists(regionDir.resolve(TileLayout.SIDECAR_NAME))) {
             logger.warn("TileConfiguration.txt not found in {}; MDA position list will be empty", regionDir);
             return List.of();
         }
         try {
-            List<String> lines = Files.readAllLines(configFile, StandardCharsets.UTF_8);
-            List<TileStagePos> tiles = new ArrayList<>(lines.size());
-            for (String raw : lines) {
-                String line = raw == null ? "" : raw.trim();
-                if (line.isEmpty() || line.startsWith("#") || line.startsWith("dim")) {
-                    continue;
-                }
-                java.util.regex.Matcher m = TILE_CONFIG_LINE.matcher(line);
-                if (!m.find()) {
-                    continue;
-                }
-                String label = m.group(1);
-                try {
-                    double x = Double.parseDouble(m.group(2).trim());
-                    double y = Double.parseDouble(m.group(3).trim());
-                    tiles.add(new TileStagePos(label, x, y, 0.0));
-                } catch (NumberFormatException nfe) {
-                    logger.debug("Skipping unparseable TileConfiguration line: {}", line);
-                }
+            TileLayout layout = TileLayout.load(regionDir, TileLayout.Space.STAGE);
+            List<TileStagePos> tiles = new ArrayList<>(layout.size());
+            for (int i = 0; i < layout.size(); i++) {
+                tiles.add(new TileStagePos(
+                        layout.label(i),
+                        layout.x(TileLayout.Space.STAGE, i),
+                        layout.y(TileLayout.Space.STAGE, i),
+                        0.0));
             }
             return tiles;
         } catch (IOException ioe) {
@@ -2114,6 +2131,7 @@ public class AcquisitionManager {
                     MicroscopeConfigManager.getInstance(QPPreferenceDialog.getMicroscopeConfigFileProperty());
             MmStageDevices devices = mgr != null ? mgr.getMmStageDevices() : new MmStageDevices("XYStage", "ZStage");
             MdaSettingsWriter.updatePositionListZ(regionDir, annotation.getName(), tilesWithZ, devices);
+            recordLayoutZ(regionDir, zUm);
             logger.info(
                     "Backfilled MDA position list Z for {} to {} um ({} tiles)",
                     annotation.getName(),
@@ -2124,6 +2142,27 @@ public class AcquisitionManager {
         }
     }
 
+    /**
+     * Stores the achieved focus Z in the region's tile layout sidecar, next to the MDA backfill.
+     * Only done when the sidecar is current and holds both coordinate sets, so a layout parsed
+     * from text never replaces it. Best-effort, like the MDA backfill.
+     */
+    private static void recordLayoutZ(Path regionDir, double zUm) {
+        Path sidecar = regionDir.resolve(TileLayout.SIDECAR_NAME);
+        if (!TileLayout.isSidecarCurrent(sidecar, regionDir.resolve(TileLayout.STAGE_CONFIG))) {
+            return;
+        }
+        try {
+            TileLayout layout = TileLayout.readSidecar(sidecar);
+            if (layout.has(TileLayout.Space.PIXEL) && layout.has(TileLayout.Space.STAGE)) {
+                layout.fillZ(zUm);
+                layout.writeSidecar(regionDir);
+            }
+        } catch (IOException e) {
+            logger.debug("Could not record focus Z in tile layout for {}: {}", regionDir, e.getMessage());
+        }
+    }
+
     /**
      * Resolves the channel library (id -> Channel) for the active modality via the modality handler,
      * matching the resolution path used by {@code ChannelResolutionService}. Returns an empty map for
@@ -2441,10 +2480,10 @@ public class AcquisitionManager {
         double pixelSize = server.getPixelCalibration().getAveragedPixelSizeMicrons();
         if (pixelSize <= 0 || Double.isNaN(pixelSize)) return -1;
 
-        // Read tile positions from TileConfiguration_QP.txt (pixel coordinates)
+        // Read tile positions (QuPath pixel coordinates) from the sidecar or TileConfiguration_QP.txt
         Path tileDir = Paths.get(state.projectInfo.getTempTileDirectory(), annotation.getName());
-        Path tileConfigQP = tileDir.resolve("TileConfiguration_QP.txt");
-        if (!Files.exists(tileConfigQP)) {
+        if (!Files.exists(tileDir.resolve(TileLayout.PIXEL_CONFIG))
+                && !Files.exists(tileDir.resolve(TileLayout.SIDECAR_NAME))) {
             logger.debug("No TileConfiguration_QP.txt for {}", annotation.getName());
             return -1;
         }
@@ -2461,112 +2500,47 @@ public class AcquisitionManager {
         int frameH = (int) Math.round(fovMicrons[1] / pixelSize);
 
         // Parse tile positions
-        List<double[]> tilePositions = new ArrayList<>();
-        List<Integer> tileIndices = new ArrayList<>();
+        double[] centers;
+        int[] tileIndices;
         try {
-            for (String line : Files.readAllLines(tileConfigQP)) {
-                // Format: "0.tif; ; (123.456, 789.012)"
-                if (!line.contains(".tif")) continue;
-                int parenStart = line.indexOf('(');
-                int parenEnd = line.indexOf(')');
-                if (parenStart < 0 || parenEnd < 0) continue;
-                String[] coords = line.substring(parenStart + 1, parenEnd).split(",");
-                double cx = Double.parseDouble(coords[0].trim());
-                double cy = Double.parseDouble(coords[1].trim());
-                int idx = Integer.parseInt(line.substring(0, line.indexOf('.')).trim());
-                tilePositions.add(new double[] {cx, cy});
-                tileIndices.add(idx);
+            TileLayout layout = TileLayout.load(tileDir, TileLayout.Space.PIXEL);
+            int n = 0;
+            for (int i = 0; i < layout.size(); i++) {
+                if (layout.index(i) >= 0) n++;
+            }
+            centers = new double[2 * n];
+            tileIndices = new int[n];
+            for (int i = 0, j = 0; i < layout.size(); i++) {
+                if (layout.index(i) < 0) continue;
+                centers[2 * j] = layout.x(TileLayout.Space.PIXEL, i);
+                centers[2 * j + 1] = layout.y(TileLayout.Space.PIXEL, i);
+                tileIndices[j++] = layout.index(i);
             }
         } catch (Exception e) {
             logger.debug("Failed to parse tile config: {}", e.getMessage());
             return -1;
         }
 
-        if (tilePositions.isEmpty()) return -1;
-
-        // Score tiles in acquisition order (first N, then keep going if needed)
-        int bestTile = -1;
-        double bestScore = 0;
-
-        // Use a lower-res downsample for speed (4x faster reads)
-        double downsample = Math.max(1.0, pixelSize < 0.5 ? 4.0 : 2.0);
-
-        for (int i = 0; i < tilePositions.size(); i++) {
-            double cx = tilePositions.get(i)[0];
-            double cy = tilePositions.get(i)[1];
-            int tileIdx = tileIndices.get(i);
-
-            // Convert centroid to top-left corner
-            int x = Math.max(0, (int) (cx - frameW / 2.0));
-            int y = Math.max(0, (int) (cy - frameH / 2.0));
-            int w = Math.min(frameW, server.getWidth() - x);
-            int h = Math.min(frameH, server.getHeight() - y);
-            if (w <= 0 || h <= 0) continue;
-
-            try {
-                var request = qupath.lib.regions.RegionRequest.createInstance(server.getPath(), downsample, x, y, w, h);
-                BufferedImage img = server.readRegion(request);
-                if (img == null) continue;
-
-                double tissueScore = scoreTissueContent(img, whiteThreshold, darkThreshold);
-                if (tissueScore > bestScore) {
-                    bestScore = tissueScore;
-                    bestTile = tileIdx;
-                }
-
-                // Accept first tile that meets the threshold
-                if (tissueScore >= minTissueScore) {
-                    logger.info(
-                            "WSI tissue scoring: tile {} has {}% tissue (threshold {}%)",
-                            tileIdx,
-                            String.format("%.1f", tissueScore * 100),
-                            String.format("%.0f", minTissueScore * 100));
-                    return tileIdx;
-                }
-            } catch (Exception e) {
-                logger.debug("Failed to read WSI region for tile {}: {}", tileIdx, e.getMessage());
-            }
-        }
-
-        // No tile met threshold -- return the one with most tissue (if any)
-        if (bestTile >= 0 && bestScore > 0.02) {
-            logger.info(
-                    "WSI tissue scoring: no tile met {}% threshold, using best tile {} ({}%)",
-                    (int) (minTissueScore * 100), bestTile, String.format("%.1f", bestScore * 100));
-            return bestTile;
-        }
+        if (tileIndices.length == 0) return -1;
 
-        logger.info("WSI tissue scoring: insufficient tissue found in any tile");
-        return -1;
-    }
-
-    /**
-     * Scores a BufferedImage for tissue content.
-     * Returns the fraction of pixels that appear to contain tissue (0.0 to 1.0).
-     *
-     * @param img The image to score
-     * @param whiteThreshold Pixel mean RGB above this = white/blank (from YAML)
-     * @param darkThreshold Pixel mean RGB below this = background/artifact (from YAML)
-     */
-    private static double scoreTissueContent(BufferedImage img, int whiteThreshold, int darkThreshold) {
-        int w = img.getWidth();
-        int h = img.getHeight();
-        int totalPixels = w * h;
-        if (totalPixels == 0) return 0;
-
-        int tissuePixels = 0;
-        for (int py = 0; py < h; py++) {
-            for (int px = 0; px < w; px++) {
-                int rgb = img.getRGB(px, py);
-                int r = (rgb >> 16) & 0xFF;
-                int g = (rgb >> 8) & 0xFF;
-                int b = rgb & 0xFF;
-                int mean = (r + g + b) / 3;
-                if (mean < whiteThreshold && mean > darkThreshold) {
-                    tissuePixels++;
-                }
-            }
+        // Tiles are scored from one low-res overview of the whole tile area, never
+        // finer than the 2x/4x downsample the per-tile reads used
+        double minDownsample = Math.max(1.0, pixelSize < 0.5 ? 4.0 : 2.0);
+        try {
+            return TissueFractionMap.forAnnotation(
+                            annotation,
+                            server,
+                            minDownsample,
+                            centers,
+                            tileIndices,
+                            frameW,
+                            frameH,
+                            whiteThreshold,
+                            darkThreshold)
+                    .bestTile(minTissueScore);
+        } catch (Exception e) {
+            logger.debug("Failed to read WSI overview for {}: {}", annotation.getName(), e.getMessage());
+            return -1;
         }
-        return (double) tissuePixels / totalPixels;
     }
 }
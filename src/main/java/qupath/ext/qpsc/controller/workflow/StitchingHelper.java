@@ -14,7 +14,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import javafx.application.Platform;
 import org.slf4j.Logger;
@@ -120,7 +120,7 @@ public class StitchingHelper {
      * @param pixelSize Pixel size in micrometers
      * @param gui QuPath GUI instance
      * @param project QuPath project to update
-     * @param executor Executor service for async execution
+     * @param executor Executor the stitch job runs on, usually from {@link StitchingScheduler#executorFor}
      * @param handler Modality handler for file naming
      * @param sampleName The actual sample folder name (from ProjectInfo, may differ from sample.sampleName())
      * @param projectsFolder The actual projects folder path (from ProjectInfo, may differ from sample.projectsFolder())
@@ -134,7 +134,7 @@ public class StitchingHelper {
             double pixelSize,
             QuPathGUI gui,
             Project<BufferedImage> project,
-            ExecutorService executor,
+            Executor executor,
             ModalityHandler handler,
             String sampleName,
             String projectsFolder) {
@@ -172,7 +172,7 @@ public class StitchingHelper {
      * @param pixelSize Pixel size in micrometers
      * @param gui QuPath GUI instance
      * @param project QuPath project to update
-     * @param executor Executor service for async execution
+     * @param executor Executor the stitch job runs on, usually from {@link StitchingScheduler#executorFor}
      * @param handler Modality handler for file naming
      * @param fullResToStage Transform from full-res pixels to stage coordinates
      * @param sampleName The actual sample folder name (from ProjectInfo, may differ from sample.sampleName())
@@ -194,7 +194,7 @@ public class StitchingHelper {
             double pixelSize,
             QuPathGUI gui,
             Project<BufferedImage> project,
-            ExecutorService executor,
+            Executor executor,
             ModalityHandler handler,
             AffineTransform fullResToStage,
             String sampleName,
@@ -244,7 +244,7 @@ public class StitchingHelper {
      * @param pixelSize Pixel size in micrometers
      * @param gui QuPath GUI instance
      * @param project QuPath project to update
-     * @param executor Executor service for async execution
+     * @param executor Executor the stitch job runs on, usually from {@link StitchingScheduler#executorFor}
      * @param handler Modality handler for file naming
      * @param sampleName The actual sample folder name (from ProjectInfo, may differ from sample.sampleName())
      * @param projectsFolder The actual projects folder path (from ProjectInfo, may differ from sample.projectsFolder())
@@ -258,7 +258,7 @@ public class StitchingHelper {
             double pixelSize,
             QuPathGUI gui,
             Project<BufferedImage> project,
-            ExecutorService executor,
+            Executor executor,
             ModalityHandler handler,
             String sampleName,
             String projectsFolder) {
@@ -298,7 +298,7 @@ public class StitchingHelper {
             double pixelSize,
             QuPathGUI gui,
             Project<BufferedImage> project,
-            ExecutorService executor,
+            Executor executor,
             ModalityHandler handler,
             String sampleName,
             String projectsFolder,
@@ -381,13 +381,12 @@ public class StitchingHelper {
      * {@code processAngleWithIsolation} call, so this unifies both formats on one
      * bounded pool rather than the old ZARR-parallel / TIFF-sequential split.
      *
-     * <p>Within a single annotation's batch all targets share identical flip
-     * metadata, so the {@code volatile} static flip flags set inside
-     * {@code stitchImagesAndUpdateProject} carry the same value across the
-     * concurrent calls -- the same condition under which the pre-existing ZARR
-     * parallel path already ran safely. Cross-annotation concurrency (which could
-     * mix flip values) is intentionally NOT introduced here: the caller's
-     * {@code STITCH_EXECUTOR} keeps one annotation batch running at a time.
+     * <p>Each target carries its orientation in {@code stitchParams}
+     * ({@link TileProcessingUtilities#STAGE_TRANSFORM_KEY}), and the stitcher's
+     * static flip flags are only set through
+     * {@link TileProcessingUtilities#TILE_CONFIG_ORIENTATION}. Concurrent stitches
+     * therefore never see each other's flags, whether they come from this batch or
+     * from another annotation or run.
      *
      * @return a list the SAME size and order as {@code targetSubdirs}; element i is
      *         the stitched output path for target i, or {@code null} if that target
@@ -499,7 +498,7 @@ public class StitchingHelper {
             double pixelSize,
             QuPathGUI gui,
             Project<BufferedImage> project,
-            ExecutorService executor,
+            Executor executor,
             ModalityHandler handler,
             String sampleName,
             String projectsFolder,
@@ -508,6 +507,9 @@ public class StitchingHelper {
             boolean pipelinedBatchAcquire) {
 
         final StitchingOptions stitchOptions = options != null ? options : StitchingOptions.defaults();
+        // Captured now, not when the queued job runs, so every stitch of this target carries the
+        // orientation it was acquired with (see TileProcessingUtilities.STAGE_TRANSFORM_KEY).
+        final StageImageTransform stageTransform = StageImageTransform.current();
 
         // Create blocking dialog on JavaFX thread before starting stitching
         final String operationId = sampleName + " - " + targetName;
@@ -609,6 +611,7 @@ public class StitchingHelper {
                             // effects and await real import completion (read in
                             // TileProcessingUtilities.stitchImagesAndUpdateProject).
                             stitchParams.put("pipelinedBatchAcquire", pipelinedBatchAcquire);
+                            stitchParams.put(TileProcessingUtilities.STAGE_TRANSFORM_KEY, stageTransform);
                             // Do NOT include blockingDialog or operationId for multi-angle case
 
                             if (blockingDialog != null) {
@@ -781,6 +784,7 @@ public class StitchingHelper {
                             // effects and await real import completion (read in
                             // TileProcessingUtilities.stitchImagesAndUpdateProject).
                             stitchParams.put("pipelinedBatchAcquire", pipelinedBatchAcquire);
+                            stitchParams.put(TileProcessingUtilities.STAGE_TRANSFORM_KEY, stageTransform);
 
                             if (blockingDialog != null) {
                                 blockingDialog.updateStatus(
@@ -1194,7 +1198,7 @@ public class StitchingHelper {
             double pixelSize,
             QuPathGUI gui,
             Project<BufferedImage> project,
-            ExecutorService executor,
+            Executor executor,
             ModalityHandler handler,
             StitchingOptions options,
             boolean pipelinedBatchAcquire) {
@@ -1205,6 +1209,8 @@ public class StitchingHelper {
                 annotationName,
                 options.organization(),
                 options.splitChannelIds());
+        // Captured before queueing; see performStitchingInternal
+        final StageImageTransform stageTransform = StageImageTransform.current();
 
         return CompletableFuture.runAsync(
                 () -> {
@@ -1232,6 +1238,7 @@ public class StitchingHelper {
                         // QuPath fires when an entry is created and then
                         // removed in the same run.
                         stitchParams.put("skipProjectImport", Boolean.TRUE);
+                        stitchParams.put(TileProcessingUtilities.STAGE_TRANSFORM_KEY, stageTransform);
 
                         Path tileBaseDir = Paths.get(projectsFolder, sampleName, modeWithIndex, annotationName);
 
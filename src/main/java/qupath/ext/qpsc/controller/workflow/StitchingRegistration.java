@@ -6,8 +6,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import qupath.ext.basicstitching.config.StitchingConfig;
@@ -124,7 +123,8 @@ public final class StitchingRegistration {
      *
      * @param targets the sibling targets in order
      * @param tileBaseDir directory the shared solution file is written to / read from
-     * @param maxConcurrency cap on parallel writers for the non-reference targets
+     * @param maxConcurrency cap on parallel writers for the non-reference targets; they run on the
+     *     {@link StitchingScheduler}'s shared target pool
      * @param referenceIndex index into {@code targets} of the one to SOLVE on; every other target
      *     reuses that solve. Out-of-range values fall back to 0. Use
      *     {@link #referenceIndexFor(List, ModalityHandler)} to derive it.
@@ -143,6 +143,7 @@ public final class StitchingRegistration {
             return results;
         }
 
+        StitchingScheduler.TargetProgress progress = StitchingScheduler.progressForCurrentThread();
         int reference = (referenceIndex >= 0 && referenceIndex < total) ? referenceIndex : 0;
         List<Integer> remaining = new ArrayList<>(total);
         Object applyMode = null;
@@ -174,6 +175,7 @@ public final class StitchingRegistration {
                 remaining.add(i);
             }
         }
+        progress.update(total - remaining.size(), total);
         if (remaining.isEmpty()) {
             return results;
         }
@@ -181,31 +183,26 @@ public final class StitchingRegistration {
         int concurrency = Math.max(1, Math.min(remaining.size(), maxConcurrency));
         int offset = total - remaining.size();
         final Object mode = applyMode;
-        ExecutorService pool = Executors.newFixedThreadPool(concurrency, r -> {
-            Thread t = new Thread(r, "stitch-target");
-            t.setDaemon(true);
-            return t;
-        });
-        try {
-            List<CompletableFuture<String>> futures = new ArrayList<>(remaining.size());
-            for (int i = 0; i < remaining.size(); i++) {
-                X target = targets.get(remaining.get(i));
-                int position = offset + i + 1;
-                futures.add(CompletableFuture.supplyAsync(() -> runOne(stitcher, target, mode, position, total), pool));
-            }
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
-            for (int i = 0; i < futures.size(); i++) {
-                try {
-                    results.set(remaining.get(i), futures.get(i).get());
-                } catch (Exception e) {
-                    logger.error("Failed to retrieve a stitch result: {}", e.getMessage());
-                    results.set(remaining.get(i), null);
-                }
-            }
-            return results;
-        } finally {
-            pool.shutdown();
+        // Targets run on the scheduler's shared pool; this call's own bound is kept by
+        // starting only `concurrency` workers, each pulling the next unstitched target.
+        AtomicInteger nextRemaining = new AtomicInteger();
+        AtomicInteger done = new AtomicInteger(offset);
+        List<CompletableFuture<Void>> workers = new ArrayList<>(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            workers.add(CompletableFuture.runAsync(
+                    () -> {
+                        int i;
+                        while ((i = nextRemaining.getAndIncrement()) < remaining.size()) {
+                            int index = remaining.get(i);
+                            results.set(index, runOne(stitcher, targets.get(index), mode, offset + i + 1, total));
+                            progress.update(done.incrementAndGet(), total);
+                        }
+                    },
+                    StitchingScheduler.getInstance().targetExecutor()));
         }
+        // runOne never throws, and join() publishes every worker's results.set
+        CompletableFuture.allOf(workers.toArray(new CompletableFuture[0])).join();
+        return results;
     }
 
     /**
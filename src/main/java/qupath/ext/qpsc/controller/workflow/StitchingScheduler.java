@@ -0,0 +1,334 @@
+package qupath.ext.qpsc.controller.workflow;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import qupath.ext.qpsc.preferences.QPPreferenceDialog;
+
+/**
+ * The one place stitching work is scheduled, shared by every stitch path.
+ *
+ * <p>Stitching used to run wherever the caller happened to put it: acquisition
+ * stitches queued behind each other on a single "stitching-queue" thread even
+ * when the machine had idle cores, bounded acquisitions used an unbounded
+ * cached pool, each {@link StitchingRegistration#stitchTargets} call built and
+ * tore down its own fixed pool, and the recovery and MicroManager utilities
+ * started bare threads. Nothing knew how much stitching was in flight.
+ *
+ * <h2>Jobs</h2>
+ *
+ * A job is one whole stitch (an annotation with all its angles/channels, a
+ * recovery folder, a MicroManager folder). Jobs wait in a queue and are
+ * admitted when both limits allow:
+ * <ul>
+ *   <li><b>Cores:</b> at most {@code cores / stitching concurrency} jobs run at
+ *       once, since each job stitches up to "Stitching concurrency" targets in
+ *       parallel.</li>
+ *   <li><b>Heap:</b> each job reserves its estimated tile bytes (see
+ *       {@link #estimateTileBytes}), capped at the budget, and the running
+ *       reservations must fit in half the maximum heap. The estimate is
+ *       deliberately conservative, so two large slides still stitch one after
+ *       the other while small annotations overlap.</li>
+ * </ul>
+ * A job is always admitted when nothing else is running, so an oversized job
+ * cannot stall the queue. The next job is the oldest one whose slide is open in
+ * the viewer, or else the oldest one; the queue is never reordered past a job
+ * that does not fit yet, so a large job is not starved by small ones.
+ *
+ * <h2>Targets</h2>
+ *
+ * Within a job, {@link StitchingRegistration#stitchTargets} runs its targets on
+ * the shared {@link #targetExecutor()} and reports per-target progress to the
+ * job it runs in, which {@link #getJobs()} exposes along with the queue.
+ */
+public final class StitchingScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(StitchingScheduler.class);
+
+    /** Fraction of the maximum heap that running jobs may reserve. */
+    static final double HEAP_BUDGET_FRACTION = 0.5;
+
+    /** Deepest tile folder below a job's tile folder (angle/channel). */
+    private static final int MAX_TILE_DIR_DEPTH = 2;
+
+    private static final class Holder {
+        static final StitchingScheduler INSTANCE = new StitchingScheduler(
+                () -> Math.max(
+                        1, Runtime.getRuntime().availableProcessors() / QPPreferenceDialog.getStitchingConcurrency()),
+                () -> (long) (Runtime.getRuntime().maxMemory() * HEAP_BUDGET_FRACTION));
+    }
+
+    /** Lifecycle of a job as seen from {@link #getJobs()}. */
+    public enum State {
+        QUEUED,
+        RUNNING
+    }
+
+    /**
+     * Snapshot of one queued or running job.
+     *
+     * @param name           Job label (annotation or folder name)
+     * @param state          Queued or running
+     * @param estimatedBytes Estimated tile bytes the job will read
+     * @param targetsDone    Angles/channels stitched so far
+     * @param targetsTotal   Angles/channels in the job, 0 until the job reports them
+     */
+    public record JobStatus(String name, State state, long estimatedBytes, int targetsDone, int targetsTotal) {}
+
+    /** Receives per-target progress from the stitch running inside a job. */
+    @FunctionalInterface
+    public interface TargetProgress {
+        void update(int targetsDone, int targetsTotal);
+    }
+
+    private static final TargetProgress NO_PROGRESS = (done, total) -> {};
+
+    private static final ThreadLocal<Job> CURRENT_JOB = new ThreadLocal<>();
+
+    private static final class Job {
+        final String name;
+        final long estimatedBytes;
+        final BooleanSupplier preferred;
+        final Runnable task;
+        volatile State state = State.QUEUED;
+        volatile int targetsDone;
+        volatile int targetsTotal;
+        long reservedBytes;
+
+        Job(String name, long estimatedBytes, BooleanSupplier preferred, Runnable task) {
+            this.name = name;
+            this.estimatedBytes = Math.max(0L, estimatedBytes);
+            this.preferred = preferred;
+            this.task = task;
+        }
+
+        JobStatus status() {
+            return new JobStatus(name, state, estimatedBytes, targetsDone, targetsTotal);
+        }
+    }
+
+    private final IntSupplier maxRunningJobs;
+    private final LongSupplier heapBudgetBytes;
+
+    private final ExecutorService jobThreads = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "stitching-job");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final ExecutorService targetThreads = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "stitch-target");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Guarded by this
+    private final List<Job> queued = new ArrayList<>();
+    private final Set<Job> running = new LinkedHashSet<>();
+    private long reservedBytes = 0L;
+
+    /**
+     * @param maxRunningJobs  Upper bound on concurrently running jobs, read at each admission
+     * @param heapBudgetBytes Total bytes running jobs may reserve, read at each admission
+     */
+    StitchingScheduler(IntSupplier maxRunningJobs, LongSupplier heapBudgetBytes) {
+        this.maxRunningJobs = maxRunningJobs;
+        this.heapBudgetBytes = heapBudgetBytes;
+    }
+
+    /** The scheduler shared by all stitch paths. */
+    public static StitchingScheduler getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * An executor that submits each task it is given as a stitch job. Hand this
+     * to {@link StitchingHelper} in place of a dedicated stitching executor.
+     *
+     * @param name           Job label for logs and {@link #getJobs()}
+     * @param estimatedBytes Estimated tile bytes, usually {@link #estimateTileBytes}
+     * @param preferred      Whether the job's slide is the one being viewed right now;
+     *                       evaluated each time the next job is picked, on a scheduler
+     *                       thread while the scheduler lock is held, so it must only
+     *                       read a flag (such as a volatile kept current on the FX thread)
+     */
+    public Executor executorFor(String name, long estimatedBytes, BooleanSupplier preferred) {
+        return task -> submit(name, estimatedBytes, preferred, task);
+    }
+
+    /**
+     * Queues a stitch job. It runs on a scheduler thread once admitted.
+     *
+     * @param name           Job label for logs and {@link #getJobs()}
+     * @param estimatedBytes Estimated tile bytes, usually {@link #estimateTileBytes}
+     * @param preferred      Whether the job's slide is the one being viewed right now;
+     *                       see {@link #executorFor} for where it is evaluated
+     * @param task           The stitch itself
+     */
+    public void submit(String name, long estimatedBytes, BooleanSupplier preferred, Runnable task) {
+        Job job = new Job(name, estimatedBytes, preferred, task);
+        int depth;
+        synchronized (this) {
+            queued.add(job);
+            depth = queued.size();
+        }
+        logger.info(
+                "Queued stitch job '{}' (~{} MB of tiles, {} queued)",
+                name,
+                job.estimatedBytes / (1024 * 1024),
+                depth);
+        dispatch();
+    }
+
+    /** Admits as many queued jobs as the limits allow and starts them. */
+    private void dispatch() {
+        List<Job> toStart = new ArrayList<>();
+        synchronized (this) {
+            while (!queued.isEmpty()) {
+                Job next = pickNext();
+                long budget = Math.max(0L, heapBudgetBytes.getAsLong());
+                long reservation = Math.min(next.estimatedBytes, budget);
+                boolean fits = running.size() < Math.max(1, maxRunningJobs.getAsInt())
+                        && reservedBytes + reservation <= budget;
+                if (!running.isEmpty() && !fits) {
+                    break;
+                }
+                queued.remove(next);
+                next.reservedBytes = reservation;
+                next.state = State.RUNNING;
+                reservedBytes += reservation;
+                running.add(next);
+                toStart.add(next);
+                logger.info(
+                        "Starting stitch job '{}' ({} running, {} queued, {} MB reserved)",
+                        next.name,
+                        running.size(),
+                        queued.size(),
+                        reservedBytes / (1024 * 1024));
+            }
+        }
+        for (Job job : toStart) {
+            jobThreads.execute(() -> runJob(job));
+        }
+    }
+
+    /** The oldest job whose slide is being viewed, else the oldest job. Caller holds the lock. */
+    private Job pickNext() {
+        for (Job job : queued) {
+            if (isPreferred(job)) {
+                return job;
+            }
+        }
+        return queued.get(0);
+    }
+
+    private static boolean isPreferred(Job job) {
+        try {
+            return job.preferred != null && job.preferred.getAsBoolean();
+        } catch (RuntimeException e) {
+            logger.debug("Priority check failed for stitch job '{}': {}", job.name, e.getMessage());
+            return false;
+        }
+    }
+
+    private void runJob(Job job) {
+        CURRENT_JOB.set(job);
+        try {
+            job.task.run();
+        } catch (RuntimeException e) {
+            logger.error("Stitch job '{}' failed: {}", job.name, e.getMessage(), e);
+        } finally {
+            CURRENT_JOB.remove();
+            synchronized (this) {
+                running.remove(job);
+                reservedBytes -= job.reservedBytes;
+            }
+            logger.debug("Stitch job '{}' finished", job.name);
+            dispatch();
+        }
+    }
+
+    /**
+     * Progress sink for the job running on the calling thread, or a no-op when
+     * the caller is not inside a scheduled job. Capture it on the job thread;
+     * the returned sink may then be called from any thread.
+     */
+    static TargetProgress progressForCurrentThread() {
+        Job job = CURRENT_JOB.get();
+        if (job == null) {
+            return NO_PROGRESS;
+        }
+        return (done, total) -> {
+            // Targets finish on several threads; never let a late update move progress back
+            synchronized (job) {
+                job.targetsTotal = total;
+                job.targetsDone = Math.max(job.targetsDone, done);
+            }
+        };
+    }
+
+    /** Shared pool the per-target stitches of all jobs run on. */
+    Executor targetExecutor() {
+        return targetThreads;
+    }
+
+    /** Running jobs followed by queued jobs, in the order they will be admitted (ignoring priority). */
+    public synchronized List<JobStatus> getJobs() {
+        List<JobStatus> jobs = new ArrayList<>(running.size() + queued.size());
+        running.forEach(job -> jobs.add(job.status()));
+        queued.forEach(job -> jobs.add(job.status()));
+        return jobs;
+    }
+
+    /** Number of jobs waiting to be admitted. */
+    public synchronized int getQueueDepth() {
+        return queued.size();
+    }
+
+    /** Number of jobs currently stitching. */
+    public synchronized int getRunningCount() {
+        return running.size();
+    }
+
+    /**
+     * Total size of the tile files under a job's tile folder, including its
+     * angle/channel subfolders. Used as the job's memory estimate.
+     *
+     * @return the byte count, or 0 if the folder cannot be read
+     */
+    public static long estimateTileBytes(Path tileDir) {
+        if (tileDir == null || !Files.isDirectory(tileDir)) {
+            return 0L;
+        }
+        try (Stream<Path> walk = Files.walk(tileDir, MAX_TILE_DIR_DEPTH + 1)) {
+            return walk.filter(p -> {
+                        String name = p.getFileName().toString().toLowerCase();
+                        return name.endsWith(".tif") || name.endsWith(".tiff");
+                    })
+                    .mapToLong(p -> {
+                        try {
+                            return Files.size(p);
+                        } catch (IOException e) {
+                            return 0L;
+                        }
+                    })
+                    .sum();
+        } catch (IOException | java.io.UncheckedIOException e) {
+            logger.debug("Could not size tiles in {}: {}", tileDir, e.getMessage());
+            return 0L;
+        }
+    }
+}
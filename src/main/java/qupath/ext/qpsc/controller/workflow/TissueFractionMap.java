@@ -0,0 +1,281 @@
+package qupath.ext.qpsc.controller.workflow;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import qupath.ext.qpsc.utilities.BinaryMask;
+import qupath.ext.qpsc.utilities.BinaryMasks;
+import qupath.ext.qpsc.utilities.RgbPixelClassifier;
+import qupath.lib.images.servers.ImageServer;
+import qupath.lib.objects.PathObject;
+import qupath.lib.regions.RegionRequest;
+
+/**
+ * Tissue fraction of every tile of an annotation, used to pick the first
+ * autofocus tile.
+ *
+ * <p>The AF tile used to be chosen by reading one WSI region per tile, in
+ * acquisition order, and scoring it with a per-pixel {@code getRGB} loop. On
+ * large annotations with sparse tissue that meant hundreds of reads before
+ * each acquisition. Here the whole tile area is read once as an overview,
+ * and the tissue pixels go into a summed-area table. The overview aims for
+ * {@value #MAX_OVERVIEW_SIZE} px on the long edge, may grow past that so
+ * tiles keep {@value #MIN_TILE_PIXELS} px, and never exceeds
+ * {@value #MAX_OVERVIEW_PIXELS} pixels in total; past that limit tiles get
+ * fewer pixels each. Each tile's fraction is then
+ * four lookups. The map is kept per annotation and reused while the server,
+ * tile layout, frame size and thresholds are unchanged.
+ */
+final class TissueFractionMap {
+
+    private static final Logger logger = LoggerFactory.getLogger(TissueFractionMap.class);
+
+    /** Longest overview edge, in pixels, unless tiles would get fewer than {@value #MIN_TILE_PIXELS}. */
+    static final int MAX_OVERVIEW_SIZE = 2048;
+
+    /** Smallest tile edge in overview pixels; the overview grows past the size cap to keep it. */
+    static final int MIN_TILE_PIXELS = 16;
+
+    /** Hard limit on overview pixels (64 MB as packed RGB), which wins over {@value #MIN_TILE_PIXELS}. */
+    static final long MAX_OVERVIEW_PIXELS = 4096L * 4096L;
+
+    /** Below this fraction even the best tile is not worth preferring. */
+    private static final double MIN_BEST_FRACTION = 0.02;
+
+    private static final Map<PathObject, TissueFractionMap> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /** What a map was measured from; a cached map is reused only for an equal key. */
+    private record Key(
+            String serverPath,
+            double minDownsample,
+            int frameWidth,
+            int frameHeight,
+            int whiteThreshold,
+            int darkThreshold,
+            int layoutHash) {}
+
+    private final Key key;
+    private final int[] tileIndices;
+    private final double[] fractions;
+
+    private TissueFractionMap(Key key, int[] tileIndices, double[] fractions) {
+        this.key = key;
+        this.tileIndices = tileIndices;
+        this.fractions = fractions;
+    }
+
+    /**
+     * Returns the annotation's cached map, or measures it from one read of
+     * {@code server}.
+     *
+     * @param annotation     The annotation the tiles belong to
+     * @param server         The WSI
+     * @param minDownsample  Finest downsample to read at
+     * @param centers        Tile centres in server pixels, packed {@code x0, y0, x1, y1, ...}
+     * @param tileIndices    Acquisition index of each tile
+     * @param frameWidth     Tile width in server pixels
+     * @param frameHeight    Tile height in server pixels
+     * @param whiteThreshold Mean RGB above this is blank
+     * @param darkThreshold  Mean RGB below this is background or artifact
+     */
+    static TissueFractionMap forAnnotation(
+            PathObject annotation,
+            ImageServer<BufferedImage> server,
+            double minDownsample,
+            double[] centers,
+            int[] tileIndices,
+            int frameWidth,
+            int frameHeight,
+            int whiteThreshold,
+            int darkThreshold)
+            throws IOException {
+        Key key = new Key(
+                server.getPath(),
+                minDownsample,
+                frameWidth,
+                frameHeight,
+                whiteThreshold,
+                darkThreshold,
+                31 * Arrays.hashCode(centers) + Arrays.hashCode(tileIndices));
+        TissueFractionMap cached = CACHE.get(annotation);
+        if (cached != null && cached.key.equals(key)) {
+            logger.debug("Reusing tissue fractions for {}", annotation.getName());
+            return cached;
+        }
+
+        int n = tileIndices.length;
+        int[] rects = new int[n * 4];
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            // Convert centroid to top-left corner
+            int x = Math.max(0, (int) (centers[2 * i] - frameWidth / 2.0));
+            int y = Math.max(0, (int) (centers[2 * i + 1] - frameHeight / 2.0));
+            int w = Math.min(frameWidth, server.getWidth() - x);
+            int h = Math.min(frameHeight, server.getHeight() - y);
+            rects[4 * i] = x;
+            rects[4 * i + 1] = y;
+            rects[4 * i + 2] = w;
+            rects[4 * i + 3] = h;
+            if (w > 0 && h > 0) {
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                maxX = Math.max(maxX, x + w);
+                maxY = Math.max(maxY, y + h);
+            }
+        }
+
+        double[] fractions = new double[n];
+        Arrays.fill(fractions, Double.NaN);
+        if (maxX > minX && maxY > minY) {
+            int regionW = maxX - minX;
+            int regionH = maxY - minY;
+            double downsample = overviewDownsample(regionW, regionH, frameWidth, frameHeight, minDownsample);
+            BufferedImage overview = server.readRegion(
+                    RegionRequest.createInstance(server.getPath(), downsample, minX, minY, regionW, regionH));
+            if (overview != null) {
+                for (int i = 0; i < n; i++) {
+                    rects[4 * i] -= minX;
+                    rects[4 * i + 1] -= minY;
+                }
+                fractions = fractions(overview, regionW, regionH, rects, whiteThreshold, darkThreshold);
+                logger.info(
+                        "Measured tissue in {} tiles of {} from one {}x{} overview (downsample {})",
+                        n,
+                        annotation.getName(),
+                        overview.getWidth(),
+                        overview.getHeight(),
+                        String.format("%.1f", downsample));
+            }
+        }
+
+        TissueFractionMap map = new TissueFractionMap(key, tileIndices.clone(), fractions);
+        CACHE.put(annotation, map);
+        return map;
+    }
+
+    /**
+     * Downsample for the overview: at least {@code minDownsample}, coarse
+     * enough for the {@value #MAX_OVERVIEW_SIZE} px cap unless a tile would
+     * fall below {@value #MIN_TILE_PIXELS} px, and always coarse enough to
+     * stay within {@value #MAX_OVERVIEW_PIXELS} pixels.
+     */
+    static double overviewDownsample(
+            int regionWidth, int regionHeight, int frameWidth, int frameHeight, double minDownsample) {
+        double forCap = (double) Math.max(regionWidth, regionHeight) / MAX_OVERVIEW_SIZE;
+        double forTiles = (double) Math.min(frameWidth, frameHeight) / MIN_TILE_PIXELS;
+        double forPixels = Math.sqrt((double) regionWidth * regionHeight / MAX_OVERVIEW_PIXELS);
+        return Math.max(Math.max(minDownsample, forPixels), Math.min(forCap, forTiles));
+    }
+
+    /**
+     * Tissue fraction of each rectangle of an overview.
+     *
+     * @param overview       Image of the region, at any downsample
+     * @param regionWidth    Region width in full-resolution pixels
+     * @param regionHeight   Region height in full-resolution pixels
+     * @param rects          Tiles as packed {@code x, y, w, h} in full-resolution pixels relative to the region
+     * @param whiteThreshold Mean RGB above this is blank
+     * @param darkThreshold  Mean RGB below this is background or artifact
+     * @return Fraction per tile, NaN for empty rectangles
+     */
+    static double[] fractions(
+            BufferedImage overview,
+            int regionWidth,
+            int regionHeight,
+            int[] rects,
+            int whiteThreshold,
+            int darkThreshold) {
+        int ow = overview.getWidth();
+        int oh = overview.getHeight();
+        BinaryMask tissue = RgbPixelClassifier.classify(overview, (r, g, b) -> {
+            int mean = (r + g + b) / 3;
+            return mean < whiteThreshold && mean > darkThreshold;
+        });
+        int[] integral = BinaryMasks.integral(tissue);
+        int stride = ow + 1;
+        double sx = (double) ow / regionWidth;
+        double sy = (double) oh / regionHeight;
+
+        double[] fractions = new double[rects.length / 4];
+        for (int i = 0; i < fractions.length; i++) {
+            int w = rects[4 * i + 2];
+            int h = rects[4 * i + 3];
+            if (w <= 0 || h <= 0) {
+                fractions[i] = Double.NaN;
+                continue;
+            }
+            int x0 = clamp((int) Math.floor(rects[4 * i] * sx), 0, ow - 1);
+            int y0 = clamp((int) Math.floor(rects[4 * i + 1] * sy), 0, oh - 1);
+            int x1 = clamp((int) Math.ceil((rects[4 * i] + w) * sx), x0 + 1, ow);
+            int y1 = clamp((int) Math.ceil((rects[4 * i + 1] + h) * sy), y0 + 1, oh);
+            int count = integral[y1 * stride + x1] - integral[y0 * stride + x1] - integral[y1 * stride + x0]
+                    + integral[y0 * stride + x0];
+            fractions[i] = (double) count / ((x1 - x0) * (y1 - y0));
+        }
+        return fractions;
+    }
+
+    private static int clamp(int v, int lo, int hi) {
+        return Math.max(lo, Math.min(hi, v));
+    }
+
+    /**
+     * The first tile, in acquisition order, with at least
+     * {@code minFraction} tissue; failing that, the tile with the most
+     * tissue if it has any meaningful amount.
+     *
+     * @return Acquisition index of the tile, or -1 if none qualifies
+     */
+    int bestTile(double minFraction) {
+        int bestTile = -1;
+        double bestScore = 0;
+        for (int i = 0; i < fractions.length; i++) {
+            double score = fractions[i];
+            if (Double.isNaN(score)) {
+                continue;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestTile = tileIndices[i];
+            }
+            // Accept first tile that meets the threshold
+            if (score >= minFraction) {
+                logger.info(
+                        "WSI tissue scoring: tile {} has {}% tissue (threshold {}%)",
+                        tileIndices[i],
+                        String.format("%.1f", score * 100),
+                        String.format("%.0f", minFraction * 100));
+                return tileIndices[i];
+            }
+        }
+
+        // No tile met threshold -- return the one with most tissue (if any)
+        if (bestTile >= 0 && bestScore > MIN_BEST_FRACTION) {
+            logger.info(
+                    "WSI tissue scoring: no tile met {}% threshold, using best tile {} ({}%)",
+                    (int) (minFraction * 100), bestTile, String.format("%.1f", bestScore * 100));
+            return bestTile;
+        }
+
+        logger.info("WSI tissue scoring: insufficient tissue found in any tile");
+        return -1;
+    }
+
+    /** Number of tiles. */
+    int size() {
+        return fractions.length;
+    }
+
+    /** Tissue fraction of tile {@code i} (layout order), NaN if it lies outside the image. */
+    double fraction(int i) {
+        return fractions[i];
+    }
+}
@@ -24,4 +24,13 @@ public interface StagePositionProvider {
 
     /** Returns current R (rotation) stage position in degrees. */
     double getStagePositionR() throws IOException;
+
+    /**
+     * Returns all axes and motion flags in one round trip, or null if the
+     * provider cannot batch the query; callers then fall back to the per-axis
+     * methods.
+     */
+    default StageState getStageState() throws IOException {
+        return null;
+    }
 }
@@ -0,0 +1,51 @@
+package qupath.ext.qpsc.model;
+
+/**
+ * Snapshot of every stage axis plus motion flags, read in one server round trip.
+ *
+ * @param x        X position in microns
+ * @param y        Y position in microns
+ * @param z        Z position in microns
+ * @param r        Rotation in degrees, or NaN if the microscope has no rotation stage
+ * @param xyMoving True while the XY stage is moving
+ * @param zMoving  True while the focus drive is moving
+ * @param rMoving  True while the rotation stage is moving
+ * @param busy     True while the server holds the hardware for another operation
+ *                 (acquisition, autofocus); positions may be about to change
+ */
+public record StageState(
+        double x, double y, double z, double r, boolean xyMoving, boolean zMoving, boolean rMoving, boolean busy) {
+
+    // Flag bits in the wire format's status word
+    public static final int FLAG_XY_MOVING = 1;
+    public static final int FLAG_Z_MOVING = 1 << 1;
+    public static final int FLAG_R_MOVING = 1 << 2;
+    public static final int FLAG_BUSY = 1 << 3;
+
+    /**
+     * Builds a state from wire values.
+     *
+     * @param flags Bitwise OR of the {@code FLAG_*} constants
+     */
+    public static StageState of(double x, double y, double z, double r, int flags) {
+        return new StageState(
+                x,
+                y,
+                z,
+                r,
+                (flags & FLAG_XY_MOVING) != 0,
+                (flags & FLAG_Z_MOVING) != 0,
+                (flags & FLAG_R_MOVING) != 0,
+                (flags & FLAG_BUSY) != 0);
+    }
+
+    /** True if any axis is in motion. */
+    public boolean isMoving() {
+        return xyMoving || zMoving || rMoving;
+    }
+
+    /** True if the server reported a rotation position. */
+    public boolean hasRotation() {
+        return !Double.isNaN(r);
+    }
+}
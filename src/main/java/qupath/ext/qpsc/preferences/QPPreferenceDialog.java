@@ -131,6 +131,11 @@ public class QPPreferenceDialog {
     // so it trades stitch time for accuracy.
     private static final BooleanProperty tileRegistrationEnabledProperty =
             PathPrefs.createPersistentPreference("tileRegistrationEnabled", false);
+    // Plan annotation order, and tile order inside irregular annotations, for the least
+    // stage travel instead of the fixed nearest-neighbour / serpentine order. Off by
+    // default so existing setups keep the acquisition order they are used to.
+    private static final BooleanProperty optimizeStagePathProperty =
+            PathPrefs.createPersistentPreference("optimizeStagePath", false);
     // LZW default: J2K (DEFAULT) produces corrupt codestreams at lower pyramid
     // levels with certain tile grid dimensions (Bio-Formats OMEPyramidWriter bug).
     // LZW is lossless, universally readable, and slightly larger files.
@@ -468,6 +473,18 @@ public class QPPreferenceDialog {
                         + "receive the same correction, so they stay aligned with each other.")
                 .build());
 
+        items.add(new PropertyItemBuilder<>(optimizeStagePathProperty, Boolean.class)
+                .name("Optimize stage path")
+                .category(CATEGORY)
+                .description("Order annotations, and the tiles inside irregular annotations, to minimize "
+                        + "stage travel time and axis reversals (default: off). Full rectangles keep the "
+                        + "serpentine order; sparse tissue that leaves gaps in the rows is visited region "
+                        + "by region instead of sweeping across the empty span on every row.\n\n"
+                        + "Stage speeds and reversal penalties are read from the optional stage.motion "
+                        + "section of the microscope config. When off, tiles follow the plain serpentine "
+                        + "order and annotations the nearest-neighbour order.")
+                .build());
+
         items.add(new PropertyItemBuilder<>(microscopeServerHostProperty, String.class)
                 .name("Microscope Server Host")
                 .category(CATEGORY)
@@ -775,6 +792,14 @@ public class QPPreferenceDialog {
         return Math.max(1, stitchingConcurrencyProperty.get());
     }
 
+    /**
+     * Whether annotation and tile order should be planned for the least stage
+     * travel. Default false.
+     */
+    public static boolean getOptimizeStagePath() {
+        return optimizeStagePathProperty.get();
+    }
+
     /**
      * Whether stitching should correct tile positions against the tiles' own image content rather
      * than trusting nominal stage coordinates.
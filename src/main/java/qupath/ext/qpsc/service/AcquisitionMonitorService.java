@@ -18,6 +18,11 @@ import qupath.ext.qpsc.ui.SaturationSummaryDialog;
  * AcquisitionManager, WBComparisonWorkflow) should use this instead of calling
  * monitorAcquisition directly.
  *
+ * <p>Progress, state changes and prompts arrive as a pushed event stream when
+ * the server supports it, so dialogs open as soon as the server raises them and
+ * a multi-hour run causes no idle socket traffic. Older servers are polled
+ * every {@link MonitorConfig#pollInterval(long)} milliseconds instead.
+ *
  * <p>Design principles:
  * <ul>
  *   <li>Hardware error handling is ALWAYS present (default: log + auto-cancel)</li>
@@ -242,7 +247,7 @@ public final class AcquisitionMonitorService {
             return this;
         }
 
-        /** Polling interval in milliseconds (default 500). */
+        /** Polling interval in milliseconds (default 500); only used when the server cannot push events. */
         public MonitorConfig pollInterval(long ms) {
             this.pollIntervalMs = ms;
             return this;
@@ -4,8 +4,10 @@ import java.awt.geom.AffineTransform;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import qupath.ext.qpsc.utilities.StagePathPlanner;
 import qupath.ext.qpsc.utilities.TransformationFunctions;
 import qupath.lib.objects.PathObject;
 
@@ -20,6 +22,10 @@ import qupath.lib.objects.PathObject;
  * from user refinement), and remaining annotations are ordered by proximity
  * starting from the first.</p>
  *
+ * <p>{@link #sortForStageTravel} refines the nearest-neighbor order with
+ * {@link StagePathPlanner}, which also accounts for per-axis stage speed and
+ * direction reversals.</p>
+ *
  * @author Generated for QPSC project
  * @since 1.0
  */
@@ -109,6 +115,46 @@ public class AnnotationOrderingService {
         return ordered;
     }
 
+    /**
+     * Sorts annotations for the least stage travel time.
+     *
+     * <p>Starts from the {@link #sortByProximity} order and refines it with
+     * {@link StagePathPlanner} (2-opt and Or-opt). The first annotation stays
+     * first. Falls back to the nearest-neighbor order when no transform is given
+     * or the planner finds nothing cheaper.</p>
+     *
+     * @param annotations List of annotations to sort
+     * @param transform   Affine transform for converting QuPath to stage coordinates
+     * @param model       Stage motion cost model
+     * @return New list with first element preserved, rest ordered for stage travel
+     */
+    public static List<PathObject> sortForStageTravel(
+            List<PathObject> annotations, AffineTransform transform, StagePathPlanner.MotionModel model) {
+        List<PathObject> seed = sortByProximity(annotations, transform);
+        if (transform == null || seed.size() <= 2) {
+            return seed;
+        }
+
+        List<double[]> coords =
+                seed.stream().map(ann -> getStageCoordinates(ann, transform)).collect(Collectors.toList());
+        int[] plan = StagePathPlanner.plan(coords, model);
+
+        List<PathObject> ordered = new ArrayList<>(seed.size());
+        for (int index : plan) {
+            ordered.add(seed.get(index));
+        }
+        if (!ordered.equals(seed)) {
+            String orderStr = ordered.stream().map(PathObject::getName).collect(Collectors.joining(" -> "));
+            logger.info(
+                    "Refined annotation order for stage travel: {} (est. {}s -> {}s)",
+                    orderStr,
+                    String.format("%.1f", StagePathPlanner.pathCost(
+                            coords, IntStream.range(0, coords.size()).toArray(), model)),
+                    String.format("%.1f", StagePathPlanner.pathCost(coords, plan, model)));
+        }
+        return ordered;
+    }
+
     /**
      * Gets stage coordinates for an annotation's centroid.
      *
@@ -0,0 +1,221 @@
+package qupath.ext.qpsc.service.microscope;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reader side of a push-based acquisition event subscription (ACQEVNTS).
+ *
+ * <p>Created by {@link MicroscopeSocketClient#openAcquisitionEvents()} once the
+ * server has acknowledged the subscription. The server pushes one frame per
+ * event (all integers big-endian):
+ * <pre>
+ *   int32 type | int32 bodyLength | body
+ * </pre>
+ * Body layout by {@link Type}:
+ * <ul>
+ *   <li>{@code STATE}: UTF-8 status string, same text as a STATUS reply
+ *       (including the {@code FAILED:} and {@code COMPLETED|...} details)</li>
+ *   <li>{@code PROGRESS}: int32 current, int32 total</li>
+ *   <li>{@code MANUAL_FOCUS}: int32 autofocus retries remaining</li>
+ *   <li>{@code HARDWARE_ERROR}, {@code TIMELAPSE_WARNING},
+ *       {@code SATURATION}: UTF-8 message</li>
+ *   <li>{@code KEEPALIVE}: empty, sent at least every 10 s while nothing
+ *       else happens (the client read timeout is 30 s)</li>
+ * </ul>
+ * Right after the ACK the server sends the current state, progress and any
+ * prompt already pending, so nothing raised between starting the acquisition
+ * and subscribing is lost.
+ *
+ * <p>A daemon reader thread decodes frames into an unbounded queue, and the
+ * monitor thread takes them with {@link #poll(long)}. The monitor may block
+ * for minutes in a manual-focus or saturation dialog; events keep queueing
+ * meanwhile and are handled in order afterwards.
+ *
+ * <p>The stream ends when {@link #close()} is called or the connection fails.
+ * Callers check {@link #isRunning()} after an empty poll and fall back to
+ * STATUS/PROGRESS polling.
+ */
+public class AcquisitionEventStream implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AcquisitionEventStream.class);
+
+    /** Server acknowledgement for a successful ACQEVNTS subscription. */
+    static final String SUBSCRIBE_ACK = "EVTS__OK";
+
+    /** Sanity bound on one event body; the largest is a FAILED status message. */
+    private static final int MAX_BODY_BYTES = 1024 * 1024;
+
+    /** Event kinds, numbered as on the wire. */
+    public enum Type {
+        KEEPALIVE,
+        STATE,
+        PROGRESS,
+        MANUAL_FOCUS,
+        HARDWARE_ERROR,
+        TIMELAPSE_WARNING,
+        SATURATION;
+
+        static Type fromCode(int code) {
+            Type[] values = values();
+            return code >= 0 && code < values.length ? values[code] : null;
+        }
+    }
+
+    /**
+     * One decoded event.
+     *
+     * @param type    Event kind
+     * @param message Text for STATE and the prompt events, otherwise null
+     * @param first   Progress current, or retries remaining for MANUAL_FOCUS
+     * @param second  Progress total
+     */
+    public record Event(Type type, String message, int first, int second) {}
+
+    private final Socket socket;
+    private final DataInputStream input;
+    private final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private volatile String failureMessage;
+    private Thread readerThread;
+
+    private AcquisitionEventStream(Socket socket, DataInputStream input) {
+        this.socket = socket;
+        this.input = input;
+    }
+
+    /**
+     * Wraps an already-subscribed connection and starts the reader thread.
+     */
+    static AcquisitionEventStream start(Socket socket, DataInputStream input) {
+        AcquisitionEventStream stream = new AcquisitionEventStream(socket, input);
+        Thread t = new Thread(stream::readLoop, "Microscope-AcqEvents");
+        t.setDaemon(true);
+        stream.readerThread = t;
+        t.start();
+        return stream;
+    }
+
+    /**
+     * Takes the next event, waiting up to {@code timeoutMs}.
+     *
+     * @return the event, or null if none arrived in time (check
+     *         {@link #isRunning()} to tell a quiet stream from a dead one)
+     */
+    public Event poll(long timeoutMs) throws InterruptedException {
+        return events.poll(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void readLoop() {
+        try {
+            while (running.get()) {
+                int code = input.readInt();
+                int length = input.readInt();
+                if (length < 0 || length > MAX_BODY_BYTES) {
+                    throw new IOException("Corrupt acquisition event: type=" + code + " len=" + length);
+                }
+                byte[] body = new byte[length];
+                input.readFully(body);
+
+                Event event = decode(code, body);
+                if (event == null) {
+                    // Newer server event this client does not know; the framing
+                    // is intact, so skip it
+                    logger.debug("Ignoring unknown acquisition event type {}", code);
+                } else {
+                    // Keep-alives are queued too: they tell the monitor the server is alive
+                    events.add(event);
+                }
+            }
+        } catch (IOException e) {
+            if (running.get()) {
+                // EOFException (server closed the connection) has no message
+                failureMessage = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                logger.info("Acquisition event stream ended: {}", failureMessage);
+            }
+        } finally {
+            running.set(false);
+            closeSocketQuietly();
+        }
+    }
+
+    /**
+     * Decodes one event body.
+     *
+     * @return the event, or null for an unknown type code
+     * @throws IOException if a fixed-size body is too short
+     */
+    static Event decode(int code, byte[] body) throws IOException {
+        Type type = Type.fromCode(code);
+        if (type == null) {
+            return null;
+        }
+        ByteBuffer buf = ByteBuffer.wrap(body).order(ByteOrder.BIG_ENDIAN);
+        switch (type) {
+            case PROGRESS:
+                requireLength(type, body, 8);
+                return new Event(type, null, buf.getInt(), buf.getInt());
+            case MANUAL_FOCUS:
+                requireLength(type, body, 4);
+                return new Event(type, null, buf.getInt(), 0);
+            case KEEPALIVE:
+                return new Event(type, null, 0, 0);
+            default:
+                return new Event(type, new String(body, StandardCharsets.UTF_8), 0, 0);
+        }
+    }
+
+    private static void requireLength(Type type, byte[] body, int length) throws IOException {
+        if (body.length < length) {
+            throw new IOException("Short " + type + " event: " + body.length + " bytes");
+        }
+    }
+
+    /**
+     * Returns true while the reader thread is receiving events.
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Message of the error that ended the stream, or null if it is still
+     * running or was closed deliberately.
+     */
+    public String getFailureMessage() {
+        return failureMessage;
+    }
+
+    /**
+     * Unsubscribes by closing the connection. Safe to call repeatedly.
+     */
+    @Override
+    public void close() {
+        running.set(false);
+        closeSocketQuietly();
+        Thread t = readerThread;
+        if (t != null && t != Thread.currentThread()) {
+            t.interrupt();
+        }
+    }
+
+    private void closeSocketQuietly() {
+        try {
+            if (!socket.isClosed()) {
+                socket.close();
+            }
+        } catch (IOException e) {
+            logger.debug("Error closing acquisition event socket", e);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package qupath.ext.qpsc.service.microscope;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import qupath.ext.qpsc.ui.liveviewer.FrameBufferPool;
+import qupath.ext.qpsc.ui.liveviewer.FrameData;
+
+/**
+ * Reader side of a push-based live frame subscription (STRMFRM).
+ *
+ * <p>Created by {@link MicroscopeSocketClient#openFrameStream(int, Consumer)} once the
+ * server has acknowledged the subscription. A daemon reader thread consumes frames in
+ * the GETFRAME wire format (20-byte big-endian header followed by {@code dataLength}
+ * pixel bytes) and hands each one to the sink. A header with {@code width == 0} is a
+ * server keep-alive sent while the camera has no new frame; it is skipped.
+ *
+ * <p>The sink runs on the reader thread and must not block -- the Live Viewer drops it
+ * into a latest-frame-wins slot so a slow renderer never backs up the socket. Each
+ * frame is read into a {@link FrameBufferPool} buffer and handed over holding one
+ * reference, which the sink owns and must release.
+ *
+ * <p>The stream ends when {@link #close()} is called or the connection fails. Callers
+ * poll {@link #isRunning()} to notice a dead stream and fall back to GETFRAME.
+ */
+public class LiveFrameStream implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveFrameStream.class);
+
+    /** Server acknowledgement for a successful STRMFRM subscription. */
+    static final String SUBSCRIBE_ACK = "STRM__OK";
+
+    /** Sanity bound on a single frame (a 20 MP 16-bit RGB frame is ~120 MB). */
+    private static final long MAX_FRAME_BYTES = 256L * 1024 * 1024;
+
+    private final Socket socket;
+    private final DataInputStream input;
+    private final Consumer<FrameData> sink;
+    private final FrameBufferPool pool = FrameBufferPool.shared();
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private final AtomicLong framesReceived = new AtomicLong(0);
+    private volatile String failureMessage;
+    private Thread readerThread;
+
+    private LiveFrameStream(Socket socket, DataInputStream input, Consumer<FrameData> sink) {
+        this.socket = socket;
+        this.input = input;
+        this.sink = sink;
+    }
+
+    /**
+     * Wraps an already-subscribed connection and starts the reader thread.
+     */
+    static LiveFrameStream start(Socket socket, DataInputStream input, Consumer<FrameData> sink) {
+        LiveFrameStream stream = new LiveFrameStream(socket, input, sink);
+        Thread t = new Thread(stream::readLoop, "LiveViewer-FrameStream");
+        t.setDaemon(true);
+        stream.readerThread = t;
+        t.start();
+        return stream;
+    }
+
+    private void readLoop() {
+        byte[] header = new byte[20];
+        try {
+            while (running.get()) {
+                input.readFully(header);
+                ByteBuffer headerBuf = ByteBuffer.wrap(header).order(ByteOrder.BIG_ENDIAN);
+                int width = headerBuf.getInt();
+                int height = headerBuf.getInt();
+                int channels = headerBuf.getInt();
+                int bytesPerPixel = headerBuf.getInt();
+                int dataLength = headerBuf.getInt();
+
+                // Keep-alive: no new frame since the last push
+                if (width == 0) {
+                    continue;
+                }
+
+                // A header that disagrees with its own payload size means the
+                // stream is out of sync; there is no way to resynchronise a
+                // raw byte stream, so drop the connection.
+                long expected = (long) width * height * channels * bytesPerPixel;
+                if (dataLength <= 0 || dataLength != expected || expected > MAX_FRAME_BYTES) {
+                    throw new IOException(String.format(
+                            "Corrupt frame header: %dx%d ch=%d bpp=%d len=%d",
+                            width, height, channels, bytesPerPixel, dataLength));
+                }
+
+                byte[] pixelData = pool.acquire(dataLength);
+                input.readFully(pixelData);
+                framesReceived.incrementAndGet();
+
+                sink.accept(pool.wrap(width, height, channels, bytesPerPixel, pixelData, System.currentTimeMillis()));
+            }
+        } catch (IOException e) {
+            if (running.get()) {
+                failureMessage = e.getMessage();
+                logger.info("Live frame stream ended: {}", e.getMessage());
+            }
+        } catch (RuntimeException e) {
+            failureMessage = e.getMessage();
+            logger.warn("Live frame stream sink failed", e);
+        } finally {
+            running.set(false);
+            closeSocketQuietly();
+        }
+    }
+
+    /**
+     * Returns true while the reader thread is consuming frames.
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Total frames received (excluding keep-alives) since the stream opened.
+     */
+    public long getFramesReceived() {
+        return framesReceived.get();
+    }
+
+    /**
+     * Message of the error that ended the stream, or null if it is still
+     * running or was closed deliberately.
+     */
+    public String getFailureMessage() {
+        return failureMessage;
+    }
+
+    /**
+     * Unsubscribes by closing the connection. The server treats the
+     * disconnect as the end of the subscription. Safe to call repeatedly.
+     */
+    @Override
+    public void close() {
+        if (running.getAndSet(false)) {
+            logger.info("Closing live frame stream after {} frames", framesReceived.get());
+        }
+        closeSocketQuietly();
+        Thread t = readerThread;
+        if (t != null && t != Thread.currentThread()) {
+            t.interrupt();
+        }
+    }
+
+    private void closeSocketQuietly() {
+        try {
+            if (!socket.isClosed()) {
+                socket.close();
+            }
+        } catch (IOException e) {
+            logger.debug("Error closing frame stream socket", e);
+        }
+    }
+}
@@ -7,9 +7,12 @@ import java.net.*;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -21,6 +24,7 @@ import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import qupath.ext.qpsc.model.StageState;
 import qupath.ext.qpsc.service.AcquisitionCommandBuilder;
 
 /**
@@ -80,6 +84,81 @@ public class MicroscopeSocketClient implements AutoCloseable {
     private static final long AUX_RECONNECT_BACKOFF_INITIAL_MS = 1000;
     private static final long AUX_RECONNECT_BACKOFF_MAX_MS = 30_000;
 
+    /** Wait for the STRMFRM acknowledgement before treating the server as pre-streaming. */
+    private static final int FRAME_STREAM_ACK_TIMEOUT_MS = 2000;
+
+    /** Latched once the server fails to acknowledge STRMFRM; live view then polls GETFRAME. */
+    private volatile boolean frameStreamUnsupported = false;
+
+    /** Wait for the SIFTRAW acknowledgement before treating the server as file-only. */
+    private static final int SIFT_RAW_ACK_TIMEOUT_MS = 2000;
+
+    /** Server's reply to SIFTRAW when it is ready for the inline region. */
+    private static final String SIFT_RAW_ACK = "SIFTRDY_";
+
+    /** Latched once the server fails to acknowledge SIFTRAW; SIFT then sends a file path. */
+    private volatile boolean siftRawUnsupported = false;
+
+    /** Most recently opened frame stream; closed with the client's sockets. */
+    private volatile LiveFrameStream activeFrameStream;
+
+    /** Wait for the MUXMODE acknowledgement before treating the server as pre-multiplexing. */
+    private static final int MUX_ACK_TIMEOUT_MS = 2000;
+
+    /** Pause before re-opening the multiplexed channel after it drops. */
+    private static final long MUX_RETRY_COOLDOWN_MS = 10_000;
+
+    /**
+     * Stage and hardware queries that may run concurrently with whatever else
+     * is in flight. Only idempotent commands that do not depend on which
+     * connection asks are listed: if the channel drops mid-call the request is
+     * retried on the legacy socket. STATUS, PROGRESS, CANCEL and the REQ*
+     * prompts stay on the primary socket, because the server keeps
+     * acquisition state per client connection and would answer them for the
+     * tagged connection, which owns no acquisition.
+     */
+    private static final Set<Command> MULTIPLEXED_COMMANDS = EnumSet.of(
+            Command.GETXY,
+            Command.GETZ,
+            Command.GETXYZ,
+            Command.GETSTAGE,
+            Command.GETZF,
+            Command.GETR,
+            Command.GETFOV,
+            Command.GETPXSZ);
+
+    /** Latched once the server fails to acknowledge MUXMODE; polls then share the legacy sockets. */
+    private volatile boolean multiplexUnsupported = false;
+
+    /** Request-ID-tagged connection for {@link #MULTIPLEXED_COMMANDS}; null until upgraded. */
+    private volatile MultiplexedChannel muxChannel;
+
+    /** True while a background thread is opening {@link #muxChannel}. */
+    private final AtomicBoolean muxOpening = new AtomicBoolean(false);
+
+    private volatile long muxRetryAfterMs = 0;
+
+    /** Wait for the ACQEVNTS acknowledgement before treating the server as pre-events. */
+    private static final int ACQ_EVENTS_ACK_TIMEOUT_MS = 2000;
+
+    /** Longest wait on the event queue before re-checking the progress timeout. */
+    private static final long ACQ_EVENT_WAIT_MS = 1000;
+
+    /** Latched once the server fails to acknowledge ACQEVNTS; monitoring then polls. */
+    private volatile boolean acqEventsUnsupported = false;
+
+    /** Event stream of the acquisition being monitored; closed with the client's sockets. */
+    private volatile AcquisitionEventStream activeEventStream;
+
+    /** Wait for the first GETSTAGE reply before treating the server as pre-GETSTAGE. */
+    private static final int STAGE_STATE_PROBE_TIMEOUT_MS = 2000;
+
+    /** Latched once GETSTAGE goes unanswered; pollers then query each axis. */
+    private volatile boolean stageStateUnsupported = false;
+
+    /** Set after the first good GETSTAGE reply, so later calls get the normal timeout. */
+    private volatile boolean stageStateConfirmed = false;
+
     // Connection state
     private final AtomicBoolean connected = new AtomicBoolean(false);
     private final AtomicBoolean shuttingDown = new AtomicBoolean(false);
@@ -182,6 +261,15 @@ public class MicroscopeSocketClient implements AutoCloseable {
         MOVEZ("move_z__"),
         /** Get XYZ stage position as single command */
         GETXYZ("getxyz__"),
+        /**
+         * Get the whole stage state in one round trip: X, Y, Z, R as 4-byte
+         * big-endian floats (R is NaN without a rotation stage) followed by a
+         * 4-byte status word of {@link StageState} flag bits -- 20 bytes in all.
+         * A hardware fault replies {@code HW_ERROR} padded to 20 bytes.
+         * Pre-GETSTAGE servers send nothing, so the first call uses a short
+         * timeout and callers fall back to per-axis queries.
+         */
+        GETSTAGE("getstage"),
         /** Move to XYZ position as single command */
         MOVEXYZ("movexyz_"),
         /** Move Z stage non-blocking (no wait for device) - for sweep focus */
@@ -298,6 +386,15 @@ public class MicroscopeSocketClient implements AutoCloseable {
          * issuing this command.
          */
         CORRECTFRAME("crctfram"),
+        /**
+         * Subscribe to pushed live frames. Sent on a dedicated connection
+         * (see {@link LiveFrameStream}); payload is a 4-byte big-endian max
+         * frame rate (0 = camera rate). Server replies {@code STRM__OK} and
+         * then pushes frames in the {@link #GETFRAME} wire format until the
+         * connection is closed. Pre-STRMFRM servers send nothing, so the
+         * client applies a short ACK timeout and falls back to polling.
+         */
+        STRMFRM("strmfrm_"),
         /** Start continuous sequence acquisition (core-level) */
         STRTSEQ("strtseq_"),
         /** Stop continuous sequence acquisition (core-level) */
@@ -312,6 +409,16 @@ public class MicroscopeSocketClient implements AutoCloseable {
         SIFTAL("siftal__"),
         /** SIFT image-vs-image: match two on-disk image files (no camera snap) */
         SIFTIM("siftim__"),
+        /**
+         * SIFT auto-alignment with the WSI region sent inline instead of as a
+         * file path. Server replies {@code SIFTRDY_}, then reads a
+         * {@link #GETFRAME}-format header and pixels followed by the
+         * {@link #SIFTAL} arguments without {@code --wsi-region}. Sent on its
+         * own connection; pre-SIFTRAW servers send nothing, so the client
+         * applies a short ACK timeout, drops that connection and falls back to
+         * SIFTAL on the primary socket.
+         */
+        SIFTRAW("siftraw_"),
 
         // Illumination & Profile Commands
         /** Get illumination state (power, range, on/off) */
@@ -366,6 +473,25 @@ public class MicroscopeSocketClient implements AutoCloseable {
         /** Rapid scan -- fast tiled brightfield acquisition, no AF, no Z */
         RPDSCAN("rpdscan_"),
 
+        /**
+         * Upgrade a fresh connection (after CONFIG) to request-ID-tagged
+         * framing so several commands can be in flight at once (see
+         * {@link MultiplexedChannel} for the frame layout). Server replies
+         * {@code MUX___OK}; pre-MUXMODE servers send nothing, so the client
+         * applies a short ACK timeout and keeps using the legacy sockets.
+         */
+        MUXMODE("muxmode_"),
+
+        /**
+         * Subscribe to pushed acquisition events (state changes, progress,
+         * manual focus, hardware error, time-lapse and saturation prompts).
+         * Sent on a dedicated connection (see {@link AcquisitionEventStream}
+         * for the frame layout). Server replies {@code EVTS__OK}; pre-ACQEVNTS
+         * servers send nothing, so the client applies a short ACK timeout and
+         * monitors by polling STATUS/PROGRESS.
+         */
+        ACQEVNTS("acqevnts"),
+
         /**
          * Fetch the tail of the Python server's current session log (for bug
          * reports). Server replies with a 4-byte big-endian length followed by
@@ -513,6 +639,17 @@ public class MicroscopeSocketClient implements AutoCloseable {
 
                 logger.info("Successfully connected to microscope server");
 
+                // The server may have been upgraded since the last session;
+                // let the next live view re-probe STRMFRM support, and the
+                // next poll re-probe MUXMODE.
+                frameStreamUnsupported = false;
+                multiplexUnsupported = false;
+                muxRetryAfterMs = 0;
+                stageStateUnsupported = false;
+                stageStateConfirmed = false;
+                acqEventsUnsupported = false;
+                siftRawUnsupported = false;
+
                 // CRITICAL: Send config immediately after connection
                 try {
                     sendConfig();
@@ -675,6 +812,21 @@ public class MicroscopeSocketClient implements AutoCloseable {
      * expects CFG___OK (8 bytes) or CFG_FAIL response.
      */
     private void sendConfigOnAuxiliary() throws IOException {
+        performConfigHandshake(auxInput, auxOutput, "Auxiliary");
+    }
+
+    /**
+     * Runs the CONFIG handshake on a secondary connection (auxiliary socket or
+     * frame stream). Sends the CONFIG command with the configured YAML path and
+     * consumes the CFG___OK version payload so it cannot corrupt later reads.
+     *
+     * @param in     Input stream of the connection
+     * @param out    Output stream of the connection
+     * @param label  Connection name used in log and error messages
+     * @throws IOException if the server rejects the config or replies unexpectedly
+     */
+    private static void performConfigHandshake(DataInputStream in, DataOutputStream out, String label)
+            throws IOException {
         String configPath = qupath.ext.qpsc.preferences.QPPreferenceDialog.getMicroscopeConfigFileProperty();
 
         if (configPath == null || configPath.trim().isEmpty()) {
@@ -682,48 +834,48 @@ public class MicroscopeSocketClient implements AutoCloseable {
         }
 
         // Send CONFIG command (8 bytes)
-        auxOutput.write(Command.CONFIG.getValue());
-        auxOutput.flush();
+        out.write(Command.CONFIG.getValue());
+        out.flush();
 
         // Send config path length (4 bytes, big-endian) and path
         byte[] pathBytes = configPath.getBytes(StandardCharsets.UTF_8);
         ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
         lengthBuffer.order(ByteOrder.BIG_ENDIAN);
         lengthBuffer.putInt(pathBytes.length);
-        auxOutput.write(lengthBuffer.array());
-        auxOutput.write(pathBytes);
-        auxOutput.flush();
+        out.write(lengthBuffer.array());
+        out.write(pathBytes);
+        out.flush();
 
         // Read response (8 bytes) - same format as primary socket
         byte[] response = new byte[8];
-        auxInput.readFully(response);
+        in.readFully(response);
         String responseStr = new String(response, StandardCharsets.UTF_8);
 
         if ("CFG___OK".equals(responseStr)) {
             // Consume the version JSON payload (4-byte length + JSON bytes)
             // so it doesn't remain in the buffer and corrupt subsequent reads
             byte[] verLenBytes = new byte[4];
-            auxInput.readFully(verLenBytes);
+            in.readFully(verLenBytes);
             ByteBuffer verLenBuf = ByteBuffer.wrap(verLenBytes);
             verLenBuf.order(ByteOrder.BIG_ENDIAN);
             int verJsonLength = verLenBuf.getInt();
             byte[] verJsonBytes = new byte[verJsonLength];
-            auxInput.readFully(verJsonBytes);
-            logger.debug("Auxiliary connection configured successfully (version payload: {} bytes)", verJsonLength);
+            in.readFully(verJsonBytes);
+            logger.debug("{} connection configured successfully (version payload: {} bytes)", label, verJsonLength);
         } else if ("CFG_FAIL".equals(responseStr)) {
             // Read error message: 4-byte length + message
             byte[] lengthBytes = new byte[4];
-            auxInput.readFully(lengthBytes);
+            in.readFully(lengthBytes);
             ByteBuffer lengthBuf = ByteBuffer.wrap(lengthBytes);
             lengthBuf.order(ByteOrder.BIG_ENDIAN);
             int errorLength = lengthBuf.getInt();
 
             byte[] errorBytes = new byte[errorLength];
-            auxInput.readFully(errorBytes);
+            in.readFully(errorBytes);
             String errorMsg = new String(errorBytes, StandardCharsets.UTF_8);
-            throw new IOException("Auxiliary config failed: " + errorMsg);
+            throw new IOException(label + " config failed: " + errorMsg);
         } else {
-            throw new IOException("Unexpected auxiliary config response: " + responseStr);
+            throw new IOException("Unexpected " + label.toLowerCase() + " config response: " + responseStr);
         }
     }
 
@@ -1192,6 +1344,88 @@ public class MicroscopeSocketClient implements AutoCloseable {
         return new double[] {x, y, z};
     }
 
+    /**
+     * Gets every stage axis and the motion flags in a single command, so a
+     * poller needs one round trip per cycle instead of one per axis.
+     *
+     * @return the stage state, or null if the server does not support GETSTAGE
+     * @throws IOException if communication fails
+     * @throws MicroscopeHardwareException if hardware error occurs
+     */
+    public StageState getStageState() throws IOException {
+        if (stageStateUnsupported) {
+            return null;
+        }
+        boolean probing = !stageStateConfirmed;
+        byte[] response;
+        try {
+            response = tryMultiplexed(
+                    Command.GETSTAGE, null, probing ? STAGE_STATE_PROBE_TIMEOUT_MS : Math.max(readTimeout, 30000));
+            if (response == null) {
+                response = executeStageStateOnAux(probing);
+            }
+        } catch (SocketTimeoutException e) {
+            if (probing) {
+                stageStateUnsupported = true;
+                logger.info("Server did not answer GETSTAGE -- stage polling will query each axis");
+                return null;
+            }
+            throw e;
+        }
+
+        if (response.length < 20) {
+            throw new IOException("Short GETSTAGE reply: " + response.length + " bytes");
+        }
+        String responseStr = new String(response, 0, 8, StandardCharsets.UTF_8);
+        if (responseStr.startsWith("HW_ERROR")) {
+            throw new MicroscopeHardwareException(
+                    "Hardware error getting stage state. Check that MicroManager is running and the stages are loaded.");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(response);
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        double x = buffer.getFloat();
+        double y = buffer.getFloat();
+        double z = buffer.getFloat();
+        double r = buffer.getFloat();
+        int flags = buffer.getInt();
+        stageStateConfirmed = true;
+
+        StageState state = StageState.of(x, y, z, r, flags);
+        logger.trace("Stage state: {}", state);
+        return state;
+    }
+
+    /**
+     * Sends GETSTAGE on the auxiliary socket. While probing, the read timeout
+     * is shortened so an old server costs one brief stall rather than the
+     * full aux timeout; the aux socket is then torn down like any other
+     * failed aux command.
+     */
+    private byte[] executeStageStateOnAux(boolean probing) throws IOException {
+        synchronized (auxSocketLock) {
+            ensureAuxConnected();
+            int originalTimeout = auxSocket.getSoTimeout();
+            try {
+                if (probing) {
+                    auxSocket.setSoTimeout(STAGE_STATE_PROBE_TIMEOUT_MS);
+                }
+                auxOutput.write(Command.GETSTAGE.getValue());
+                auxOutput.flush();
+
+                byte[] response = new byte[20];
+                auxInput.readFully(response);
+                if (probing) {
+                    auxSocket.setSoTimeout(originalTimeout);
+                }
+                return response;
+            } catch (IOException e) {
+                cleanupAuxiliary();
+                throw e;
+            }
+        }
+    }
+
     /**
      * Moves the stage to the specified XYZ position in a single command.
      *
@@ -3633,7 +3867,10 @@ public class MicroscopeSocketClient implements AutoCloseable {
     }
 
     /**
-     * Executes a command and optionally waits for response.
+     * Executes a command and optionally waits for response. Polls and queries in
+     * {@link #MULTIPLEXED_COMMANDS} go over the multiplexed channel when the
+     * server supports it, so they do not queue behind a slow command holding
+     * the primary socket.
      *
      * @param command Command to execute
      * @param data Optional data to send with command
@@ -3642,6 +3879,18 @@ public class MicroscopeSocketClient implements AutoCloseable {
      * @throws IOException if communication fails
      */
     private byte[] executeCommand(Command command, byte[] data, int expectedResponseBytes) throws IOException {
+        byte[] muxReply = tryMultiplexed(command, data, readTimeout);
+        if (muxReply != null) {
+            return fixedLengthReply(command, muxReply, expectedResponseBytes);
+        }
+        return executeCommandLegacy(command, data, expectedResponseBytes);
+    }
+
+    /**
+     * Executes a command on the primary socket, holding {@code socketLock} for
+     * the whole write-then-read.
+     */
+    private byte[] executeCommandLegacy(Command command, byte[] data, int expectedResponseBytes) throws IOException {
         synchronized (socketLock) {
             ensureConnected();
 
@@ -3677,6 +3926,150 @@ public class MicroscopeSocketClient implements AutoCloseable {
         }
     }
 
+    /**
+     * Runs a command on the multiplexed channel if it is eligible and the
+     * channel is up.
+     *
+     * <p>A timeout is reported to the caller but leaves every connection
+     * intact: the tagged reply is simply discarded if it arrives later. If the
+     * channel itself drops, this returns null so the caller retries on the
+     * legacy socket.
+     *
+     * @return the full reply body, or null if the caller should use the legacy socket
+     * @throws IOException if the server did not answer in time
+     */
+    private byte[] tryMultiplexed(Command command, byte[] payload, long timeoutMs) throws IOException {
+        MultiplexedChannel mux = multiplexedChannelFor(command);
+        if (mux == null) {
+            return null;
+        }
+        try {
+            byte[] reply = mux.call(command, payload, timeoutMs);
+            lastActivityTime.set(System.currentTimeMillis());
+            return reply;
+        } catch (SocketTimeoutException e) {
+            throw e;
+        } catch (IOException e) {
+            if (mux.isRunning()) {
+                throw e;
+            }
+            logger.info("Multiplexed channel lost during {} -- retrying on the legacy socket", command);
+            return null;
+        }
+    }
+
+    /**
+     * Trims a multiplexed reply to the fixed length the legacy reader expects.
+     */
+    private static byte[] fixedLengthReply(Command command, byte[] reply, int expectedBytes) throws IOException {
+        if (reply.length < expectedBytes) {
+            throw new IOException(
+                    "Short reply to " + command + ": " + reply.length + " of " + expectedBytes + " bytes");
+        }
+        return reply.length == expectedBytes ? reply : Arrays.copyOf(reply, expectedBytes);
+    }
+
+    /**
+     * Returns the multiplexed channel if {@code command} may use it and it is
+     * running. Otherwise returns null, starting a background upgrade when the
+     * server has not yet refused one -- callers never block on the handshake.
+     */
+    private MultiplexedChannel multiplexedChannelFor(Command command) {
+        if (!MULTIPLEXED_COMMANDS.contains(command)
+                || multiplexUnsupported
+                || serverUnresponsiveSuspended
+                || shuttingDown.get()
+                || !connected.get()) {
+            return null;
+        }
+        MultiplexedChannel mux = muxChannel;
+        if (mux != null && mux.isRunning()) {
+            return mux;
+        }
+        if (System.currentTimeMillis() >= muxRetryAfterMs && muxOpening.compareAndSet(false, true)) {
+            Thread t = new Thread(
+                    () -> {
+                        try {
+                            openMultiplexedChannel();
+                        } finally {
+                            muxOpening.set(false);
+                        }
+                    },
+                    "Microscope-MuxConnect");
+            t.setDaemon(true);
+            t.start();
+        }
+        return null;
+    }
+
+    /**
+     * Opens a connection, runs the CONFIG handshake and upgrades it with
+     * {@link Command#MUXMODE}. A server that does not acknowledge within
+     * {@link #MUX_ACK_TIMEOUT_MS} is remembered as unsupported until the next
+     * {@link #connect()}; any other failure is retried after a cooldown.
+     */
+    private void openMultiplexedChannel() {
+        Socket muxSocket = new Socket();
+        try {
+            muxSocket.setKeepAlive(true);
+            muxSocket.setTcpNoDelay(true);
+            muxSocket.setSoTimeout(Math.max(readTimeout, 30000));
+            muxSocket.connect(new InetSocketAddress(host, port), connectTimeout);
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(muxSocket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(muxSocket.getOutputStream()));
+            performConfigHandshake(in, out, "Multiplexed");
+
+            out.write(Command.MUXMODE.getValue());
+            out.flush();
+
+            // Old servers silently ignore unknown commands, so bound the ACK wait.
+            muxSocket.setSoTimeout(MUX_ACK_TIMEOUT_MS);
+            byte[] ack = new byte[8];
+            try {
+                in.readFully(ack);
+            } catch (SocketTimeoutException e) {
+                multiplexUnsupported = true;
+                logger.info("Server did not acknowledge MUXMODE -- polls will share the legacy sockets");
+                muxSocket.close();
+                return;
+            }
+            String ackStr = new String(ack, StandardCharsets.UTF_8);
+            if (!MultiplexedChannel.UPGRADE_ACK.equals(ackStr)) {
+                multiplexUnsupported = true;
+                logger.info("Unexpected MUXMODE reply '{}' -- polls will share the legacy sockets", ackStr.trim());
+                muxSocket.close();
+                return;
+            }
+
+            // Liveness is enforced per call; the reader may legitimately sit
+            // idle between polls.
+            muxSocket.setSoTimeout(0);
+            MultiplexedChannel previous = muxChannel;
+            muxChannel = MultiplexedChannel.start(muxSocket, in, out);
+            if (previous != null) {
+                previous.close();
+            }
+            logger.info("Multiplexed command channel established");
+        } catch (IOException | RuntimeException e) {
+            muxRetryAfterMs = System.currentTimeMillis() + MUX_RETRY_COOLDOWN_MS;
+            logger.debug("Multiplexed channel not opened: {}", e.getMessage());
+            try {
+                muxSocket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Returns true if stage and hardware queries are currently pipelined
+     * on the multiplexed channel rather than queued on the legacy sockets.
+     */
+    public boolean isMultiplexingActive() {
+        MultiplexedChannel mux = muxChannel;
+        return mux != null && mux.isRunning();
+    }
+
     /**
      * Sends a command without expecting response.
      *
@@ -4068,6 +4461,24 @@ public class MicroscopeSocketClient implements AutoCloseable {
 
         // Also clean up auxiliary socket
         cleanupAuxiliary();
+
+        LiveFrameStream stream = activeFrameStream;
+        if (stream != null) {
+            stream.close();
+            activeFrameStream = null;
+        }
+
+        MultiplexedChannel mux = muxChannel;
+        if (mux != null) {
+            mux.close();
+            muxChannel = null;
+        }
+
+        AcquisitionEventStream events = activeEventStream;
+        if (events != null) {
+            events.close();
+            activeEventStream = null;
+        }
     }
 
     /**
@@ -4259,10 +4670,10 @@ public class MicroscopeSocketClient implements AutoCloseable {
 
     private AcquisitionState getAcquisitionStatusInternal() throws IOException {
         // First, read initial response to check state
-        byte[] initialResponse = executeCommand(Command.STATUS, null, 16);
+        byte[] initialResponse = executeCommandLegacy(Command.STATUS, null, 16);
         String stateStr = new String(initialResponse, StandardCharsets.UTF_8);
 
-        // Check if this is a FAILED message with additional details
+        // FAILED and COMPLETED carry details beyond the fixed 16 bytes
         if (stateStr.startsWith("FAILED:")) {
             // Read additional bytes for the full error message (up to 512 bytes total)
             synchronized (socketLock) {
@@ -4279,18 +4690,6 @@ public class MicroscopeSocketClient implements AutoCloseable {
                     logger.warn("Could not read additional failure message bytes", e);
                 }
             }
-
-            String failureDetails = stateStr.substring("FAILED:".length()).trim();
-            lastFailureMessage = failureDetails.isEmpty() ? "Unknown server error" : failureDetails;
-            logger.error(
-                    "Received FAILED message during status check: {} - Details: {}",
-                    stateStr.trim(),
-                    lastFailureMessage);
-            return AcquisitionState.FAILED;
-        } else if (stateStr.startsWith("SUCCESS:")) {
-            logger.info("Received SUCCESS message during status check: {}", stateStr.trim());
-            lastFailureMessage = null; // Clear any previous failure message
-            return AcquisitionState.COMPLETED;
         } else if (stateStr.startsWith("COMPLETED")) {
             // Check for extended format with final_z: "COMPLETED|final_z:1234.56"
             // Read additional bytes if needed
@@ -4308,7 +4707,29 @@ public class MicroscopeSocketClient implements AutoCloseable {
                     logger.debug("No additional bytes for COMPLETED status");
                 }
             }
+        }
+        return parseAcquisitionStatus(stateStr);
+    }
 
+    /**
+     * Interprets a complete STATUS reply, recording failure details, final Z
+     * and saturation summary as side effects.
+     */
+    private AcquisitionState parseAcquisitionStatus(String stateStr) {
+        // Check if this is a FAILED message with additional details
+        if (stateStr.startsWith("FAILED:")) {
+            String failureDetails = stateStr.substring("FAILED:".length()).trim();
+            lastFailureMessage = failureDetails.isEmpty() ? "Unknown server error" : failureDetails;
+            logger.error(
+                    "Received FAILED message during status check: {} - Details: {}",
+                    stateStr.trim(),
+                    lastFailureMessage);
+            return AcquisitionState.FAILED;
+        } else if (stateStr.startsWith("SUCCESS:")) {
+            logger.info("Received SUCCESS message during status check: {}", stateStr.trim());
+            lastFailureMessage = null; // Clear any previous failure message
+            return AcquisitionState.COMPLETED;
+        } else if (stateStr.startsWith("COMPLETED")) {
             // Parse final_z and saturation from: "COMPLETED|final_z:1234.56|sat:7.0:3/2404:21.6;..."
             lastFailureMessage = null;
             lastAcquisitionFinalZ = null;
@@ -4490,11 +4911,7 @@ public class MicroscopeSocketClient implements AutoCloseable {
             socket.setSoTimeout(30000);
         }
         try {
-            byte[] response = executeCommand(Command.CANCEL, null, 3);
-            String ack = new String(response, StandardCharsets.UTF_8);
-            boolean cancelled = "ACK".equals(ack);
-            logger.info("Acquisition cancellation {}", cancelled ? "acknowledged" : "failed");
-            return cancelled;
+            return logCancelReply(executeCommandLegacy(Command.CANCEL, null, 3));
         } finally {
             synchronized (socketLock) {
                 if (socket != null && !socket.isClosed()) {
@@ -4508,6 +4925,13 @@ public class MicroscopeSocketClient implements AutoCloseable {
         }
     }
 
+    private static boolean logCancelReply(byte[] response) {
+        String ack = new String(response, StandardCharsets.UTF_8);
+        boolean cancelled = "ACK".equals(ack);
+        logger.info("Acquisition cancellation {}", cancelled ? "acknowledged" : "failed");
+        return cancelled;
+    }
+
     /**
      * Checks if manual focus is requested by the server and returns retry count.
      * This should be called periodically during acquisition to detect autofocus failures.
@@ -4861,13 +5285,19 @@ public class MicroscopeSocketClient implements AutoCloseable {
     /**
      * Monitors acquisition progress with hardware error recovery support.
      *
+     * <p>When the server supports {@link Command#ACQEVNTS}, state changes,
+     * progress and prompts are pushed on an {@link AcquisitionEventStream} and
+     * handled as they arrive, with no per-tick socket traffic. Otherwise, or if
+     * the stream drops mid-run, the status, progress and prompt commands are
+     * polled every {@code pollIntervalMs}. Callbacks behave the same either way.
+     *
      * @param progressCallback Callback for progress updates (can be null)
      * @param manualFocusCallback Callback for manual focus requests (can be null)
      * @param hardwareErrorCallback Callback for hardware errors, receives error message (can be null)
      * @param timeLapseWarningCallback Callback for time-lapse falling-behind warnings (can be null)
      * @param saturationCallback Callback for saturation continue/cancel prompts (can be null);
      *        must block until the user has decided
-     * @param pollIntervalMs Interval between progress checks in milliseconds
+     * @param pollIntervalMs Interval between progress checks in milliseconds (polling fallback only)
      * @param timeoutMs Maximum time to wait in milliseconds (0 for no timeout)
      * @return Final acquisition state
      * @throws IOException if communication fails
@@ -4883,8 +5313,162 @@ public class MicroscopeSocketClient implements AutoCloseable {
             long timeoutMs)
             throws IOException, InterruptedException {
 
-        long startTime = System.currentTimeMillis();
         // Use instance field instead of local variable so it can be reset externally
+        lastProgressUpdateTime.set(System.currentTimeMillis());
+
+        AcquisitionEventStream events = null;
+        try {
+            events = openAcquisitionEvents();
+        } catch (IOException e) {
+            logger.debug("Acquisition event stream not opened, polling instead: {}", e.getMessage());
+        }
+        if (events != null) {
+            try {
+                AcquisitionState state = monitorAcquisitionEvents(
+                        events,
+                        progressCallback,
+                        manualFocusCallback,
+                        hardwareErrorCallback,
+                        timeLapseWarningCallback,
+                        saturationCallback,
+                        timeoutMs);
+                if (state != null) {
+                    return state;
+                }
+                logger.warn(
+                        "Acquisition event stream lost ({}) -- falling back to status polling",
+                        events.getFailureMessage());
+            } finally {
+                events.close();
+                if (activeEventStream == events) {
+                    activeEventStream = null;
+                }
+            }
+        }
+
+        return pollAcquisition(
+                progressCallback,
+                manualFocusCallback,
+                hardwareErrorCallback,
+                timeLapseWarningCallback,
+                saturationCallback,
+                pollIntervalMs,
+                timeoutMs);
+    }
+
+    /**
+     * Event-driven monitor loop: handles pushed events until a terminal state,
+     * the progress timeout, or loss of the stream.
+     *
+     * @return the final state, or null if the stream died and the caller
+     *         should continue by polling
+     */
+    private AcquisitionState monitorAcquisitionEvents(
+            AcquisitionEventStream events,
+            Consumer<AcquisitionProgress> progressCallback,
+            Consumer<Integer> manualFocusCallback,
+            Consumer<String> hardwareErrorCallback,
+            Consumer<String> timeLapseWarningCallback,
+            Consumer<String> saturationCallback,
+            long timeoutMs)
+            throws InterruptedException {
+
+        int lastProgressCount = -1;
+        // Until the server reports real progress (background acquisitions
+        // start at -1/-1), keep-alives count as "server still working",
+        // matching the polling loop's treatment of -1/-1 replies.
+        boolean progressKnown = false;
+        AcquisitionState lastState = AcquisitionState.IDLE;
+
+        while (true) {
+            AcquisitionEventStream.Event event = events.poll(ACQ_EVENT_WAIT_MS);
+            if (event == null && !events.isRunning()) {
+                return null;
+            }
+
+            if (event != null) {
+                switch (event.type()) {
+                    case STATE -> {
+                        AcquisitionState state = parseAcquisitionStatus(event.message());
+                        if (state == AcquisitionState.COMPLETED
+                                || state == AcquisitionState.FAILED
+                                || state == AcquisitionState.CANCELLED) {
+                            logger.info("Acquisition reached terminal state: {}", state);
+                            return state;
+                        }
+                        if (state != lastState) {
+                            logger.info("Acquisition state changed: {} -> {}", lastState, state);
+                            lastState = state;
+                            if (state == AcquisitionState.RUNNING) {
+                                lastProgressUpdateTime.set(System.currentTimeMillis());
+                            }
+                        }
+                    }
+                    case PROGRESS -> {
+                        if (lastState == AcquisitionState.RUNNING && progressCallback != null) {
+                            AcquisitionProgress progress = new AcquisitionProgress(event.first(), event.second());
+                            progressKnown = progress.current >= 0 && progress.total >= 0;
+                            lastProgressCount = reportProgress(progress, progressCallback, lastProgressCount);
+                        }
+                    }
+                    case MANUAL_FOCUS -> {
+                        if (lastState != AcquisitionState.CANCELLING) {
+                            handleManualFocusRequest(event.first(), manualFocusCallback);
+                        }
+                    }
+                    case HARDWARE_ERROR -> {
+                        if (lastState != AcquisitionState.CANCELLING) {
+                            handleHardwareError(event.message(), hardwareErrorCallback);
+                        }
+                    }
+                    case TIMELAPSE_WARNING -> {
+                        if (lastState != AcquisitionState.CANCELLING && timeLapseWarningCallback != null) {
+                            timeLapseWarningCallback.accept(event.message());
+                        }
+                    }
+                    case SATURATION -> {
+                        if (lastState != AcquisitionState.CANCELLING) {
+                            handleSaturationDecision(event.message(), saturationCallback);
+                        }
+                    }
+                    case KEEPALIVE -> {
+                        if (!progressKnown) {
+                            lastProgressUpdateTime.set(System.currentTimeMillis());
+                        }
+                    }
+                }
+            }
+
+            // Check timeout based on last progress, not total time
+            if (timeoutMs > 0) {
+                long timeSinceProgress = System.currentTimeMillis() - lastProgressUpdateTime.get();
+                if (timeSinceProgress > timeoutMs) {
+                    logger.warn(
+                            "No progress for {} ms (last progress: {} files), timing out",
+                            timeSinceProgress,
+                            lastProgressCount);
+                    return lastState;
+                }
+            }
+        }
+    }
+
+    /**
+     * Polling monitor loop for servers without {@link Command#ACQEVNTS}: up to
+     * six commands per tick (status, manual focus, hardware error, time-lapse
+     * warning, saturation, progress).
+     */
+    private AcquisitionState pollAcquisition(
+            Consumer<AcquisitionProgress> progressCallback,
+            Consumer<Integer> manualFocusCallback,
+            Consumer<String> hardwareErrorCallback,
+            Consumer<String> timeLapseWarningCallback,
+            Consumer<String> saturationCallback,
+            long pollIntervalMs,
+            long timeoutMs)
+            throws IOException, InterruptedException {
+
+        long startTime = System.currentTimeMillis();
         lastProgressUpdateTime.set(startTime);
         int lastProgressCount = -1; // Initialize to -1 to detect first progress
         AcquisitionState lastState = AcquisitionState.IDLE;
@@ -4920,18 +5504,7 @@ public class MicroscopeSocketClient implements AutoCloseable {
                     try {
                         int manualFocusRetries = isManualFocusRequested();
                         if (manualFocusRetries >= 0) {
-                            // Manual focus is requested - reset timeout since we're waiting for user input
-                            lastProgressUpdateTime.set(System.currentTimeMillis());
-                            if (manualFocusCallback != null) {
-                                // Delegate handling to caller (may block for dialog)
-                                manualFocusCallback.accept(manualFocusRetries);
-                                // Reset timeout again after handling (dialog may have taken time)
-                                lastProgressUpdateTime.set(System.currentTimeMillis());
-                            } else {
-                                logger.debug(
-                                        "Manual focus requested (retries: {}) - resetting progress timeout (no handler)",
-                                        manualFocusRetries);
-                            }
+                            handleManualFocusRequest(manualFocusRetries, manualFocusCallback);
                         }
                     } catch (IOException e) {
                         logger.debug("Failed to check manual focus status: {}", e.getMessage());
@@ -4943,13 +5516,7 @@ public class MicroscopeSocketClient implements AutoCloseable {
                 if (currentState != AcquisitionState.CANCELLING) {
                     String hwError = checkHardwareError();
                     if (hwError != null) {
-                        lastProgressUpdateTime.set(System.currentTimeMillis());
-                        if (hardwareErrorCallback != null) {
-                            hardwareErrorCallback.accept(hwError);
-                            lastProgressUpdateTime.set(System.currentTimeMillis());
-                        } else {
-                            logger.warn("Hardware error reported but no handler: {}", hwError);
-                        }
+                        handleHardwareError(hwError, hardwareErrorCallback);
                     }
                 }
 
@@ -4974,23 +5541,7 @@ public class MicroscopeSocketClient implements AutoCloseable {
                 if (currentState != AcquisitionState.CANCELLING) {
                     String saturationMsg = checkSaturationDecision();
                     if (saturationMsg != null) {
-                        lastProgressUpdateTime.set(System.currentTimeMillis());
-                        if (saturationCallback != null) {
-                            saturationCallback.accept(saturationMsg);
-                            lastProgressUpdateTime.set(System.currentTimeMillis());
-                        } else {
-                            // No handler wired -- preserve the pre-feature hard
-                            // abort by answering cancel, so the server's paused
-                            // acquisition thread does not block forever.
-                            logger.warn(
-                                    "Saturation decision requested but no handler -- sending cancel: {}",
-                                    saturationMsg);
-                            try {
-                                acknowledgeSaturation("cancel");
-                            } catch (IOException e) {
-                                logger.error("Failed to send cancel for unhandled saturation prompt", e);
-                            }
-                        }
+                        handleSaturationDecision(saturationMsg, saturationCallback);
                     }
                 }
 
@@ -4998,29 +5549,7 @@ public class MicroscopeSocketClient implements AutoCloseable {
                 if (currentState == AcquisitionState.RUNNING && progressCallback != null) {
                     try {
                         AcquisitionProgress progress = getAcquisitionProgress();
-
-                        // For background acquisition, progress might start at -1/-1, which is normal
-                        // Only report valid progress values
-                        if (progress.current >= 0 && progress.total >= 0) {
-                            progressCallback.accept(progress);
-
-                            // Check if progress was actually made
-                            if (progress.current > lastProgressCount) {
-                                lastProgressUpdateTime.set(System.currentTimeMillis());
-                                lastProgressCount = progress.current;
-                                logger.debug(
-                                        "Progress updated: {}/{} files, resetting timeout",
-                                        progress.current,
-                                        progress.total);
-                            }
-                        } else {
-                            // Invalid progress (-1/-1), but still reset timeout if we got a response
-                            lastProgressUpdateTime.set(System.currentTimeMillis());
-                            logger.debug(
-                                    "Received progress response (server still working): {}/{}",
-                                    progress.current,
-                                    progress.total);
-                        }
+                        lastProgressCount = reportProgress(progress, progressCallback, lastProgressCount);
                     } catch (IOException e) {
                         logger.debug(
                                 "Failed to get progress (expected during background acquisition): {}", e.getMessage());
@@ -5100,6 +5629,88 @@ public class MicroscopeSocketClient implements AutoCloseable {
         return lastState;
     }
 
+    /**
+     * Passes a progress report to the callback and resets the progress timeout
+     * when the count advances (or when the server has no count yet).
+     *
+     * @return the updated last-seen progress count
+     */
+    private int reportProgress(
+            AcquisitionProgress progress, Consumer<AcquisitionProgress> progressCallback, int lastProgressCount) {
+        // For background acquisition, progress might start at -1/-1, which is normal
+        // Only report valid progress values
+        if (progress.current >= 0 && progress.total >= 0) {
+            progressCallback.accept(progress);
+
+            // Check if progress was actually made
+            if (progress.current > lastProgressCount) {
+                lastProgressUpdateTime.set(System.currentTimeMillis());
+                logger.debug("Progress updated: {}/{} files, resetting timeout", progress.current, progress.total);
+                return progress.current;
+            }
+        } else {
+            // Invalid progress (-1/-1), but still reset timeout if we got a response
+            lastProgressUpdateTime.set(System.currentTimeMillis());
+            logger.debug(
+                    "Received progress response (server still working): {}/{}", progress.current, progress.total);
+        }
+        return lastProgressCount;
+    }
+
+    /**
+     * Hands a manual focus request to the callback. Waiting for the user is not
+     * a stall, so the progress timeout is reset before and after.
+     */
+    private void handleManualFocusRequest(int retriesRemaining, Consumer<Integer> manualFocusCallback) {
+        lastProgressUpdateTime.set(System.currentTimeMillis());
+        if (manualFocusCallback != null) {
+            // Delegate handling to caller (may block for dialog)
+            manualFocusCallback.accept(retriesRemaining);
+            // Reset timeout again after handling (dialog may have taken time)
+            lastProgressUpdateTime.set(System.currentTimeMillis());
+        } else {
+            logger.debug(
+                    "Manual focus requested (retries: {}) - resetting progress timeout (no handler)", retriesRemaining);
+        }
+    }
+
+    /**
+     * Hands a hardware error to the callback, resetting the progress timeout
+     * around the (possibly blocking) user decision.
+     */
+    private void handleHardwareError(String hwError, Consumer<String> hardwareErrorCallback) {
+        lastProgressUpdateTime.set(System.currentTimeMillis());
+        if (hardwareErrorCallback != null) {
+            hardwareErrorCallback.accept(hwError);
+            lastProgressUpdateTime.set(System.currentTimeMillis());
+        } else {
+            logger.warn("Hardware error reported but no handler: {}", hwError);
+        }
+    }
+
+    /**
+     * Hands a saturation continue/cancel prompt to the callback, which must
+     * block until it has answered. With no handler the prompt is answered
+     * "cancel".
+     */
+    private void handleSaturationDecision(String saturationMsg, Consumer<String> saturationCallback) {
+        lastProgressUpdateTime.set(System.currentTimeMillis());
+        if (saturationCallback != null) {
+            saturationCallback.accept(saturationMsg);
+            lastProgressUpdateTime.set(System.currentTimeMillis());
+        } else {
+            // No handler wired -- preserve the pre-feature hard
+            // abort by answering cancel, so the server's paused
+            // acquisition thread does not block forever.
+            logger.warn("Saturation decision requested but no handler -- sending cancel: {}", saturationMsg);
+            try {
+                acknowledgeSaturation("cancel");
+            } catch (IOException e) {
+                logger.error("Failed to send cancel for unhandled saturation prompt", e);
+            }
+        }
+    }
+
     // ==================== WHITE BALANCE CALIBRATION ====================
 
     /**
@@ -6768,6 +7379,10 @@ public class MicroscopeSocketClient implements AutoCloseable {
      *   <li>Read dataLength bytes of raw pixel data</li>
      * </ul>
      *
+     * <p>The returned frame holds one reference to a pooled pixel buffer;
+     * call {@link qupath.ext.qpsc.ui.liveviewer.FrameData#release()} when done
+     * so the buffer can be reused (unreleased frames are simply GC'd).
+     *
      * @return FrameData record, or null if no frame is available
      * @throws IOException if communication fails
      */
@@ -6798,12 +7413,13 @@ public class MicroscopeSocketClient implements AutoCloseable {
                     return null;
                 }
 
-                // Read pixel data
-                byte[] pixelData = new byte[dataLength];
+                // Read pixel data into a recycled buffer (see FrameBufferPool)
+                qupath.ext.qpsc.ui.liveviewer.FrameBufferPool pool =
+                        qupath.ext.qpsc.ui.liveviewer.FrameBufferPool.shared();
+                byte[] pixelData = pool.acquire(dataLength);
                 auxInput.readFully(pixelData);
 
-                return new qupath.ext.qpsc.ui.liveviewer.FrameData(
-                        width, height, channels, bytesPerPixel, pixelData, System.currentTimeMillis());
+                return pool.wrap(width, height, channels, bytesPerPixel, pixelData, System.currentTimeMillis());
 
             } catch (IOException e) {
                 // If auxiliary fails, clean it up so it can reconnect
@@ -6887,11 +7503,12 @@ public class MicroscopeSocketClient implements AutoCloseable {
                     return null;
                 }
 
-                byte[] pixelData = new byte[dataLength];
+                qupath.ext.qpsc.ui.liveviewer.FrameBufferPool pool =
+                        qupath.ext.qpsc.ui.liveviewer.FrameBufferPool.shared();
+                byte[] pixelData = pool.acquire(dataLength);
                 auxInput.readFully(pixelData);
 
-                return new qupath.ext.qpsc.ui.liveviewer.FrameData(
-                        width, height, channels, bytesPerPixel, pixelData, System.currentTimeMillis());
+                return pool.wrap(width, height, channels, bytesPerPixel, pixelData, System.currentTimeMillis());
 
             } catch (IOException e) {
                 cleanupAuxiliary();
@@ -6900,6 +7517,175 @@ public class MicroscopeSocketClient implements AutoCloseable {
         }
     }
 
+    /**
+     * Opens a push-based live frame stream on a dedicated connection.
+     *
+     * <p>Pushed frames cannot share the auxiliary socket: stage moves and
+     * position queries on that socket expect strict request/response
+     * framing. The stream therefore gets its own connection (same CONFIG
+     * handshake as the auxiliary socket), subscribes with {@link Command#STRMFRM},
+     * and is read continuously by the {@link LiveFrameStream} reader thread.
+     *
+     * <p>Returns {@code null} when the server does not support streaming
+     * (no {@code STRM__OK} within {@link #FRAME_STREAM_ACK_TIMEOUT_MS}).
+     * That answer is remembered for the lifetime of this client so callers
+     * can fall back to {@link #getFrame()} polling without re-probing.
+     *
+     * @param maxFps Upper bound on pushed frames per second (0 = camera rate)
+     * @param sink   Receives each frame on the stream reader thread; must not block
+     * @return the running stream, or null if the server cannot stream
+     * @throws IOException if the connection or handshake fails
+     */
+    public LiveFrameStream openFrameStream(int maxFps, Consumer<qupath.ext.qpsc.ui.liveviewer.FrameData> sink)
+            throws IOException {
+        if (frameStreamUnsupported) {
+            return null;
+        }
+        if (serverUnresponsiveSuspended) {
+            throw new IOException("Microscope server unresponsive -- frame stream not opened");
+        }
+
+        Socket streamSocket = new Socket();
+        try {
+            streamSocket.setKeepAlive(true);
+            streamSocket.setTcpNoDelay(true);
+            streamSocket.setSoTimeout(Math.max(readTimeout, 30000));
+            streamSocket.connect(new InetSocketAddress(host, port), connectTimeout);
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(streamSocket.getInputStream(), 1 << 16));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(streamSocket.getOutputStream()));
+            performConfigHandshake(in, out, "Frame stream");
+
+            out.write(Command.STRMFRM.getValue());
+            out.writeInt(Math.max(0, maxFps));
+            out.flush();
+
+            // Old servers silently ignore unknown commands, so bound the ACK wait.
+            streamSocket.setSoTimeout(FRAME_STREAM_ACK_TIMEOUT_MS);
+            byte[] ack = new byte[8];
+            try {
+                in.readFully(ack);
+            } catch (SocketTimeoutException e) {
+                frameStreamUnsupported = true;
+                logger.info("Server did not acknowledge STRMFRM -- live view will poll GETFRAME");
+                streamSocket.close();
+                return null;
+            }
+            String ackStr = new String(ack, StandardCharsets.UTF_8);
+            if (!LiveFrameStream.SUBSCRIBE_ACK.equals(ackStr)) {
+                frameStreamUnsupported = true;
+                logger.info("Unexpected STRMFRM reply '{}' -- live view will poll GETFRAME", ackStr.trim());
+                streamSocket.close();
+                return null;
+            }
+
+            // Pushed frames can pause for a while (camera stopped, hardware lock
+            // held by a tile capture), so use the same generous timeout as aux.
+            streamSocket.setSoTimeout(Math.max(readTimeout, 30000));
+            LiveFrameStream stream = LiveFrameStream.start(streamSocket, in, sink);
+            LiveFrameStream previous = activeFrameStream;
+            activeFrameStream = stream;
+            if (previous != null) {
+                previous.close();
+            }
+            logger.info("Live frame stream subscribed (maxFps={})", maxFps);
+            return stream;
+        } catch (IOException | RuntimeException e) {
+            try {
+                streamSocket.close();
+            } catch (IOException ignored) {
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns true if this client has not (yet) seen the server reject
+     * {@link Command#STRMFRM}. Callers use it to skip the subscribe attempt
+     * when the answer is already known.
+     */
+    public boolean isFrameStreamSupported() {
+        return !frameStreamUnsupported;
+    }
+
+    /**
+     * Subscribes to pushed acquisition events on a dedicated connection.
+     *
+     * <p>Like the frame stream, events cannot share the primary or auxiliary
+     * socket, which expect strict request/response framing. The connection
+     * runs the usual CONFIG handshake, subscribes with {@link Command#ACQEVNTS}
+     * and is read by the {@link AcquisitionEventStream} reader thread. The
+     * read timeout stays at the auxiliary socket's generous value: the server
+     * sends keep-alives while idle, so a silent connection is a dead one and
+     * ends the stream.
+     *
+     * <p>Returns {@code null} when the server does not support events (no
+     * {@code EVTS__OK} within {@link #ACQ_EVENTS_ACK_TIMEOUT_MS}); that answer
+     * is remembered until the next {@link #connect()}.
+     *
+     * @return the running stream, or null if the server cannot push events
+     * @throws IOException if the connection or handshake fails
+     */
+    public AcquisitionEventStream openAcquisitionEvents() throws IOException {
+        if (acqEventsUnsupported) {
+            return null;
+        }
+        if (serverUnresponsiveSuspended) {
+            throw new IOException("Microscope server unresponsive -- event stream not opened");
+        }
+
+        Socket eventSocket = new Socket();
+        try {
+            eventSocket.setKeepAlive(true);
+            eventSocket.setTcpNoDelay(true);
+            eventSocket.setSoTimeout(Math.max(readTimeout, 30000));
+            eventSocket.connect(new InetSocketAddress(host, port), connectTimeout);
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(eventSocket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(eventSocket.getOutputStream()));
+            performConfigHandshake(in, out, "Event stream");
+
+            out.write(Command.ACQEVNTS.getValue());
+            out.flush();
+
+            // Old servers silently ignore unknown commands, so bound the ACK wait.
+            eventSocket.setSoTimeout(ACQ_EVENTS_ACK_TIMEOUT_MS);
+            byte[] ack = new byte[8];
+            try {
+                in.readFully(ack);
+            } catch (SocketTimeoutException e) {
+                acqEventsUnsupported = true;
+                logger.info("Server did not acknowledge ACQEVNTS -- acquisitions will be monitored by polling");
+                eventSocket.close();
+                return null;
+            }
+            String ackStr = new String(ack, StandardCharsets.UTF_8);
+            if (!AcquisitionEventStream.SUBSCRIBE_ACK.equals(ackStr)) {
+                acqEventsUnsupported = true;
+                logger.info(
+                        "Unexpected ACQEVNTS reply '{}' -- acquisitions will be monitored by polling", ackStr.trim());
+                eventSocket.close();
+                return null;
+            }
+
+            eventSocket.setSoTimeout(Math.max(readTimeout, 30000));
+            AcquisitionEventStream stream = AcquisitionEventStream.start(eventSocket, in);
+            AcquisitionEventStream previous = activeEventStream;
+            activeEventStream = stream;
+            if (previous != null) {
+                previous.close();
+            }
+            logger.info("Acquisition event stream subscribed");
+            return stream;
+        } catch (IOException | RuntimeException e) {
+            try {
+                eventSocket.close();
+            } catch (IOException ignored) {
+            }
+            throw e;
+        }
+    }
+
     /**
      * Starts continuous sequence acquisition at the MM Core level.
      * This bypasses MM's studio/live window entirely -- the camera fills
@@ -6978,6 +7764,11 @@ public class MicroscopeSocketClient implements AutoCloseable {
      * @throws IOException if communication fails
      */
     private byte[] executeCommandOnAux(Command command, byte[] payload, int responseLength) throws IOException {
+        // Same generous timeout as the aux socket itself (see connectAuxiliary)
+        byte[] muxReply = tryMultiplexed(command, payload, Math.max(readTimeout, 30000));
+        if (muxReply != null) {
+            return fixedLengthReply(command, muxReply, responseLength);
+        }
         synchronized (auxSocketLock) {
             ensureAuxConnected();
 
@@ -7268,8 +8059,194 @@ public class MicroscopeSocketClient implements AutoCloseable {
             double coarsePixelSizeUm,
             String rgbConversion)
             throws IOException {
+        String msg = "--wsi-region " + wsiRegionPath
+                + siftOptions(
+                        microscopePixelSize,
+                        wsiPixelSize,
+                        flipX,
+                        flipY,
+                        minPixelSizeUm,
+                        ratioThreshold,
+                        minMatchCount,
+                        contrastThreshold,
+                        nFeatures,
+                        monoNormalization,
+                        percentileLow,
+                        percentileHigh,
+                        claheEnabled,
+                        claheClipLimit,
+                        coarseToFineEnabled,
+                        coarsePixelSizeUm,
+                        rgbConversion);
+
+        // SIFT uses a simple request/response (no STARTED/final pattern)
+        synchronized (socketLock) {
+            output.write(Command.SIFTAL.getValue());
+            output.write(msg.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            output.flush();
+
+            logger.info("SIFTAL command sent");
+            return readSiftResponse("SIFTAL");
+        }
+    }
+
+    /**
+     * Run SIFT auto-alignment with the WSI region sent over the socket as raw
+     * pixels, so the client never encodes it and the server never decodes it.
+     *
+     * <p>The region goes out in the {@link Command#GETFRAME} wire format: a
+     * 20-byte header of big-endian int32s (width, height, channels,
+     * bytesPerPixel, dataLength) followed by interleaved pixels, 16-bit
+     * samples big-endian. Servers that predate {@link Command#SIFTRAW} do not
+     * acknowledge it; that answer is remembered until the next
+     * {@link #connect()} and this method returns null so the caller can fall
+     * back to {@link #siftAutoAlign}.
+     *
+     * <p>The command runs on a connection of its own, like the other probed
+     * commands. A late {@code SIFTRDY_} from a slow server, or a capable
+     * server still waiting for the pixel header, then dies with that
+     * connection instead of being read as the reply to a later command on the
+     * primary socket. If the connection cannot be opened, this returns null
+     * without latching, and the caller falls back for this call only.
+     *
+     * @param width         Region width in pixels
+     * @param height        Region height in pixels
+     * @param channels      Samples per pixel (1 or 3)
+     * @param bytesPerPixel Bytes per sample (1 or 2)
+     * @param pixels        Interleaved pixel data, {@code width * height * channels * bytesPerPixel} bytes
+     * @return Response string as for {@link #siftAutoAlign}, or null if the server cannot take inline regions
+     * @throws IOException if communication fails or matching fails
+     */
+    public String siftAutoAlignRaw(
+            int width,
+            int height,
+            int channels,
+            int bytesPerPixel,
+            byte[] pixels,
+            double microscopePixelSize,
+            double wsiPixelSize,
+            boolean flipX,
+            boolean flipY,
+            double minPixelSizeUm,
+            double ratioThreshold,
+            int minMatchCount,
+            double contrastThreshold,
+            int nFeatures,
+            String monoNormalization,
+            double percentileLow,
+            double percentileHigh,
+            boolean claheEnabled,
+            double claheClipLimit,
+            boolean coarseToFineEnabled,
+            double coarsePixelSizeUm,
+            String rgbConversion)
+            throws IOException {
+        if (siftRawUnsupported) {
+            return null;
+        }
+        int dataLength = width * height * channels * bytesPerPixel;
+        if (pixels.length < dataLength) {
+            throw new IllegalArgumentException(
+                    "SIFTRAW: " + pixels.length + " bytes supplied for a " + dataLength + "-byte region");
+        }
+        String msg = siftOptions(
+                        microscopePixelSize,
+                        wsiPixelSize,
+                        flipX,
+                        flipY,
+                        minPixelSizeUm,
+                        ratioThreshold,
+                        minMatchCount,
+                        contrastThreshold,
+                        nFeatures,
+                        monoNormalization,
+                        percentileLow,
+                        percentileHigh,
+                        claheEnabled,
+                        claheClipLimit,
+                        coarseToFineEnabled,
+                        coarsePixelSizeUm,
+                        rgbConversion)
+                .trim();
+
+        Socket siftSocket = new Socket();
+        try {
+            DataInputStream in;
+            DataOutputStream out;
+            try {
+                siftSocket.setKeepAlive(true);
+                siftSocket.setTcpNoDelay(true);
+                siftSocket.setSoTimeout(Math.max(readTimeout, 30000));
+                siftSocket.connect(new InetSocketAddress(host, port), connectTimeout);
+                in = new DataInputStream(new BufferedInputStream(siftSocket.getInputStream()));
+                out = new DataOutputStream(new BufferedOutputStream(siftSocket.getOutputStream(), 1 << 16));
+                performConfigHandshake(in, out, "SIFTRAW");
+            } catch (IOException | RuntimeException e) {
+                logger.info("SIFTRAW connection not opened ({}) -- sending the region as a file", e.getMessage());
+                return null;
+            }
+
+            out.write(Command.SIFTRAW.getValue());
+            out.flush();
+
+            // Old servers silently ignore unknown commands, so bound the ACK wait
+            // before any pixels go out.
+            siftSocket.setSoTimeout(SIFT_RAW_ACK_TIMEOUT_MS);
+            byte[] ack = new byte[8];
+            try {
+                in.readFully(ack);
+            } catch (SocketTimeoutException e) {
+                siftRawUnsupported = true;
+                logger.info("Server did not acknowledge SIFTRAW -- SIFT will send the region as a file");
+                return null;
+            }
+            String ackStr = new String(ack, StandardCharsets.UTF_8);
+            if (!SIFT_RAW_ACK.equals(ackStr)) {
+                siftRawUnsupported = true;
+                logger.info("Unexpected SIFTRAW reply '{}' -- SIFT will send the region as a file", ackStr.trim());
+                return null;
+            }
+
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeInt(channels);
+            out.writeInt(bytesPerPixel);
+            out.writeInt(dataLength);
+            out.write(pixels, 0, dataLength);
+            out.write(msg.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+
+            logger.info("SIFTRAW command sent ({}x{}x{}, {} bytes)", width, height, channels, dataLength);
+            siftSocket.setSoTimeout(30_000); // 30 second timeout for SIFT
+            return readSiftResponse("SIFTRAW", in);
+        } finally {
+            try {
+                siftSocket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /** Builds the SIFTAL arguments that follow the WSI region, ending in ENDOFSTR. */
+    private static String siftOptions(
+            double microscopePixelSize,
+            double wsiPixelSize,
+            boolean flipX,
+            boolean flipY,
+            double minPixelSizeUm,
+            double ratioThreshold,
+            int minMatchCount,
+            double contrastThreshold,
+            int nFeatures,
+            String monoNormalization,
+            double percentileLow,
+            double percentileHigh,
+            boolean claheEnabled,
+            double claheClipLimit,
+            boolean coarseToFineEnabled,
+            double coarsePixelSizeUm,
+            String rgbConversion) {
         StringBuilder msg = new StringBuilder();
-        msg.append("--wsi-region ").append(wsiRegionPath);
         msg.append(" --micro-px ").append(microscopePixelSize);
         msg.append(" --wsi-px ").append(wsiPixelSize);
         msg.append(" --min-px ").append(minPixelSizeUm);
@@ -7292,31 +8269,31 @@ public class MicroscopeSocketClient implements AutoCloseable {
         if (flipX) msg.append(" --flip-x");
         if (flipY) msg.append(" --flip-y");
         msg.append(" ENDOFSTR");
+        return msg.toString();
+    }
 
-        // SIFT uses a simple request/response (no STARTED/final pattern)
-        synchronized (socketLock) {
-            output.write(Command.SIFTAL.getValue());
-            output.write(msg.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
-            output.flush();
-
-            logger.info("SIFTAL command sent");
+    /** Reads a SIFT reply on the primary socket; the caller holds {@code socketLock}. */
+    private String readSiftResponse(String label) throws IOException {
+        socket.setSoTimeout(30_000); // 30 second timeout for SIFT
+        try {
+            return readSiftResponse(label, input);
+        } finally {
+            socket.setSoTimeout(readTimeout);
+        }
+    }
 
-            socket.setSoTimeout(30_000); // 30 second timeout for SIFT
-            try {
-                byte[] buf = new byte[4096];
-                int n = input.read(buf);
-                if (n <= 0) throw new IOException("SIFTAL: no response");
-                String response = new String(buf, 0, n, java.nio.charset.StandardCharsets.UTF_8);
-                logger.info("SIFTAL response: {}", response);
+    /** Reads a SIFT reply from {@code in}, whose socket timeout the caller has set. */
+    private static String readSiftResponse(String label, DataInputStream in) throws IOException {
+        byte[] buf = new byte[4096];
+        int n = in.read(buf);
+        if (n <= 0) throw new IOException(label + ": no response");
+        String response = new String(buf, 0, n, java.nio.charset.StandardCharsets.UTF_8);
+        logger.info("{} response: {}", label, response);
 
-                if (response.startsWith("FAILED")) {
-                    throw new IOException("SIFT matching failed: " + response.substring(7));
-                }
-                return response;
-            } finally {
-                socket.setSoTimeout(readTimeout);
-            }
+        if (response.startsWith("FAILED")) {
+            throw new IOException("SIFT matching failed: " + response.substring(7));
         }
+        return response;
     }
 
     /**
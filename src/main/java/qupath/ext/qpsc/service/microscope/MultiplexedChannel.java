@@ -0,0 +1,242 @@
+package qupath.ext.qpsc.service.microscope;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Request-ID-tagged connection that lets several commands be in flight at once.
+ *
+ * <p>Created by {@link MicroscopeSocketClient} once the server has acknowledged
+ * {@link MicroscopeSocketClient.Command#MUXMODE}. From then on every request and
+ * response on the connection is framed (all integers big-endian):
+ * <pre>
+ *   request:  int32 requestId | 8-byte command | int32 payloadLength | payload
+ *   response: int32 requestId | int32 bodyLength | body
+ * </pre>
+ * The body is exactly the bytes the command writes in the legacy protocol, so
+ * callers parse it the same way. The server may answer requests in any order;
+ * a daemon reader thread dispatches each response to the
+ * {@link CompletableFuture} registered for its ID.
+ *
+ * <p>Writers only hold the output lock for the length of one frame, so a slow
+ * command never blocks other callers from sending. A response whose caller has
+ * already timed out is read and discarded -- unlike the legacy protocol, a late
+ * reply cannot desynchronise later reads.
+ *
+ * <p>When the connection fails every pending request completes exceptionally
+ * and {@link #isRunning()} turns false; {@link MicroscopeSocketClient} then
+ * falls back to the legacy sockets.
+ */
+public class MultiplexedChannel implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MultiplexedChannel.class);
+
+    /** Server acknowledgement for a successful MUXMODE upgrade. */
+    static final String UPGRADE_ACK = "MUX___OK";
+
+    /** Sanity bound on one response body; legacy replies are at most a few KB of JSON. */
+    private static final int MAX_BODY_BYTES = 16 * 1024 * 1024;
+
+    private final Socket socket;
+    private final DataInputStream input;
+    private final DataOutputStream output;
+    private final Object writeLock = new Object();
+    private final Map<Integer, CompletableFuture<byte[]>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger nextRequestId = new AtomicInteger(1);
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private volatile String failureMessage;
+    private Thread readerThread;
+
+    private MultiplexedChannel(Socket socket, DataInputStream input, DataOutputStream output) {
+        this.socket = socket;
+        this.input = input;
+        this.output = output;
+    }
+
+    /**
+     * Wraps an already-upgraded connection and starts the reader thread.
+     */
+    static MultiplexedChannel start(Socket socket, DataInputStream input, DataOutputStream output) {
+        MultiplexedChannel channel = new MultiplexedChannel(socket, input, output);
+        Thread t = new Thread(channel::readLoop, "Microscope-MuxReader");
+        t.setDaemon(true);
+        channel.readerThread = t;
+        t.start();
+        return channel;
+    }
+
+    /**
+     * Sends a command without waiting for its response.
+     *
+     * @param command Command to send
+     * @param payload Payload bytes, or null for none
+     * @return future completed with the response body, or exceptionally if the
+     *         channel fails first
+     */
+    public CompletableFuture<byte[]> submit(MicroscopeSocketClient.Command command, byte[] payload) {
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        if (!running.get()) {
+            future.completeExceptionally(closedException());
+            return future;
+        }
+
+        int id = nextRequestId.getAndUpdate(i -> i == Integer.MAX_VALUE ? 1 : i + 1);
+        pending.put(id, future);
+        if (!running.get()) {
+            // Lost a race with shutdown(), which may already have drained the map
+            pending.remove(id);
+            future.completeExceptionally(closedException());
+            return future;
+        }
+        int payloadLength = payload == null ? 0 : payload.length;
+        try {
+            synchronized (writeLock) {
+                output.writeInt(id);
+                output.write(command.getValue());
+                output.writeInt(payloadLength);
+                if (payloadLength > 0) {
+                    output.write(payload);
+                }
+                output.flush();
+            }
+        } catch (IOException e) {
+            pending.remove(id);
+            future.completeExceptionally(e);
+            shutdown("Write failed: " + e.getMessage());
+        }
+        return future;
+    }
+
+    /**
+     * Sends a command and waits for its response. Synchronous wrapper over
+     * {@link #submit}; other callers' requests keep flowing while this one waits.
+     *
+     * @param command   Command to send
+     * @param payload   Payload bytes, or null for none
+     * @param timeoutMs Maximum wait for the response
+     * @return the response body
+     * @throws SocketTimeoutException if no response arrives in time (the channel stays usable)
+     * @throws IOException            if the channel fails
+     */
+    public byte[] call(MicroscopeSocketClient.Command command, byte[] payload, long timeoutMs) throws IOException {
+        CompletableFuture<byte[]> future = submit(command, payload);
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Drop the waiter; the reader discards the reply if it turns up later
+            pending.values().remove(future);
+            throw new SocketTimeoutException(
+                    "No multiplexed response to " + command.name() + " within " + timeoutMs + "ms");
+        } catch (InterruptedException e) {
+            pending.values().remove(future);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for " + command.name(), e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Multiplexed " + command.name() + " failed", cause);
+        }
+    }
+
+    private void readLoop() {
+        try {
+            while (running.get()) {
+                int id = input.readInt();
+                int length = input.readInt();
+                if (length < 0 || length > MAX_BODY_BYTES) {
+                    // No way to resynchronise a raw byte stream after a bad length
+                    throw new IOException("Corrupt multiplexed frame: id=" + id + " len=" + length);
+                }
+                byte[] body = new byte[length];
+                input.readFully(body);
+
+                CompletableFuture<byte[]> future = pending.remove(id);
+                if (future != null) {
+                    future.complete(body);
+                } else {
+                    logger.debug("Discarding multiplexed response for abandoned request {} ({} bytes)", id, length);
+                }
+            }
+        } catch (IOException e) {
+            if (running.get()) {
+                shutdown(e.getMessage());
+            }
+        } finally {
+            shutdown(null);
+        }
+    }
+
+    /**
+     * Returns true while the connection is usable.
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Requests sent but not yet answered (or abandoned by a timed-out caller).
+     */
+    public int getInFlightCount() {
+        return pending.size();
+    }
+
+    /**
+     * Message of the error that ended the channel, or null if it is still
+     * running or was closed deliberately.
+     */
+    public String getFailureMessage() {
+        return failureMessage;
+    }
+
+    /**
+     * Closes the connection and fails any pending requests. Safe to call repeatedly.
+     */
+    @Override
+    public void close() {
+        shutdown(null);
+        Thread t = readerThread;
+        if (t != null && t != Thread.currentThread()) {
+            t.interrupt();
+        }
+    }
+
+    private void shutdown(String failure) {
+        if (!running.getAndSet(false)) {
+            return;
+        }
+        if (failure != null) {
+            failureMessage = failure;
+            logger.info("Multiplexed channel ended: {}", failure);
+        }
+        try {
+            if (!socket.isClosed()) {
+                socket.close();
+            }
+        } catch (IOException e) {
+            logger.debug("Error closing multiplexed socket", e);
+        }
+        IOException closed = closedException();
+        pending.values().forEach(f -> f.completeExceptionally(closed));
+        pending.clear();
+    }
+
+    private IOException closedException() {
+        String reason = failureMessage;
+        return new IOException("Multiplexed channel closed" + (reason != null ? ": " + reason : ""));
+    }
+}
@@ -10,6 +10,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleObjectProperty;
@@ -41,7 +42,10 @@ import org.slf4j.LoggerFactory;
 import qupath.ext.qpsc.controller.ForwardPropagationWorkflow;
 import qupath.ext.qpsc.controller.ForwardPropagationWorkflow.Direction;
 import qupath.ext.qpsc.controller.ForwardPropagationWorkflow.FanOutResult;
+import qupath.ext.qpsc.controller.ForwardPropagationWorkflow.ForwardResult;
 import qupath.ext.qpsc.controller.ForwardPropagationWorkflow.MissingSourceConfigException;
+import qupath.ext.qpsc.controller.PropagationEngine;
+import qupath.ext.qpsc.controller.workflow.CancellationToken;
 import qupath.ext.qpsc.preferences.PersistentPreferences;
 import qupath.ext.qpsc.preferences.QPPreferenceDialog;
 import qupath.ext.qpsc.utilities.AffineTransformManager;
@@ -468,6 +472,10 @@ public final class PropagationManagerDialog {
 
         Button propagateBtn = new Button("Propagate");
         propagateBtn.setStyle("-fx-font-weight: bold;");
+        Button cancelBtn = new Button("Cancel");
+        cancelBtn.setDisable(true);
+        cancelBtn.setTooltip(new Tooltip("Stop after the sub-acquisitions already being written. "
+                + "Entries that were not started are left untouched."));
         propagateBtn.setOnAction(e -> runPropagation(
                 qupath,
                 project,
@@ -486,12 +494,13 @@ public final class PropagationManagerDialog {
                 refValueCombo,
                 progress,
                 results,
-                propagateBtn));
+                propagateBtn,
+                cancelBtn));
 
         Button closeBtn = new Button("Close");
         closeBtn.setOnAction(e -> dialog.close());
 
-        HBox buttonBar = new HBox(8, propagateBtn, refreshBtn, stampRoiBtn, closeBtn);
+        HBox buttonBar = new HBox(8, propagateBtn, cancelBtn, refreshBtn, stampRoiBtn, closeBtn);
         buttonBar.setAlignment(Pos.CENTER_RIGHT);
 
         // -- Compose -------------------------------------------------------
@@ -552,7 +561,8 @@ public final class PropagationManagerDialog {
             ComboBox<String> refValueCombo,
             ProgressBar progress,
             TextArea results,
-            Button propagateBtn) {
+            Button propagateBtn,
+            Button cancelBtn) {
 
         Direction dir = forwardBtn.isSelected() ? Direction.FORWARD : Direction.BACK;
         Set<PathClass> selectedClasses = classChecks.entrySet().stream()
@@ -636,12 +646,37 @@ public final class PropagationManagerDialog {
         int[] siftRefinedCount = {0};
         int[] siftAttemptedCount = {0};
 
+        // Sub-acquisitions run several at a time. Progress counts engine tasks:
+        // one per sub forward, two per sub back (load objects, then transform).
+        int expectedTasks = 0;
+        for (PropagationGroupItem grp : checkedGroups) {
+            for (ProjectImageEntry<BufferedImage> sub : grp.getSubAcquisitions()) {
+                if (selectedSubs.contains(sub)) expectedTasks += (dir == Direction.FORWARD) ? 1 : 2;
+            }
+        }
+        final int totalTasks = Math.max(1, expectedTasks);
+        CancellationToken cancelToken = new CancellationToken();
+        PropagationEngine engine = new PropagationEngine(PropagationEngine.defaultThreads(), cancelToken);
+        engine.setProgressListener(finished ->
+                Platform.runLater(() -> progress.setProgress(Math.min(1.0, finished / (double) totalTasks))));
+        cancelBtn.setOnAction(e -> {
+            cancelBtn.setDisable(true);
+            cancelToken.cancel();
+            appendStatus(results, "=== Cancel requested: finishing entries already in progress ===\n");
+        });
+        cancelBtn.setDisable(false);
+
         Thread worker = new Thread(
                 () -> {
                     int grandTotal = 0;
                     int grandErrors = 0;
                     try {
                         for (PropagationGroupItem grp : checkedGroups) {
+                            if (engine.isCancelled()) {
+                                appendStatus(results, "[" + grp.getBaseName() + "] skipped (cancelled)\n");
+                                Platform.runLater(() -> grp.setStatus("cancelled"));
+                                continue;
+                            }
                             int groupTotal = 0;
                             int groupErrors = 0;
                             String baseName = grp.getBaseName();
@@ -803,41 +838,59 @@ public final class PropagationManagerDialog {
                                                 + " objects)\n");
                                 Map<ProjectImageEntry<BufferedImage>, List<PathObject>> propagatedPerSub =
                                         new LinkedHashMap<>();
+                                List<ProjectImageEntry<BufferedImage>> targets = new ArrayList<>();
                                 for (ProjectImageEntry<BufferedImage> sub : grp.getSubAcquisitions()) {
-                                    if (!selectedSubs.contains(sub)) continue;
-                                    try {
-                                        if (replaceExisting) {
-                                            int removed =
-                                                    removeMatchingObjects(sub, selectedClasses, includeUnclassified);
-                                            if (removed > 0) {
-                                                appendStatus(
-                                                        results,
-                                                        String.format(
-                                                                "    (removed %d existing object(s) on %s)%n",
-                                                                removed, sub.getImageName()));
-                                                touchedEntries.add(sub);
-                                            }
-                                        }
-                                        List<PathObject> newObjs =
-                                                ForwardPropagationWorkflow.propagateForwardAndCapture(
-                                                        alignment,
-                                                        alignFlipX,
-                                                        alignFlipY,
-                                                        baseWidth,
-                                                        baseHeight,
-                                                        sourceObjects,
+                                    if (selectedSubs.contains(sub)) targets.add(sub);
+                                }
+                                // Remove-and-add happens in one read/save per sub, several subs at a time.
+                                Predicate<PathObject> replace = replaceExisting
+                                        ? obj -> matchesClasses(obj, selectedClasses, includeUnclassified)
+                                        : null;
+                                final AffineTransform forwardAlignment = alignment;
+                                final List<PathObject> forwardSources = sourceObjects;
+                                final int forwardBaseWidth = baseWidth;
+                                final int forwardBaseHeight = baseHeight;
+                                final boolean flipX = alignFlipX;
+                                final boolean flipY = alignFlipY;
+                                List<PropagationEngine.Outcome<ForwardResult>> outcomes =
+                                        engine.forEachTarget(
+                                                targets,
+                                                sub -> ForwardPropagationWorkflow.propagateForwardReplacing(
+                                                        forwardAlignment,
+                                                        flipX,
+                                                        flipY,
+                                                        forwardBaseWidth,
+                                                        forwardBaseHeight,
+                                                        forwardSources,
                                                         sub,
-                                                        excludePartial);
-                                        int count = newObjs.size();
+                                                        excludePartial,
+                                                        replace));
+                                for (PropagationEngine.Outcome<ForwardResult> outcome : outcomes) {
+                                    ProjectImageEntry<BufferedImage> sub = outcome.target();
+                                    if (outcome.succeeded()) {
+                                        ForwardResult fr = outcome.value();
+                                        if (fr.removed() > 0) {
+                                            appendStatus(
+                                                    results,
+                                                    String.format(
+                                                            "    (removed %d existing object(s) on %s)%n",
+                                                            fr.removed(), sub.getImageName()));
+                                            touchedEntries.add(sub);
+                                        }
+                                        int count = fr.propagated().size();
                                         groupTotal += count;
                                         if (count > 0) {
                                             touchedEntries.add(sub);
-                                            propagatedPerSub.put(sub, newObjs);
+                                            propagatedPerSub.put(sub, fr.propagated());
                                         }
                                         appendStatus(
                                                 results,
                                                 String.format("    -> %s: %d objects%n", sub.getImageName(), count));
-                                    } catch (MissingSourceConfigException mce) {
+                                    } else if (outcome.cancelled()) {
+                                        appendStatus(
+                                                results,
+                                                String.format("    -> %s: SKIPPED (cancelled)%n", sub.getImageName()));
+                                    } else if (outcome.error() instanceof MissingSourceConfigException mce) {
                                         groupErrors++;
                                         missingConfigs.put(mce.sourceScope, mce.expectedConfigFilename);
                                         missingConfigSubs
@@ -848,14 +901,14 @@ public final class PropagationManagerDialog {
                                                 String.format(
                                                         "    -> %s: SKIPPED (missing source-scope config '%s')%n",
                                                         sub.getImageName(), mce.expectedConfigFilename));
-                                    } catch (Exception ex) {
+                                    } else {
                                         groupErrors++;
                                         appendStatus(
                                                 results,
                                                 String.format(
                                                         "    -> %s: FAILED (%s)%n",
-                                                        sub.getImageName(), ex.getMessage()));
-                                        logger.error("Forward propagation failed", ex);
+                                                        sub.getImageName(), outcome.error().getMessage()));
+                                        logger.error("Forward propagation failed", outcome.error());
                                     }
                                 }
 
@@ -915,18 +968,53 @@ public final class PropagationManagerDialog {
                                                 ProjectImageEntry<BufferedImage>,
                                                 Map<ProjectImageEntry<BufferedImage>, List<PathObject>>>
                                         writtenPerSub = new LinkedHashMap<>();
+                                List<ProjectImageEntry<BufferedImage>> targets = new ArrayList<>();
                                 for (ProjectImageEntry<BufferedImage> sub : grp.getSubAcquisitions()) {
-                                    if (!selectedSubs.contains(sub)) continue;
+                                    if (selectedSubs.contains(sub)) targets.add(sub);
+                                }
+                                // Load every sub's objects in parallel, then back-propagate the
+                                // whole group so the base is read and saved once.
+                                List<PropagationEngine.Outcome<List<PathObject>>> loaded =
+                                        engine.forEachTarget(
+                                                targets,
+                                                sub -> ForwardPropagationWorkflow.loadFilteredObjects(
+                                                        sub, selectedClasses, includeUnclassified));
+                                Map<ProjectImageEntry<BufferedImage>, List<PathObject>> sourcesBySub =
+                                        new LinkedHashMap<>();
+                                Map<ProjectImageEntry<BufferedImage>, PropagationEngine.Outcome<FanOutResult>>
+                                        backOutcomes = new LinkedHashMap<>();
+                                for (PropagationEngine.Outcome<List<PathObject>> o : loaded) {
+                                    if (!o.succeeded()) {
+                                        backOutcomes.put(
+                                                o.target(),
+                                                new PropagationEngine.Outcome<>(o.target(), null, o.error()));
+                                    } else if (o.value().isEmpty()) {
+                                        appendStatus(
+                                                results,
+                                                "    " + o.target().getImageName() + ": no matching objects\n");
+                                    } else {
+                                        sourcesBySub.put(o.target(), o.value());
+                                    }
+                                }
+                                if (autoCreate) {
+                                    logger.debug("Back-prop: auto-create is a no-op (no flipped siblings to create)");
+                                }
+                                if (!sourcesBySub.isEmpty()) {
                                     try {
-                                        List<PathObject> subObjects = ForwardPropagationWorkflow.loadFilteredObjects(
-                                                sub, selectedClasses, includeUnclassified);
-                                        if (subObjects.isEmpty()) {
-                                            appendStatus(
-                                                    results, "    " + sub.getImageName() + ": no matching objects\n");
-                                            continue;
+                                        backOutcomes.putAll(ForwardPropagationWorkflow.propagateBackGroup(
+                                                project, baseName, alignment, sourcesBySub, engine));
+                                    } catch (Exception ex) {
+                                        logger.error("Back propagation failed for group '{}'", baseName, ex);
+                                        for (ProjectImageEntry<BufferedImage> sub : sourcesBySub.keySet()) {
+                                            backOutcomes.put(sub, new PropagationEngine.Outcome<>(sub, null, ex));
                                         }
-                                        FanOutResult fo = ForwardPropagationWorkflow.propagateBackFanOut(
-                                                project, baseName, alignment, subObjects, sub, autoCreate);
+                                    }
+                                }
+                                for (ProjectImageEntry<BufferedImage> sub : targets) {
+                                    PropagationEngine.Outcome<FanOutResult> outcome = backOutcomes.get(sub);
+                                    if (outcome == null) continue; // no matching objects
+                                    if (outcome.succeeded()) {
+                                        FanOutResult fo = outcome.value();
                                         groupTotal += fo.totalObjects;
                                         if (fo.totalObjects > 0) {
                                             // Back-prop writes to the unflipped base of this group;
@@ -939,8 +1027,8 @@ public final class PropagationManagerDialog {
                                         }
                                         appendStatus(
                                                 results,
-                                                "  source: " + sub.getImageName() + " (" + subObjects.size()
-                                                        + " objects)\n");
+                                                "  source: " + sub.getImageName() + " ("
+                                                        + sourcesBySub.get(sub).size() + " objects)\n");
                                         for (String line : fo.perSiblingLog) {
                                             appendStatus(results, line + "\n");
                                         }
@@ -950,7 +1038,9 @@ public final class PropagationManagerDialog {
                                                     "  (auto-created " + fo.siblingsAutoCreated
                                                             + " sibling(s) for fan-out)\n");
                                         }
-                                    } catch (MissingSourceConfigException mce) {
+                                    } else if (outcome.cancelled()) {
+                                        appendStatus(results, "    " + sub.getImageName() + ": SKIPPED (cancelled)\n");
+                                    } else if (outcome.error() instanceof MissingSourceConfigException mce) {
                                         groupErrors++;
                                         missingConfigs.put(mce.sourceScope, mce.expectedConfigFilename);
                                         missingConfigSubs
@@ -961,12 +1051,13 @@ public final class PropagationManagerDialog {
                                                 "    " + sub.getImageName()
                                                         + ": SKIPPED (missing source-scope config '"
                                                         + mce.expectedConfigFilename + "')\n");
-                                    } catch (Exception ex) {
+                                    } else {
                                         groupErrors++;
                                         appendStatus(
                                                 results,
-                                                "    " + sub.getImageName() + ": FAILED (" + ex.getMessage() + ")\n");
-                                        logger.error("Back propagation failed", ex);
+                                                "    " + sub.getImageName() + ": FAILED ("
+                                                        + outcome.error().getMessage() + ")\n");
+                                        logger.error("Back propagation failed", outcome.error());
                                     }
                                 }
 
@@ -1116,10 +1207,15 @@ public final class PropagationManagerDialog {
                                 }
                             });
                         }
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        logger.warn("Propagation worker interrupted");
                     } finally {
+                        engine.close();
                         Platform.runLater(() -> {
                             progress.setVisible(false);
                             propagateBtn.setDisable(false);
+                            cancelBtn.setDisable(true);
                         });
                     }
                 },
@@ -1232,9 +1328,7 @@ public final class PropagationManagerDialog {
         List<PathObject> toRemove = new ArrayList<>();
         for (PathObject obj : hierarchy.getAllObjects(false)) {
             if (obj.isRootObject()) continue;
-            PathClass pc = obj.getPathClass();
-            boolean matches = (pc == null) ? includeUnclassified : selectedClasses.contains(pc);
-            if (matches) toRemove.add(obj);
+            if (matchesClasses(obj, selectedClasses, includeUnclassified)) toRemove.add(obj);
         }
         if (toRemove.isEmpty()) return 0;
         hierarchy.removeObjects(toRemove, true);
@@ -1242,6 +1336,12 @@ public final class PropagationManagerDialog {
         return toRemove.size();
     }
 
+    /** True if the object's class is selected, or it is unclassified and unclassified objects are included. */
+    private static boolean matchesClasses(PathObject obj, Set<PathClass> selectedClasses, boolean includeUnclassified) {
+        PathClass pc = obj.getPathClass();
+        return (pc == null) ? includeUnclassified : selectedClasses.contains(pc);
+    }
+
     /**
      * Per-position SIFT refinement after forward propagation.
      *
@@ -1,7 +1,6 @@
 package qupath.ext.qpsc.ui;
 
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.util.concurrent.CompletableFuture;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
@@ -21,7 +20,6 @@ import javafx.stage.Modality;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
 import javafx.stage.Window;
-import javax.imageio.ImageIO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import qupath.ext.qpsc.controller.MicroscopeController;
@@ -137,23 +135,18 @@ public final class SiftAutoAlignHelper {
                 String.format("%.2f", readDownsample),
                 String.format("%.3f", siftTargetPx));
 
-        RegionRequest request =
-                RegionRequest.createInstance(server.getPath(), readDownsample, regionX, regionY, regionW, regionH);
-        BufferedImage wsiRegion = server.readRegion(request);
-        // Exact effective pixel size of the returned (downsampled) region, derived from
-        // its actual dimensions so the um offset is exact regardless of readRegion
-        // rounding. Sent to the server as --wsi-px in place of the full-res value.
-        double effectiveWsiPx =
-                wsiRegion.getWidth() > 0 ? (double) regionW / wsiRegion.getWidth() * wsiPixelSize : wsiPixelSize;
-
-        File tempFile = File.createTempFile("sift_wsi_region_", ".png");
-        tempFile.deleteOnExit();
-        ImageIO.write(wsiRegion, "PNG", tempFile);
+        // A retry against the same tile reuses the region already read and packed.
+        SiftRegionCache.Key regionKey =
+                new SiftRegionCache.Key(server.getPath(), regionX, regionY, regionW, regionH, readDownsample);
+        SiftRegionCache.PreparedRegion region = SiftRegionCache.shared()
+                .get(regionKey, wsiPixelSize, () -> server.readRegion(RegionRequest.createInstance(
+                        server.getPath(), readDownsample, regionX, regionY, regionW, regionH)));
+        // Sent to the server as --wsi-px in place of the full-res value.
+        double effectiveWsiPx = region.effectivePixelSize();
         logger.info(
-                "Saved WSI region to temp file: {} ({}x{}, effective {} um/px)",
-                tempFile.getAbsolutePath(),
-                wsiRegion.getWidth(),
-                wsiRegion.getHeight(),
+                "Prepared WSI region {}x{} (effective {} um/px)",
+                region.width(),
+                region.height(),
                 String.format("%.4f", effectiveWsiPx));
 
         ProjectImageEntry<BufferedImage> entry = gui.getProject() != null && gui.getImageData() != null
@@ -242,26 +235,52 @@ public final class SiftAutoAlignHelper {
             boolean coarseToFine = PersistentPreferences.isSiftCoarseToFineEnabled();
             double coarsePx = PersistentPreferences.getSiftCoarsePixelSizeUm();
             String rgbConversion = PersistentPreferences.getSiftRgbConversion();
-            String response = mc.getSocketClient()
-                    .siftAutoAlign(
-                            tempFile.getAbsolutePath(),
-                            microPixelSize,
-                            effectiveWsiPx,
-                            flipX,
-                            flipY,
-                            minPx,
-                            ratioThreshold,
-                            minMatchCount,
-                            contrastThreshold,
-                            nFeatures,
-                            monoNorm,
-                            pctLow,
-                            pctHigh,
-                            claheEnabled,
-                            claheClip,
-                            coarseToFine,
-                            coarsePx,
-                            rgbConversion);
+            var client = mc.getSocketClient();
+            // Send the region inline; servers without SIFTRAW get it as a PNG file.
+            String response = client.siftAutoAlignRaw(
+                    region.width(),
+                    region.height(),
+                    region.channels(),
+                    region.bytesPerPixel(),
+                    region.pixels(),
+                    microPixelSize,
+                    effectiveWsiPx,
+                    flipX,
+                    flipY,
+                    minPx,
+                    ratioThreshold,
+                    minMatchCount,
+                    contrastThreshold,
+                    nFeatures,
+                    monoNorm,
+                    pctLow,
+                    pctHigh,
+                    claheEnabled,
+                    claheClip,
+                    coarseToFine,
+                    coarsePx,
+                    rgbConversion);
+            if (response == null) {
+                response = client.siftAutoAlign(
+                        region.pngFile().getAbsolutePath(),
+                        microPixelSize,
+                        effectiveWsiPx,
+                        flipX,
+                        flipY,
+                        minPx,
+                        ratioThreshold,
+                        minMatchCount,
+                        contrastThreshold,
+                        nFeatures,
+                        monoNorm,
+                        pctLow,
+                        pctHigh,
+                        claheEnabled,
+                        claheClip,
+                        coarseToFine,
+                        coarsePx,
+                        rgbConversion);
+            }
 
             if (!response.startsWith("SUCCESS:")) {
                 logger.warn("SIFT auto-align did not succeed: {}", response);
@@ -314,9 +333,6 @@ public final class SiftAutoAlignHelper {
 
         } finally {
             mc.restoreLiveViewState(liveState);
-            if (!tempFile.delete()) {
-                logger.debug("Could not delete temp file: {}", tempFile);
-            }
         }
     }
 
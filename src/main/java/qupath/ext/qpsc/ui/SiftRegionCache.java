@@ -0,0 +1,279 @@
+package qupath.ext.qpsc.ui;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.imageio.ImageIO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Recently prepared WSI regions for SIFT auto-alignment, so a retry against
+ * the same tile skips the region read and the pixel packing.
+ *
+ * <p>Each alignment attempt used to read the search region from the WSI and
+ * encode it as a PNG for the server to decode again. For a multi-megapixel
+ * region the encode was the largest client-side cost, and a "retry
+ * alignment" click repeated all of it. A {@link PreparedRegion} holds the
+ * region's pixels packed in the live-frame wire format, ready to send inline
+ * (see {@code MicroscopeSocketClient.siftAutoAlignRaw}). The PNG is written
+ * only for servers that cannot take inline regions, at most once per
+ * region, and is rebuilt from the packed pixels so the decoded image is not
+ * kept alongside them.
+ *
+ * <p>Entries are keyed by server, region rectangle and read downsample, and
+ * evicted least-recently-used once the total exceeds {@link #MAX_BYTES}.
+ */
+final class SiftRegionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SiftRegionCache.class);
+
+    /** Upper bound on packed pixels held across all entries. */
+    static final long MAX_BYTES = 256L * 1024 * 1024;
+
+    private static final SiftRegionCache SHARED = new SiftRegionCache(MAX_BYTES);
+
+    /**
+     * Identifies one prepared region.
+     *
+     * @param serverPath Path of the image server the region was read from
+     * @param x          Full-resolution region x
+     * @param y          Full-resolution region y
+     * @param width      Full-resolution region width
+     * @param height     Full-resolution region height
+     * @param downsample Downsample the region was read at
+     */
+    record Key(String serverPath, int x, int y, int width, int height, double downsample) {}
+
+    /** Reads the region when it is not cached. */
+    @FunctionalInterface
+    interface RegionReader {
+        BufferedImage read() throws IOException;
+    }
+
+    /** A region read at its SIFT downsample, with its pixels packed for the socket. */
+    static final class PreparedRegion {
+        private final int width;
+        private final int height;
+        private final int channels;
+        private final int bytesPerPixel;
+        private final byte[] pixels;
+        private final double effectivePixelSize;
+        private File pngFile;
+
+        private PreparedRegion(BufferedImage image, double effectivePixelSize) {
+            this.width = image.getWidth();
+            this.height = image.getHeight();
+            Raster raster = image.getRaster();
+            int transferType = raster.getTransferType();
+            if (raster.getNumBands() == 1 && transferType == DataBuffer.TYPE_BYTE) {
+                this.channels = 1;
+                this.bytesPerPixel = 1;
+                this.pixels = packGray8(raster);
+            } else if (raster.getNumBands() == 1 && transferType == DataBuffer.TYPE_USHORT) {
+                this.channels = 1;
+                this.bytesPerPixel = 2;
+                this.pixels = packGray16(raster);
+            } else {
+                this.channels = 3;
+                this.bytesPerPixel = 1;
+                this.pixels = packRgb(image);
+            }
+            this.effectivePixelSize = effectivePixelSize;
+        }
+
+        int width() {
+            return width;
+        }
+
+        int height() {
+            return height;
+        }
+
+        int channels() {
+            return channels;
+        }
+
+        int bytesPerPixel() {
+            return bytesPerPixel;
+        }
+
+        /** Interleaved pixels, 16-bit samples big-endian; not copied, do not modify. */
+        byte[] pixels() {
+            return pixels;
+        }
+
+        /** Full-resolution pixel size scaled by the region's actual downsample (um/px). */
+        double effectivePixelSize() {
+            return effectivePixelSize;
+        }
+
+        /**
+         * Returns the region as a PNG file, writing it on first use. The file
+         * lives as long as the entry and is deleted on eviction.
+         */
+        synchronized File pngFile() throws IOException {
+            if (pngFile == null || !pngFile.isFile()) {
+                File file = File.createTempFile("sift_wsi_region_", ".png");
+                file.deleteOnExit();
+                ImageIO.write(toImage(), "PNG", file);
+                pngFile = file;
+            }
+            return pngFile;
+        }
+
+        /** Heap held by the entry: the packed pixels only, since the decoded image is not kept. */
+        long sizeBytes() {
+            return pixels.length;
+        }
+
+        /** Rebuilds an image from the packed pixels, for the PNG fallback. */
+        BufferedImage toImage() {
+            BufferedImage image;
+            if (channels == 1 && bytesPerPixel == 2) {
+                image = new BufferedImage(width, height, BufferedImage.TYPE_USHORT_GRAY);
+                short[] samples = new short[width * height];
+                for (int i = 0; i < samples.length; i++) {
+                    samples[i] = (short) (((pixels[i * 2] & 0xFF) << 8) | (pixels[i * 2 + 1] & 0xFF));
+                }
+                image.getRaster().setDataElements(0, 0, width, height, samples);
+            } else {
+                // Byte rasters take data elements in band order: gray, or R, G, B
+                image = new BufferedImage(
+                        width, height, channels == 1 ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_3BYTE_BGR);
+                image.getRaster().setDataElements(0, 0, width, height, pixels);
+            }
+            return image;
+        }
+
+        private synchronized void discard() {
+            if (pngFile != null && !pngFile.delete()) {
+                logger.debug("Could not delete temp file: {}", pngFile);
+            }
+            pngFile = null;
+        }
+    }
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, PreparedRegion> entries = new LinkedHashMap<>(8, 0.75f, true);
+    private long totalBytes;
+
+    SiftRegionCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /** The cache used by {@link SiftAutoAlignHelper}. */
+    static SiftRegionCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the prepared region for {@code key}, reading and packing it on
+     * a miss.
+     *
+     * @param key                Region identity
+     * @param fullResPixelSize   Full-resolution pixel size of the server (um/px)
+     * @param reader             Reads the region at {@code key.downsample()}
+     * @return The prepared region
+     * @throws IOException if the read fails
+     */
+    PreparedRegion get(Key key, double fullResPixelSize, RegionReader reader) throws IOException {
+        synchronized (this) {
+            PreparedRegion cached = entries.get(key);
+            if (cached != null) {
+                logger.info("Reusing prepared SIFT region {}x{} for {}", cached.width, cached.height, key);
+                return cached;
+            }
+        }
+        BufferedImage image = reader.read();
+        // Exact effective pixel size of the returned (downsampled) region, derived from
+        // its actual dimensions so the um offset is exact regardless of readRegion rounding.
+        double effective =
+                image.getWidth() > 0 ? (double) key.width() / image.getWidth() * fullResPixelSize : fullResPixelSize;
+        PreparedRegion prepared = new PreparedRegion(image, effective);
+
+        List<PreparedRegion> evicted = new ArrayList<>();
+        synchronized (this) {
+            PreparedRegion previous = entries.put(key, prepared);
+            if (previous != null) {
+                totalBytes -= previous.sizeBytes();
+                evicted.add(previous);
+            }
+            totalBytes += prepared.sizeBytes();
+            Iterator<Map.Entry<Key, PreparedRegion>> it = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && entries.size() > 1 && it.hasNext()) {
+                Map.Entry<Key, PreparedRegion> eldest = it.next();
+                if (eldest.getValue() == prepared) {
+                    continue;
+                }
+                totalBytes -= eldest.getValue().sizeBytes();
+                evicted.add(eldest.getValue());
+                it.remove();
+            }
+        }
+        for (PreparedRegion region : evicted) {
+            region.discard();
+        }
+        return prepared;
+    }
+
+    /** Number of cached regions. */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /** Drops every entry and deletes any PNG files written for them. */
+    void clear() {
+        List<PreparedRegion> dropped;
+        synchronized (this) {
+            dropped = new ArrayList<>(entries.values());
+            entries.clear();
+            totalBytes = 0;
+        }
+        for (PreparedRegion region : dropped) {
+            region.discard();
+        }
+    }
+
+    private static byte[] packGray8(Raster raster) {
+        int w = raster.getWidth();
+        int h = raster.getHeight();
+        byte[] out = new byte[w * h];
+        raster.getDataElements(0, 0, w, h, out);
+        return out;
+    }
+
+    private static byte[] packGray16(Raster raster) {
+        int w = raster.getWidth();
+        int h = raster.getHeight();
+        short[] samples = new short[w * h];
+        raster.getDataElements(0, 0, w, h, samples);
+        byte[] out = new byte[samples.length * 2];
+        for (int i = 0; i < samples.length; i++) {
+            out[i * 2] = (byte) (samples[i] >> 8);
+            out[i * 2 + 1] = (byte) samples[i];
+        }
+        return out;
+    }
+
+    private static byte[] packRgb(BufferedImage image) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        int[] argb = image.getRGB(0, 0, w, h, null, 0, w);
+        byte[] out = new byte[argb.length * 3];
+        for (int i = 0; i < argb.length; i++) {
+            int p = argb[i];
+            out[i * 3] = (byte) (p >> 16);
+            out[i * 3 + 1] = (byte) (p >> 8);
+            out[i * 3 + 2] = (byte) p;
+        }
+        return out;
+    }
+}
@@ -0,0 +1,129 @@
+package qupath.ext.qpsc.ui.liveviewer;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed contrast lookup table mapping raw camera values to 8-bit display
+ * levels.
+ *
+ * <p>One table entry per possible input value (256 for uint8, 65536 for uint16),
+ * so display mapping is a single array load per sample instead of a subtract,
+ * multiply, divide and clamp. Gamma is baked into the table and costs nothing at
+ * render time. RGB frames may use a separate table per channel.
+ *
+ * <p>Instances are immutable and safe to share between the render thread and the
+ * FX thread. {@link ContrastSettings#lookupTable(FrameData)} caches the table for
+ * the current settings and rebuilds it only when they change.
+ */
+public final class ContrastLut {
+
+    private final int bytesPerPixel;
+    private final int[] mins;
+    private final int[] maxs;
+    private final double gamma;
+    private final byte[][] tables;
+
+    private ContrastLut(int bytesPerPixel, int[] mins, int[] maxs, double gamma) {
+        this.bytesPerPixel = bytesPerPixel;
+        this.mins = mins;
+        this.maxs = maxs;
+        this.gamma = gamma;
+        int size = bytesPerPixel == 2 ? 65536 : 256;
+        this.tables = new byte[mins.length][];
+        for (int c = 0; c < mins.length; c++) {
+            // Channels sharing a range share one table
+            for (int prev = 0; prev < c; prev++) {
+                if (mins[prev] == mins[c] && maxs[prev] == maxs[c]) {
+                    tables[c] = tables[prev];
+                    break;
+                }
+            }
+            if (tables[c] == null) {
+                tables[c] = buildTable(size, mins[c], maxs[c], gamma);
+            }
+        }
+    }
+
+    /**
+     * Builds a table applying the same display range to every channel.
+     *
+     * @param bytesPerPixel 1 for uint8, 2 for uint16
+     * @param min           Raw value mapped to 0
+     * @param max           Raw value mapped to 255
+     * @param gamma         Display gamma (1.0 = linear)
+     */
+    public static ContrastLut of(int bytesPerPixel, int min, int max, double gamma) {
+        return new ContrastLut(bytesPerPixel, new int[] {min}, new int[] {max}, gamma);
+    }
+
+    /**
+     * Builds a table with an independent display range per channel.
+     *
+     * @param bytesPerPixel 1 for uint8, 2 for uint16
+     * @param mins          Per-channel raw value mapped to 0
+     * @param maxs          Per-channel raw value mapped to 255
+     * @param gamma         Display gamma (1.0 = linear)
+     */
+    public static ContrastLut perChannel(int bytesPerPixel, int[] mins, int[] maxs, double gamma) {
+        if (mins.length == 0 || mins.length != maxs.length) {
+            throw new IllegalArgumentException("Per-channel ranges must be non-empty and of equal length");
+        }
+        return new ContrastLut(bytesPerPixel, mins.clone(), maxs.clone(), gamma);
+    }
+
+    private static byte[] buildTable(int size, int min, int max, double gamma) {
+        byte[] table = new byte[size];
+        int range = Math.max(1, max - min);
+        boolean linear = gamma == 1.0;
+        double invGamma = 1.0 / gamma;
+        for (int v = 0; v < size; v++) {
+            int level;
+            if (v <= min) {
+                level = 0;
+            } else if (v >= max) {
+                level = 255;
+            } else if (linear) {
+                // Same integer arithmetic as the former per-pixel mapping
+                level = (v - min) * 255 / range;
+            } else {
+                level = (int) Math.round(Math.pow((double) (v - min) / range, invGamma) * 255.0);
+            }
+            table[v] = (byte) level;
+        }
+        return table;
+    }
+
+    /**
+     * Returns true if this table was built for the given parameters, so a
+     * cached instance can be reused.
+     */
+    boolean matches(int bytesPerPixel, int[] mins, int[] maxs, double gamma) {
+        return this.bytesPerPixel == bytesPerPixel
+                && this.gamma == gamma
+                && Arrays.equals(this.mins, mins)
+                && Arrays.equals(this.maxs, maxs);
+    }
+
+    /** Bit depth this table covers (1 or 2 bytes per sample). */
+    public int bytesPerPixel() {
+        return bytesPerPixel;
+    }
+
+    public double gamma() {
+        return gamma;
+    }
+
+    /**
+     * Table for a channel: index with the raw sample value, read the display
+     * level as {@code table[v] & 0xFF}. Channels beyond the configured ones
+     * reuse the last table.
+     */
+    public byte[] table(int channel) {
+        return tables[Math.min(channel, tables.length - 1)];
+    }
+
+    /** Display level (0-255) for a raw sample value on a channel. */
+    public int map(int channel, int value) {
+        return table(channel)[value] & 0xFF;
+    }
+}
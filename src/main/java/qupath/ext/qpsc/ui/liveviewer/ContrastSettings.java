@@ -2,16 +2,25 @@ package qupath.ext.qpsc.ui.liveviewer;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Thread-safe contrast display settings for the live viewer.
- * Holds min/max display range and auto-scale state.
+ * Holds min/max display range, gamma, optional per-channel ranges and
+ * auto-scale state, and caches the {@link ContrastLut} built from them.
  */
 public class ContrastSettings {
 
     private final AtomicInteger displayMin = new AtomicInteger(0);
     private final AtomicInteger displayMax = new AtomicInteger(255);
     private final AtomicBoolean autoScale = new AtomicBoolean(false);
+    private volatile double gamma = 1.0;
+
+    // Per-channel {mins, maxs} for RGB frames; null = use displayMin/displayMax
+    private volatile int[][] channelRanges;
+
+    // Table for the most recent settings; rebuilt only when they change
+    private final AtomicReference<ContrastLut> cachedLut = new AtomicReference<>();
 
     public int getDisplayMin() {
         return displayMin.get();
@@ -37,6 +46,65 @@ public class ContrastSettings {
         autoScale.set(enabled);
     }
 
+    public double getGamma() {
+        return gamma;
+    }
+
+    /**
+     * Sets the display gamma (1.0 = linear, below 1 darkens mid-tones, above 1
+     * brightens them).
+     */
+    public void setGamma(double gamma) {
+        if (!(gamma > 0) || Double.isInfinite(gamma)) {
+            throw new IllegalArgumentException("Gamma must be a positive finite value: " + gamma);
+        }
+        this.gamma = gamma;
+    }
+
+    /**
+     * Uses an independent display range per channel for multi-channel frames.
+     * Single-channel frames keep using the global min/max.
+     */
+    public void setChannelRanges(int[] mins, int[] maxs) {
+        if (mins.length == 0 || mins.length != maxs.length) {
+            throw new IllegalArgumentException("Per-channel ranges must be non-empty and of equal length");
+        }
+        channelRanges = new int[][] {mins.clone(), maxs.clone()};
+    }
+
+    /** Reverts multi-channel frames to the global min/max. */
+    public void clearChannelRanges() {
+        channelRanges = null;
+    }
+
+    /**
+     * Returns the lookup table for the current settings at the frame's bit
+     * depth. The table is cached and rebuilt only after the range, gamma or
+     * bit depth changes, so per-frame callers pay nothing while the sliders
+     * are idle.
+     */
+    public ContrastLut lookupTable(FrameData frame) {
+        int bpp = frame.bytesPerPixel();
+        double g = gamma;
+        int[][] ranges = channelRanges;
+        int[] mins;
+        int[] maxs;
+        if (ranges != null && frame.channels() > 1) {
+            mins = ranges[0];
+            maxs = ranges[1];
+        } else {
+            mins = new int[] {displayMin.get()};
+            maxs = new int[] {displayMax.get()};
+        }
+
+        ContrastLut lut = cachedLut.get();
+        if (lut == null || !lut.matches(bpp, mins, maxs, g)) {
+            lut = ContrastLut.perChannel(bpp, mins, maxs, g);
+            cachedLut.set(lut);
+        }
+        return lut;
+    }
+
     /**
      * Sets min=0, max=maxValue for the given frame's bit depth.
      */
@@ -44,6 +112,7 @@ public class ContrastSettings {
         displayMin.set(0);
         displayMax.set(frame.maxValue());
         autoScale.set(false);
+        channelRanges = null;
     }
 
     /**
@@ -53,6 +122,16 @@ public class ContrastSettings {
      * @param frame     Current frame (for maxValue mapping)
      */
     public void applyAutoScale(int[] histogram, FrameData frame) {
+        applyAutoScale(histogram, frame.maxValue());
+    }
+
+    /**
+     * Computes 0.1%/99.9% percentile from the histogram and applies as min/max.
+     *
+     * @param histogram 256-bin histogram array
+     * @param maxVal    Maximum pixel value for the frame's bit depth
+     */
+    public void applyAutoScale(int[] histogram, int maxVal) {
         int totalPixels = 0;
         for (int count : histogram) {
             totalPixels += count;
@@ -88,7 +167,6 @@ public class ContrastSettings {
         // Map 256-bin indices back to actual pixel value range.
         // Use lower edge of lowBin and upper edge of highBin to avoid
         // truncation when 16-bit data spans a narrow intensity range.
-        int maxVal = frame.maxValue();
         int newMin = (int) ((long) lowBin * maxVal / 255);
         int newMax = (int) ((long) (highBin + 1) * maxVal / 255);
         newMax = Math.min(newMax, maxVal);
@@ -0,0 +1,158 @@
+package qupath.ext.qpsc.ui.liveviewer;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Recycles the pixel buffers behind live {@link FrameData} frames.
+ *
+ * <p>Live view at camera rate allocates one 6-30 MB {@code byte[]} per frame,
+ * which churns the young generation and produces GC pauses that stall the FX
+ * thread. The socket readers instead take buffers from this pool and wrap them
+ * in a reference-counted {@link Lease}; when the last holder calls
+ * {@link FrameData#release()} the buffer returns here for the next frame.
+ *
+ * <p>Only one buffer size is pooled at a time -- the size of the current camera
+ * format (width x height x channels x bytesPerPixel). A request for a different
+ * size (binning, ROI or camera change) drops the free list, so a format switch
+ * never leaves stale buffers pinned.
+ *
+ * <p>Releasing is optional: a pooled frame that is never released is simply
+ * collected by the GC. Releasing too early is the only misuse that matters, so
+ * consumers that keep a frame beyond the call that handed it to them must
+ * {@link FrameData#retain()} it first, or take a {@link FrameData#detach()}ed copy.
+ */
+public final class FrameBufferPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(FrameBufferPool.class);
+
+    /**
+     * Free buffers kept per pool. A live frame is typically held by the reader,
+     * the render slot, the renderer, the analysis executor and the cursor
+     * readout at once, so a handful of spares covers steady state.
+     */
+    private static final int DEFAULT_MAX_FREE = 4;
+
+    private static final FrameBufferPool SHARED = new FrameBufferPool(DEFAULT_MAX_FREE);
+
+    private final int maxFree;
+    private final ArrayDeque<byte[]> free = new ArrayDeque<>();
+    private int bufferLength = -1;
+
+    private final AtomicLong reused = new AtomicLong(0);
+    private final AtomicLong allocated = new AtomicLong(0);
+
+    /**
+     * @param maxFree Maximum number of idle buffers retained
+     */
+    public FrameBufferPool(int maxFree) {
+        this.maxFree = Math.max(0, maxFree);
+    }
+
+    /** Pool shared by the socket client's frame readers. */
+    public static FrameBufferPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns a buffer of exactly {@code length} bytes, recycled if one is
+     * available. Contents are undefined; callers overwrite the whole buffer.
+     */
+    public byte[] acquire(int length) {
+        synchronized (free) {
+            if (length != bufferLength) {
+                // Camera format changed -- spares of the old size are useless
+                free.clear();
+                bufferLength = length;
+            } else {
+                byte[] buffer = free.pollFirst();
+                if (buffer != null) {
+                    reused.incrementAndGet();
+                    return buffer;
+                }
+            }
+        }
+        allocated.incrementAndGet();
+        return new byte[length];
+    }
+
+    /**
+     * Wraps a buffer from {@link #acquire(int)} as a pooled frame holding one
+     * reference (owned by the caller).
+     */
+    public FrameData wrap(int width, int height, int channels, int bytesPerPixel, byte[] buffer, long timestampMs) {
+        return new FrameData(width, height, channels, bytesPerPixel, buffer, timestampMs, new Lease(this, buffer));
+    }
+
+    void recycle(byte[] buffer) {
+        synchronized (free) {
+            if (buffer.length == bufferLength && free.size() < maxFree) {
+                free.addFirst(buffer);
+            }
+        }
+    }
+
+    /** Number of acquisitions served from the free list. */
+    public long getReusedCount() {
+        return reused.get();
+    }
+
+    /** Number of acquisitions that had to allocate. */
+    public long getAllocatedCount() {
+        return allocated.get();
+    }
+
+    /** Number of idle buffers currently retained. */
+    public int getFreeCount() {
+        synchronized (free) {
+            return free.size();
+        }
+    }
+
+    /**
+     * Reference count for one pooled buffer. Starts at 1; the buffer is
+     * recycled when it returns to 0. Over-release is logged and the buffer is
+     * left to the GC rather than recycled, so a consumer bug can never hand
+     * the same memory to two live frames.
+     */
+    public static final class Lease {
+        private final FrameBufferPool pool;
+        private final byte[] buffer;
+        private final AtomicInteger refs = new AtomicInteger(1);
+
+        private Lease(FrameBufferPool pool, byte[] buffer) {
+            this.pool = pool;
+            this.buffer = buffer;
+        }
+
+        void retain() {
+            int n;
+            do {
+                n = refs.get();
+                if (n <= 0) {
+                    // Already recycled; the caller's later release will go
+                    // negative and be ignored rather than recycle twice.
+                    logger.warn("Retained a frame buffer that was already released");
+                    return;
+                }
+            } while (!refs.compareAndSet(n, n + 1));
+        }
+
+        void release() {
+            int remaining = refs.decrementAndGet();
+            if (remaining == 0) {
+                pool.recycle(buffer);
+            } else if (remaining < 0) {
+                logger.warn("Frame buffer released more times than retained");
+            }
+        }
+
+        /** Current reference count (for diagnostics and tests). */
+        int refCount() {
+            return refs.get();
+        }
+    }
+}
@@ -4,6 +4,10 @@ package qupath.ext.qpsc.ui.liveviewer;
  * Immutable record holding a single camera frame with metadata.
  * Used for transferring frame data from the socket client to the live viewer.
  *
+ * <p>Frames read by the socket client use buffers from {@link FrameBufferPool};
+ * {@link #retain()} and {@link #release()} manage the buffer's reference count.
+ * Both are no-ops for unpooled frames (tiles loaded from disk, test data).
+ *
  * @param width        Image width in pixels
  * @param height       Image height in pixels
  * @param channels     Number of channels (1=grayscale, 3=RGB)
@@ -11,8 +15,24 @@ package qupath.ext.qpsc.ui.liveviewer;
  * @param rawPixels    Raw pixel data, row-major, HWC for multi-channel.
  *                     uint16 data is in big-endian byte order from the wire.
  * @param timestampMs  Timestamp when the frame was received (System.currentTimeMillis)
+ * @param lease        Pool reference count for {@code rawPixels}, or null if unpooled
  */
-public record FrameData(int width, int height, int channels, int bytesPerPixel, byte[] rawPixels, long timestampMs) {
+public record FrameData(
+        int width,
+        int height,
+        int channels,
+        int bytesPerPixel,
+        byte[] rawPixels,
+        long timestampMs,
+        FrameBufferPool.Lease lease) {
+
+    /**
+     * Creates an unpooled frame that owns its pixel array outright.
+     */
+    public FrameData(int width, int height, int channels, int bytesPerPixel, byte[] rawPixels, long timestampMs) {
+        this(width, height, channels, bytesPerPixel, rawPixels, timestampMs, null);
+    }
+
     /**
      * Returns the maximum pixel value for this bit depth.
      */
@@ -47,4 +67,39 @@ public record FrameData(int width, int height, int channels, int bytesPerPixel,
             return ((rawPixels[byteOffset] & 0xFF) << 8) | (rawPixels[byteOffset + 1] & 0xFF);
         }
     }
+
+    /**
+     * Adds a reference to a pooled buffer so it is not recycled while the
+     * caller still reads it. Pair every call with {@link #release()}.
+     *
+     * @return this frame, for chaining
+     */
+    public FrameData retain() {
+        if (lease != null) {
+            lease.retain();
+        }
+        return this;
+    }
+
+    /**
+     * Drops a reference; the buffer returns to its pool when the last
+     * reference is released. Do not touch {@link #rawPixels()} afterwards.
+     */
+    public void release() {
+        if (lease != null) {
+            lease.release();
+        }
+    }
+
+    /**
+     * Returns a frame that does not share a pooled buffer: this frame if it
+     * is unpooled, otherwise a copy. The caller must hold a reference while
+     * the copy is taken.
+     */
+    public FrameData detach() {
+        if (lease == null) {
+            return this;
+        }
+        return new FrameData(width, height, channels, bytesPerPixel, rawPixels.clone(), timestampMs);
+    }
 }
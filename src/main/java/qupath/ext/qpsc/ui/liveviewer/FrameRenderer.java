@@ -0,0 +1,162 @@
+package qupath.ext.qpsc.ui.liveviewer;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Converts live frames into display-sized ARGB buffers off the FX thread.
+ *
+ * <p>Contrast mapping (via a {@link ContrastLut}), channel packing and
+ * nearest-neighbour downsampling are done in one pass over the <em>display</em>
+ * pixels, so a 20 MP frame shown in a 900 px window costs ~0.5 MP of work
+ * instead of 20 MP. Rows are split into bands that run in parallel on a shared
+ * {@link RowStripes} pool.
+ *
+ * <p>The FX thread only receives a finished {@link Rendered} buffer for a single
+ * {@code PixelWriter.setPixels} call, then hands it back via {@link #recycle(int[])}
+ * so steady-state rendering does not allocate.
+ */
+final class FrameRenderer {
+
+    /** Rows per band below which splitting costs more than it saves. */
+    private static final int MIN_BAND_ROWS = 64;
+
+    /**
+     * A finished display buffer.
+     *
+     * @param width  Display width in pixels
+     * @param height Display height in pixels
+     * @param argb   Packed ARGB pixels, row-major, length width*height
+     */
+    record Rendered(int width, int height, int[] argb) {}
+
+    private final RowStripes stripes;
+    private final AtomicReference<int[]> spare = new AtomicReference<>();
+
+    /**
+     * @param stripes Row-stripe pool; owned by the caller
+     */
+    FrameRenderer(RowStripes stripes) {
+        this.stripes = stripes;
+    }
+
+    /**
+     * Chooses the render resolution for a frame.
+     *
+     * <p>In fit mode the frame is downsampled to the viewport (never upsampled --
+     * the ImageView scales small frames up itself). A viewport that has not been
+     * laid out yet ({@code <= 0}) renders at source resolution. In explicit-scale
+     * mode the scale is applied to the source size.
+     *
+     * @return {@code {width, height}} of the display buffer
+     */
+    static int[] displaySize(
+            int srcW, int srcH, boolean fitToContainer, double explicitScale, double viewW, double viewH) {
+        if (!fitToContainer) {
+            return new int[] {Math.max(1, (int) (srcW * explicitScale)), Math.max(1, (int) (srcH * explicitScale))};
+        }
+        if (viewW <= 0 || viewH <= 0) {
+            return new int[] {srcW, srcH};
+        }
+        double scale = Math.min(1.0, Math.min(viewW / srcW, viewH / srcH));
+        return new int[] {
+            Math.max(1, Math.min(srcW, (int) Math.ceil(srcW * scale))),
+            Math.max(1, Math.min(srcH, (int) Math.ceil(srcH * scale)))
+        };
+    }
+
+    /**
+     * Renders a frame at {@code dstW x dstH} through a contrast lookup table
+     * matching the frame's bit depth. The frame must stay valid (retained)
+     * for the call.
+     */
+    Rendered render(FrameData frame, int dstW, int dstH, ContrastLut lut) {
+        if (lut.bytesPerPixel() != frame.bytesPerPixel()) {
+            throw new IllegalArgumentException("Lookup table is for " + lut.bytesPerPixel()
+                    + " bytes per pixel but frame has " + frame.bytesPerPixel());
+        }
+        int[] out = obtain(dstW * dstH);
+
+        // Source column for each display column, computed once per frame
+        int srcW = frame.width();
+        int srcH = frame.height();
+        int[] srcCols = new int[dstW];
+        for (int dx = 0; dx < dstW; dx++) {
+            srcCols[dx] = Math.min(srcW - 1, (int) ((long) dx * srcW / dstW));
+        }
+
+        stripes.run(dstH, MIN_BAND_ROWS, (stripe, y0, y1) -> {
+            renderRows(frame, out, dstW, dstH, srcH, srcCols, y0, y1, lut);
+        });
+        return new Rendered(dstW, dstH, out);
+    }
+
+    /**
+     * Returns a display buffer to the renderer once the FX thread has
+     * copied it into the WritableImage.
+     */
+    void recycle(int[] argb) {
+        spare.set(argb);
+    }
+
+    private int[] obtain(int length) {
+        int[] buffer = spare.getAndSet(null);
+        return buffer != null && buffer.length == length ? buffer : new int[length];
+    }
+
+    private static void renderRows(
+            FrameData frame,
+            int[] out,
+            int dstW,
+            int dstH,
+            int srcH,
+            int[] srcCols,
+            int y0,
+            int y1,
+            ContrastLut lut) {
+        byte[] raw = frame.rawPixels();
+        int srcW = frame.width();
+        int bpp = frame.bytesPerPixel();
+        int channels = frame.channels();
+        byte[] t0 = lut.table(0);
+        byte[] t1 = lut.table(1);
+        byte[] t2 = lut.table(2);
+
+        // One specialised loop per format keeps the per-pixel work to table
+        // loads and shifts, with no branches on bit depth or channel count.
+        for (int dy = y0; dy < y1; dy++) {
+            // Map display row to source row
+            int sy = Math.min(srcH - 1, (int) ((long) dy * srcH / dstH));
+            int rowBase = sy * srcW;
+            int outBase = dy * dstW;
+
+            if (channels == 1 && bpp == 1) {
+                for (int dx = 0; dx < dstW; dx++) {
+                    int level = t0[raw[rowBase + srcCols[dx]] & 0xFF] & 0xFF;
+                    out[outBase + dx] = 0xFF000000 | level * 0x010101;
+                }
+            } else if (channels == 1) {
+                for (int dx = 0; dx < dstW; dx++) {
+                    int byteOff = (rowBase + srcCols[dx]) << 1;
+                    int level = t0[((raw[byteOff] & 0xFF) << 8) | (raw[byteOff + 1] & 0xFF)] & 0xFF;
+                    out[outBase + dx] = 0xFF000000 | level * 0x010101;
+                }
+            } else if (bpp == 1) {
+                for (int dx = 0; dx < dstW; dx++) {
+                    int byteOff = (rowBase + srcCols[dx]) * channels;
+                    int r = t0[raw[byteOff] & 0xFF] & 0xFF;
+                    int g = t1[raw[byteOff + 1] & 0xFF] & 0xFF;
+                    int b = t2[raw[byteOff + 2] & 0xFF] & 0xFF;
+                    out[outBase + dx] = 0xFF000000 | (r << 16) | (g << 8) | b;
+                }
+            } else {
+                for (int dx = 0; dx < dstW; dx++) {
+                    int byteOff = (rowBase + srcCols[dx]) * channels * 2;
+                    int r = t0[((raw[byteOff] & 0xFF) << 8) | (raw[byteOff + 1] & 0xFF)] & 0xFF;
+                    int g = t1[((raw[byteOff + 2] & 0xFF) << 8) | (raw[byteOff + 3] & 0xFF)] & 0xFF;
+                    int b = t2[((raw[byteOff + 4] & 0xFF) << 8) | (raw[byteOff + 5] & 0xFF)] & 0xFF;
+                    out[outBase + dx] = 0xFF000000 | (r << 16) | (g << 8) | b;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package qupath.ext.qpsc.ui.liveviewer;
+
+/**
+ * Per-frame statistics computed in a single pass over the pixel buffer and
+ * shared by the histogram, noise-stats panel and focus-metric trace.
+ *
+ * <p>Previously each consumer walked the whole frame on its own; the fused
+ * kernel reads each sample once and accumulates everything they need. Rows are
+ * split into stripes with per-stripe accumulators, so the pass parallelises
+ * without contention.
+ *
+ * <p>Channel statistics cover one channel for monochrome frames and three (R, G,
+ * B) otherwise. The histogram has 256 bins over the frame's full bit depth: raw
+ * values for monochrome, {@code 0.299R + 0.587G + 0.114B} luminance for RGB.
+ * The Brenner gradient is the mean of {@code (I(x+2,y) - I(x,y))^2} on the first
+ * channel, sampled every {@code max(1, height/256)} rows.
+ *
+ * @param statChannels    Channels with statistics (1 or 3)
+ * @param maxValue        Saturation level for the frame's bit depth
+ * @param pixelCount      Pixels per channel
+ * @param histogram       256-bin histogram, or null for a {@link #focusOnly} result
+ * @param means           Per-channel mean, or null for a focus-only result
+ * @param stdDevs         Per-channel spatial standard deviation, or null for a focus-only result
+ * @param saturatedCounts Per-channel count of samples at {@code maxValue}, or null for a focus-only result
+ * @param brennerGradient Brenner focus metric (0 for frames narrower than 4 px)
+ */
+public record FrameStats(
+        int statChannels,
+        int maxValue,
+        long pixelCount,
+        int[] histogram,
+        double[] means,
+        double[] stdDevs,
+        long[] saturatedCounts,
+        double brennerGradient) {
+
+    /** Rows per stripe below which splitting costs more than it saves. */
+    private static final int MIN_STRIPE_ROWS = 32;
+
+    /** Brenner pixel offset along x. */
+    private static final int BRENNER_SHIFT = 2;
+
+    /** 16-bit value to histogram bin ({@code v * 255 / 65535}), avoiding a divide per sample. */
+    private static final byte[] BIN_16 = new byte[65536];
+
+    static {
+        for (int v = 0; v < BIN_16.length; v++) {
+            BIN_16[v] = (byte) (v * 255 / 65535);
+        }
+    }
+
+    /** Accumulators for one stripe of rows. */
+    private static final class Partial {
+        final int[] histogram = new int[256];
+        final long[] sum = new long[3];
+        final long[] sumSq = new long[3];
+        final long[] saturated = new long[3];
+        long brennerSum;
+        long brennerCount;
+    }
+
+    /**
+     * Computes all statistics on the calling thread.
+     */
+    public static FrameStats compute(FrameData frame) {
+        return compute(frame, null);
+    }
+
+    /**
+     * Computes all statistics, splitting rows across {@code stripes} when given.
+     */
+    static FrameStats compute(FrameData frame, RowStripes stripes) {
+        int w = frame.width();
+        int h = frame.height();
+        int nCh = frame.channels() == 1 ? 1 : 3;
+        int maxValue = frame.maxValue();
+        long pixelCount = (long) w * h;
+        if (pixelCount <= 0 || frame.rawPixels() == null) {
+            return empty(nCh, maxValue);
+        }
+
+        int rowStep = brennerRowStep(h);
+        Partial[] partials = new Partial[stripes == null ? 1 : stripes.parallelism()];
+        if (stripes == null) {
+            partials[0] = new Partial();
+            accumulate(frame, 0, h, rowStep, partials[0]);
+        } else {
+            stripes.run(h, MIN_STRIPE_ROWS, (stripe, y0, y1) -> {
+                Partial p = new Partial();
+                accumulate(frame, y0, y1, rowStep, p);
+                partials[stripe] = p;
+            });
+        }
+
+        // Merge stripes
+        int[] histogram = new int[256];
+        long[] sum = new long[nCh];
+        long[] sumSq = new long[nCh];
+        long[] saturated = new long[nCh];
+        long brennerSum = 0;
+        long brennerCount = 0;
+        for (Partial p : partials) {
+            if (p == null) continue;
+            for (int i = 0; i < 256; i++) {
+                histogram[i] += p.histogram[i];
+            }
+            for (int c = 0; c < nCh; c++) {
+                sum[c] += p.sum[c];
+                sumSq[c] += p.sumSq[c];
+                saturated[c] += p.saturated[c];
+            }
+            brennerSum += p.brennerSum;
+            brennerCount += p.brennerCount;
+        }
+
+        double[] means = new double[nCh];
+        double[] stdDevs = new double[nCh];
+        for (int c = 0; c < nCh; c++) {
+            means[c] = (double) sum[c] / pixelCount;
+            double variance = (double) sumSq[c] / pixelCount - means[c] * means[c];
+            stdDevs[c] = Math.sqrt(Math.max(0, variance));
+        }
+        double brenner = brennerCount == 0 ? 0.0 : (double) brennerSum / brennerCount;
+        return new FrameStats(nCh, maxValue, pixelCount, histogram, means, stdDevs, saturated, brenner);
+    }
+
+    /**
+     * Computes only the Brenner gradient (sampled rows), for frames where the
+     * throttled histogram and noise consumers have nothing to update.
+     */
+    public static FrameStats focusOnly(FrameData frame) {
+        int nCh = frame.channels() == 1 ? 1 : 3;
+        int w = frame.width();
+        int h = frame.height();
+        if (w < 4 || h < 1 || frame.rawPixels() == null) {
+            return new FrameStats(nCh, frame.maxValue(), (long) w * h, null, null, null, null, 0.0);
+        }
+
+        byte[] raw = frame.rawPixels();
+        int bpp = frame.bytesPerPixel();
+        int stride = frame.channels() * bpp;
+        int rowStep = brennerRowStep(h);
+        long sumSq = 0;
+        long count = 0;
+        for (int y = 0; y < h; y += rowStep) {
+            int rowBase = y * w * stride;
+            for (int x = BRENNER_SHIFT; x < w; x++) {
+                int d = sample(raw, rowBase + x * stride, bpp)
+                        - sample(raw, rowBase + (x - BRENNER_SHIFT) * stride, bpp);
+                sumSq += (long) d * d;
+                count++;
+            }
+        }
+        return new FrameStats(
+                nCh, frame.maxValue(), (long) w * h, null, null, null, null, count == 0 ? 0.0 : (double) sumSq / count);
+    }
+
+    private static FrameStats empty(int nCh, int maxValue) {
+        return new FrameStats(nCh, maxValue, 0, new int[256], new double[nCh], new double[nCh], new long[nCh], 0.0);
+    }
+
+    private static int brennerRowStep(int height) {
+        return Math.max(1, height / 256);
+    }
+
+    /**
+     * The fused kernel: histogram, channel moments, saturation and Brenner for
+     * rows {@code [y0, y1)}, reading each sample once.
+     */
+    private static void accumulate(FrameData frame, int y0, int y1, int rowStep, Partial p) {
+        byte[] raw = frame.rawPixels();
+        int w = frame.width();
+        int bpp = frame.bytesPerPixel();
+        int channels = frame.channels();
+        int stride = channels * bpp;
+        int maxValue = frame.maxValue();
+        boolean brennerEnabled = w >= 4;
+        int[] hist = p.histogram;
+
+        for (int y = y0; y < y1; y++) {
+            int rowBase = y * w * stride;
+            boolean brennerRow = brennerEnabled && y % rowStep == 0;
+            // Previous two first-channel samples, for I(x) - I(x-2)
+            int prev1 = 0;
+            int prev2 = 0;
+
+            if (channels == 1) {
+                long sum = 0;
+                long sumSq = 0;
+                long sat = 0;
+                for (int x = 0; x < w; x++) {
+                    int v = sample(raw, rowBase + x * stride, bpp);
+                    sum += v;
+                    sumSq += (long) v * v;
+                    if (v >= maxValue) sat++;
+                    hist[bpp == 1 ? v : BIN_16[v] & 0xFF]++;
+                    if (brennerRow) {
+                        if (x >= BRENNER_SHIFT) {
+                            int d = v - prev2;
+                            p.brennerSum += (long) d * d;
+                            p.brennerCount++;
+                        }
+                        prev2 = prev1;
+                        prev1 = v;
+                    }
+                }
+                p.sum[0] += sum;
+                p.sumSq[0] += sumSq;
+                p.saturated[0] += sat;
+            } else {
+                for (int x = 0; x < w; x++) {
+                    int off = rowBase + x * stride;
+                    int r = sample(raw, off, bpp);
+                    int g = sample(raw, off + bpp, bpp);
+                    int b = sample(raw, off + 2 * bpp, bpp);
+                    p.sum[0] += r;
+                    p.sum[1] += g;
+                    p.sum[2] += b;
+                    p.sumSq[0] += (long) r * r;
+                    p.sumSq[1] += (long) g * g;
+                    p.sumSq[2] += (long) b * b;
+                    if (r >= maxValue) p.saturated[0]++;
+                    if (g >= maxValue) p.saturated[1]++;
+                    if (b >= maxValue) p.saturated[2]++;
+                    int luminance = (int) (0.299 * r + 0.587 * g + 0.114 * b);
+                    hist[bpp == 1 ? Math.min(luminance, 255) : BIN_16[Math.min(luminance, 65535)] & 0xFF]++;
+                    if (brennerRow) {
+                        if (x >= BRENNER_SHIFT) {
+                            int d = r - prev2;
+                            p.brennerSum += (long) d * d;
+                            p.brennerCount++;
+                        }
+                        prev2 = prev1;
+                        prev1 = r;
+                    }
+                }
+            }
+        }
+    }
+
+    /** Reads one sample: unsigned byte, or big-endian uint16 as sent on the wire. */
+    private static int sample(byte[] raw, int offset, int bpp) {
+        return bpp == 1 ? raw[offset] & 0xFF : ((raw[offset] & 0xFF) << 8) | (raw[offset + 1] & 0xFF);
+    }
+
+    /** Mean of channel {@code c}. */
+    public double mean(int c) {
+        return means[c];
+    }
+
+    /** Spatial standard deviation of channel {@code c}. */
+    public double stdDev(int c) {
+        return stdDevs[c];
+    }
+
+    /** Percentage of channel {@code c} samples at the saturation level. */
+    public double saturatedPercent(int c) {
+        return pixelCount == 0 ? 0.0 : 100.0 * saturatedCounts[c] / pixelCount;
+    }
+
+    /** True if this result carries the full statistics, not just the focus metric. */
+    public boolean hasFullStats() {
+        return histogram != null;
+    }
+}
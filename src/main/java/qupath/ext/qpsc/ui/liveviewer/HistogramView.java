@@ -54,8 +54,9 @@ public class HistogramView extends VBox {
     private int[] currentHistogram = new int[256];
     private int currentMaxValue = 255;
 
-    // Throttling: skip histogram updates if too frequent
-    private long lastHistogramUpdateMs = 0;
+    // Throttling: skip histogram updates if too frequent. Volatile so the
+    // analysis thread can check isUpdateDue() before computing statistics.
+    private volatile long lastHistogramUpdateMs = 0;
     private static final long HISTOGRAM_THROTTLE_MS = 200;
 
     public HistogramView(ContrastSettings contrastSettings) {
@@ -126,8 +127,7 @@ public class HistogramView extends VBox {
         // persistent autoScale flag. The "Always Auto-Scale" checkbox
         // owns the persistent flag.
         autoScaleBtn.setOnAction(e -> {
-            contrastSettings.applyAutoScale(
-                    currentHistogram, new FrameData(0, 0, 1, currentMaxValue > 255 ? 2 : 1, new byte[0], 0));
+            contrastSettings.applyAutoScale(currentHistogram, currentMaxValue);
             updateSlidersFromSettings();
             drawHistogram();
         });
@@ -135,8 +135,7 @@ public class HistogramView extends VBox {
         alwaysAutoScale.selectedProperty().addListener((obs, oldVal, newVal) -> {
             contrastSettings.setAutoScale(newVal);
             if (newVal) {
-                contrastSettings.applyAutoScale(
-                        currentHistogram, new FrameData(0, 0, 1, currentMaxValue > 255 ? 2 : 1, new byte[0], 0));
+                contrastSettings.applyAutoScale(currentHistogram, currentMaxValue);
                 updateSlidersFromSettings();
                 drawHistogram();
             }
@@ -239,6 +238,15 @@ public class HistogramView extends VBox {
         drawHistogram();
     }
 
+    /**
+     * Returns true if the throttle interval has passed, i.e. the next
+     * {@link #updateFromStats} call would redraw. Safe to call off the FX
+     * thread, so the caller can skip the full statistics pass otherwise.
+     */
+    public boolean isUpdateDue() {
+        return System.currentTimeMillis() - lastHistogramUpdateMs >= HISTOGRAM_THROTTLE_MS;
+    }
+
     /**
      * Updates the histogram from a new frame. Throttled to max ~5 Hz.
      * Auto-scale is applied only if {@link ContrastSettings#isAutoScale()} is on
@@ -247,86 +255,48 @@ public class HistogramView extends VBox {
      * @param frame The current frame data
      */
     public void updateHistogram(FrameData frame) {
+        if (!isUpdateDue()) {
+            return;
+        }
+        updateFromStats(FrameStats.compute(frame));
+    }
+
+    /**
+     * Updates the histogram, mean and saturation readouts from precomputed
+     * frame statistics. Throttled to max ~5 Hz; results without full
+     * statistics are ignored. Must run on the FX thread.
+     *
+     * @param stats Statistics of the current frame
+     */
+    public void updateFromStats(FrameStats stats) {
+        if (stats == null || !stats.hasFullStats()) {
+            return;
+        }
         long now = System.currentTimeMillis();
         if (now - lastHistogramUpdateMs < HISTOGRAM_THROTTLE_MS) {
             return;
         }
         lastHistogramUpdateMs = now;
 
-        currentMaxValue = frame.maxValue();
-
-        int[] histogram = new int[256];
-        int bpp = frame.bytesPerPixel();
-        int channels = frame.channels();
-        int pixelCount = frame.pixelCount();
-        byte[] raw = frame.rawPixels();
-
-        long sumR = 0, sumG = 0, sumB = 0;
-        long satR = 0, satG = 0, satB = 0;
-
-        if (channels == 1) {
-            // Grayscale
-            for (int i = 0; i < pixelCount; i++) {
-                int val;
-                if (bpp == 1) {
-                    val = raw[i] & 0xFF;
-                } else {
-                    int offset = i * 2;
-                    val = ((raw[offset] & 0xFF) << 8) | (raw[offset + 1] & 0xFF);
-                }
-                sumR += val;
-                if (val >= currentMaxValue) satR++;
-                int bin = val * 255 / currentMaxValue;
-                bin = Math.min(bin, 255);
-                histogram[bin]++;
-            }
-        } else {
-            // RGB: luminance histogram L = 0.299*R + 0.587*G + 0.114*B
-            int bytesPerSample = bpp;
-            int stride = channels * bytesPerSample;
-            for (int i = 0; i < pixelCount; i++) {
-                int offset = i * stride;
-                int r, g, b;
-                if (bpp == 1) {
-                    r = raw[offset] & 0xFF;
-                    g = raw[offset + 1] & 0xFF;
-                    b = raw[offset + 2] & 0xFF;
-                } else {
-                    r = ((raw[offset] & 0xFF) << 8) | (raw[offset + 1] & 0xFF);
-                    g = ((raw[offset + 2] & 0xFF) << 8) | (raw[offset + 3] & 0xFF);
-                    b = ((raw[offset + 4] & 0xFF) << 8) | (raw[offset + 5] & 0xFF);
-                }
-                sumR += r;
-                sumG += g;
-                sumB += b;
-                if (r >= currentMaxValue) satR++;
-                if (g >= currentMaxValue) satG++;
-                if (b >= currentMaxValue) satB++;
-                int luminance = (int) (0.299 * r + 0.587 * g + 0.114 * b);
-                int bin = luminance * 255 / currentMaxValue;
-                bin = Math.min(bin, 255);
-                histogram[bin]++;
-            }
-        }
-
-        currentHistogram = histogram;
+        currentMaxValue = stats.maxValue();
+        currentHistogram = stats.histogram();
 
         // Update mean label with raw pixel means and saturation percentages
-        if (pixelCount > 0) {
-            if (channels == 1) {
-                double satPct = 100.0 * satR / pixelCount;
-                meanLabel.setText(String.format("Mean: %.1f  |  Sat: %.1f%%", (double) sumR / pixelCount, satPct));
+        if (stats.pixelCount() > 0) {
+            if (stats.statChannels() == 1) {
+                double satPct = stats.saturatedPercent(0);
+                meanLabel.setText(String.format("Mean: %.1f  |  Sat: %.1f%%", stats.mean(0), satPct));
                 meanLabel.setTextFill(satPct > 1.0 ? Color.RED : Color.GRAY);
             } else {
-                double satPctR = 100.0 * satR / pixelCount;
-                double satPctG = 100.0 * satG / pixelCount;
-                double satPctB = 100.0 * satB / pixelCount;
+                double satPctR = stats.saturatedPercent(0);
+                double satPctG = stats.saturatedPercent(1);
+                double satPctB = stats.saturatedPercent(2);
                 boolean anySaturated = satPctR > 1.0 || satPctG > 1.0 || satPctB > 1.0;
                 meanLabel.setText(String.format(
                         "Mean: R=%.1f  G=%.1f  B=%.1f  |  Sat: R=%.1f%%  G=%.1f%%  B=%.1f%%",
-                        (double) sumR / pixelCount,
-                        (double) sumG / pixelCount,
-                        (double) sumB / pixelCount,
+                        stats.mean(0),
+                        stats.mean(1),
+                        stats.mean(2),
                         satPctR,
                         satPctG,
                         satPctB));
@@ -336,7 +306,7 @@ public class HistogramView extends VBox {
 
         // Auto-scale only if "Always Auto-Scale" is on.
         if (contrastSettings.isAutoScale()) {
-            contrastSettings.applyAutoScale(histogram, frame);
+            contrastSettings.applyAutoScale(currentHistogram, currentMaxValue);
         }
 
         // Update sliders to reflect current settings
@@ -0,0 +1,59 @@
+package qupath.ext.qpsc.ui.liveviewer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Single-slot, latest-frame-wins handoff between the frame producer (stream
+ * reader or GETFRAME poller) and the FX renderer.
+ *
+ * <p>The producer never blocks and never queues: a new frame replaces any frame
+ * the renderer has not picked up yet, and the replaced frame is counted as
+ * dropped. {@link #offer(FrameData)} returns {@code true} only on the
+ * empty-to-full transition, so the producer schedules exactly one drain per
+ * batch of arrivals instead of one {@code Platform.runLater} per frame.
+ *
+ * <p>The slot owns the reference of the frame it holds: a replaced or cleared
+ * frame is released, and {@link #take()} hands the reference to the caller.
+ */
+final class LatestFrameSlot {
+
+    private final AtomicReference<FrameData> slot = new AtomicReference<>();
+    private final AtomicLong dropped = new AtomicLong(0);
+
+    /**
+     * Publishes a frame, replacing any frame not yet taken.
+     *
+     * @return true if the slot was empty, i.e. the caller must schedule a drain
+     */
+    boolean offer(FrameData frame) {
+        FrameData previous = slot.getAndSet(frame);
+        if (previous != null) {
+            previous.release();
+            dropped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Takes the newest frame, leaving the slot empty. The caller owns the
+     * returned frame's reference. Returns null if empty.
+     */
+    FrameData take() {
+        return slot.getAndSet(null);
+    }
+
+    /** Discards any pending frame (e.g. when live view stops). */
+    void clear() {
+        FrameData previous = slot.getAndSet(null);
+        if (previous != null) {
+            previous.release();
+        }
+    }
+
+    /** Frames replaced before the renderer picked them up. */
+    long droppedCount() {
+        return dropped.get();
+    }
+}
@@ -4,15 +4,20 @@ import java.awt.image.BufferedImage;
 import java.beans.PropertyChangeListener;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.geometry.Insets;
@@ -53,9 +58,14 @@ import qupath.ext.qpsc.controller.workflow.SweepAutofocusRunner;
 import qupath.ext.qpsc.modality.ModalityRegistry;
 import qupath.ext.qpsc.preferences.PersistentPreferences;
 import qupath.ext.qpsc.preferences.QPPreferenceDialog;
+import qupath.ext.qpsc.service.microscope.LiveFrameStream;
+import qupath.ext.qpsc.service.microscope.MicroscopeSocketClient;
 import qupath.ext.qpsc.state.ModalityState;
 import qupath.ext.qpsc.ui.UIFunctions;
 import qupath.ext.qpsc.utilities.DocumentationHelper;
+import qupath.ext.qpsc.utilities.FocusMetric;
+import qupath.ext.qpsc.utilities.FocusMetricCalculator;
+import qupath.ext.qpsc.utilities.FocusMetricsManifest;
 import qupath.ext.qpsc.utilities.MicroscopeConfigManager;
 import qupath.ext.qpsc.utilities.ObjectiveUtils;
 import qupath.ext.qpsc.utilities.StagePositionManager;
@@ -64,15 +74,19 @@ import qupath.lib.gui.QuPathGUI;
 /**
  * Singleton floating window that displays a live camera feed from the microscope.
  * <p>
- * Uses MM's continuous acquisition mode (live mode) and reads frames from the
+ * Uses MM's continuous acquisition mode (live mode). Frames are pushed by the
+ * server over a STRMFRM subscription when supported, otherwise read from the
  * circular buffer via the GETFRAME socket command. Frames are rendered with
  * adjustable contrast and a throttled luminance histogram.
  * <p>
  * Thread model:
  * <ul>
- *   <li>Frame poller (ScheduledExecutorService): polls GETFRAME at ~10 FPS</li>
+ *   <li>Frame stream reader ({@link LiveFrameStream}): receives pushed frames at camera rate</li>
+ *   <li>Frame poller (ScheduledExecutorService): polls GETFRAME at ~10 FPS when the
+ *       server cannot stream; otherwise only watches the stream for stalls</li>
  *   <li>Histogram computer (ExecutorService): computes histogram, throttled to ~5 Hz</li>
- *   <li>FX Application Thread: renders frames, updates UI</li>
+ *   <li>FX Application Thread: renders the newest frame from a latest-frame-wins slot,
+ *       updates UI</li>
  * </ul>
  */
 public class LiveViewerWindow {
@@ -137,18 +151,33 @@ public class LiveViewerWindow {
     // Live mode state (camera streaming on/off, independent of window visibility)
     private volatile boolean liveActive = false;
 
-    // Frame rendering state
+    // Frame rendering state. The WritableImage and its dimensions are FX-thread
+    // only; contrast mapping and downsampling run on the render thread.
     private WritableImage writableImage;
-    private int[] argbBuffer;
     private int lastFrameWidth = 0;
     private int lastFrameHeight = 0;
+    private ExecutorService renderExecutor;
+    private volatile FrameRenderer frameRenderer;
+
+    // Row-stripe workers shared by the renderer and the frame-statistics pass
+    private volatile RowStripes rowStripes;
+    private final AtomicReference<FrameRenderer.Rendered> pendingDisplay = new AtomicReference<>();
+
+    // Camera format of the last rendered frame; a change resets the display range
+    private volatile long lastSourceFormat = 0;
+
+    // Viewport size for fit-mode downsampling, mirrored from the scroll pane
+    private volatile double viewportWidth = 0;
+    private volatile double viewportHeight = 0;
 
     // Source image dimensions for double-click-to-center coordinate conversion
     private volatile int sourceImageWidth = 0;
     private volatile int sourceImageHeight = 0;
 
-    // Latest frame for cursor pixel readout (works even when not streaming)
+    // Latest frame for cursor pixel readout (works even when not streaming).
+    // Holds one pooled-buffer reference; swap it only via replaceLastFrame().
     private volatile FrameData lastFrame;
+    private final Object lastFrameLock = new Object();
 
     // Snap button gate: latches true once at least one frame has been
     // received from the server. Combined with liveActive in the binding so
@@ -161,6 +190,24 @@ public class LiveViewerWindow {
     private ScheduledExecutorService framePoller;
     private ExecutorService histogramExecutor;
 
+    // Push-based frame source (null while polling GETFRAME). Owned by the
+    // poller thread; closed in stopAndDispose().
+    private volatile LiveFrameStream frameStream;
+    private volatile long nextStreamAttemptMs = 0;
+    private static final long STREAM_RETRY_MS = 10_000;
+
+    // Producer -> render thread handoff. Stale frames are replaced, never queued.
+    private final LatestFrameSlot frameSlot = new LatestFrameSlot();
+
+    // At most one analysis bundle (histogram, focus metric, noise) in flight so
+    // a camera-rate stream cannot back up the histogram executor.
+    private final AtomicBoolean analysisInFlight = new AtomicBoolean(false);
+
+    // Focus-trace metric: the server's streaming metric for the active modality
+    // when it has a client-side implementation, else null (fused Brenner).
+    private volatile FocusMetric traceMetric;
+    private static final double TRACE_ROI_FRACTION = 0.5;
+
     /**
      * Single-thread executor for OME-TIFF writes triggered by the Snap
      * button. Separate from {@link #histogramExecutor} so a slow disk write
@@ -964,6 +1011,10 @@ public class LiveViewerWindow {
             // Force frame redraw with new settings
             lastFrameWidth = 0;
             lastFrameHeight = 0;
+            FrameData frame = copyLastFrame();
+            if (frame != null) {
+                renderFrame(frame);
+            }
             logger.info("Display mode changed to {}", selected);
         });
 
@@ -1009,7 +1060,7 @@ public class LiveViewerWindow {
         // OME-TIFF (BG correction routed through CORRECTFRAME socket command
         // when requested and settings match). Right-click for options.
         Button snapButton = SnapAction.create(
-                () -> lastFrame,
+                this::copyLastFrame,
                 contrastSettings,
                 getOrCreateIoExecutor(),
                 hasFreshFrame,
@@ -1100,6 +1151,10 @@ public class LiveViewerWindow {
             if (fovOverlayVisible) drawFovOverlay();
         });
 
+        // Track the viewport so fit mode renders at display resolution
+        scrollPane.widthProperty().addListener((obs, oldW, newW) -> viewportWidth = newW.doubleValue() - 2);
+        scrollPane.heightProperty().addListener((obs, oldH, newH) -> viewportHeight = newH.doubleValue() - 2);
+
         // Default to Fit mode: image scales to fill container
         scrollPane.setFitToWidth(true);
         scrollPane.setFitToHeight(true);
@@ -1119,7 +1174,13 @@ public class LiveViewerWindow {
         // Title also updates when modality changes from any other surface
         // (Wizard, Background Collection, etc.) via the central state. Listener
         // detached in stopAndDispose() to avoid leaking a closed window.
-        modalityTitleListener = (obs, oldV, newV) -> javafx.application.Platform.runLater(this::updateWindowTitle);
+        modalityTitleListener = (obs, oldV, newV) -> {
+            javafx.application.Platform.runLater(this::updateWindowTitle);
+            ExecutorService histExec = histogramExecutor;
+            if (histExec != null && !histExec.isShutdown()) {
+                histExec.execute(this::resolveTraceMetric);
+            }
+        };
         ModalityState.getInstance().modalityProperty().addListener(modalityTitleListener);
 
         // Reflect the modality + objective magnification detected at construction
@@ -1854,6 +1915,19 @@ public class LiveViewerWindow {
             return t;
         });
 
+        // Manifest lookup reads YAML; keep it off the FX thread
+        histogramExecutor.execute(this::resolveTraceMetric);
+
+        // Render thread: contrast mapping + downsampling, off the FX thread
+        renderExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "LiveViewer-Render");
+            t.setDaemon(true);
+            return t;
+        });
+        rowStripes = new RowStripes("LiveViewer-Worker", RowStripes.defaultParallelism());
+        frameRenderer = new FrameRenderer(rowStripes);
+
+        nextStreamAttemptMs = 0;
         framePoller.scheduleWithFixedDelay(this::pollFrame, 0, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
         logger.info("Live viewer polling started (live mode controlled by button)");
     }
@@ -1868,12 +1942,20 @@ public class LiveViewerWindow {
                 return;
             }
 
+            // Push mode: the stream reader delivers frames via onStreamFrame,
+            // so this tick only watches for a stalled stream.
+            if (ensureFrameStream(controller)) {
+                checkDesyncAndRecover(controller);
+                return;
+            }
+
             // Gate rendering on liveActive -- prevents desync Scenario A
             // (button says OFF but histogram is moving)
             if (!liveActive) {
                 FrameData frame = controller.getFrame();
                 if (frame != null) {
-                    lastFrame = frame; // Keep for cursor readout
+                    replaceLastFrame(frame); // Keep for cursor readout
+                    frame.release();
                     handleUnexpectedFrame();
                 }
                 return;
@@ -1885,89 +1967,317 @@ public class LiveViewerWindow {
                 return;
             }
 
-            // Frame arrived -- track arrival time and reset recovery counter
+            onFrameReceived(frame);
+
+        } catch (IOException e) {
+            logger.debug("Frame poll failed: {}", e.getMessage());
+            Platform.runLater(() -> updateStatus("Connection error: " + e.getMessage()));
+            // Socket timeouts (e.g. during stage-move storms) raise here without
+            // ever entering the frame==null branch, so the poller would show
+            // "Live: ON" forever while frames never actually arrived. Run the
+            // same desync check on exception paths so auto-recovery fires if
+            // enough consecutive polls fail.
+            MicroscopeController c = MicroscopeController.getInstance();
+            if (c != null) {
+                checkDesyncAndRecover(c);
+            }
+        } catch (Exception e) {
+            logger.error("Unexpected error in frame poll", e);
+        }
+    }
+
+    /**
+     * Keeps a push-based frame stream open when the server supports it.
+     * Runs on the poller thread. A stream that dies (server restart, socket
+     * error) drops the viewer back to GETFRAME polling and is re-attempted
+     * after {@link #STREAM_RETRY_MS}.
+     *
+     * @return true if frames are currently arriving via the stream
+     */
+    private boolean ensureFrameStream(MicroscopeController controller) {
+        LiveFrameStream stream = frameStream;
+        if (stream != null) {
+            if (stream.isRunning()) {
+                return true;
+            }
+            logger.info("Live frame stream stopped ({}) -- polling GETFRAME", stream.getFailureMessage());
+            frameStream = null;
+            nextStreamAttemptMs = System.currentTimeMillis() + STREAM_RETRY_MS;
+            return false;
+        }
+
+        MicroscopeSocketClient client = controller.getSocketClient();
+        if (client == null
+                || !client.isFrameStreamSupported()
+                || System.currentTimeMillis() < nextStreamAttemptMs) {
+            return false;
+        }
+        try {
+            stream = client.openFrameStream(0, this::onStreamFrame);
+        } catch (IOException e) {
+            logger.debug("Live frame stream unavailable: {}", e.getMessage());
+            nextStreamAttemptMs = System.currentTimeMillis() + STREAM_RETRY_MS;
+            return false;
+        }
+        if (stream == null) {
+            return false;
+        }
+        if (!polling) {
+            // Window closed while the subscription was being set up
+            stream.close();
+            return false;
+        }
+        frameStream = stream;
+        return true;
+    }
+
+    /**
+     * Sink for pushed frames. Runs on the stream reader thread and must
+     * not block -- everything heavy happens after the slot handoff.
+     * Takes ownership of the frame's pooled-buffer reference.
+     */
+    private void onStreamFrame(FrameData frame) {
+        if (!polling) {
+            frame.release();
+            return;
+        }
+        if (!liveActive) {
+            replaceLastFrame(frame); // Keep for cursor readout
+            frame.release();
+            handleUnexpectedFrame();
+            return;
+        }
+        onFrameReceived(frame);
+    }
+
+    /**
+     * Publishes a frame as {@link #lastFrame}, taking a reference for it and
+     * releasing the reference held on the frame it replaces.
+     */
+    private void replaceLastFrame(FrameData frame) {
+        FrameData previous;
+        synchronized (lastFrameLock) {
+            frame.retain();
+            previous = lastFrame;
             lastFrame = frame;
-            if (!hasFreshFrame.get()) {
-                Platform.runLater(() -> hasFreshFrame.set(true));
+        }
+        if (previous != null) {
+            previous.release();
+        }
+    }
+
+    /**
+     * Returns a copy of {@link #lastFrame} that does not share a pooled
+     * buffer, for consumers (Snap) that keep the frame across an async
+     * write while live frames keep recycling buffers.
+     */
+    private FrameData copyLastFrame() {
+        FrameData frame;
+        synchronized (lastFrameLock) {
+            frame = lastFrame;
+            if (frame == null) {
+                return null;
             }
-            lastFrameArrivalTime = System.currentTimeMillis();
-            if (recoveryAttempts > 0) {
-                logger.info("Frames restored after {} recovery attempt(s)", recoveryAttempts);
-                recoveryAttempts = 0;
-                Platform.runLater(() -> updateStatus("Live ON - streaming..."));
+            frame.retain();
+        }
+        try {
+            return frame.detach();
+        } finally {
+            frame.release();
+        }
+    }
+
+    /**
+     * Common arrival bookkeeping for polled and pushed frames: desync
+     * tracking, FPS, the status ticker, and the handoff to the renderer.
+     * FPS counts arrivals, so it tracks the camera rate even when the
+     * renderer drops stale frames. The caller's frame reference passes to
+     * the render slot.
+     */
+    private void onFrameReceived(FrameData frame) {
+        // Frame arrived -- track arrival time and reset recovery counter
+        replaceLastFrame(frame);
+        if (!hasFreshFrame.get()) {
+            Platform.runLater(() -> hasFreshFrame.set(true));
+        }
+        lastFrameArrivalTime = System.currentTimeMillis();
+        if (recoveryAttempts > 0) {
+            logger.info("Frames restored after {} recovery attempt(s)", recoveryAttempts);
+            recoveryAttempts = 0;
+            Platform.runLater(() -> updateStatus("Live ON - streaming..."));
+        }
+
+        // Track FPS
+        int count = frameCount.incrementAndGet();
+        long now = System.currentTimeMillis();
+        long elapsed = now - fpsWindowStart.get();
+        if (elapsed >= 1000) {
+            currentFps = count * 1000.0 / elapsed;
+            frameCount.set(0);
+            fpsWindowStart.set(now);
+        }
+
+        // Build frame info string
+        String bitDepth = frame.bytesPerPixel() == 2 ? "16-bit" : "8-bit";
+        String colorMode = frame.isRGB() ? "RGB" : "Grayscale";
+        lastFrameInfo = String.format(
+                "FPS: %.1f | %dx%d | %s %s", currentFps, frame.width(), frame.height(), colorMode, bitDepth);
+
+        // Latest frame wins: only the empty->full transition schedules a drain
+        if (frameSlot.offer(frame)) {
+            ExecutorService renderExec = renderExecutor;
+            try {
+                if (renderExec == null) throw new RejectedExecutionException("Render executor stopped");
+                renderExec.execute(this::drainFrameSlot);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; drop the pending frame
+                frameSlot.clear();
             }
+        }
+    }
 
-            // Track FPS
-            int count = frameCount.incrementAndGet();
-            long now = System.currentTimeMillis();
-            long elapsed = now - fpsWindowStart.get();
-            if (elapsed >= 1000) {
-                currentFps = count * 1000.0 / elapsed;
-                frameCount.set(0);
-                fpsWindowStart.set(now);
+    /**
+     * Render-thread consumer of {@link #frameSlot}: analyses and renders only
+     * the newest frame. Frames replaced while this was queued are never touched.
+     */
+    private void drainFrameSlot() {
+        FrameData frame = frameSlot.take();
+        if (frame == null) return;
+        try {
+            if (!polling) return;
+            submitFrameAnalysis(frame);
+            FrameRenderer.Rendered rendered = renderToArgb(frame);
+            if (rendered != null) {
+                postToDisplay(rendered);
             }
+        } catch (RuntimeException e) {
+            logger.warn("Live frame render failed: {}", e.getMessage());
+        } finally {
+            frame.release();
+        }
+    }
 
-            // Build frame info string
-            String bitDepth = frame.bytesPerPixel() == 2 ? "16-bit" : "8-bit";
-            String colorMode = frame.isRGB() ? "RGB" : "Grayscale";
-            lastFrameInfo = String.format(
-                    "FPS: %.1f | %dx%d | %s %s", currentFps, frame.width(), frame.height(), colorMode, bitDepth);
+    /**
+     * Hands a rendered buffer to the FX thread. Latest wins: a buffer the FX
+     * thread has not presented yet is replaced and returned to the renderer.
+     */
+    private void postToDisplay(FrameRenderer.Rendered rendered) {
+        FrameRenderer.Rendered previous = pendingDisplay.getAndSet(rendered);
+        if (previous == null) {
+            Platform.runLater(this::presentPending);
+        } else {
+            FrameRenderer renderer = frameRenderer;
+            if (renderer != null) renderer.recycle(previous.argb());
+        }
+    }
 
-            // Submit histogram computation (throttled internally)
-            // Capture local ref: stopAndDispose() may null the field concurrently
-            ExecutorService histExec = histogramExecutor;
-            if (histExec == null || histExec.isShutdown()) return;
+    private void presentPending() {
+        FrameRenderer.Rendered rendered = pendingDisplay.getAndSet(null);
+        if (rendered != null) {
+            presentRendered(rendered);
+        }
+    }
 
-            histExec.submit(() -> {
-                try {
-                    Platform.runLater(() -> histogramView.updateHistogram(frame));
-                } catch (Exception e) {
-                    logger.debug("Histogram update failed: {}", e.getMessage());
-                }
-            });
+    /**
+     * Submits histogram, focus-metric and noise-stats updates for a frame.
+     * Skipped if the previous bundle is still running so analysis keeps pace
+     * with whatever the executor can sustain rather than queuing behind it.
+     * The task holds its own reference to the frame's pooled buffer until
+     * the statistics pass is done.
+     */
+    private void submitFrameAnalysis(FrameData frame) {
+        // Capture local ref: stopAndDispose() may null the field concurrently
+        ExecutorService histExec = histogramExecutor;
+        if (histExec == null || histExec.isShutdown()) return;
+        if (!analysisInFlight.compareAndSet(false, true)) return;
 
-            // Focus-metric trace: compute per-frame Brenner gradient, pair with
-            // the current polled Z, and push to the ZBarPanel's trace model.
-            // Cleared on > 1 um XY moves by StageControlPanel.onPositionChanged.
+        boolean noiseExpanded = noiseStatsPanel.isExpanded();
+        frame.retain();
+        try {
             histExec.submit(() -> {
                 try {
-                    if (stageControlPanel == null || stageControlPanel.getZBarPanel() == null) return;
-                    double metric = qupath.ext.qpsc.utilities.FocusMetricCalculator.brennerGradient(frame);
-                    double z = MicroscopeController.getInstance().getStageZFast();
-                    stageControlPanel.getZBarPanel().getFocusTrace().addSample(z, metric);
-                } catch (Exception e) {
-                    logger.debug("Focus-metric update failed: {}", e.getMessage());
-                }
-            });
+                    // One fused pass feeds all three consumers. Between the
+                    // histogram/noise throttle ticks only the focus metric is
+                    // needed, which samples a few hundred rows.
+                    boolean histogramDue = histogramView.isUpdateDue();
+                    boolean noiseDue = noiseExpanded && noiseStatsPanel.isUpdateDue();
+                    FocusMetric metric = traceMetric;
+                    FrameStats stats = null;
+                    double focusValue;
+                    try {
+                        if (histogramDue || noiseDue) {
+                            stats = FrameStats.compute(frame, rowStripes);
+                        } else if (metric == null) {
+                            stats = FrameStats.focusOnly(frame);
+                        }
+                        focusValue = metric != null
+                                ? metric.evaluate(frame, FocusMetric.Region.centreCrop(frame, TRACE_ROI_FRACTION))
+                                : stats.brennerGradient();
+                    } finally {
+                        frame.release();
+                    }
+                    FrameStats frameStats = stats;
 
-            // Update noise stats (throttled internally to ~2Hz)
-            if (noiseStatsPanel.isExpanded()) {
-                histExec.submit(() -> {
+                    // Histogram (throttled internally)
+                    if (histogramDue) {
+                        Platform.runLater(() -> histogramView.updateFromStats(frameStats));
+                    }
+
+                    // Focus-metric trace: pair the frame's focus metric with the
+                    // current polled Z, and push to the ZBarPanel's trace model.
+                    // Cleared on > 1 um XY moves by StageControlPanel.onPositionChanged.
                     try {
-                        noiseStatsPanel.updateFromFrame(frame);
+                        if (stageControlPanel != null && stageControlPanel.getZBarPanel() != null) {
+                            double z = MicroscopeController.getInstance().getStageZFast();
+                            stageControlPanel.getZBarPanel().getFocusTrace().addSample(z, focusValue);
+                        }
                     } catch (Exception e) {
-                        logger.debug("Noise stats update failed: {}", e.getMessage());
+                        logger.debug("Focus-metric update failed: {}", e.getMessage());
                     }
-                });
-            }
 
-            // Render frame on FX thread
-            Platform.runLater(() -> renderFrame(frame));
+                    // Update noise stats (throttled internally to ~2Hz)
+                    if (noiseDue) {
+                        try {
+                            noiseStatsPanel.updateFromStats(frameStats);
+                        } catch (Exception e) {
+                            logger.debug("Noise stats update failed: {}", e.getMessage());
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    logger.debug("Frame analysis failed: {}", e.getMessage());
+                } finally {
+                    analysisInFlight.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            frame.release();
+            analysisInFlight.set(false);
+        }
+    }
 
-        } catch (IOException e) {
-            logger.debug("Frame poll failed: {}", e.getMessage());
-            Platform.runLater(() -> updateStatus("Connection error: " + e.getMessage()));
-            // Socket timeouts (e.g. during stage-move storms) raise here without
-            // ever entering the frame==null branch, so the poller would show
-            // "Live: ON" forever while frames never actually arrived. Run the
-            // same desync check on exception paths so auto-recovery fires if
-            // enough consecutive polls fail.
-            MicroscopeController c = MicroscopeController.getInstance();
-            if (c != null) {
-                checkDesyncAndRecover(c);
-            }
-        } catch (Exception e) {
-            logger.error("Unexpected error in frame poll", e);
+    /**
+     * Picks the focus-trace metric the server's streaming autofocus would use
+     * for the active modality, so the trace and the AF scan rank Z positions
+     * the same way. Falls back to the fused Brenner gradient when the metric
+     * has no client-side implementation or the manifest cannot be read.
+     */
+    private void resolveTraceMetric() {
+        try {
+            String configPath = QPPreferenceDialog.getMicroscopeConfigFileProperty();
+            Path configDir =
+                    configPath == null || configPath.isEmpty() ? null : Paths.get(configPath).getParent();
+            FocusMetricsManifest manifest = FocusMetricsManifest.get(configDir);
+            String modality = ModalityState.getInstance().getModality();
+            FocusMetric metric =
+                    FocusMetricCalculator.streamingMetricFor(manifest, modality).orElse(null);
+            traceMetric = metric;
+            logger.info(
+                    "Focus trace metric for modality {}: {}",
+                    modality,
+                    metric != null ? metric.name() : "brenner (row-sampled)");
+        } catch (RuntimeException e) {
+            traceMetric = null;
+            logger.debug("Focus trace metric lookup failed: {}", e.getMessage());
         }
     }
 
@@ -2032,7 +2342,27 @@ public class LiveViewerWindow {
         }
     }
 
+    /**
+     * Renders a frame synchronously on the calling FX thread. Used for one-off
+     * frames (acquired tiles, display-mode switches); live frames go through
+     * the render thread instead.
+     */
     private void renderFrame(FrameData frame) {
+        FrameRenderer.Rendered rendered = renderToArgb(frame);
+        if (rendered != null) {
+            presentRendered(rendered);
+        }
+    }
+
+    /**
+     * Contrast-maps a frame into an ARGB buffer at display resolution. Fit mode
+     * downsamples to the viewport; explicit-scale mode applies the chosen scale.
+     * Safe to call from any thread; returns null once the viewer is disposed.
+     */
+    private FrameRenderer.Rendered renderToArgb(FrameData frame) {
+        FrameRenderer renderer = frameRenderer;
+        if (renderer == null) return null;
+
         int srcW = frame.width();
         int srcH = frame.height();
 
@@ -2040,89 +2370,42 @@ public class LiveViewerWindow {
         this.sourceImageWidth = srcW;
         this.sourceImageHeight = srcH;
 
-        int dstW, dstH;
-        if (fitToContainer) {
-            // Fit mode: render at full resolution, ImageView scales it down via binding
-            dstW = srcW;
-            dstH = srcH;
-        } else {
-            // Explicit scale mode: render at scaled resolution
-            dstW = Math.max(1, (int) (srcW * explicitScale));
-            dstH = Math.max(1, (int) (srcH * explicitScale));
+        // Apply full range for a new camera format (size or bit depth)
+        long format = ((long) srcW << 32) ^ ((long) srcH << 8) ^ (frame.channels() << 4) ^ frame.bytesPerPixel();
+        if (format != lastSourceFormat) {
+            lastSourceFormat = format;
+            contrastSettings.applyFullRange(frame);
         }
 
-        // Compute scale for pixel mapping (for explicit scale mode)
-        double scale = fitToContainer ? 1.0 : explicitScale;
+        int[] dst = FrameRenderer.displaySize(
+                srcW, srcH, fitToContainer, explicitScale, viewportWidth, viewportHeight);
+        return renderer.render(frame, dst[0], dst[1], contrastSettings.lookupTable(frame));
+    }
+
+    /**
+     * FX-thread half of rendering: copies a finished buffer into the
+     * WritableImage with a single setPixels call.
+     */
+    private void presentRendered(FrameRenderer.Rendered rendered) {
+        int dstW = rendered.width();
+        int dstH = rendered.height();
 
         // Recreate WritableImage if display dimensions changed
-        if (dstW != lastFrameWidth || dstH != lastFrameHeight) {
+        if (writableImage == null || dstW != lastFrameWidth || dstH != lastFrameHeight) {
             writableImage = new WritableImage(dstW, dstH);
-            argbBuffer = new int[dstW * dstH];
             lastFrameWidth = dstW;
             lastFrameHeight = dstH;
             imageView.setImage(writableImage);
-
-            // Apply full range for new bit depth
-            contrastSettings.applyFullRange(frame);
-        }
-
-        // Apply contrast mapping and convert to ARGB with subsampling
-        int min = contrastSettings.getDisplayMin();
-        int max = contrastSettings.getDisplayMax();
-        int range = Math.max(1, max - min);
-
-        byte[] raw = frame.rawPixels();
-        int bpp = frame.bytesPerPixel();
-        int channels = frame.channels();
-
-        for (int dy = 0; dy < dstH; dy++) {
-            // Map display row to source row
-            int sy = (int) (dy / scale);
-            if (sy >= srcH) sy = srcH - 1;
-
-            for (int dx = 0; dx < dstW; dx++) {
-                // Map display col to source col
-                int sx = (int) (dx / scale);
-                if (sx >= srcW) sx = srcW - 1;
-
-                int srcIdx = sy * srcW + sx;
-
-                if (channels == 1) {
-                    int val;
-                    if (bpp == 1) {
-                        val = raw[srcIdx] & 0xFF;
-                    } else {
-                        int byteOff = srcIdx * 2;
-                        val = ((raw[byteOff] & 0xFF) << 8) | (raw[byteOff + 1] & 0xFF);
-                    }
-                    int mapped = clamp((val - min) * 255 / range, 0, 255);
-                    argbBuffer[dy * dstW + dx] = 0xFF000000 | (mapped << 16) | (mapped << 8) | mapped;
-                } else {
-                    int bytesPerSample = bpp;
-                    int stride = channels * bytesPerSample;
-                    int byteOff = srcIdx * stride;
-                    int r, g, b;
-                    if (bpp == 1) {
-                        r = raw[byteOff] & 0xFF;
-                        g = raw[byteOff + 1] & 0xFF;
-                        b = raw[byteOff + 2] & 0xFF;
-                    } else {
-                        r = ((raw[byteOff] & 0xFF) << 8) | (raw[byteOff + 1] & 0xFF);
-                        g = ((raw[byteOff + 2] & 0xFF) << 8) | (raw[byteOff + 3] & 0xFF);
-                        b = ((raw[byteOff + 4] & 0xFF) << 8) | (raw[byteOff + 5] & 0xFF);
-                    }
-                    r = clamp((r - min) * 255 / range, 0, 255);
-                    g = clamp((g - min) * 255 / range, 0, 255);
-                    b = clamp((b - min) * 255 / range, 0, 255);
-                    argbBuffer[dy * dstW + dx] = 0xFF000000 | (r << 16) | (g << 8) | b;
-                }
-            }
         }
 
         // Batch write to WritableImage
         writableImage
                 .getPixelWriter()
-                .setPixels(0, 0, dstW, dstH, PixelFormat.getIntArgbInstance(), argbBuffer, 0, dstW);
+                .setPixels(0, 0, dstW, dstH, PixelFormat.getIntArgbInstance(), rendered.argb(), 0, dstW);
+
+        // setPixels copied the data; the buffer can back the next frame
+        FrameRenderer renderer = frameRenderer;
+        if (renderer != null) renderer.recycle(rendered.argb());
 
         // Only overwrite status with FPS ticker if no held message is active
         if (System.currentTimeMillis() >= statusHoldUntil) {
@@ -2565,6 +2848,8 @@ public class LiveViewerWindow {
      * Works even when not streaming, as long as a frame has been displayed.
      */
     private void updateCursorPixelInfo(javafx.scene.input.MouseEvent event) {
+        // Unretained read: if a newer frame recycles this buffer mid-read the
+        // readout shows a value from that newer frame, which is harmless here.
         FrameData frame = lastFrame;
         if (frame == null) return;
 
@@ -2610,10 +2895,6 @@ public class LiveViewerWindow {
         }
     }
 
-    private static int clamp(int value, int min, int max) {
-        return Math.max(min, Math.min(max, value));
-    }
-
     private void updateStatus(String text) {
         statusLabel.setText(text);
     }
@@ -2699,6 +2980,23 @@ public class LiveViewerWindow {
             framePoller.shutdownNow();
             framePoller = null;
         }
+        LiveFrameStream stream = frameStream;
+        if (stream != null) {
+            stream.close();
+            frameStream = null;
+        }
+        frameSlot.clear();
+        if (renderExecutor != null) {
+            renderExecutor.shutdownNow();
+            renderExecutor = null;
+        }
+        frameRenderer = null;
+        RowStripes stripes = rowStripes;
+        if (stripes != null) {
+            rowStripes = null;
+            stripes.close();
+        }
+        pendingDisplay.set(null);
         if (histogramExecutor != null) {
             histogramExecutor.shutdownNow();
             histogramExecutor = null;
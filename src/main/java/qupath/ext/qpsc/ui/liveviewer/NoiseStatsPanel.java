@@ -53,7 +53,7 @@ public class NoiseStatsPanel extends TitledPane {
     private final Label measureStatus;
 
     // Throttling for single-frame updates
-    private long lastUpdateMs = 0;
+    private volatile long lastUpdateMs = 0;
     private static final long UPDATE_THROTTLE_MS = 500; // ~2Hz
 
     public NoiseStatsPanel() {
@@ -111,50 +111,49 @@ public class NoiseStatsPanel extends TitledPane {
         setContent(content);
     }
 
+    /**
+     * Returns true if the throttle interval has passed, i.e. the next
+     * {@link #updateFromStats} call would refresh the readout.
+     */
+    public boolean isUpdateDue() {
+        return System.currentTimeMillis() - lastUpdateMs >= UPDATE_THROTTLE_MS;
+    }
+
     /**
      * Updates noise stats from a single frame (spatial estimate).
-     * Called from the live viewer polling loop. Internally throttled to ~2Hz.
+     * Internally throttled to ~2Hz.
      *
      * @param frame The current frame data
      */
     public void updateFromFrame(FrameData frame) {
-        if (frame == null) return;
+        if (frame == null || !isUpdateDue()) return;
+        updateFromStats(FrameStats.compute(frame));
+    }
+
+    /**
+     * Updates noise stats from precomputed frame statistics (spatial
+     * estimate). Called from the live viewer analysis thread. Internally
+     * throttled to ~2Hz; results without full statistics are ignored.
+     *
+     * @param stats Statistics of the current frame
+     */
+    public void updateFromStats(FrameStats stats) {
+        if (stats == null || !stats.hasFullStats() || stats.pixelCount() <= 0) return;
 
         long now = System.currentTimeMillis();
         if (now - lastUpdateMs < UPDATE_THROTTLE_MS) return;
         lastUpdateMs = now;
 
-        // Number of channels to score: 3 for RGB, 1 for monochrome (the
-        // previous code bailed out on any non-RGB frame, so 16-bit mono
-        // cameras showed no live stats at all).
-        boolean rgb = frame.isRGB();
-        int nCh = rgb ? 3 : 1;
-
-        // Compute per-channel spatial mean and std dev
-        int pixelCount = frame.width() * frame.height();
-        if (pixelCount <= 0) return;
-        int bpp = frame.bytesPerPixel();
-        int stride = frame.channels() * bpp;
-
-        long[] sum = new long[nCh];
-        long[] sumSq = new long[nCh];
-
-        for (int i = 0; i < pixelCount; i++) {
-            int baseOffset = i * stride;
-            for (int c = 0; c < nCh; c++) {
-                int val = frame.readPixelValue(baseOffset + c * bpp);
-                sum[c] += val;
-                sumSq[c] += (long) val * val;
-            }
-        }
+        // Monochrome frames score one channel (the "Mono" row), RGB three
+        boolean rgb = stats.statChannels() == 3;
+        int nCh = stats.statChannels();
 
         double[] means = new double[nCh];
         double[] stds = new double[nCh];
         double[] snrs = new double[nCh];
         for (int c = 0; c < nCh; c++) {
-            means[c] = (double) sum[c] / pixelCount;
-            double variance = (double) sumSq[c] / pixelCount - means[c] * means[c];
-            stds[c] = Math.sqrt(Math.max(0, variance));
+            means[c] = stats.mean(c);
+            stds[c] = stats.stdDev(c);
             snrs[c] = stds[c] > 0 ? means[c] / stds[c] : 0;
         }
 
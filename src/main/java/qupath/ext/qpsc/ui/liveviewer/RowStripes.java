@@ -0,0 +1,109 @@
+package qupath.ext.qpsc.ui.liveviewer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Splits per-frame work into horizontal row stripes run in parallel.
+ *
+ * <p>Shared by the Live Viewer's renderer and frame-statistics kernel. Stripe
+ * tasks are leaf computations that never wait on each other, so several callers
+ * can share one pool without deadlock. The calling thread always runs the first
+ * stripe itself; a parallelism of 1 runs everything inline with no pool at all.
+ */
+final class RowStripes implements AutoCloseable {
+
+    /** Work for one stripe of rows {@code [y0, y1)}. */
+    @FunctionalInterface
+    interface StripeTask {
+        /**
+         * @param stripe Stripe index in {@code [0, parallelism())}, for per-stripe accumulators
+         * @param y0     First row (inclusive)
+         * @param y1     Last row (exclusive)
+         */
+        void run(int stripe, int y0, int y1);
+    }
+
+    private final int parallelism;
+    private final ExecutorService pool;
+
+    /**
+     * @param threadName  Name prefix for worker threads
+     * @param parallelism Maximum stripes run concurrently (1 = inline only)
+     */
+    RowStripes(String threadName, int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        if (this.parallelism > 1) {
+            AtomicInteger threadIndex = new AtomicInteger();
+            pool = Executors.newFixedThreadPool(this.parallelism - 1, r -> {
+                Thread t = new Thread(r, threadName + "-" + threadIndex.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        } else {
+            pool = null;
+        }
+    }
+
+    /** Parallelism sized for background UI work: half the cores, at most 8. */
+    static int defaultParallelism() {
+        return Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /** Upper bound on the stripe index passed to a {@link StripeTask}. */
+    int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Runs {@code task} over rows {@code [0, rows)} and returns once every
+     * stripe has finished.
+     *
+     * @param rows    Total rows
+     * @param minRows Smallest stripe worth handing to another thread
+     * @return Number of stripes used
+     */
+    int run(int rows, int minRows, StripeTask task) {
+        int stripes = pool == null ? 1 : Math.min(parallelism, Math.max(1, rows / Math.max(1, minRows)));
+        if (stripes <= 1) {
+            task.run(0, 0, rows);
+            return 1;
+        }
+
+        int rowsPerStripe = (rows + stripes - 1) / stripes;
+        List<Future<?>> futures = new ArrayList<>(stripes - 1);
+        int used = 1;
+        for (int s = 1; s < stripes; s++) {
+            int y0 = s * rowsPerStripe;
+            int y1 = Math.min(rows, y0 + rowsPerStripe);
+            if (y0 >= y1) break;
+            int stripe = s;
+            futures.add(pool.submit(() -> task.run(stripe, y0, y1)));
+            used++;
+        }
+        task.run(0, 0, Math.min(rows, rowsPerStripe));
+        for (Future<?> f : futures) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while processing frame", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Frame stripe failed", e.getCause());
+            }
+        }
+        return used;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
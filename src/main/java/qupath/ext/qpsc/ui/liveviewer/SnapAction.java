@@ -311,15 +311,14 @@ public final class SnapAction {
         // thread -- the live frame poller and the user can keep working while
         // the TIFF write runs in the background.
         final boolean displayMapped = !saveRaw;
-        final int dispMin = contrastSettings.getDisplayMin();
-        final int dispMax = contrastSettings.getDisplayMax();
+        final ContrastLut displayLut = displayMapped ? contrastSettings.lookupTable(frame) : null;
         final StageMetadata stage = captureStageMetadata();
         final boolean bgCorrected = correctionApplied;
         final FrameData snapshotFrame = frame;
 
         ioExecutor.submit(() -> {
             try {
-                writeOmeTiff(destination, snapshotFrame, displayMapped, dispMin, dispMax, stage, bgCorrected);
+                writeOmeTiff(destination, snapshotFrame, displayLut, stage, bgCorrected);
                 Platform.runLater(() -> {
                     updateStatus("Saved " + destination.getName());
                     if (openAfterSave) {
@@ -608,29 +607,27 @@ public final class SnapAction {
     /**
      * Build the pixel byte array that goes into the TIFF, applying optional
      * display contrast mapping, and return the matching BioFormats pixel type.
+     *
+     * @param displayLut Display lookup table, or null to save raw values
      */
-    private static byte[] toPixelBytes(
-            FrameData frame, boolean displayMapped, int dispMin, int dispMax, int[] outPixelType) {
+    private static byte[] toPixelBytes(FrameData frame, ContrastLut displayLut, int[] outPixelType) {
         int w = frame.width();
         int h = frame.height();
         int c = frame.channels();
         int bpp = frame.bytesPerPixel();
         byte[] src = frame.rawPixels();
 
-        if (displayMapped) {
-            // Map to 8-bit using the current display min/max, output 8-bit.
-            int range = Math.max(1, dispMax - dispMin);
+        if (displayLut != null) {
+            // Map to 8-bit through the same lookup table the viewer displays with.
             byte[] dst = new byte[w * h * c];
             if (bpp == 1) {
-                for (int i = 0; i < src.length; i++) {
-                    int v = src[i] & 0xFF;
-                    dst[i] = (byte) clamp((v - dispMin) * 255 / range, 0, 255);
+                for (int i = 0; i < dst.length; i++) {
+                    dst[i] = displayLut.table(i % c)[src[i] & 0xFF];
                 }
             } else {
                 // uint16 big-endian on wire
-                for (int i = 0, j = 0; i < w * h * c; i++, j += 2) {
-                    int v = ((src[j] & 0xFF) << 8) | (src[j + 1] & 0xFF);
-                    dst[i] = (byte) clamp((v - dispMin) * 255 / range, 0, 255);
+                for (int i = 0, j = 0; i < dst.length; i++, j += 2) {
+                    dst[i] = displayLut.table(i % c)[((src[j] & 0xFF) << 8) | (src[j + 1] & 0xFF)];
                 }
             }
             outPixelType[0] = FormatTools.UINT8;
@@ -654,22 +651,17 @@ public final class SnapAction {
         return dst;
     }
 
-    private static int clamp(int v, int lo, int hi) {
-        return v < lo ? lo : (v > hi ? hi : v);
-    }
-
     private static void writeOmeTiff(
             File file,
             FrameData frame,
-            boolean displayMapped,
-            int dispMin,
-            int dispMax,
+            ContrastLut displayLut,
             StageMetadata stage,
             boolean bgCorrected)
             throws Exception {
 
         int[] pixelTypeRef = new int[1];
-        byte[] pixelBytes = toPixelBytes(frame, displayMapped, dispMin, dispMax, pixelTypeRef);
+        boolean displayMapped = displayLut != null;
+        byte[] pixelBytes = toPixelBytes(frame, displayLut, pixelTypeRef);
         int pixelType = pixelTypeRef[0];
 
         int w = frame.width();
@@ -0,0 +1,242 @@
+package qupath.ext.qpsc.ui.stagemap;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.Group;
+import javafx.scene.image.ImageView;
+
+/**
+ * The Stage Map's acquisition overlay, drawn as a grid of fixed-size tiles in
+ * a {@link Group} that follows the view.
+ *
+ * <p>The overlay used to be one composite of every visible thumbnail, redrawn
+ * in full on each zoom or pan step and capped at 4096 px. Deep zooms were
+ * blurry and panning with hundreds of thumbnails stuttered. Tiles are now
+ * {@value #TILE_SIZE} px squares in layer space: insert micrometers times the
+ * current scale, with no offset. A pan only moves the group and renders tiles
+ * that have just come into view. A zoom drops the tiles, because they were
+ * drawn for the old scale. Tiles that no thumbnail touches are remembered as
+ * empty and have no node at all.
+ *
+ * <p>Each thumbnail keeps a chain of half-size copies (its mip levels). A
+ * thumbnail drawn a few pixels wide is scaled from the nearest level at least
+ * that size, not from the full image, which is faster and avoids aliasing.
+ */
+final class AcquisitionTileLayer {
+
+    /** Tile edge in screen pixels. */
+    static final int TILE_SIZE = 512;
+
+    /** Tiles kept beyond the visible ones before the farthest are dropped. */
+    private static final int SPARE_TILES = 32;
+
+    /** Smallest mip level edge; halving stops before going below it. */
+    private static final int MIN_MIP_SIZE = 8;
+
+    /**
+     * One thumbnail placed in insert space.
+     *
+     * @param thumbnail The full-size thumbnail
+     * @param minX      Left edge, insert micrometers
+     * @param minY      Top edge, insert micrometers
+     * @param maxX      Right edge, insert micrometers
+     * @param maxY      Bottom edge, insert micrometers
+     */
+    record Placement(BufferedImage thumbnail, double minX, double minY, double maxX, double maxY) {}
+
+    private final Group group = new Group();
+    private final Map<BufferedImage, BufferedImage[]> mips = new IdentityHashMap<>();
+    /** Rendered tiles by packed index; a null value marks a tile known to be empty. */
+    private final Map<Long, ImageView> tiles = new HashMap<>();
+
+    private List<Placement> placements = List.of();
+    private double builtScale = Double.NaN;
+
+    AcquisitionTileLayer() {
+        group.setMouseTransparent(true);
+        group.setVisible(false);
+        group.setManaged(false);
+    }
+
+    /** The node to add to the scene graph. */
+    Group node() {
+        return group;
+    }
+
+    /**
+     * Replaces the thumbnails shown and drops all tiles. Mip levels of
+     * thumbnails that are still shown are kept.
+     */
+    void setPlacements(List<Placement> placements) {
+        this.placements = List.copyOf(placements);
+        Map<BufferedImage, BufferedImage[]> kept = new IdentityHashMap<>();
+        for (Placement p : this.placements) {
+            BufferedImage[] levels = mips.get(p.thumbnail());
+            kept.put(p.thumbnail(), levels != null ? levels : mipLevels(p.thumbnail()));
+        }
+        mips.clear();
+        mips.putAll(kept);
+        dropTiles();
+    }
+
+    /**
+     * Shows the tiles covering the view and positions the group.
+     *
+     * @param scale      Screen pixels per micrometer
+     * @param offsetX    Screen position of the insert origin
+     * @param offsetY    Screen position of the insert origin
+     * @param viewWidth  Visible width in screen pixels
+     * @param viewHeight Visible height in screen pixels
+     */
+    void update(double scale, double offsetX, double offsetY, double viewWidth, double viewHeight) {
+        if (placements.isEmpty() || scale <= 0 || viewWidth <= 0 || viewHeight <= 0) {
+            group.setVisible(false);
+            return;
+        }
+        if (scale != builtScale) {
+            dropTiles();
+            builtScale = scale;
+        }
+        group.setLayoutX(offsetX);
+        group.setLayoutY(offsetY);
+
+        int tx0 = (int) Math.floor(-offsetX / TILE_SIZE);
+        int ty0 = (int) Math.floor(-offsetY / TILE_SIZE);
+        int tx1 = (int) Math.floor((viewWidth - offsetX) / TILE_SIZE);
+        int ty1 = (int) Math.floor((viewHeight - offsetY) / TILE_SIZE);
+        for (int ty = ty0; ty <= ty1; ty++) {
+            for (int tx = tx0; tx <= tx1; tx++) {
+                long key = key(tx, ty);
+                if (!tiles.containsKey(key)) {
+                    ImageView view = renderTile(tx, ty, scale);
+                    tiles.put(key, view);
+                    if (view != null) {
+                        group.getChildren().add(view);
+                    }
+                }
+            }
+        }
+        evictOutside(tx0, ty0, tx1, ty1);
+        group.setVisible(true);
+    }
+
+    /** Hides the layer, keeping its tiles. */
+    void hide() {
+        group.setVisible(false);
+    }
+
+    /** Forgets the thumbnails, their mip levels and all tiles. */
+    void clear() {
+        placements = List.of();
+        mips.clear();
+        dropTiles();
+        group.setVisible(false);
+    }
+
+    private ImageView renderTile(int tx, int ty, double scale) {
+        double x0 = (double) tx * TILE_SIZE;
+        double y0 = (double) ty * TILE_SIZE;
+        BufferedImage tile = null;
+        Graphics2D g = null;
+        for (Placement p : placements) {
+            double px0 = p.minX() * scale;
+            double py0 = p.minY() * scale;
+            double px1 = p.maxX() * scale;
+            double py1 = p.maxY() * scale;
+            if (px1 <= x0 || py1 <= y0 || px0 >= x0 + TILE_SIZE || py0 >= y0 + TILE_SIZE) {
+                continue;
+            }
+            int dx = (int) Math.floor(px0 - x0);
+            int dy = (int) Math.floor(py0 - y0);
+            int dw = (int) Math.round(px1 - px0);
+            int dh = (int) Math.round(py1 - py0);
+            if (dw <= 0 || dh <= 0) {
+                continue;
+            }
+            if (tile == null) {
+                tile = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+                g = tile.createGraphics();
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            }
+            BufferedImage[] levels = mips.get(p.thumbnail());
+            g.drawImage(levels[levelFor(levels, dw, dh)], dx, dy, dw, dh, null);
+        }
+        if (tile == null) {
+            return null;
+        }
+        g.dispose();
+        ImageView view = new ImageView(SwingFXUtils.toFXImage(tile, null));
+        view.setX(x0);
+        view.setY(y0);
+        return view;
+    }
+
+    /** Index of the smallest level that is at least {@code w x h}, or level 0. */
+    static int levelFor(BufferedImage[] levels, int w, int h) {
+        int best = 0;
+        for (int i = 1; i < levels.length; i++) {
+            if (levels[i].getWidth() < w || levels[i].getHeight() < h) {
+                break;
+            }
+            best = i;
+        }
+        return best;
+    }
+
+    /** The thumbnail followed by successive half-size copies, down to {@value #MIN_MIP_SIZE} px. */
+    static BufferedImage[] mipLevels(BufferedImage thumbnail) {
+        List<BufferedImage> levels = new ArrayList<>();
+        levels.add(thumbnail);
+        BufferedImage current = thumbnail;
+        while (current.getWidth() / 2 >= MIN_MIP_SIZE && current.getHeight() / 2 >= MIN_MIP_SIZE) {
+            int w = current.getWidth() / 2;
+            int h = current.getHeight() / 2;
+            BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            levels.add(next);
+            current = next;
+        }
+        return levels.toArray(new BufferedImage[0]);
+    }
+
+    /** Drops the tiles farthest from the view once more than the spare allowance are held. */
+    private void evictOutside(int tx0, int ty0, int tx1, int ty1) {
+        int visible = (tx1 - tx0 + 1) * (ty1 - ty0 + 1);
+        if (tiles.size() <= visible + SPARE_TILES) {
+            return;
+        }
+        Iterator<Map.Entry<Long, ImageView>> it = tiles.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, ImageView> e = it.next();
+            int tx = (int) (e.getKey() >> 32);
+            int ty = (int) (long) e.getKey();
+            if (tx < tx0 - 1 || tx > tx1 + 1 || ty < ty0 - 1 || ty > ty1 + 1) {
+                if (e.getValue() != null) {
+                    group.getChildren().remove(e.getValue());
+                }
+                it.remove();
+            }
+        }
+    }
+
+    private void dropTiles() {
+        tiles.clear();
+        group.getChildren().clear();
+        builtScale = Double.NaN;
+    }
+
+    private static long key(int tx, int ty) {
+        return ((long) tx << 32) | (ty & 0xFFFFFFFFL);
+    }
+}
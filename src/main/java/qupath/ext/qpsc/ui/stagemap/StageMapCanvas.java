@@ -31,7 +31,10 @@ import org.slf4j.LoggerFactory;
  * This implementation avoids the hardware texture corruption issues that affect
  * Canvas-based rendering when MicroManager's Live Mode is toggled. It uses:
  * <ul>
- *   <li>WritableImage for static background elements (painted via PixelWriter)</li>
+ *   <li>WritableImage for static background elements, painted into a {@link StageMapRaster}
+ *       and copied in one {@code setPixels} call; a pan scrolls it and repaints only the
+ *       exposed strips</li>
+ *   <li>An {@link AcquisitionTileLayer} for the acquisition thumbnails</li>
  *   <li>JavaFX Shape nodes for dynamic overlays (crosshair, FOV, target)</li>
  * </ul>
  * <p>
@@ -87,6 +90,16 @@ public class StageMapCanvas extends StackPane {
     private WritableImage backgroundImage;
     private ImageView backgroundView;
     private PixelWriter pixelWriter;
+    // Pixels behind backgroundImage; painted here, then written to the image in one call
+    private StageMapRaster raster;
+    // What the raster currently shows. A pan at the same scale only scrolls it and
+    // repaints the exposed strips; anything else repaints it whole.
+    private boolean backgroundValid = false;
+    private StageInsert renderedInsert;
+    private double renderedScale = Double.NaN;
+    private boolean renderedLegalZones;
+    private int renderedOriginX;
+    private int renderedOriginY;
 
     // ========== Shape Overlay Layer ==========
     private Pane overlayPane;
@@ -102,8 +115,11 @@ public class StageMapCanvas extends StackPane {
     private Rectangle insertBorderRect;
 
     // ========== Acquisition Overlay Layer ==========
-    private ImageView acquisitionOverlayView;
+    private AcquisitionTileLayer acquisitionLayer;
     private List<AcquisitionThumbnail> acquisitionThumbnails = new ArrayList<>();
+    // Set when the thumbnails, the filter or the insert change; the tile layer's
+    // placements are rebuilt on the next update.
+    private boolean acquisitionPlacementsDirty = true;
     private boolean acquisitionOverlayVisible = false;
     /** null = no filter (paint all loaded thumbnails); otherwise only paint thumbnails whose imageName is in this set. */
     private Set<String> visibleAcquisitionImages = null;
@@ -226,6 +242,7 @@ public class StageMapCanvas extends StackPane {
         // Create background image layer
         backgroundImage = new WritableImage((int) width, (int) height);
         pixelWriter = backgroundImage.getPixelWriter();
+        raster = new StageMapRaster((int) width, (int) height);
         backgroundView = new ImageView(backgroundImage);
         backgroundView.setPreserveRatio(false);
 
@@ -283,12 +300,9 @@ public class StageMapCanvas extends StackPane {
         insertBorderRect.setStrokeWidth(2);
         insertBorderRect.setVisible(false);
 
-        // Create acquisition overlay ImageView (behind macro and shapes)
-        acquisitionOverlayView = new ImageView();
-        acquisitionOverlayView.setOpacity(ACQUISITION_OVERLAY_OPACITY);
-        acquisitionOverlayView.setPreserveRatio(false);
-        acquisitionOverlayView.setVisible(false);
-        acquisitionOverlayView.setMouseTransparent(true);
+        // Create acquisition overlay tiles (behind macro and shapes)
+        acquisitionLayer = new AcquisitionTileLayer();
+        acquisitionLayer.node().setOpacity(ACQUISITION_OVERLAY_OPACITY);
 
         // Create macro overlay ImageView (behind shapes but above acquisitions)
         macroOverlayView = new ImageView();
@@ -310,7 +324,7 @@ public class StageMapCanvas extends StackPane {
         overlayPane
                 .getChildren()
                 .addAll(
-                        acquisitionOverlayView, // Behind everything
+                        acquisitionLayer.node(), // Behind everything
                         macroOverlayView, // Behind shapes but above acquisitions
                         slotPreviewView, // Multi-slot orientation preview, above single macro
                         boundingBoxPreviewRect, // Above macro, below indicators
@@ -475,6 +489,8 @@ public class StageMapCanvas extends StackPane {
      */
     public void setInsert(StageInsert insert) {
         this.currentInsert = insert;
+        backgroundValid = false;
+        acquisitionPlacementsDirty = true;
         calculateScale();
         renderBackground();
         updateOverlays();
@@ -516,6 +532,7 @@ public class StageMapCanvas extends StackPane {
      */
     public void setShowLegalZones(boolean show) {
         this.showLegalZones = show;
+        backgroundValid = false;
         renderBackground();
     }
 
@@ -562,22 +579,13 @@ public class StageMapCanvas extends StackPane {
 
         int sx = (int) screenPos[0];
         int sy = (int) screenPos[1];
-        Color color = Color.rgb(r, g, b);
+        int argb = 0xFF000000 | ((r & 0xFF) << 16) | ((g & 0xFF) << 8) | (b & 0xFF);
 
         // Paint a small block centered on the position
         int halfSize = blockSize / 2;
-        int imgWidth = (int) backgroundImage.getWidth();
-        int imgHeight = (int) backgroundImage.getHeight();
-
-        for (int dx = -halfSize; dx <= halfSize; dx++) {
-            for (int dy = -halfSize; dy <= halfSize; dy++) {
-                int px = sx + dx;
-                int py = sy + dy;
-                if (px >= 0 && px < imgWidth && py >= 0 && py < imgHeight) {
-                    pixelWriter.setColor(px, py, color);
-                }
-            }
-        }
+        raster.resetClip();
+        raster.fillRect(sx - halfSize, sy - halfSize, 2 * halfSize + 1, 2 * halfSize + 1, argb);
+        uploadRaster(sx - halfSize, sy - halfSize, 2 * halfSize + 1, 2 * halfSize + 1);
     }
 
     // ========== Coordinate Conversion ==========
@@ -613,6 +621,15 @@ public class StageMapCanvas extends StackPane {
      * Converts stage coordinates to screen coordinates.
      */
     public double[] stageToScreen(double stageX, double stageY) {
+        double[] insertPos = stageToInsert(stageX, stageY);
+        if (insertPos == null) {
+            return null;
+        }
+        return new double[] {offsetX + insertPos[0] * scale, offsetY + insertPos[1] * scale};
+    }
+
+    /** Stage micrometers to micrometers from the insert's top-left corner, or null with no insert. */
+    private double[] stageToInsert(double stageX, double stageY) {
         if (currentInsert == null) {
             return null;
         }
@@ -630,10 +647,7 @@ public class StageMapCanvas extends StackPane {
             insertY = stageY - currentInsert.getOriginYUm();
         }
 
-        double screenX = offsetX + insertX * scale;
-        double screenY = offsetY + insertY * scale;
-
-        return new double[] {screenX, screenY};
+        return new double[] {insertX, insertY};
     }
 
     // ========== Internal Rendering ==========
@@ -736,44 +750,137 @@ public class StageMapCanvas extends StackPane {
             backgroundImage = new WritableImage(iw, ih);
             pixelWriter = backgroundImage.getPixelWriter();
             backgroundView.setImage(backgroundImage);
+            raster = new StageMapRaster(iw, ih);
+            backgroundValid = false;
+        }
+
+        // Paint at a whole-pixel origin so a pan is an exact integer scroll.
+        int originX = (int) Math.round(offsetX);
+        int originY = (int) Math.round(offsetY);
+        boolean sameLayer = backgroundValid
+                && renderedInsert == currentInsert
+                && renderedScale == scale
+                && renderedLegalZones == showLegalZones;
+        if (sameLayer) {
+            // Pan: keep what is still on screen, paint only the strips it uncovered
+            for (int[] strip : raster.scroll(originX - renderedOriginX, originY - renderedOriginY)) {
+                raster.setClip(strip[0], strip[1], strip[2], strip[3]);
+                paintStaticLayer(originX, originY);
+            }
+        } else {
+            raster.resetClip();
+            paintStaticLayer(originX, originY);
+        }
+        raster.resetClip();
+        if (!sameLayer || originX != renderedOriginX || originY != renderedOriginY) {
+            uploadRaster(0, 0, iw, ih);
+        }
+        backgroundValid = true;
+        renderedInsert = currentInsert;
+        renderedScale = scale;
+        renderedLegalZones = showLegalZones;
+        renderedOriginX = originX;
+        renderedOriginY = originY;
+
+        if (currentInsert == null) {
+            // Show message when no insert configured
+            return;
+        }
+
+        // Update insert border shape
+        insertBorderRect.setX(offsetX);
+        insertBorderRect.setY(offsetY);
+        insertBorderRect.setWidth(currentInsert.getWidthUm() * scale);
+        insertBorderRect.setHeight(currentInsert.getHeightUm() * scale);
+        insertBorderRect.setVisible(true);
+
+        // Update slide labels (using Text shapes)
+        updateSlideLabels();
+    }
+
+    private void updateSlideLabels() {
+        // Remove old labels
+        overlayPane.getChildren().removeAll(slideLabels);
+        slideLabels.clear();
+
+        if (currentInsert == null) {
+            return;
+        }
+
+        for (StageInsert.SlidePosition slide : currentInsert.getSlides()) {
+            double sx = offsetX + slide.getXOffsetUm() * scale;
+            double sy = offsetY + slide.getYOffsetUm() * scale;
+            double sw = slide.getWidthUm() * scale;
+            double sh = slide.getHeightUm() * scale;
+
+            Text label = new Text(slide.getName());
+            label.setFont(Font.font(10));
+            label.setFill(SLIDE_LABEL);
+            label.setTextAlignment(TextAlignment.CENTER);
+
+            double textWidth = label.getLayoutBounds().getWidth();
+            double textHeight = label.getLayoutBounds().getHeight();
+            String anchor = slide.getLabelAnchor() != null ? slide.getLabelAnchor() : "center";
+            double textX = sx + (sw - textWidth) / 2;
+            double textY;
+            switch (anchor) {
+                case "top" -> textY = sy + textHeight + 2;
+                case "bottom" -> textY = sy + sh - 2;
+                case "outside_top" -> textY = sy - 2;
+                case "outside_bottom" -> textY = sy + sh + textHeight + 2;
+                default -> textY = sy + (sh + textHeight) / 2 - 2;
+            }
+            label.setX(textX);
+            label.setY(textY);
+
+            slideLabels.add(label);
         }
 
+        overlayPane.getChildren().addAll(slideLabels);
+    }
+
+    /**
+     * Paints the insert, legal zones, dish outline and samples into the raster
+     * with the insert origin at {@code (originX, originY)}. Positions depend
+     * only on the scale and the origin, so painting under a clip matches a
+     * full repaint.
+     */
+    private void paintStaticLayer(int originX, int originY) {
         // Fill background
-        fillRect(0, 0, iw, ih, BACKGROUND_COLOR);
+        raster.fillRect(0, 0, raster.width(), raster.height(), toArgbInt(BACKGROUND_COLOR));
 
         if (currentInsert == null) {
-            // Show message when no insert configured
             return;
         }
 
         // Draw insert background
-        int insertX = (int) offsetX;
-        int insertY = (int) offsetY;
+        int insertX = originX;
+        int insertY = originY;
         int insertW = (int) (currentInsert.getWidthUm() * scale);
         int insertH = (int) (currentInsert.getHeightUm() * scale);
-        fillRect(insertX, insertY, insertW, insertH, INSERT_BACKGROUND);
+        raster.fillRect(insertX, insertY, insertW, insertH, toArgbInt(INSERT_BACKGROUND));
 
         // Draw legal/illegal zones
         if (showLegalZones) {
             // First fill with illegal zone color
-            fillRectBlend(insertX, insertY, insertW, insertH, ILLEGAL_ZONE);
+            raster.fillRectBlend(insertX, insertY, insertW, insertH, toArgbInt(ILLEGAL_ZONE));
 
             // Then overlay legal zones around each sample's usable interior
             double marginPx = currentInsert.getSlideMarginUm() * scale;
             for (StageInsert.SlidePosition sample : currentInsert.getSlides()) {
                 double[] interior = sample.getUsableInteriorInsertRelativeUm();
-                int zx = (int) (offsetX + interior[0] * scale - marginPx);
-                int zy = (int) (offsetY + interior[1] * scale - marginPx);
+                int zx = originX + (int) (interior[0] * scale - marginPx);
+                int zy = originY + (int) (interior[1] * scale - marginPx);
                 int zw = (int) ((interior[2] - interior[0]) * scale + 2 * marginPx);
                 int zh = (int) ((interior[3] - interior[1]) * scale + 2 * marginPx);
                 if (sample.getShape() == StageInsert.SlidePosition.Shape.CIRCLE) {
                     // Concentric legal-zone circle around the usable interior
-                    double cx = offsetX + (interior[0] + interior[2]) / 2.0 * scale;
-                    double cy = offsetY + (interior[1] + interior[3]) / 2.0 * scale;
+                    double cx = originX + (interior[0] + interior[2]) / 2.0 * scale;
+                    double cy = originY + (interior[1] + interior[3]) / 2.0 * scale;
                     double r = (interior[2] - interior[0]) / 2.0 * scale + marginPx;
-                    fillCircleBlend(cx, cy, r, LEGAL_ZONE);
+                    raster.fillCircleBlend(cx, cy, r, toArgbInt(LEGAL_ZONE));
                 } else {
-                    fillRectBlend(zx, zy, zw, zh, LEGAL_ZONE);
+                    raster.fillRectBlend(zx, zy, zw, zh, toArgbInt(LEGAL_ZONE));
                 }
             }
         }
@@ -781,16 +888,19 @@ public class StageMapCanvas extends StackPane {
         // Draw the optional outer dish outline (context only) concentric with
         // the aperture center, before the samples so the well renders on top.
         if (currentInsert.getOutlineDiameterUm() > 0) {
-            double ocx = offsetX + currentInsert.getWidthUm() / 2.0 * scale;
-            double ocy = offsetY + currentInsert.getHeightUm() / 2.0 * scale;
+            double ocx = originX + currentInsert.getWidthUm() / 2.0 * scale;
+            double ocy = originY + currentInsert.getHeightUm() / 2.0 * scale;
             double oR = currentInsert.getOutlineDiameterUm() / 2.0 * scale;
-            drawCircleBorder(ocx, ocy, oR, DISH_OUTLINE_COLOR, 2);
+            raster.drawCircleBorder(ocx, ocy, oR, toArgbInt(DISH_OUTLINE_COLOR), 2);
         }
 
         // Draw samples (shape-aware)
+        int slideFill = toArgbInt(SLIDE_FILL);
+        int slideBorder = toArgbInt(SLIDE_BORDER);
+        int lipShade = toArgbInt(LIP_SHADE);
         for (StageInsert.SlidePosition sample : currentInsert.getSlides()) {
-            int sx = (int) (offsetX + sample.getXOffsetUm() * scale);
-            int sy = (int) (offsetY + sample.getYOffsetUm() * scale);
+            int sx = originX + (int) (sample.getXOffsetUm() * scale);
+            int sy = originY + (int) (sample.getYOffsetUm() * scale);
             int sw = (int) (sample.getWidthUm() * scale);
             int sh = (int) (sample.getHeightUm() * scale);
 
@@ -798,16 +908,16 @@ public class StageMapCanvas extends StackPane {
                 double cx = sx + sw / 2.0;
                 double cy = sy + sh / 2.0;
                 double r = sw / 2.0;
-                fillCircle(cx, cy, r, SLIDE_FILL);
-                drawCircleBorder(cx, cy, r, SLIDE_BORDER, 2);
+                raster.fillCircle(cx, cy, r, slideFill);
+                raster.drawCircleBorder(cx, cy, r, slideBorder, 2);
                 if (sample.getLipInsetUm() > 0) {
                     // Shaded annulus indicating the lip region (between outer edge and usable interior)
                     double rInner = r - sample.getLipInsetUm() * scale;
-                    fillAnnulusBlend(cx, cy, rInner, r, LIP_SHADE);
+                    raster.fillAnnulusBlend(cx, cy, rInner, r, lipShade);
                 }
             } else {
-                fillRect(sx, sy, sw, sh, SLIDE_FILL);
-                drawRectBorder(sx, sy, sw, sh, SLIDE_BORDER, 2);
+                raster.fillRect(sx, sy, sw, sh, slideFill);
+                raster.drawRectBorder(sx, sy, sw, sh, slideBorder, 2);
                 // Shaded bands indicating lip-covered ends of the long axis
                 if (sample.getLipAUm() > 0 || sample.getLipBUm() > 0) {
                     int lipAPx = (int) (sample.getLipAUm() * scale);
@@ -815,100 +925,43 @@ public class StageMapCanvas extends StackPane {
                     if (sample.isVerticallyOriented()) {
                         // Lip A = top of bounding box, Lip B = bottom
                         if (lipAPx > 0) {
-                            fillRectBlend(sx, sy, sw, lipAPx, LIP_SHADE);
+                            raster.fillRectBlend(sx, sy, sw, lipAPx, lipShade);
                         }
                         if (lipBPx > 0) {
-                            fillRectBlend(sx, sy + sh - lipBPx, sw, lipBPx, LIP_SHADE);
+                            raster.fillRectBlend(sx, sy + sh - lipBPx, sw, lipBPx, lipShade);
                         }
                     } else {
                         // Lip A = left, Lip B = right
                         if (lipAPx > 0) {
-                            fillRectBlend(sx, sy, lipAPx, sh, LIP_SHADE);
+                            raster.fillRectBlend(sx, sy, lipAPx, sh, lipShade);
                         }
                         if (lipBPx > 0) {
-                            fillRectBlend(sx + sw - lipBPx, sy, lipBPx, sh, LIP_SHADE);
+                            raster.fillRectBlend(sx + sw - lipBPx, sy, lipBPx, sh, lipShade);
                         }
                     }
                 }
             }
         }
-
-        // Update insert border shape
-        insertBorderRect.setX(offsetX);
-        insertBorderRect.setY(offsetY);
-        insertBorderRect.setWidth(currentInsert.getWidthUm() * scale);
-        insertBorderRect.setHeight(currentInsert.getHeightUm() * scale);
-        insertBorderRect.setVisible(true);
-
-        // Update slide labels (using Text shapes)
-        updateSlideLabels();
     }
 
-    private void updateSlideLabels() {
-        // Remove old labels
-        overlayPane.getChildren().removeAll(slideLabels);
-        slideLabels.clear();
-
-        if (currentInsert == null) {
-            return;
-        }
-
-        for (StageInsert.SlidePosition slide : currentInsert.getSlides()) {
-            double sx = offsetX + slide.getXOffsetUm() * scale;
-            double sy = offsetY + slide.getYOffsetUm() * scale;
-            double sw = slide.getWidthUm() * scale;
-            double sh = slide.getHeightUm() * scale;
-
-            Text label = new Text(slide.getName());
-            label.setFont(Font.font(10));
-            label.setFill(SLIDE_LABEL);
-            label.setTextAlignment(TextAlignment.CENTER);
-
-            double textWidth = label.getLayoutBounds().getWidth();
-            double textHeight = label.getLayoutBounds().getHeight();
-            String anchor = slide.getLabelAnchor() != null ? slide.getLabelAnchor() : "center";
-            double textX = sx + (sw - textWidth) / 2;
-            double textY;
-            switch (anchor) {
-                case "top" -> textY = sy + textHeight + 2;
-                case "bottom" -> textY = sy + sh - 2;
-                case "outside_top" -> textY = sy - 2;
-                case "outside_bottom" -> textY = sy + sh + textHeight + 2;
-                default -> textY = sy + (sh + textHeight) / 2 - 2;
-            }
-            label.setX(textX);
-            label.setY(textY);
-
-            slideLabels.add(label);
-        }
-
-        overlayPane.getChildren().addAll(slideLabels);
-    }
-
-    private void fillRect(int x, int y, int w, int h, Color color) {
-        int imgW = (int) backgroundImage.getWidth();
-        int imgH = (int) backgroundImage.getHeight();
-
+    /** Copies a rectangle of the raster into the background image in one call. */
+    private void uploadRaster(int x, int y, int w, int h) {
         int x0 = Math.max(0, x);
         int y0 = Math.max(0, y);
-        int x1 = Math.min(imgW, x + w);
-        int y1 = Math.min(imgH, y + h);
-        int rw = x1 - x0;
-        int rh = y1 - y0;
-        if (rw <= 0 || rh <= 0) {
+        int x1 = Math.min(Math.min(raster.width(), (int) backgroundImage.getWidth()), x + w);
+        int y1 = Math.min(Math.min(raster.height(), (int) backgroundImage.getHeight()), y + h);
+        if (x1 <= x0 || y1 <= y0) {
             return;
         }
-        // Bulk write via setPixels (one native call per row) instead of per-pixel setColor.
-        // The full-canvas clear + insert fill dominate the per-frame cost; this is ~100-1000x
-        // fewer calls and is what makes zoom/pan smooth. Non-blend solid fills only -- the
-        // blend/circle helpers still need per-pixel read-modify-write.
-        int argb = toArgbInt(color);
-        int[] row = new int[rw];
-        java.util.Arrays.fill(row, argb);
-        javafx.scene.image.PixelFormat<java.nio.IntBuffer> fmt = javafx.scene.image.PixelFormat.getIntArgbInstance();
-        for (int py = y0; py < y1; py++) {
-            pixelWriter.setPixels(x0, py, rw, 1, fmt, row, 0, rw);
-        }
+        pixelWriter.setPixels(
+                x0,
+                y0,
+                x1 - x0,
+                y1 - y0,
+                javafx.scene.image.PixelFormat.getIntArgbInstance(),
+                raster.pixels(),
+                y0 * raster.width() + x0,
+                raster.width());
     }
 
     /** Packs a JavaFX {@link Color} into a non-premultiplied ARGB int for bulk pixel writes. */
@@ -920,120 +973,6 @@ public class StageMapCanvas extends StackPane {
         return (a << 24) | (r << 16) | (g << 8) | b;
     }
 
-    private void fillRectBlend(int x, int y, int w, int h, Color color) {
-        int imgW = (int) backgroundImage.getWidth();
-        int imgH = (int) backgroundImage.getHeight();
-
-        for (int px = Math.max(0, x); px < Math.min(imgW, x + w); px++) {
-            for (int py = Math.max(0, y); py < Math.min(imgH, y + h); py++) {
-                Color existing = backgroundImage.getPixelReader().getColor(px, py);
-                Color blended = blendColors(existing, color);
-                pixelWriter.setColor(px, py, blended);
-            }
-        }
-    }
-
-    private Color blendColors(Color base, Color overlay) {
-        double alpha = overlay.getOpacity();
-        double r = base.getRed() * (1 - alpha) + overlay.getRed() * alpha;
-        double g = base.getGreen() * (1 - alpha) + overlay.getGreen() * alpha;
-        double b = base.getBlue() * (1 - alpha) + overlay.getBlue() * alpha;
-        return Color.color(r, g, b);
-    }
-
-    private void drawRectBorder(int x, int y, int w, int h, Color color, int thickness) {
-        // Top and bottom
-        fillRect(x, y, w, thickness, color);
-        fillRect(x, y + h - thickness, w, thickness, color);
-        // Left and right
-        fillRect(x, y, thickness, h, color);
-        fillRect(x + w - thickness, y, thickness, h, color);
-    }
-
-    private void fillCircle(double cx, double cy, double radius, Color color) {
-        int imgW = (int) backgroundImage.getWidth();
-        int imgH = (int) backgroundImage.getHeight();
-        int minX = Math.max(0, (int) Math.floor(cx - radius));
-        int maxX = Math.min(imgW - 1, (int) Math.ceil(cx + radius));
-        int minY = Math.max(0, (int) Math.floor(cy - radius));
-        int maxY = Math.min(imgH - 1, (int) Math.ceil(cy + radius));
-        double r2 = radius * radius;
-        for (int px = minX; px <= maxX; px++) {
-            for (int py = minY; py <= maxY; py++) {
-                double dx = px + 0.5 - cx;
-                double dy = py + 0.5 - cy;
-                if (dx * dx + dy * dy <= r2) {
-                    pixelWriter.setColor(px, py, color);
-                }
-            }
-        }
-    }
-
-    private void fillCircleBlend(double cx, double cy, double radius, Color color) {
-        int imgW = (int) backgroundImage.getWidth();
-        int imgH = (int) backgroundImage.getHeight();
-        int minX = Math.max(0, (int) Math.floor(cx - radius));
-        int maxX = Math.min(imgW - 1, (int) Math.ceil(cx + radius));
-        int minY = Math.max(0, (int) Math.floor(cy - radius));
-        int maxY = Math.min(imgH - 1, (int) Math.ceil(cy + radius));
-        double r2 = radius * radius;
-        for (int px = minX; px <= maxX; px++) {
-            for (int py = minY; py <= maxY; py++) {
-                double dx = px + 0.5 - cx;
-                double dy = py + 0.5 - cy;
-                if (dx * dx + dy * dy <= r2) {
-                    Color existing = backgroundImage.getPixelReader().getColor(px, py);
-                    pixelWriter.setColor(px, py, blendColors(existing, color));
-                }
-            }
-        }
-    }
-
-    private void fillAnnulusBlend(double cx, double cy, double rInner, double rOuter, Color color) {
-        int imgW = (int) backgroundImage.getWidth();
-        int imgH = (int) backgroundImage.getHeight();
-        int minX = Math.max(0, (int) Math.floor(cx - rOuter));
-        int maxX = Math.min(imgW - 1, (int) Math.ceil(cx + rOuter));
-        int minY = Math.max(0, (int) Math.floor(cy - rOuter));
-        int maxY = Math.min(imgH - 1, (int) Math.ceil(cy + rOuter));
-        double rO2 = rOuter * rOuter;
-        double rI2 = rInner * rInner;
-        for (int px = minX; px <= maxX; px++) {
-            for (int py = minY; py <= maxY; py++) {
-                double dx = px + 0.5 - cx;
-                double dy = py + 0.5 - cy;
-                double d2 = dx * dx + dy * dy;
-                if (d2 <= rO2 && d2 >= rI2) {
-                    Color existing = backgroundImage.getPixelReader().getColor(px, py);
-                    pixelWriter.setColor(px, py, blendColors(existing, color));
-                }
-            }
-        }
-    }
-
-    private void drawCircleBorder(double cx, double cy, double radius, Color color, int thickness) {
-        int imgW = (int) backgroundImage.getWidth();
-        int imgH = (int) backgroundImage.getHeight();
-        int minX = Math.max(0, (int) Math.floor(cx - radius - thickness));
-        int maxX = Math.min(imgW - 1, (int) Math.ceil(cx + radius + thickness));
-        int minY = Math.max(0, (int) Math.floor(cy - radius - thickness));
-        int maxY = Math.min(imgH - 1, (int) Math.ceil(cy + radius + thickness));
-        double rOut = radius + 0.5 * thickness;
-        double rIn = Math.max(0, radius - 0.5 * thickness);
-        double rOut2 = rOut * rOut;
-        double rIn2 = rIn * rIn;
-        for (int px = minX; px <= maxX; px++) {
-            for (int py = minY; py <= maxY; py++) {
-                double dx = px + 0.5 - cx;
-                double dy = py + 0.5 - cy;
-                double d2 = dx * dx + dy * dy;
-                if (d2 <= rOut2 && d2 >= rIn2) {
-                    pixelWriter.setColor(px, py, color);
-                }
-            }
-        }
-    }
-
     // ========== Overlay Updates ==========
 
     private void updateOverlays() {
@@ -1375,6 +1314,7 @@ public class StageMapCanvas extends StackPane {
      */
     public void setAcquisitionThumbnails(List<AcquisitionThumbnail> thumbnails) {
         this.acquisitionThumbnails = new ArrayList<>(thumbnails);
+        acquisitionPlacementsDirty = true;
         if (acquisitionOverlayVisible) {
             compositeAndDisplayAcquisitions();
         }
@@ -1391,7 +1331,7 @@ public class StageMapCanvas extends StackPane {
         if (visible && !acquisitionThumbnails.isEmpty()) {
             compositeAndDisplayAcquisitions();
         } else {
-            acquisitionOverlayView.setVisible(false);
+            acquisitionLayer.hide();
         }
     }
 
@@ -1400,8 +1340,8 @@ public class StageMapCanvas extends StackPane {
         acquisitionThumbnails.clear();
         visibleAcquisitionImages = null;
         acquisitionOverlayVisible = false;
-        acquisitionOverlayView.setVisible(false);
-        acquisitionOverlayView.setImage(null);
+        acquisitionLayer.clear();
+        acquisitionPlacementsDirty = true;
         logger.info("Acquisition overlay cleared");
     }
 
@@ -1412,87 +1352,44 @@ public class StageMapCanvas extends StackPane {
      */
     public void setVisibleAcquisitionImages(Set<String> imageNames) {
         this.visibleAcquisitionImages = imageNames;
+        acquisitionPlacementsDirty = true;
         if (acquisitionOverlayVisible) {
             compositeAndDisplayAcquisitions();
         }
     }
 
     /**
-     * Composites all acquisition thumbnails into a single image at their
-     * correct stage positions and displays it via the acquisitionOverlayView.
+     * Shows the visible acquisition thumbnails through the tile layer. The
+     * thumbnails are placed in insert micrometers only when they, the filter or
+     * the insert changed; a zoom or pan just updates the layer.
      */
     private void compositeAndDisplayAcquisitions() {
         if (!acquisitionOverlayVisible || acquisitionThumbnails.isEmpty() || currentInsert == null) {
-            acquisitionOverlayView.setVisible(false);
+            acquisitionLayer.hide();
             return;
         }
 
-        // Filter to visible-set if one was specified.
-        List<AcquisitionThumbnail> visible = new ArrayList<>();
-        for (AcquisitionThumbnail t : acquisitionThumbnails) {
-            if (visibleAcquisitionImages == null || visibleAcquisitionImages.contains(t.imageName)) {
-                visible.add(t);
-            }
-        }
-        if (visible.isEmpty()) {
-            acquisitionOverlayView.setVisible(false);
-            return;
-        }
-
-        // Determine union stage-space bounding box of all visible thumbnails
-        double allMinX = Double.MAX_VALUE, allMinY = Double.MAX_VALUE;
-        double allMaxX = -Double.MAX_VALUE, allMaxY = -Double.MAX_VALUE;
-        for (AcquisitionThumbnail t : visible) {
-            allMinX = Math.min(allMinX, t.stageMinX);
-            allMinY = Math.min(allMinY, t.stageMinY);
-            allMaxX = Math.max(allMaxX, t.stageMaxX);
-            allMaxY = Math.max(allMaxY, t.stageMaxY);
-        }
-
-        // Convert corners to screen coordinates (handles axis inversion)
-        double[] scrA = stageToScreen(allMinX, allMinY);
-        double[] scrB = stageToScreen(allMaxX, allMaxY);
-        if (scrA == null || scrB == null) return;
-
-        double screenX = Math.min(scrA[0], scrB[0]);
-        double screenY = Math.min(scrA[1], scrB[1]);
-        double screenW = Math.abs(scrB[0] - scrA[0]);
-        double screenH = Math.abs(scrB[1] - scrA[1]);
-        if (screenW < 1 || screenH < 1) return;
-
-        int compW = Math.min((int) Math.ceil(screenW), 4096);
-        int compH = Math.min((int) Math.ceil(screenH), 4096);
-        if (compW <= 0 || compH <= 0) return;
-
-        java.awt.image.BufferedImage composite =
-                new java.awt.image.BufferedImage(compW, compH, java.awt.image.BufferedImage.TYPE_INT_ARGB);
-        java.awt.Graphics2D g = composite.createGraphics();
-        g.setRenderingHint(
-                java.awt.RenderingHints.KEY_INTERPOLATION, java.awt.RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-
-        for (AcquisitionThumbnail t : visible) {
-            double[] tA = stageToScreen(t.stageMinX, t.stageMinY);
-            double[] tB = stageToScreen(t.stageMaxX, t.stageMaxY);
-            if (tA == null || tB == null) continue;
-
-            int dx = (int) (Math.min(tA[0], tB[0]) - screenX);
-            int dy = (int) (Math.min(tA[1], tB[1]) - screenY);
-            int dw = (int) Math.abs(tB[0] - tA[0]);
-            int dh = (int) Math.abs(tB[1] - tA[1]);
-
-            if (dw > 0 && dh > 0) {
-                g.drawImage(t.thumbnail, dx, dy, dw, dh, null);
+        if (acquisitionPlacementsDirty) {
+            List<AcquisitionTileLayer.Placement> placements = new ArrayList<>();
+            for (AcquisitionThumbnail t : acquisitionThumbnails) {
+                // Filter to visible-set if one was specified.
+                if (visibleAcquisitionImages != null && !visibleAcquisitionImages.contains(t.imageName)) {
+                    continue;
+                }
+                // Convert corners to insert coordinates (handles axis inversion)
+                double[] a = stageToInsert(t.stageMinX, t.stageMinY);
+                double[] b = stageToInsert(t.stageMaxX, t.stageMaxY);
+                placements.add(new AcquisitionTileLayer.Placement(
+                        t.thumbnail,
+                        Math.min(a[0], b[0]),
+                        Math.min(a[1], b[1]),
+                        Math.max(a[0], b[0]),
+                        Math.max(a[1], b[1])));
             }
+            acquisitionLayer.setPlacements(placements);
+            acquisitionPlacementsDirty = false;
         }
-        g.dispose();
-
-        javafx.scene.image.Image fxImage = SwingFXUtils.toFXImage(composite, null);
-        acquisitionOverlayView.setImage(fxImage);
-        acquisitionOverlayView.setLayoutX(screenX);
-        acquisitionOverlayView.setLayoutY(screenY);
-        acquisitionOverlayView.setFitWidth(screenW);
-        acquisitionOverlayView.setFitHeight(screenH);
-        acquisitionOverlayView.setVisible(true);
+        acquisitionLayer.update(scale, offsetX, offsetY, getWidth(), getHeight());
     }
 
     // ========== Multi-slot macro preview (MS orientation check) ==========
@@ -2096,6 +1993,8 @@ public class StageMapCanvas extends StackPane {
      * Triggers a full re-render.
      */
     public void render() {
+        backgroundValid = false;
+        acquisitionPlacementsDirty = true;
         renderBackground();
         updateOverlays();
     }
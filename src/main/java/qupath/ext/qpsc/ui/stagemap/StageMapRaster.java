@@ -0,0 +1,202 @@
+package qupath.ext.qpsc.ui.stagemap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ARGB pixel buffer behind the Stage Map's static background, with the fill
+ * and blend primitives {@link StageMapCanvas} paints with.
+ *
+ * <p>The canvas used to paint straight into its {@code WritableImage}. Every
+ * blended pixel took a {@code PixelReader.getColor} and a
+ * {@code PixelWriter.setColor}, and the whole background was repainted on each
+ * zoom or pan step. Painting now happens in this plain {@code int[]} with
+ * integer blending, and the result goes to the image in one
+ * {@code setPixels} call. A pan at constant scale {@link #scroll scrolls} the
+ * existing pixels and repaints only the newly exposed strips, each under a
+ * {@link #setClip clip} so the painter touches nothing else.
+ *
+ * <p>Every primitive writes only inside the intersection of the buffer and the
+ * current clip. Painting a scene under a clip therefore gives the same pixels
+ * as painting it whole, provided positions depend only on the scale and an
+ * integer origin.
+ */
+final class StageMapRaster {
+
+    private final int width;
+    private final int height;
+    private final int[] pixels;
+    private int clipX0;
+    private int clipY0;
+    private int clipX1;
+    private int clipY1;
+
+    StageMapRaster(int width, int height) {
+        this.width = Math.max(1, width);
+        this.height = Math.max(1, height);
+        this.pixels = new int[this.width * this.height];
+        resetClip();
+    }
+
+    int width() {
+        return width;
+    }
+
+    int height() {
+        return height;
+    }
+
+    /** Row-major ARGB pixels; not copied. */
+    int[] pixels() {
+        return pixels;
+    }
+
+    /** Restricts painting to {@code [x, x + w) x [y, y + h)}. */
+    void setClip(int x, int y, int w, int h) {
+        clipX0 = Math.max(0, x);
+        clipY0 = Math.max(0, y);
+        clipX1 = Math.min(width, x + w);
+        clipY1 = Math.min(height, y + h);
+    }
+
+    /** Allows painting anywhere in the buffer. */
+    void resetClip() {
+        setClip(0, 0, width, height);
+    }
+
+    /**
+     * Moves the content by {@code (dx, dy)} pixels and returns the strips left
+     * uncovered, each as {@code {x, y, w, h}}. Their old content is stale and
+     * must be repainted. A shift of the full width or height or more returns
+     * the whole buffer.
+     */
+    List<int[]> scroll(int dx, int dy) {
+        List<int[]> exposed = new ArrayList<>(2);
+        if (Math.abs(dx) >= width || Math.abs(dy) >= height) {
+            exposed.add(new int[] {0, 0, width, height});
+            return exposed;
+        }
+        if (dx == 0 && dy == 0) {
+            return exposed;
+        }
+        int rowLength = width - Math.abs(dx);
+        int srcX = Math.max(0, -dx);
+        int dstX = Math.max(0, dx);
+        if (dy > 0) {
+            for (int y = height - 1; y >= dy; y--) {
+                System.arraycopy(pixels, (y - dy) * width + srcX, pixels, y * width + dstX, rowLength);
+            }
+        } else {
+            // Rows move up (or stay); ascending order never reads an overwritten row
+            for (int y = 0; y < height + dy; y++) {
+                System.arraycopy(pixels, (y - dy) * width + srcX, pixels, y * width + dstX, rowLength);
+            }
+        }
+        if (dy > 0) {
+            exposed.add(new int[] {0, 0, width, dy});
+        } else if (dy < 0) {
+            exposed.add(new int[] {0, height + dy, width, -dy});
+        }
+        int bandY = Math.max(0, dy);
+        int bandH = height - Math.abs(dy);
+        if (dx > 0) {
+            exposed.add(new int[] {0, bandY, dx, bandH});
+        } else if (dx < 0) {
+            exposed.add(new int[] {width + dx, bandY, -dx, bandH});
+        }
+        return exposed;
+    }
+
+    void fillRect(int x, int y, int w, int h, int argb) {
+        int x0 = Math.max(clipX0, x);
+        int y0 = Math.max(clipY0, y);
+        int x1 = Math.min(clipX1, x + w);
+        int y1 = Math.min(clipY1, y + h);
+        if (x1 <= x0) {
+            return;
+        }
+        for (int py = y0; py < y1; py++) {
+            Arrays.fill(pixels, py * width + x0, py * width + x1, argb);
+        }
+    }
+
+    void fillRectBlend(int x, int y, int w, int h, int argb) {
+        int x0 = Math.max(clipX0, x);
+        int y0 = Math.max(clipY0, y);
+        int x1 = Math.min(clipX1, x + w);
+        int y1 = Math.min(clipY1, y + h);
+        int alpha = argb >>> 24;
+        for (int py = y0; py < y1; py++) {
+            int row = py * width;
+            for (int px = x0; px < x1; px++) {
+                pixels[row + px] = blend(pixels[row + px], argb, alpha);
+            }
+        }
+    }
+
+    void drawRectBorder(int x, int y, int w, int h, int argb, int thickness) {
+        fillRect(x, y, w, thickness, argb);
+        fillRect(x, y + h - thickness, w, thickness, argb);
+        fillRect(x, y, thickness, h, argb);
+        fillRect(x + w - thickness, y, thickness, h, argb);
+    }
+
+    void fillCircle(double cx, double cy, double radius, int argb) {
+        fillRing(cx, cy, -1, radius, radius, argb, false);
+    }
+
+    void fillCircleBlend(double cx, double cy, double radius, int argb) {
+        fillRing(cx, cy, -1, radius, radius, argb, true);
+    }
+
+    void fillAnnulusBlend(double cx, double cy, double rInner, double rOuter, int argb) {
+        fillRing(cx, cy, rInner, rOuter, rOuter, argb, true);
+    }
+
+    void drawCircleBorder(double cx, double cy, double radius, int argb, int thickness) {
+        double rOut = radius + 0.5 * thickness;
+        double rIn = Math.max(0, radius - 0.5 * thickness);
+        fillRing(cx, cy, rIn, rOut, radius + thickness, argb, false);
+    }
+
+    /**
+     * Paints pixels whose centers lie within {@code rInner <= d <= rOuter} of
+     * {@code (cx, cy)}. A negative {@code rInner} means a full disc.
+     * {@code extent} sizes the bounding box that is scanned.
+     */
+    private void fillRing(
+            double cx, double cy, double rInner, double rOuter, double extent, int argb, boolean blend) {
+        int minX = Math.max(clipX0, (int) Math.floor(cx - extent));
+        int maxX = Math.min(clipX1 - 1, (int) Math.ceil(cx + extent));
+        int minY = Math.max(clipY0, (int) Math.floor(cy - extent));
+        int maxY = Math.min(clipY1 - 1, (int) Math.ceil(cy + extent));
+        double rO2 = rOuter * rOuter;
+        double rI2 = rInner < 0 ? -1 : rInner * rInner;
+        int alpha = argb >>> 24;
+        for (int py = minY; py <= maxY; py++) {
+            double dy = py + 0.5 - cy;
+            double dy2 = dy * dy;
+            if (dy2 > rO2) {
+                continue;
+            }
+            int row = py * width;
+            for (int px = minX; px <= maxX; px++) {
+                double dx = px + 0.5 - cx;
+                double d2 = dx * dx + dy2;
+                if (d2 <= rO2 && d2 >= rI2) {
+                    pixels[row + px] = blend ? blend(pixels[row + px], argb, alpha) : argb;
+                }
+            }
+        }
+    }
+
+    /** Source-over of {@code argb} at {@code alpha} (0-255) onto an opaque pixel. */
+    static int blend(int base, int argb, int alpha) {
+        int inv = 255 - alpha;
+        int r = (((base >> 16) & 0xFF) * inv + ((argb >> 16) & 0xFF) * alpha + 127) / 255;
+        int g = (((base >> 8) & 0xFF) * inv + ((argb >> 8) & 0xFF) * alpha + 127) / 255;
+        int b = ((base & 0xFF) * inv + (argb & 0xFF) * alpha + 127) / 255;
+        return 0xFF000000 | (r << 16) | (g << 8) | b;
+    }
+}
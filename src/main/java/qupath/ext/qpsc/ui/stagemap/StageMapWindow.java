@@ -29,6 +29,7 @@ import qupath.ext.qpsc.controller.MicroscopeController;
 import qupath.ext.qpsc.preferences.PersistentPreferences;
 import qupath.ext.qpsc.preferences.QPPreferenceDialog;
 import qupath.ext.qpsc.ui.UIFunctions;
+import qupath.ext.qpsc.utilities.AcquisitionFootprintCache;
 import qupath.ext.qpsc.utilities.AffineTransformManager;
 import qupath.ext.qpsc.utilities.DocumentationHelper;
 import qupath.ext.qpsc.utilities.ImageMetadataManager;
@@ -1058,7 +1059,9 @@ public class StageMapWindow {
 
     /**
      * Scans all project images for alignment transforms and loads thumbnails
-     * on a background thread. Updates the canvas on the FX thread when done.
+     * on a background thread, through the project's
+     * {@link AcquisitionFootprintCache}. Updates the canvas on the FX thread
+     * when done.
      */
     @SuppressWarnings("unchecked")
     private void loadAndPaintAcquisitions() {
@@ -1081,74 +1084,15 @@ public class StageMapWindow {
                         Project<java.awt.image.BufferedImage> project =
                                 (Project<java.awt.image.BufferedImage>) gui.getProject();
 
+                        // Thumbnails and stage rectangles come from the project's on-disk
+                        // cache where still current; the rest are resolved in parallel.
                         List<StageMapCanvas.AcquisitionThumbnail> thumbnails = new ArrayList<>();
-                        int count = 0;
-
-                        for (ProjectImageEntry<java.awt.image.BufferedImage> entry : project.getImageList()) {
-                            String imageName = entry.getImageName();
-                            String strippedName = qupath.lib.common.GeneralTools.stripExtension(imageName);
-
-                            // Three-tier fallback to find a pixel->stage transform for this entry:
-                            //   1. Macro-frame per-slide JSON (alignmentFiles/) -- hand-saved
-                            //      via ManualAlignmentPath / ExistingAlignmentPath.
-                            //   2. Sub-frame per-slide JSON (alignmentFiles/derived/) -- auto-
-                            //      registered by StitchingHelper.autoRegisterBoundsTransformIfAvailable
-                            //      for bounded acquisitions with stage-bounds in metadata.
-                            //   3. STAGE_BOUNDS_* + STITCHER_FLIP_* stamped directly on the
-                            //      project entry -- the self-contained record that survives
-                            //      alignment-directory restructures. Catches annotation-based
-                            //      acquisitions whose JSON wasn't written but whose stitched
-                            //      output knows its stage rectangle.
-                            // Without all three, Show Acquisitions reports 0 even when every
-                            // entry has a perfectly good stage record.
-                            AffineTransform alignment =
-                                    AffineTransformManager.loadSlideAlignment(project, strippedName);
-                            if (alignment == null) {
-                                alignment = AffineTransformManager.loadDerivedAlignment(project, strippedName);
-                            }
-
-                            try (var server = entry.readImageData().getServer()) {
-                                int imgW = server.getWidth();
-                                int imgH = server.getHeight();
-                                if (alignment == null) {
-                                    alignment = ImageMetadataManager.buildBoundingBoxPixelToStageTransform(
-                                            entry, imgW, imgH);
-                                }
-                                if (alignment == null) continue;
-                                double downsample = Math.max(1.0, Math.max(imgW, imgH) / 200.0);
-
-                                var request = qupath.lib.regions.RegionRequest.createInstance(
-                                        server.getPath(), downsample, 0, 0, imgW, imgH);
-                                java.awt.image.BufferedImage thumb = server.readRegion(request);
-                                if (thumb == null) continue;
-
-                                thumb = normalizeImage(thumb);
-
-                                // Compute stage bounds from all 4 corners
-                                double[] corners = {0, 0, imgW, 0, imgW, imgH, 0, imgH};
-                                double[] stageCorners = new double[8];
-                                alignment.transform(corners, 0, stageCorners, 0, 4);
-
-                                double minX = Math.min(
-                                        Math.min(stageCorners[0], stageCorners[2]),
-                                        Math.min(stageCorners[4], stageCorners[6]));
-                                double maxX = Math.max(
-                                        Math.max(stageCorners[0], stageCorners[2]),
-                                        Math.max(stageCorners[4], stageCorners[6]));
-                                double minY = Math.min(
-                                        Math.min(stageCorners[1], stageCorners[3]),
-                                        Math.min(stageCorners[5], stageCorners[7]));
-                                double maxY = Math.max(
-                                        Math.max(stageCorners[1], stageCorners[3]),
-                                        Math.max(stageCorners[5], stageCorners[7]));
-
-                                thumbnails.add(new StageMapCanvas.AcquisitionThumbnail(
-                                        imageName, thumb, minX, minY, maxX, maxY));
-                                count++;
-                            } catch (Exception e) {
-                                logger.debug("Failed to load thumbnail for '{}': {}", imageName, e.getMessage());
-                            }
+                        for (AcquisitionFootprintCache.Footprint f :
+                                AcquisitionFootprintCache.forProject(project).loadAll(project.getImageList())) {
+                            thumbnails.add(new StageMapCanvas.AcquisitionThumbnail(
+                                    f.imageName(), f.thumbnail(), f.minX(), f.minY(), f.maxX(), f.maxY()));
                         }
+                        int count = thumbnails.size();
 
                         final int finalCount = count;
                         final int totalEntries = project.getImageList().size();
@@ -1181,47 +1125,6 @@ public class StageMapWindow {
         loader.start();
     }
 
-    /**
-     * Per-image brightness normalization: stretches min/max to 0-255 range
-     * so thumbnails from different modalities and exposures are all visible.
-     */
-    private static java.awt.image.BufferedImage normalizeImage(java.awt.image.BufferedImage img) {
-        int w = img.getWidth();
-        int h = img.getHeight();
-
-        int globalMin = 255;
-        int globalMax = 0;
-
-        for (int y = 0; y < h; y++) {
-            for (int x = 0; x < w; x++) {
-                int rgb = img.getRGB(x, y);
-                int r = (rgb >> 16) & 0xFF;
-                int g = (rgb >> 8) & 0xFF;
-                int b = rgb & 0xFF;
-                int avg = (r + g + b) / 3;
-                globalMin = Math.min(globalMin, avg);
-                globalMax = Math.max(globalMax, avg);
-            }
-        }
-
-        if (globalMax <= globalMin) return img;
-
-        double scale = 255.0 / (globalMax - globalMin);
-
-        java.awt.image.BufferedImage out =
-                new java.awt.image.BufferedImage(w, h, java.awt.image.BufferedImage.TYPE_INT_ARGB);
-        for (int y = 0; y < h; y++) {
-            for (int x = 0; x < w; x++) {
-                int rgb = img.getRGB(x, y);
-                int nr = (int) Math.min(255, Math.max(0, (((rgb >> 16) & 0xFF) - globalMin) * scale));
-                int ng = (int) Math.min(255, Math.max(0, (((rgb >> 8) & 0xFF) - globalMin) * scale));
-                int nb = (int) Math.min(255, Math.max(0, ((rgb & 0xFF) - globalMin) * scale));
-                out.setRGB(x, y, (255 << 24) | (nr << 16) | (ng << 8) | nb);
-            }
-        }
-        return out;
-    }
-
     private HBox buildBottomBar() {
         HBox bottomBar = new HBox(10);
         bottomBar.setAlignment(Pos.CENTER_LEFT);
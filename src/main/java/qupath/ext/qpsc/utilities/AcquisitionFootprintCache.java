@@ -0,0 +1,470 @@
+package qupath.ext.qpsc.utilities;
+
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import qupath.lib.common.GeneralTools;
+import qupath.lib.images.servers.ImageServer;
+import qupath.lib.projects.Project;
+import qupath.lib.projects.ProjectImageEntry;
+import qupath.lib.regions.RegionRequest;
+
+/**
+ * On-disk cache of the Stage Map acquisition overlay: a small thumbnail and
+ * the stage rectangle of every project image that has a pixel-to-stage
+ * transform.
+ *
+ * <p>"Show Acquisitions" used to visit every entry in turn. For each one it
+ * read the whole {@code ImageData}, hierarchy included, just to reach the
+ * server, then read a thumbnail and parsed the alignment JSON. Projects with
+ * hundreds of sub-acquisitions took tens of seconds to show the overlay.
+ * Now each entry's result is kept under {@code qpsc_cache/stage_map/} in the
+ * project folder and reused while it is still current:
+ * <ul>
+ *   <li>The thumbnail and image size are reused while the image file's
+ *       modification time is unchanged.</li>
+ *   <li>The stage rectangle is reused while the image, its alignment files
+ *       (see {@link AffineTransformManager#alignmentStamp}), its stage-bounds
+ *       metadata and the active microscope are unchanged.</li>
+ * </ul>
+ * Entries that are not current are resolved in parallel. The server is built
+ * straight from the entry's server builder, so the hierarchy is never read.
+ * Stitching calls {@link #refreshLater} after each import, so new
+ * acquisitions are usually cached before the overlay is next opened.
+ *
+ * <h2>Index format</h2>
+ * {@value #INDEX_NAME}, big-endian:
+ * <pre>
+ *   int magic 'QPFP', int version, int count
+ *   per entry: UTF id, long imageStamp, long placementStamp, int width, int height,
+ *              boolean hasFootprint, double minX, minY, maxX, maxY
+ * </pre>
+ * Thumbnails are PNG files named by entry ID in {@code thumbnails/}.
+ */
+public final class AcquisitionFootprintCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AcquisitionFootprintCache.class);
+
+    /** Cache folder, relative to the project folder. */
+    public static final String CACHE_DIR = "qpsc_cache/stage_map";
+
+    static final String INDEX_NAME = "footprints.bin";
+    private static final String THUMBNAIL_DIR = "thumbnails";
+    private static final int MAGIC = 0x51504650; // "QPFP"
+    private static final int VERSION = 1;
+
+    /** Longest side of a cached thumbnail, in pixels. */
+    static final int THUMBNAIL_SIZE = 200;
+
+    /** Image stamp of an entry whose file could not be checked; never matches a cached record. */
+    private static final long UNKNOWN_STAMP = Long.MIN_VALUE;
+
+    /** Upper bound on entries resolved at once; each opens an image server. */
+    private static final int MAX_THREADS = 4;
+
+    private static final Map<Path, AcquisitionFootprintCache> INSTANCES = new ConcurrentHashMap<>();
+
+    private static final ExecutorService BACKGROUND = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "StageMap-FootprintCache");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * One acquisition on the Stage Map.
+     *
+     * @param imageName Project entry name
+     * @param thumbnail Contrast-stretched RGB thumbnail
+     * @param minX      Stage rectangle, micrometers
+     * @param minY      Stage rectangle, micrometers
+     * @param maxX      Stage rectangle, micrometers
+     * @param maxY      Stage rectangle, micrometers
+     */
+    public record Footprint(
+            String imageName, BufferedImage thumbnail, double minX, double minY, double maxX, double maxY) {}
+
+    /** What the index stores for one entry. */
+    record Record(
+            long imageStamp,
+            long placementStamp,
+            int width,
+            int height,
+            boolean hasFootprint,
+            double minX,
+            double minY,
+            double maxX,
+            double maxY) {}
+
+    private final Project<BufferedImage> project;
+    private final File projectDir;
+    private final Path cacheDir;
+    private final Map<String, Record> records = new ConcurrentHashMap<>();
+    private final Object saveLock = new Object();
+
+    private AcquisitionFootprintCache(Project<BufferedImage> project, File projectDir) {
+        this.project = project;
+        this.projectDir = projectDir;
+        this.cacheDir = projectDir.toPath().resolve(CACHE_DIR);
+        readIndex();
+    }
+
+    /**
+     * Returns the cache for {@code project}, reading its index on first use.
+     *
+     * @param project An open project
+     * @return The project's cache
+     */
+    public static AcquisitionFootprintCache forProject(Project<BufferedImage> project) {
+        File projectDir = project.getPath().toFile().getParentFile();
+        Path key = projectDir.toPath().toAbsolutePath().normalize();
+        AcquisitionFootprintCache cache = INSTANCES.get(key);
+        if (cache == null || cache.project != project) {
+            // A project re-opened from disk is a new Project object; re-read its index
+            cache = new AcquisitionFootprintCache(project, projectDir);
+            INSTANCES.put(key, cache);
+        }
+        return cache;
+    }
+
+    /**
+     * Resolves every entry, reusing cached results where they are still
+     * current, and saves the index if anything changed.
+     *
+     * @param entries Project entries to resolve
+     * @return Footprints of the entries that have a pixel-to-stage transform, in entry order
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public List<Footprint> loadAll(List<ProjectImageEntry<BufferedImage>> entries) throws InterruptedException {
+        int threads = Math.max(1, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors() / 2));
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "StageMap-AcquisitionLoader-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        long start = System.currentTimeMillis();
+        AtomicInteger reused = new AtomicInteger();
+        try {
+            List<Future<Footprint>> futures = new ArrayList<>(entries.size());
+            for (ProjectImageEntry<BufferedImage> entry : entries) {
+                futures.add(pool.submit(() -> resolve(entry, reused)));
+            }
+            List<Footprint> footprints = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    Footprint footprint = futures.get(i).get();
+                    if (footprint != null) footprints.add(footprint);
+                } catch (ExecutionException e) {
+                    logger.debug(
+                            "Failed to load footprint for '{}': {}",
+                            entries.get(i).getImageName(),
+                            e.getCause().getMessage());
+                }
+            }
+            pruneRemoved(entries);
+            saveIndex();
+            logger.info(
+                    "Resolved {} acquisition footprints from {} entries in {} ms ({} reused from cache)",
+                    footprints.size(),
+                    entries.size(),
+                    System.currentTimeMillis() - start,
+                    reused.get());
+            return footprints;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Resolves one entry on a background thread and saves the index, so a
+     * freshly imported acquisition is cached before the overlay is next
+     * opened. Failures are logged and otherwise ignored.
+     *
+     * @param entry The entry to resolve; null is ignored
+     */
+    public void refreshLater(ProjectImageEntry<BufferedImage> entry) {
+        if (entry == null) return;
+        BACKGROUND.execute(() -> {
+            try {
+                resolve(entry, new AtomicInteger());
+                saveIndex();
+            } catch (Exception e) {
+                logger.debug("Could not cache footprint for '{}': {}", entry.getImageName(), e.getMessage());
+            }
+        });
+    }
+
+    /** Drops records and thumbnails of entries no longer in the project. */
+    private void pruneRemoved(List<ProjectImageEntry<BufferedImage>> entries) {
+        Set<String> ids = new HashSet<>();
+        for (ProjectImageEntry<BufferedImage> entry : entries) {
+            ids.add(entry.getID());
+        }
+        for (String id : new ArrayList<>(records.keySet())) {
+            if (!ids.contains(id)) {
+                records.remove(id);
+                try {
+                    Files.deleteIfExists(thumbnailPath(id));
+                } catch (IOException e) {
+                    logger.debug("Could not delete cached thumbnail for removed entry {}: {}", id, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Footprint resolve(ProjectImageEntry<BufferedImage> entry, AtomicInteger reused) throws Exception {
+        String id = entry.getID();
+        String imageName = entry.getImageName();
+        String strippedName = GeneralTools.stripExtension(imageName);
+        long imageStamp = imageStamp(entry);
+        long placementStamp = placementStamp(entry, strippedName);
+
+        Record cached = records.get(id);
+        boolean imageCurrent = cached != null && imageStamp != UNKNOWN_STAMP && cached.imageStamp() == imageStamp;
+        boolean placementCurrent = imageCurrent && cached.placementStamp() == placementStamp;
+        if (placementCurrent && !cached.hasFootprint()) {
+            reused.incrementAndGet();
+            return null;
+        }
+
+        int width = imageCurrent ? cached.width() : -1;
+        int height = imageCurrent ? cached.height() : -1;
+        BufferedImage thumbnail = imageCurrent ? readThumbnail(id) : null;
+        double[] bounds = placementCurrent
+                ? new double[] {cached.minX(), cached.minY(), cached.maxX(), cached.maxY()}
+                : null;
+        if (bounds != null && thumbnail != null) {
+            reused.incrementAndGet();
+            return new Footprint(imageName, thumbnail, bounds[0], bounds[1], bounds[2], bounds[3]);
+        }
+
+        // Three-tier fallback to find a pixel->stage transform for this entry:
+        //   1. Macro-frame per-slide JSON (alignmentFiles/).
+        //   2. Sub-frame per-slide JSON (alignmentFiles/derived/).
+        //   3. STAGE_BOUNDS_* + STITCHER_FLIP_* stamped directly on the entry.
+        // Tiers 1 and 2 need no image size, so an entry with none of the three is
+        // rejected without opening its server.
+        AffineTransform alignment = null;
+        if (bounds == null) {
+            alignment = AffineTransformManager.loadSlideAlignment(project, strippedName);
+            if (alignment == null) {
+                alignment = AffineTransformManager.loadDerivedAlignment(project, strippedName);
+            }
+            if (alignment == null && ImageMetadataManager.getBoundingBoxStageBounds(entry) == null) {
+                records.put(id, new Record(imageStamp, placementStamp, width, height, false, 0, 0, 0, 0));
+                return null;
+            }
+        }
+
+        if (thumbnail == null || width <= 0 || height <= 0) {
+            try (ImageServer<BufferedImage> server = entry.getServerBuilder().build()) {
+                width = server.getWidth();
+                height = server.getHeight();
+                double downsample = Math.max(1.0, Math.max(width, height) / (double) THUMBNAIL_SIZE);
+                BufferedImage raw = server.readRegion(
+                        RegionRequest.createInstance(server.getPath(), downsample, 0, 0, width, height));
+                if (raw == null) return null;
+                thumbnail = normalize(raw);
+            }
+            writeThumbnail(id, thumbnail);
+        }
+
+        if (bounds == null) {
+            if (alignment == null) {
+                alignment = ImageMetadataManager.buildBoundingBoxPixelToStageTransform(entry, width, height);
+            }
+            if (alignment == null) {
+                records.put(id, new Record(imageStamp, placementStamp, width, height, false, 0, 0, 0, 0));
+                return null;
+            }
+            bounds = stageBounds(alignment, width, height);
+        }
+        records.put(
+                id,
+                new Record(
+                        imageStamp, placementStamp, width, height, true, bounds[0], bounds[1], bounds[2], bounds[3]));
+        return new Footprint(imageName, thumbnail, bounds[0], bounds[1], bounds[2], bounds[3]);
+    }
+
+    /** Stage rectangle {@code minX, minY, maxX, maxY} of an image under {@code alignment}. */
+    static double[] stageBounds(AffineTransform alignment, int width, int height) {
+        double[] corners = {0, 0, width, 0, width, height, 0, height};
+        alignment.transform(corners, 0, corners, 0, 4);
+        double minX = Math.min(Math.min(corners[0], corners[2]), Math.min(corners[4], corners[6]));
+        double maxX = Math.max(Math.max(corners[0], corners[2]), Math.max(corners[4], corners[6]));
+        double minY = Math.min(Math.min(corners[1], corners[3]), Math.min(corners[5], corners[7]));
+        double maxY = Math.max(Math.max(corners[1], corners[3]), Math.max(corners[5], corners[7]));
+        return new double[] {minX, minY, maxX, maxY};
+    }
+
+    /**
+     * Per-image brightness normalization: stretches min/max to 0-255 range
+     * so thumbnails from different modalities and exposures are all visible.
+     */
+    static BufferedImage normalize(BufferedImage img) {
+        int w = img.getWidth();
+        int h = img.getHeight();
+        int[] rgb = img.getRGB(0, 0, w, h, null, 0, w);
+
+        int globalMin = 255;
+        int globalMax = 0;
+        for (int p : rgb) {
+            int avg = (((p >> 16) & 0xFF) + ((p >> 8) & 0xFF) + (p & 0xFF)) / 3;
+            globalMin = Math.min(globalMin, avg);
+            globalMax = Math.max(globalMax, avg);
+        }
+
+        BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        if (globalMax <= globalMin) {
+            out.setRGB(0, 0, w, h, rgb, 0, w);
+            return out;
+        }
+        double scale = 255.0 / (globalMax - globalMin);
+        for (int i = 0; i < rgb.length; i++) {
+            int p = rgb[i];
+            int nr = (int) Math.min(255, Math.max(0, (((p >> 16) & 0xFF) - globalMin) * scale));
+            int ng = (int) Math.min(255, Math.max(0, (((p >> 8) & 0xFF) - globalMin) * scale));
+            int nb = (int) Math.min(255, Math.max(0, ((p & 0xFF) - globalMin) * scale));
+            rgb[i] = (255 << 24) | (nr << 16) | (ng << 8) | nb;
+        }
+        out.setRGB(0, 0, w, h, rgb, 0, w);
+        return out;
+    }
+
+    /** Latest modification time of the entry's local image files, or {@link #UNKNOWN_STAMP}. */
+    private static long imageStamp(ProjectImageEntry<BufferedImage> entry) {
+        try {
+            long stamp = UNKNOWN_STAMP;
+            for (URI uri : entry.getURIs()) {
+                if (!"file".equals(uri.getScheme())) return UNKNOWN_STAMP;
+                Path path = Path.of(uri);
+                if (!Files.exists(path)) return UNKNOWN_STAMP;
+                stamp = Math.max(stamp, Files.getLastModifiedTime(path).toMillis());
+            }
+            return stamp;
+        } catch (Exception e) {
+            return UNKNOWN_STAMP;
+        }
+    }
+
+    /** Changes whenever any input to the entry's stage rectangle changes. */
+    private long placementStamp(ProjectImageEntry<BufferedImage> entry, String strippedName) {
+        long stamp = AffineTransformManager.alignmentStamp(projectDir, strippedName);
+        stamp = stamp * 31 + Arrays.hashCode(ImageMetadataManager.getBoundingBoxStageBounds(entry));
+        stamp = stamp * 31 + Arrays.hashCode(ImageMetadataManager.getStitcherFlips(entry));
+        return stamp;
+    }
+
+    private Path thumbnailPath(String id) {
+        return cacheDir.resolve(THUMBNAIL_DIR).resolve(id.replaceAll("[^A-Za-z0-9_-]", "_") + ".png");
+    }
+
+    private BufferedImage readThumbnail(String id) {
+        Path path = thumbnailPath(id);
+        if (!Files.isRegularFile(path)) return null;
+        try {
+            return ImageIO.read(path.toFile());
+        } catch (IOException e) {
+            logger.debug("Unreadable cached thumbnail {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeThumbnail(String id, BufferedImage thumbnail) {
+        Path path = thumbnailPath(id);
+        try {
+            Files.createDirectories(path.getParent());
+            ImageIO.write(thumbnail, "png", path.toFile());
+        } catch (IOException e) {
+            logger.debug("Could not cache thumbnail {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void readIndex() {
+        Path index = cacheDir.resolve(INDEX_NAME);
+        if (!Files.isRegularFile(index)) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(index)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                logger.info("Ignoring Stage Map cache index from another version: {}", index);
+                return;
+            }
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) {
+                String id = in.readUTF();
+                records.put(
+                        id,
+                        new Record(
+                                in.readLong(),
+                                in.readLong(),
+                                in.readInt(),
+                                in.readInt(),
+                                in.readBoolean(),
+                                in.readDouble(),
+                                in.readDouble(),
+                                in.readDouble(),
+                                in.readDouble()));
+            }
+            logger.debug("Read {} Stage Map cache records from {}", n, index);
+        } catch (IOException e) {
+            logger.warn("Could not read Stage Map cache index {}: {}", index, e.getMessage());
+            records.clear();
+        }
+    }
+
+    private void saveIndex() {
+        synchronized (saveLock) {
+            Path index = cacheDir.resolve(INDEX_NAME);
+            try {
+                Files.createDirectories(cacheDir);
+                Path tmp = cacheDir.resolve(INDEX_NAME + ".tmp");
+                Map<String, Record> snapshot = Map.copyOf(records);
+                try (DataOutputStream out =
+                        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeInt(snapshot.size());
+                    for (Map.Entry<String, Record> e : snapshot.entrySet()) {
+                        Record r = e.getValue();
+                        out.writeUTF(e.getKey());
+                        out.writeLong(r.imageStamp());
+                        out.writeLong(r.placementStamp());
+                        out.writeInt(r.width());
+                        out.writeInt(r.height());
+                        out.writeBoolean(r.hasFootprint());
+                        out.writeDouble(r.minX());
+                        out.writeDouble(r.minY());
+                        out.writeDouble(r.maxX());
+                        out.writeDouble(r.maxY());
+                    }
+                }
+                Files.move(tmp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                logger.warn("Could not save Stage Map cache index {}: {}", index, e.getMessage());
+            }
+        }
+    }
+}
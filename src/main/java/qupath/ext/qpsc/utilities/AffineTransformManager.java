@@ -1074,6 +1074,39 @@ public class AffineTransformManager {
         }
     }
 
+    /**
+     * Returns a value that changes whenever the result of
+     * {@link #loadSlideAlignment} or {@link #loadDerivedAlignment} for
+     * {@code sampleName} could change: it combines the active microscope name
+     * with the modification times of every alignment file those lookups
+     * consult. Only file metadata is read, so callers can check whether a
+     * cached transform is still current without parsing any JSON.
+     *
+     * @param projectDir the project folder
+     * @param sampleName the sample or image name without extension
+     * @return the stamp; 0 if {@code projectDir} or {@code sampleName} is null
+     */
+    public static long alignmentStamp(File projectDir, String sampleName) {
+        if (projectDir == null || sampleName == null) return 0L;
+        String activeMicroscope = null;
+        try {
+            MicroscopeConfigManager mgr = MicroscopeConfigManager.getInstanceIfAvailable();
+            if (mgr != null) activeMicroscope = mgr.getMicroscopeName();
+        } catch (Exception ignore) {
+        }
+        File alignmentDir = new File(projectDir, "alignmentFiles");
+        File derivedDir = new File(alignmentDir, "derived");
+        long stamp = java.util.Objects.hashCode(activeMicroscope);
+        for (File dir : new File[] {alignmentDir, derivedDir}) {
+            if (activeMicroscope != null) {
+                File scoped = new File(dir, sampleName + "_" + activeMicroscope + "_alignment.json");
+                stamp = stamp * 31 + scoped.lastModified();
+            }
+            stamp = stamp * 31 + new File(dir, sampleName + "_alignment.json").lastModified();
+        }
+        return stamp;
+    }
+
     /**
      * Helper: variant of {@link #loadSlideAlignmentFromDirectory(File, String)} that reads from
      * a specific alignment directory rather than {@code projectDir/alignmentFiles}. Used by
@@ -0,0 +1,136 @@
+package qupath.ext.qpsc.utilities;
+
+import java.awt.geom.AffineTransform;
+
+/**
+ * Affine transforms over packed coordinate arrays, and the envelope test used
+ * to sort objects before any per-object geometry work.
+ *
+ * <p>Propagating objects between sibling images used to transform every
+ * object through {@code PathObjectTools.transformObject} and then intersect
+ * it with the target image in JTS, even when it landed nowhere near the
+ * target. Most of a base image's detections fall outside a small
+ * sub-acquisition, so nearly all of that work was thrown away. Here the
+ * bounding boxes of all objects go through the transform in one
+ * {@link AffineTransform#transform(double[], int, double[], int, int)} call.
+ * Each transformed box is then placed against the target rectangle. Objects
+ * entirely outside are dropped without being copied. Objects entirely inside
+ * need no clipping. Only the objects that straddle an edge go to JTS.
+ *
+ * <p>The envelope of a transformed box always contains the transformed
+ * object, so {@link Placement#OUTSIDE} and {@link Placement#INSIDE} are exact.
+ * {@link Placement#STRADDLES} is conservative: under rotation or shear an
+ * object can be inside while its box envelope is not, so callers re-check
+ * those objects on the real geometry.
+ */
+public final class BatchTransforms {
+
+    private BatchTransforms() {}
+
+    /** Where a transformed envelope lies relative to a target rectangle. */
+    public enum Placement {
+        /** Entirely within the rectangle (touching the edge counts as inside). */
+        INSIDE,
+        /** Strictly outside the rectangle; cannot intersect it. */
+        OUTSIDE,
+        /** Crosses or touches the rectangle edge; needs an exact test. */
+        STRADDLES
+    }
+
+    /**
+     * Transforms interleaved {@code (x, y)} pairs in place with a single bulk
+     * call. A null or identity transform leaves the array unchanged.
+     *
+     * @param transform The transform to apply
+     * @param xy        Interleaved coordinates, {@code x0, y0, x1, y1, ...}
+     */
+    public static void transform(AffineTransform transform, double[] xy) {
+        if (transform == null || transform.isIdentity() || xy.length < 2) {
+            return;
+        }
+        transform.transform(xy, 0, xy, 0, xy.length / 2);
+    }
+
+    /**
+     * Transforms packed axis-aligned boxes and returns the envelope of each
+     * transformed box.
+     *
+     * <p>All four corners of every box are transformed together, so the
+     * result is correct for rotation and shear as well as scale, flip and
+     * translation. A box with a NaN component (e.g. an object without a ROI)
+     * gives a NaN envelope, which {@link #place} reports as outside.
+     *
+     * @param boxes     Packed boxes, {@code x, y, width, height} per box
+     * @param transform The transform to apply; null means identity
+     * @return Packed envelopes, {@code minX, minY, maxX, maxY} per box
+     */
+    public static double[] envelopes(double[] boxes, AffineTransform transform) {
+        int n = boxes.length / 4;
+        double[] corners = new double[n * 8];
+        for (int i = 0; i < n; i++) {
+            double x0 = boxes[i * 4];
+            double y0 = boxes[i * 4 + 1];
+            double x1 = x0 + boxes[i * 4 + 2];
+            double y1 = y0 + boxes[i * 4 + 3];
+            int c = i * 8;
+            corners[c] = x0;
+            corners[c + 1] = y0;
+            corners[c + 2] = x1;
+            corners[c + 3] = y0;
+            corners[c + 4] = x1;
+            corners[c + 5] = y1;
+            corners[c + 6] = x0;
+            corners[c + 7] = y1;
+        }
+        transform(transform, corners);
+
+        double[] envelopes = new double[n * 4];
+        for (int i = 0; i < n; i++) {
+            int c = i * 8;
+            double minX = corners[c];
+            double maxX = minX;
+            double minY = corners[c + 1];
+            double maxY = minY;
+            for (int k = 2; k < 8; k += 2) {
+                double x = corners[c + k];
+                double y = corners[c + k + 1];
+                // Written out rather than Math.min/max so a NaN corner stays NaN
+                if (x < minX || Double.isNaN(x)) minX = x;
+                if (x > maxX || Double.isNaN(x)) maxX = x;
+                if (y < minY || Double.isNaN(y)) minY = y;
+                if (y > maxY || Double.isNaN(y)) maxY = y;
+            }
+            envelopes[i * 4] = minX;
+            envelopes[i * 4 + 1] = minY;
+            envelopes[i * 4 + 2] = maxX;
+            envelopes[i * 4 + 3] = maxY;
+        }
+        return envelopes;
+    }
+
+    /**
+     * Places envelope {@code i} against the rectangle {@code [0, width] x [0, height]}.
+     *
+     * @param envelopes Packed envelopes from {@link #envelopes}
+     * @param i         Index of the envelope
+     * @param width     Rectangle width
+     * @param height    Rectangle height
+     * @return The placement; NaN envelopes are {@link Placement#OUTSIDE}
+     */
+    public static Placement place(double[] envelopes, int i, double width, double height) {
+        double minX = envelopes[i * 4];
+        double minY = envelopes[i * 4 + 1];
+        double maxX = envelopes[i * 4 + 2];
+        double maxY = envelopes[i * 4 + 3];
+        if (Double.isNaN(minX) || Double.isNaN(minY) || Double.isNaN(maxX) || Double.isNaN(maxY)) {
+            return Placement.OUTSIDE;
+        }
+        if (maxX < 0 || maxY < 0 || minX > width || minY > height) {
+            return Placement.OUTSIDE;
+        }
+        if (minX >= 0 && minY >= 0 && maxX <= width && maxY <= height) {
+            return Placement.INSIDE;
+        }
+        return Placement.STRADDLES;
+    }
+}
@@ -0,0 +1,145 @@
+package qupath.ext.qpsc.utilities;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+
+/**
+ * A binary image packed 64 pixels per {@code long}.
+ *
+ * <p>Each row starts on a word boundary, so rows can be written from different
+ * threads without sharing a word. Within a word, bit {@code i} is pixel
+ * {@code 64 * word + i} of the row. Bits past the image width are always
+ * clear.
+ *
+ * <p>Used by the macro-image colour classification in {@link RgbPixelClassifier}
+ * in place of per-pixel {@code BufferedImage.setRGB} masks, and filtered and
+ * labelled by {@link BinaryMasks}.
+ */
+public final class BinaryMask {
+
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final long[] words;
+
+    /** Creates an all-clear mask. */
+    public BinaryMask(int width, int height) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Invalid mask size " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.words = new long[wordsPerRow * height];
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    /** Words per row, the stride of {@link #words()}. */
+    int wordsPerRow() {
+        return wordsPerRow;
+    }
+
+    /** Row-major packed bits; not copied. */
+    long[] words() {
+        return words;
+    }
+
+    public boolean get(int x, int y) {
+        return (words[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    public void set(int x, int y) {
+        words[y * wordsPerRow + (x >>> 6)] |= 1L << x;
+    }
+
+    public void clear(int x, int y) {
+        words[y * wordsPerRow + (x >>> 6)] &= ~(1L << x);
+    }
+
+    /** First set pixel in row {@code y} at or after {@code fromX}, or {@link #width()} if none. */
+    public int nextSetBit(int y, int fromX) {
+        if (fromX >= width) {
+            return width;
+        }
+        int base = y * wordsPerRow;
+        int i = fromX >>> 6;
+        long w = words[base + i] & (-1L << fromX);
+        while (w == 0) {
+            if (++i == wordsPerRow) {
+                return width;
+            }
+            w = words[base + i];
+        }
+        return (i << 6) + Long.numberOfTrailingZeros(w);
+    }
+
+    /** First clear pixel in row {@code y} at or after {@code fromX}, or {@link #width()} if none. */
+    public int nextClearBit(int y, int fromX) {
+        if (fromX >= width) {
+            return width;
+        }
+        int base = y * wordsPerRow;
+        int i = fromX >>> 6;
+        long w = ~words[base + i] & (-1L << fromX);
+        while (w == 0) {
+            if (++i == wordsPerRow) {
+                return width;
+            }
+            w = ~words[base + i];
+        }
+        // Bits past the width are clear, so this never overshoots it
+        return Math.min(width, (i << 6) + Long.numberOfTrailingZeros(w));
+    }
+
+    /** Number of set pixels. */
+    public long count() {
+        long n = 0;
+        for (long w : words) {
+            n += Long.bitCount(w);
+        }
+        return n;
+    }
+
+    /**
+     * Converts to a {@code TYPE_BYTE_BINARY} image, writing the raster bytes
+     * directly.
+     *
+     * @param setIsWhite True to draw set pixels white and clear pixels black,
+     *                   false for the reverse
+     */
+    public BufferedImage toBinaryImage(boolean setIsWhite) {
+        BufferedImage image =
+                new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_BYTE_BINARY);
+        if (width == 0 || height == 0) {
+            return image;
+        }
+        byte[] data = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        int bytesPerRow = (width + 7) >>> 3;
+        int tailBits = width & 7;
+        int tailMask = tailBits == 0 ? 0xFF : (0xFF << (8 - tailBits)) & 0xFF;
+        for (int y = 0; y < height; y++) {
+            int wordBase = y * wordsPerRow;
+            int byteBase = y * bytesPerRow;
+            for (int i = 0; i < bytesPerRow; i++) {
+                int bits = (int) (words[wordBase + (i >>> 3)] >>> ((i & 7) << 3)) & 0xFF;
+                // The raster is MSB-first: leftmost pixel in the high bit
+                int packed = Integer.reverse(bits) >>> 24;
+                if (!setIsWhite) {
+                    packed = ~packed & 0xFF;
+                }
+                if (i == bytesPerRow - 1) {
+                    packed &= tailMask;
+                }
+                data[byteBase + i] = (byte) packed;
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,67 @@
+package qupath.ext.qpsc.utilities;
+
+import qupath.ext.qpsc.ui.liveviewer.FrameData;
+
+/**
+ * A focus-quality metric evaluated client-side on a single frame.
+ *
+ * <p>Implementations are registered in {@link FocusMetricCalculator} under the
+ * canonical names from {@code focus_metrics_manifest.yml}, so a name picked in
+ * the autofocus editor resolves to the same metric here as on the server.
+ * Higher values mean sharper focus. Implementations are stateless and safe to
+ * call from any thread; they do not allocate per call once warmed up.
+ */
+public interface FocusMetric {
+
+    /** Canonical manifest name, e.g. {@code tenengrad}. */
+    String name();
+
+    /**
+     * Evaluates the metric over a region of the frame. Multi-channel frames are
+     * scored on their luminance. Regions too small for the metric's stencil
+     * score 0.
+     */
+    double evaluate(FrameData frame, Region region);
+
+    /** Evaluates the metric over the whole frame. */
+    default double evaluate(FrameData frame) {
+        return evaluate(frame, Region.full(frame));
+    }
+
+    /**
+     * Rectangular region of interest in frame pixel coordinates.
+     *
+     * @param x      Left edge
+     * @param y      Top edge
+     * @param width  Width in pixels
+     * @param height Height in pixels
+     */
+    record Region(int x, int y, int width, int height) {
+
+        /** The whole frame. */
+        public static Region full(FrameData frame) {
+            return new Region(0, 0, frame.width(), frame.height());
+        }
+
+        /**
+         * A centred crop covering {@code fraction} of each dimension, e.g. 0.5
+         * for the central quarter of the frame. Useful to avoid vignetted
+         * corners and to bound cost on large sensors.
+         */
+        public static Region centreCrop(FrameData frame, double fraction) {
+            double f = Math.max(0.0, Math.min(1.0, fraction));
+            int w = Math.max(1, (int) Math.round(frame.width() * f));
+            int h = Math.max(1, (int) Math.round(frame.height() * f));
+            return new Region((frame.width() - w) / 2, (frame.height() - h) / 2, w, h);
+        }
+
+        /** This region intersected with the frame bounds (may be empty). */
+        public Region clampedTo(FrameData frame) {
+            int x0 = Math.max(0, x);
+            int y0 = Math.max(0, y);
+            int x1 = Math.min(frame.width(), x + width);
+            int y1 = Math.min(frame.height(), y + height);
+            return new Region(x0, y0, Math.max(0, x1 - x0), Math.max(0, y1 - y0));
+        }
+    }
+}
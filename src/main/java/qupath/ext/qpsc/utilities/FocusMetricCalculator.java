@@ -1,6 +1,13 @@
 package qupath.ext.qpsc.utilities;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import qupath.ext.qpsc.ui.liveviewer.FrameData;
+import qupath.ext.qpsc.ui.liveviewer.FrameStats;
 
 /**
  * Static helpers for computing focus-quality metrics from live frames.
@@ -12,11 +19,86 @@ import qupath.ext.qpsc.ui.liveviewer.FrameData;
  * <p>Brenner gradient is preferred over Laplacian variance for QPSC scopes: the
  * variance-of-squared-Laplace metric is dominated by bright dust pixels, which
  * matters in PPM BF imaging where dust on the optical path is common.
+ *
+ * <p>Also hosts Java implementations of the streaming-capable metrics in
+ * {@code focus_metrics_manifest.yml} ({@code tenengrad}, {@code laplacian_variance},
+ * {@code brenner_gradient}, {@code normalized_variance}, {@code vollath_f5}),
+ * registered as {@link FocusMetric}s by canonical name. They read the frame one
+ * row at a time into reused per-thread {@code int[]} line buffers (luminance for
+ * RGB) and run their stencils over plain int arrays, which keeps them
+ * allocation-free and lets the JIT auto-vectorise the inner loops. Values are
+ * per-pixel means, so they are comparable across region sizes but are not
+ * scaled identically to the Python implementations -- compare curves, not
+ * absolute numbers.
  */
 public final class FocusMetricCalculator {
 
     private FocusMetricCalculator() {}
 
+    /** Per-thread row buffers: three lines for 3x3 stencils. */
+    private static final ThreadLocal<int[][]> ROW_BUFFERS = ThreadLocal.withInitial(() -> new int[3][0]);
+
+    /** Metric kernel over a region already clamped to the frame. */
+    @FunctionalInterface
+    private interface Kernel {
+        double apply(FrameData frame, FocusMetric.Region region);
+    }
+
+    private record RegisteredMetric(String name, Kernel kernel) implements FocusMetric {
+        @Override
+        public double evaluate(FrameData frame, Region region) {
+            if (frame == null || frame.rawPixels() == null) return 0.0;
+            return kernel.apply(frame, region.clampedTo(frame));
+        }
+    }
+
+    private static final Map<String, FocusMetric> METRICS;
+
+    static {
+        Map<String, FocusMetric> m = new LinkedHashMap<>();
+        register(m, "tenengrad", FocusMetricCalculator::tenengrad);
+        register(m, "laplacian_variance", FocusMetricCalculator::laplacianVariance);
+        register(m, "brenner_gradient", FocusMetricCalculator::brennerGradient);
+        register(m, "normalized_variance", FocusMetricCalculator::normalizedVariance);
+        register(m, "vollath_f5", FocusMetricCalculator::vollathF5);
+        METRICS = Collections.unmodifiableMap(m);
+    }
+
+    private static void register(Map<String, FocusMetric> registry, String name, Kernel kernel) {
+        registry.put(name, new RegisteredMetric(name, kernel));
+    }
+
+    /**
+     * Looks up a client-side metric by canonical manifest name.
+     *
+     * @return the metric, or empty if it only exists server-side
+     */
+    public static Optional<FocusMetric> metric(String name) {
+        if (name == null) return Optional.empty();
+        return Optional.ofNullable(METRICS.get(name.trim().toLowerCase(Locale.ROOT)));
+    }
+
+    /** Canonical names of all metrics implemented client-side, in registration order. */
+    public static Set<String> metricNames() {
+        return METRICS.keySet();
+    }
+
+    /**
+     * Resolves the streaming metric the server would use for a modality (the
+     * manifest's modality default, falling back to {@code tenengrad}) and
+     * returns its client-side implementation.
+     *
+     * @return the metric, or empty if the resolved name is not streaming-capable
+     *         or has no Java implementation
+     */
+    public static Optional<FocusMetric> streamingMetricFor(FocusMetricsManifest manifest, String modality) {
+        if (manifest == null) return Optional.empty();
+        String name = manifest.resolveEffectiveMetric(modality, null, "tenengrad");
+        FocusMetricsManifest.MetricSpec spec = manifest.getMetrics().get(name);
+        if (spec == null || !spec.supportsStreaming()) return Optional.empty();
+        return metric(name);
+    }
+
     /**
      * Brenner gradient: per-pixel mean of (I(x+2,y) - I(x,y))^2, sampled at a
      * row-step to keep cost bounded. Returns 0 for null/empty frames.
@@ -24,34 +106,211 @@ public final class FocusMetricCalculator {
      * <p>For multichannel frames the first channel is used (R for RGB). Brenner
      * captures edge sharpness which is broadly channel-invariant, so this
      * avoids a luminance conversion in the hot path.
+     *
+     * <p>The Live Viewer reads the same value from its fused {@link FrameStats}
+     * pass; this entry point is for one-off frames.
      */
     public static double brennerGradient(FrameData frame) {
         if (frame == null || frame.rawPixels() == null) return 0.0;
-        int w = frame.width();
-        int h = frame.height();
-        int ch = frame.channels();
+        if (frame.width() < 4 || frame.height() < 1 || frame.channels() < 1 || frame.bytesPerPixel() < 1) return 0.0;
+        return FrameStats.focusOnly(frame).brennerGradient();
+    }
+
+    /**
+     * Tenengrad: mean of {@code Gx^2 + Gy^2} over the 3x3 Sobel responses of
+     * the region's interior.
+     */
+    public static double tenengrad(FrameData frame, FocusMetric.Region region) {
+        int w = region.width();
+        int h = region.height();
+        if (w < 3 || h < 3) return 0.0;
+        int[][] rows = rowBuffers(w);
+        int[] r0 = rows[0];
+        int[] r1 = rows[1];
+        int[] r2 = rows[2];
+        loadRow(frame, region.y(), region.x(), w, r0);
+        loadRow(frame, region.y() + 1, region.x(), w, r1);
+
+        double total = 0.0;
+        for (int y = 1; y < h - 1; y++) {
+            loadRow(frame, region.y() + y + 1, region.x(), w, r2);
+            long rowSum = 0;
+            for (int x = 1; x < w - 1; x++) {
+                int gx = (r0[x + 1] + 2 * r1[x + 1] + r2[x + 1]) - (r0[x - 1] + 2 * r1[x - 1] + r2[x - 1]);
+                int gy = (r2[x - 1] + 2 * r2[x] + r2[x + 1]) - (r0[x - 1] + 2 * r0[x] + r0[x + 1]);
+                rowSum += (long) gx * gx + (long) gy * gy;
+            }
+            total += rowSum;
+            int[] t = r0;
+            r0 = r1;
+            r1 = r2;
+            r2 = t;
+        }
+        return total / ((double) (w - 2) * (h - 2));
+    }
+
+    /**
+     * Variance of the 4-neighbour Laplacian over the region's interior.
+     */
+    public static double laplacianVariance(FrameData frame, FocusMetric.Region region) {
+        int w = region.width();
+        int h = region.height();
+        if (w < 3 || h < 3) return 0.0;
+        int[][] rows = rowBuffers(w);
+        int[] r0 = rows[0];
+        int[] r1 = rows[1];
+        int[] r2 = rows[2];
+        loadRow(frame, region.y(), region.x(), w, r0);
+        loadRow(frame, region.y() + 1, region.x(), w, r1);
+
+        double sum = 0.0;
+        double sumSq = 0.0;
+        for (int y = 1; y < h - 1; y++) {
+            loadRow(frame, region.y() + y + 1, region.x(), w, r2);
+            long rowSum = 0;
+            long rowSumSq = 0;
+            for (int x = 1; x < w - 1; x++) {
+                int lap = r0[x] + r2[x] + r1[x - 1] + r1[x + 1] - 4 * r1[x];
+                rowSum += lap;
+                rowSumSq += (long) lap * lap;
+            }
+            sum += rowSum;
+            sumSq += rowSumSq;
+            int[] t = r0;
+            r0 = r1;
+            r1 = r2;
+            r2 = t;
+        }
+        double n = (double) (w - 2) * (h - 2);
+        double mean = sum / n;
+        return Math.max(0.0, sumSq / n - mean * mean);
+    }
+
+    /**
+     * Brenner gradient over every row of the region: mean of
+     * {@code (I(x+2,y) - I(x,y))^2} on luminance. Unlike
+     * {@link #brennerGradient(FrameData)} this does not subsample rows.
+     */
+    public static double brennerGradient(FrameData frame, FocusMetric.Region region) {
+        int w = region.width();
+        int h = region.height();
+        if (w < 3 || h < 1) return 0.0;
+        int[] row = rowBuffers(w)[0];
+
+        double total = 0.0;
+        for (int y = 0; y < h; y++) {
+            loadRow(frame, region.y() + y, region.x(), w, row);
+            long rowSum = 0;
+            for (int x = 2; x < w; x++) {
+                int d = row[x] - row[x - 2];
+                rowSum += (long) d * d;
+            }
+            total += rowSum;
+        }
+        return total / ((double) (w - 2) * h);
+    }
+
+    /**
+     * Normalized variance: intensity variance divided by the mean, which
+     * cancels overall brightness changes between Z steps.
+     */
+    public static double normalizedVariance(FrameData frame, FocusMetric.Region region) {
+        int w = region.width();
+        int h = region.height();
+        if (w < 1 || h < 1) return 0.0;
+        int[] row = rowBuffers(w)[0];
+
+        double sum = 0.0;
+        double sumSq = 0.0;
+        for (int y = 0; y < h; y++) {
+            loadRow(frame, region.y() + y, region.x(), w, row);
+            long rowSum = 0;
+            long rowSumSq = 0;
+            for (int x = 0; x < w; x++) {
+                int v = row[x];
+                rowSum += v;
+                rowSumSq += (long) v * v;
+            }
+            sum += rowSum;
+            sumSq += rowSumSq;
+        }
+        double n = (double) w * h;
+        double mean = sum / n;
+        if (mean <= 0.0) return 0.0;
+        return Math.max(0.0, sumSq / n - mean * mean) / mean;
+    }
+
+    /**
+     * Vollath F5: mean of {@code I(x,y) * I(x+1,y)} minus the squared mean
+     * intensity -- an autocorrelation measure that is robust to noise.
+     */
+    public static double vollathF5(FrameData frame, FocusMetric.Region region) {
+        int w = region.width();
+        int h = region.height();
+        if (w < 2 || h < 1) return 0.0;
+        int[] row = rowBuffers(w)[0];
+
+        double sum = 0.0;
+        double pairSum = 0.0;
+        for (int y = 0; y < h; y++) {
+            loadRow(frame, region.y() + y, region.x(), w, row);
+            long rowSum = row[w - 1];
+            long rowPairs = 0;
+            for (int x = 0; x < w - 1; x++) {
+                rowSum += row[x];
+                rowPairs += (long) row[x] * row[x + 1];
+            }
+            sum += rowSum;
+            pairSum += rowPairs;
+        }
+        double mean = sum / ((double) w * h);
+        return pairSum / ((double) (w - 1) * h) - mean * mean;
+    }
+
+    private static int[][] rowBuffers(int width) {
+        int[][] rows = ROW_BUFFERS.get();
+        if (rows[0].length < width) {
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = new int[width];
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Reads {@code w} pixels of row {@code y} starting at column {@code x0}
+     * into {@code dst}: raw values for monochrome, integer Rec.601 luminance
+     * {@code (77R + 150G + 29B) >> 8} for RGB. uint16 samples are big-endian.
+     */
+    private static void loadRow(FrameData frame, int y, int x0, int w, int[] dst) {
+        byte[] raw = frame.rawPixels();
+        int channels = frame.channels();
         int bpp = frame.bytesPerPixel();
-        if (w < 4 || h < 1 || ch < 1 || bpp < 1) return 0.0;
-
-        int stride = ch * bpp;
-        int rowBytes = w * stride;
-        int shift = 2;
-        int rowStep = Math.max(1, h / 256);
-
-        long sumSq = 0L;
-        long count = 0L;
-        for (int y = 0; y < h; y += rowStep) {
-            int rowBase = y * rowBytes;
-            for (int x = 0; x < w - shift; x++) {
-                int o1 = rowBase + x * stride;
-                int o2 = rowBase + (x + shift) * stride;
-                int v1 = frame.readPixelValue(o1);
-                int v2 = frame.readPixelValue(o2);
-                int d = v2 - v1;
-                sumSq += (long) d * d;
-                count++;
-            }
-        }
-        return count == 0L ? 0.0 : (double) sumSq / (double) count;
+        int stride = channels * bpp;
+        int base = (y * frame.width() + x0) * stride;
+
+        if (channels == 1 && bpp == 1) {
+            for (int x = 0; x < w; x++) {
+                dst[x] = raw[base + x] & 0xFF;
+            }
+        } else if (channels == 1) {
+            for (int x = 0; x < w; x++) {
+                int o = base + 2 * x;
+                dst[x] = ((raw[o] & 0xFF) << 8) | (raw[o + 1] & 0xFF);
+            }
+        } else if (bpp == 1) {
+            for (int x = 0; x < w; x++) {
+                int o = base + x * stride;
+                dst[x] = (77 * (raw[o] & 0xFF) + 150 * (raw[o + 1] & 0xFF) + 29 * (raw[o + 2] & 0xFF)) >> 8;
+            }
+        } else {
+            for (int x = 0; x < w; x++) {
+                int o = base + x * stride;
+                int r = ((raw[o] & 0xFF) << 8) | (raw[o + 1] & 0xFF);
+                int g = ((raw[o + 2] & 0xFF) << 8) | (raw[o + 3] & 0xFF);
+                int b = ((raw[o + 4] & 0xFF) << 8) | (raw[o + 5] & 0xFF);
+                dst[x] = (77 * r + 150 * g + 29 * b) >> 8;
+            }
+        }
     }
 }
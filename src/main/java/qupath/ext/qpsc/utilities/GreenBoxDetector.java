@@ -3,6 +3,7 @@ package qupath.ext.qpsc.utilities;
 import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.util.ArrayList;
 import java.util.List;
 import org.slf4j.Logger;
@@ -150,11 +151,14 @@ public class GreenBoxDetector {
     public static DetectionResult detectGreenBox(BufferedImage macroImage, DetectionParams params) {
         logger.info("Starting green box detection on {}x{} image", macroImage.getWidth(), macroImage.getHeight());
 
+        // Read the pixels once for the mask and the diagnostics
+        int[] rgb = RgbPixelClassifier.readRgb(macroImage);
+
         // Create binary mask of green pixels
-        BufferedImage greenMask = createGreenMask(macroImage, params);
+        BinaryMask greenMask = createGreenMask(rgb, macroImage.getWidth(), macroImage.getHeight(), params);
 
         // Diagnostic: Analyze hue distribution of green-ish pixels to help troubleshoot
-        analyzeHueDistribution(macroImage, params);
+        analyzeHueDistribution(rgb, params);
 
         // Find connected components that could be box edges
         List<Rectangle> edges = findBoxEdges(greenMask, params);
@@ -202,27 +206,17 @@ public class GreenBoxDetector {
 
     /**
      * Creates a binary mask of pixels that match the green box color.
+     * Package-private so the JMH benchmarks can measure it directly.
      */
-    private static BufferedImage createGreenMask(BufferedImage image, DetectionParams params) {
-        int width = image.getWidth();
-        int height = image.getHeight();
-        BufferedImage mask = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
-
-        int greenPixelCount = 0;
-
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int rgb = image.getRGB(x, y);
+    static BinaryMask createGreenMask(BufferedImage image, DetectionParams params) {
+        return createGreenMask(RgbPixelClassifier.readRgb(image), image.getWidth(), image.getHeight(), params);
+    }
 
-                if (isGreenBoxPixel(rgb, params)) {
-                    mask.setRGB(x, y, 0xFFFFFF);
-                    greenPixelCount++;
-                } else {
-                    mask.setRGB(x, y, 0x000000);
-                }
-            }
-        }
+    private static BinaryMask createGreenMask(int[] rgb, int width, int height, DetectionParams params) {
+        BinaryMask mask =
+                RgbPixelClassifier.classify(rgb, width, height, (r, g, b) -> isGreenBoxPixel(r, g, b, params));
 
+        long greenPixelCount = mask.count();
         logger.debug(
                 "Found {} green pixels ({}% of image)", greenPixelCount, (100.0 * greenPixelCount) / (width * height));
 
@@ -232,11 +226,7 @@ public class GreenBoxDetector {
     /**
      * Checks if a pixel matches the expected green box color.
      */
-    private static boolean isGreenBoxPixel(int rgb, DetectionParams params) {
-        int r = (rgb >> 16) & 0xFF;
-        int g = (rgb >> 8) & 0xFF;
-        int b = rgb & 0xFF;
-
+    private static boolean isGreenBoxPixel(int r, int g, int b, DetectionParams params) {
         // Convert to normalized values
         double rNorm = r / 255.0;
         double gNorm = g / 255.0;
@@ -250,10 +240,9 @@ public class GreenBoxDetector {
         if (greenRatio < params.greenThreshold) return false;
 
         // Check saturation and brightness
-        float[] hsb = Color.RGBtoHSB(r, g, b, null);
-        float hue = hsb[0];
-        float saturation = hsb[1];
-        float brightness = hsb[2];
+        float hue = RgbPixelClassifier.hue(r, g, b);
+        float saturation = RgbPixelClassifier.saturation(r, g, b);
+        float brightness = RgbPixelClassifier.brightness(r, g, b);
 
         // Check hue range (configurable - green typically 0.25-0.42, i.e., 90-151 degrees)
         boolean isGreenHue = hue > params.hueMin && hue < params.hueMax;
@@ -267,10 +256,7 @@ public class GreenBoxDetector {
      * Analyzes the hue distribution of green-ish pixels in the image.
      * This helps diagnose why detection might be failing by showing what hue values are actually present.
      */
-    private static void analyzeHueDistribution(BufferedImage image, DetectionParams params) {
-        int width = image.getWidth();
-        int height = image.getHeight();
-
+    private static void analyzeHueDistribution(int[] pixels, DetectionParams params) {
         double minHue = 1.0;
         double maxHue = 0.0;
         int greenishPixelCount = 0;
@@ -282,39 +268,37 @@ public class GreenBoxDetector {
         int failedSaturation = 0;
         int failedBrightness = 0;
 
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int rgb = image.getRGB(x, y);
-                int r = (rgb >> 16) & 0xFF;
-                int g = (rgb >> 8) & 0xFF;
-                int b = rgb & 0xFF;
-
-                // Check if roughly green (g > r and g > b)
-                if (g > r && g > b) {
-                    greenishPixelCount++;
-                    float[] hsb = Color.RGBtoHSB(r, g, b, null);
-                    double hue = hsb[0];
-                    minHue = Math.min(minHue, hue);
-                    maxHue = Math.max(maxHue, hue);
-
-                    // Track why pixels fail
-                    double rNorm = r / 255.0;
-                    double gNorm = g / 255.0;
-                    double bNorm = b / 255.0;
-                    double total = rNorm + gNorm + bNorm;
-                    double greenRatio = total > 0 ? gNorm / total : 0;
-
-                    if (greenRatio < params.greenThreshold) {
-                        failedGreenRatio++;
-                    } else if (hue <= params.hueMin || hue >= params.hueMax) {
-                        failedHue++;
-                    } else if (hsb[1] <= params.saturationMin) {
-                        failedSaturation++;
-                    } else if (hsb[2] <= params.brightnessMin || hsb[2] >= params.brightnessMax) {
-                        failedBrightness++;
-                    } else {
-                        passedAllFilters++;
-                    }
+        for (int rgb : pixels) {
+            int r = (rgb >> 16) & 0xFF;
+            int g = (rgb >> 8) & 0xFF;
+            int b = rgb & 0xFF;
+
+            // Check if roughly green (g > r and g > b)
+            if (g > r && g > b) {
+                greenishPixelCount++;
+                double hue = RgbPixelClassifier.hue(r, g, b);
+                minHue = Math.min(minHue, hue);
+                maxHue = Math.max(maxHue, hue);
+
+                // Track why pixels fail
+                double rNorm = r / 255.0;
+                double gNorm = g / 255.0;
+                double bNorm = b / 255.0;
+                double total = rNorm + gNorm + bNorm;
+                double greenRatio = total > 0 ? gNorm / total : 0;
+                float saturation = RgbPixelClassifier.saturation(r, g, b);
+                float brightness = RgbPixelClassifier.brightness(r, g, b);
+
+                if (greenRatio < params.greenThreshold) {
+                    failedGreenRatio++;
+                } else if (hue <= params.hueMin || hue >= params.hueMax) {
+                    failedHue++;
+                } else if (saturation <= params.saturationMin) {
+                    failedSaturation++;
+                } else if (brightness <= params.brightnessMin || brightness >= params.brightnessMax) {
+                    failedBrightness++;
+                } else {
+                    passedAllFilters++;
                 }
             }
         }
@@ -352,10 +336,10 @@ public class GreenBoxDetector {
     /**
      * Finds potential box edges in the binary mask.
      */
-    private static List<Rectangle> findBoxEdges(BufferedImage mask, DetectionParams params) {
+    private static List<Rectangle> findBoxEdges(BinaryMask mask, DetectionParams params) {
         List<Rectangle> edges = new ArrayList<>();
-        int width = mask.getWidth();
-        int height = mask.getHeight();
+        int width = mask.width();
+        int height = mask.height();
 
         // Scan for horizontal edges
         for (int y = 0; y < height - params.edgeThickness; y++) {
@@ -403,12 +387,12 @@ public class GreenBoxDetector {
      * Checks if a position contains a horizontal edge.
      * Allows some tolerance for gaps due to compression artifacts or color variation.
      */
-    private static boolean isHorizontalEdge(BufferedImage mask, int x, int y, DetectionParams params) {
+    private static boolean isHorizontalEdge(BinaryMask mask, int x, int y, DetectionParams params) {
         // Check if we have a thick horizontal line
         // Allow 80% of pixels to be green (tolerance for JPEG artifacts, anti-aliasing, etc.)
         int greenCount = 0;
-        for (int dy = 0; dy < params.edgeThickness && y + dy < mask.getHeight(); dy++) {
-            if ((mask.getRGB(x, y + dy) & 0xFF) > 0) {
+        for (int dy = 0; dy < params.edgeThickness && y + dy < mask.height(); dy++) {
+            if (mask.get(x, y + dy)) {
                 greenCount++;
             }
         }
@@ -419,12 +403,12 @@ public class GreenBoxDetector {
      * Checks if a position contains a vertical edge.
      * Allows some tolerance for gaps due to compression artifacts or color variation.
      */
-    private static boolean isVerticalEdge(BufferedImage mask, int x, int y, DetectionParams params) {
+    private static boolean isVerticalEdge(BinaryMask mask, int x, int y, DetectionParams params) {
         // Check if we have a thick vertical line
         // Allow 80% of pixels to be green (tolerance for JPEG artifacts, anti-aliasing, etc.)
         int greenCount = 0;
-        for (int dx = 0; dx < params.edgeThickness && x + dx < mask.getWidth(); dx++) {
-            if ((mask.getRGB(x + dx, y) & 0xFF) > 0) {
+        for (int dx = 0; dx < params.edgeThickness && x + dx < mask.width(); dx++) {
+            if (mask.get(x + dx, y)) {
                 greenCount++;
             }
         }
@@ -492,12 +476,12 @@ public class GreenBoxDetector {
     /**
      * Calculates confidence score for the detected box.
      */
-    private static double calculateConfidence(ROI box, BufferedImage mask, DetectionParams params) {
+    private static double calculateConfidence(ROI box, BinaryMask mask, DetectionParams params) {
         // Check how well the edges match expected characteristics
         double edgeScore = 0.0;
         double rectangularityScore = 1.0; // Since we enforce rectangles
         double sizeScore = Math.min(
-                1.0, box.getBoundsWidth() * box.getBoundsHeight() / (mask.getWidth() * mask.getHeight() * 0.5));
+                1.0, box.getBoundsWidth() * box.getBoundsHeight() / (mask.width() * mask.height() * 0.5));
 
         return (edgeScore + rectangularityScore + sizeScore) / 3.0;
     }
@@ -505,7 +489,7 @@ public class GreenBoxDetector {
     /**
      * Creates a debug image showing the detection result.
      */
-    private static BufferedImage createDebugImage(BufferedImage original, BufferedImage mask, ROI box) {
+    private static BufferedImage createDebugImage(BufferedImage original, BinaryMask mask, ROI box) {
         BufferedImage debug = new BufferedImage(original.getWidth(), original.getHeight(), BufferedImage.TYPE_INT_ARGB);
         Graphics2D g = debug.createGraphics();
 
@@ -513,15 +497,18 @@ public class GreenBoxDetector {
         g.drawImage(original, 0, 0, null);
 
         // Overlay mask with transparency
-        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.3f));
-        g.setColor(Color.GREEN);
-        for (int y = 0; y < mask.getHeight(); y++) {
-            for (int x = 0; x < mask.getWidth(); x++) {
-                if ((mask.getRGB(x, y) & 0xFF) > 0) {
-                    g.fillRect(x, y, 1, 1);
+        BufferedImage overlay = new BufferedImage(mask.width(), mask.height(), BufferedImage.TYPE_INT_ARGB);
+        int[] overlayPixels = ((DataBufferInt) overlay.getRaster().getDataBuffer()).getData();
+        int green = Color.GREEN.getRGB();
+        for (int y = 0; y < mask.height(); y++) {
+            for (int x = 0; x < mask.width(); x++) {
+                if (mask.get(x, y)) {
+                    overlayPixels[y * mask.width() + x] = green;
                 }
             }
         }
+        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.3f));
+        g.drawImage(overlay, 0, 0, null);
 
         // Draw detected box
         g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
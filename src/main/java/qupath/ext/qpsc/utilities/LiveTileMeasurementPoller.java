@@ -1,7 +1,6 @@
 package qupath.ext.qpsc.utilities;
 
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -53,18 +52,14 @@ public class LiveTileMeasurementPoller {
 
     private static final long POLL_PERIOD_MS = 1000L;
 
-    private final Path ndjsonPath;
     private final String annotationName;
-    private final com.google.gson.Gson gson = new com.google.gson.Gson();
-    private final java.lang.reflect.Type mapType =
-            new com.google.gson.reflect.TypeToken<Map<String, Object>>() {}.getType();
+    private final NdjsonTail tail;
 
     /** Stable hierarchy reference captured at acquisition start (viewer-independent). */
     private final PathObjectHierarchy sessionHierarchy;
     /** ImageData captured at acquisition start -- used to check if viewer is showing this image. */
     private final ImageData<?> sessionImageData;
 
-    private long offset = 0L;
     private int totalApplied = 0;
     private ScheduledFuture<?> handle;
 
@@ -73,7 +68,7 @@ public class LiveTileMeasurementPoller {
             String annotationName,
             PathObjectHierarchy sessionHierarchy,
             ImageData<?> sessionImageData) {
-        this.ndjsonPath = ndjsonPath;
+        this.tail = new NdjsonTail(ndjsonPath);
         this.annotationName = annotationName;
         this.sessionHierarchy = sessionHierarchy;
         this.sessionImageData = sessionImageData;
@@ -135,50 +130,7 @@ public class LiveTileMeasurementPoller {
     }
 
     private void tick() throws IOException {
-        java.io.File file = ndjsonPath.toFile();
-        if (!file.exists() || file.length() <= offset) {
-            return;
-        }
-
-        List<Map<String, Object>> newEntries = new ArrayList<>();
-        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
-            raf.seek(offset);
-            long available = raf.length() - offset;
-            if (available <= 0) return;
-
-            byte[] buf = new byte[(int) Math.min(available, Integer.MAX_VALUE)];
-            raf.readFully(buf);
-
-            // Find the last newline so we don't consume a partial trailing line.
-            int lastNewline = -1;
-            for (int i = buf.length - 1; i >= 0; i--) {
-                if (buf[i] == '\n') {
-                    lastNewline = i;
-                    break;
-                }
-            }
-            if (lastNewline < 0) {
-                // No complete line yet -- leave offset alone.
-                return;
-            }
-
-            String block = new String(buf, 0, lastNewline, java.nio.charset.StandardCharsets.UTF_8);
-            offset += lastNewline + 1;
-
-            for (String line : block.split("\n")) {
-                String trimmed = line.trim();
-                if (trimmed.isEmpty()) continue;
-                try {
-                    Map<String, Object> entry = gson.fromJson(trimmed, mapType);
-                    if (entry != null) {
-                        newEntries.add(entry);
-                    }
-                } catch (Exception e) {
-                    logger.debug("Skipping malformed NDJSON line: {}", e.getMessage());
-                }
-            }
-        }
-
+        List<Map<String, Object>> newEntries = tail.readNew();
         if (newEntries.isEmpty()) {
             return;
         }
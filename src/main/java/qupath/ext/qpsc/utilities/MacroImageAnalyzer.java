@@ -2,6 +2,7 @@ package qupath.ext.qpsc.utilities;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
@@ -223,22 +224,24 @@ public class MacroImageAnalyzer {
 
         // Apply thresholding
         int threshold = calculateThreshold(macro, method, params);
-        BufferedImage thresholded;
+        BinaryMask tissue;
 
         // Different handling for each method category
         if (method == ThresholdMethod.ARTIFACT_FILTER) {
-            thresholded = applyArtifactFilter(macro, params);
+            tissue = applyArtifactFilter(macro, params);
         } else if (method == ThresholdMethod.HE_EOSIN
                 || method == ThresholdMethod.HE_DUAL
                 || method == ThresholdMethod.COLOR_DECONVOLUTION) {
-            thresholded = applyColorThreshold(macro, method, params);
+            tissue = applyColorThreshold(macro, method, params);
         } else {
-            thresholded = applyThreshold(macro, threshold);
+            tissue = applyThreshold(macro, threshold);
         }
+        // Tissue pixels are drawn black
+        BufferedImage thresholded = tissue.toBinaryImage(false);
 
         // Find tissue regions
         int minRegionSize = (Integer) params.getOrDefault("minRegionSize", 1000);
-        List<ROI> regions = findTissueRegions(thresholded, minRegionSize);
+        List<ROI> regions = findTissueRegions(tissue, minRegionSize);
         ROI bounds = computeBoundingBox(regions);
 
         logger.info(
@@ -256,24 +259,12 @@ public class MacroImageAnalyzer {
      * Calculates the threshold value using the specified method.
      */
     private static int calculateThreshold(BufferedImage image, ThresholdMethod method, Map<String, Object> params) {
-        // Convert to grayscale if needed
-        BufferedImage gray = convertToGrayscale(image);
-
-        // Build histogram
-        int[] histogram = new int[256];
-        for (int y = 0; y < gray.getHeight(); y++) {
-            for (int x = 0; x < gray.getWidth(); x++) {
-                int pixel = gray.getRGB(x, y) & 0xFF;
-                histogram[pixel]++;
-            }
-        }
-
         return switch (method) {
-            case OTSU -> calculateOtsuThreshold(histogram);
-            case MEAN -> calculateMeanThreshold(histogram);
+            case OTSU -> calculateOtsuThreshold(grayHistogram(image));
+            case MEAN -> calculateMeanThreshold(grayHistogram(image));
             case PERCENTILE -> {
                 double percentile = (Double) params.getOrDefault("percentile", 0.5);
-                yield calculatePercentileThreshold(histogram, percentile);
+                yield calculatePercentileThreshold(grayHistogram(image), percentile);
             }
             case FIXED -> {
                 int fixed = (Integer) params.getOrDefault("threshold", 128);
@@ -282,7 +273,7 @@ public class MacroImageAnalyzer {
             case IJ_AUTO -> {
                 // Could integrate with ImageJ here
                 logger.warn("ImageJ auto threshold not implemented, using Otsu");
-                yield calculateOtsuThreshold(histogram);
+                yield calculateOtsuThreshold(grayHistogram(image));
             }
             case HE_EOSIN, HE_DUAL, COLOR_DECONVOLUTION, ARTIFACT_FILTER -> {
                 // These are handled separately in applyColorThreshold / applyArtifactFilter
@@ -302,6 +293,41 @@ public class MacroImageAnalyzer {
         return gray;
     }
 
+    /**
+     * Grayscale level of every pixel, row-major, as {@code getRGB(x, y) & 0xFF}
+     * of {@link #convertToGrayscale} would report it. The raster bytes are
+     * read in one call and mapped through a 256-entry table built from the
+     * gray colour model, instead of a colour-converting {@code getRGB} per pixel.
+     */
+    private static int[] grayLevels(BufferedImage image) {
+        BufferedImage gray = convertToGrayscale(image);
+        byte[] raw = ((DataBufferByte) gray.getRaster().getDataBuffer()).getData();
+
+        BufferedImage ramp = new BufferedImage(256, 1, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] rampData = ((DataBufferByte) ramp.getRaster().getDataBuffer()).getData();
+        for (int i = 0; i < 256; i++) {
+            rampData[i] = (byte) i;
+        }
+        int[] lut = new int[256];
+        for (int i = 0; i < 256; i++) {
+            lut[i] = ramp.getRGB(i, 0) & 0xFF;
+        }
+
+        int[] levels = new int[raw.length];
+        for (int i = 0; i < raw.length; i++) {
+            levels[i] = lut[raw[i] & 0xFF];
+        }
+        return levels;
+    }
+
+    private static int[] grayHistogram(BufferedImage image) {
+        int[] histogram = new int[256];
+        for (int level : grayLevels(image)) {
+            histogram[level]++;
+        }
+        return histogram;
+    }
+
     /**
      * Implements Otsu's thresholding method.
      */
@@ -377,32 +403,19 @@ public class MacroImageAnalyzer {
     }
 
     /**
-     * Applies threshold to create binary image.
+     * Applies threshold to create a tissue mask.
      */
-    private static BufferedImage applyThreshold(BufferedImage image, int threshold) {
-        BufferedImage binary = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_BINARY);
-
-        for (int y = 0; y < image.getHeight(); y++) {
-            for (int x = 0; x < image.getWidth(); x++) {
-                int rgb = image.getRGB(x, y);
-                int gray = (int) (0.299 * ((rgb >> 16) & 0xFF) + 0.587 * ((rgb >> 8) & 0xFF) + 0.114 * (rgb & 0xFF));
-
-                // Tissue is typically darker than background
-                int newPixel = gray < threshold ? 0x000000 : 0xFFFFFF;
-                binary.setRGB(x, y, newPixel);
-            }
-        }
-
-        return binary;
+    private static BinaryMask applyThreshold(BufferedImage image, int threshold) {
+        // Tissue is typically darker than background
+        return RgbPixelClassifier.classify(
+                image, (r, g, b) -> (int) (0.299 * r + 0.587 * g + 0.114 * b) < threshold);
     }
 
     /**
      * Applies color-based thresholding for H&E stained images.
      */
-    private static BufferedImage applyColorThreshold(
+    private static BinaryMask applyColorThreshold(
             BufferedImage image, ThresholdMethod method, Map<String, Object> params) {
-        BufferedImage binary = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_BINARY);
-
         // Get threshold parameters
         double eosinThreshold = (Double) params.getOrDefault("eosinThreshold", 0.15);
         double hematoxylinThreshold = (Double) params.getOrDefault("hematoxylinThreshold", 0.15);
@@ -410,56 +423,45 @@ public class MacroImageAnalyzer {
         double brightnessMin = (Double) params.getOrDefault("brightnessMin", 0.2);
         double brightnessMax = (Double) params.getOrDefault("brightnessMax", 0.95);
 
-        for (int y = 0; y < image.getHeight(); y++) {
-            for (int x = 0; x < image.getWidth(); x++) {
-                int rgb = image.getRGB(x, y);
-
-                boolean isTissue = false;
-
+        RgbPixelClassifier.RgbPredicate isTissue =
                 switch (method) {
-                    case HE_EOSIN -> {
-                        // Detect pink/red eosin stain
-                        isTissue = detectEosin(rgb, eosinThreshold, saturationThreshold, brightnessMin, brightnessMax);
-                    }
-                    case HE_DUAL -> {
-                        // Detect both eosin (pink) and hematoxylin (purple/blue)
-                        isTissue = detectEosin(rgb, eosinThreshold, saturationThreshold, brightnessMin, brightnessMax)
-                                || detectHematoxylin(
-                                        rgb, hematoxylinThreshold, saturationThreshold, brightnessMin, brightnessMax);
-                    }
-                    case COLOR_DECONVOLUTION -> {
-                        // Simple color deconvolution for H&E
-                        isTissue = detectByColorDeconvolution(rgb, brightnessMin, brightnessMax);
-                    }
-                }
-
-                int newPixel = isTissue ? 0x000000 : 0xFFFFFF;
-                binary.setRGB(x, y, newPixel);
-            }
-        }
-
-        return binary;
+                    // Detect pink/red eosin stain
+                    case HE_EOSIN -> (r, g, b) ->
+                            detectEosin(r, g, b, eosinThreshold, saturationThreshold, brightnessMin, brightnessMax);
+                    // Detect both eosin (pink) and hematoxylin (purple/blue)
+                    case HE_DUAL -> (r, g, b) ->
+                            detectEosin(r, g, b, eosinThreshold, saturationThreshold, brightnessMin, brightnessMax)
+                                    || detectHematoxylin(
+                                            r,
+                                            g,
+                                            b,
+                                            hematoxylinThreshold,
+                                            saturationThreshold,
+                                            brightnessMin,
+                                            brightnessMax);
+                    // Simple color deconvolution for H&E
+                    case COLOR_DECONVOLUTION -> (r, g, b) ->
+                            detectByColorDeconvolution(r, g, b, brightnessMin, brightnessMax);
+                    default -> (r, g, b) -> false;
+                };
+
+        return RgbPixelClassifier.classify(image, isTissue);
     }
 
     /**
      * Detects eosin (pink/red) staining in H&E images.
      */
     private static boolean detectEosin(
-            int rgb, double threshold, double saturationMin, double brightnessMin, double brightnessMax) {
-        int r = (rgb >> 16) & 0xFF;
-        int g = (rgb >> 8) & 0xFF;
-        int b = rgb & 0xFF;
-
+            int r, int g, int b, double threshold, double saturationMin, double brightnessMin, double brightnessMax) {
         // Convert to normalized values
         double rNorm = r / 255.0;
         double gNorm = g / 255.0;
         double bNorm = b / 255.0;
 
         // Calculate HSB values
-        float[] hsb = Color.RGBtoHSB(r, g, b, null);
-        float hue = hsb[0];
-        float saturation = hsb[1];
-        float brightness = hsb[2];
+        float hue = RgbPixelClassifier.hue(r, g, b);
+        float saturation = RgbPixelClassifier.saturation(r, g, b);
+        float brightness = RgbPixelClassifier.brightness(r, g, b);
 
         // Eosin is pink/red: hue around 0-20 or 340-360 degrees
         boolean isEosinHue = (hue < 0.055 || hue > 0.944); // Convert degrees to 0-1 range
@@ -478,21 +480,16 @@ public class MacroImageAnalyzer {
      * Detects hematoxylin (purple/blue) staining in H&E images.
      */
     private static boolean detectHematoxylin(
-            int rgb, double threshold, double saturationMin, double brightnessMin, double brightnessMax) {
-        int r = (rgb >> 16) & 0xFF;
-        int g = (rgb >> 8) & 0xFF;
-        int b = rgb & 0xFF;
-
+            int r, int g, int b, double threshold, double saturationMin, double brightnessMin, double brightnessMax) {
         // Convert to normalized values
         double rNorm = r / 255.0;
         double gNorm = g / 255.0;
         double bNorm = b / 255.0;
 
         // Calculate HSB values
-        float[] hsb = Color.RGBtoHSB(r, g, b, null);
-        float hue = hsb[0];
-        float saturation = hsb[1];
-        float brightness = hsb[2];
+        float hue = RgbPixelClassifier.hue(r, g, b);
+        float saturation = RgbPixelClassifier.saturation(r, g, b);
+        float brightness = RgbPixelClassifier.brightness(r, g, b);
 
         // Hematoxylin is purple/blue: hue around 240-280 degrees
         boolean isHematoxylinHue = (hue > 0.667 && hue < 0.778);
@@ -511,11 +508,8 @@ public class MacroImageAnalyzer {
      * Simple color deconvolution approach for H&E detection.
      * This is a simplified version - full color deconvolution would use stain vectors.
      */
-    private static boolean detectByColorDeconvolution(int rgb, double brightnessMin, double brightnessMax) {
-        int r = (rgb >> 16) & 0xFF;
-        int g = (rgb >> 8) & 0xFF;
-        int b = rgb & 0xFF;
-
+    private static boolean detectByColorDeconvolution(
+            int r, int g, int b, double brightnessMin, double brightnessMax) {
         // Simple approach: detect non-white areas with color
         double brightness = (r + g + b) / (3.0 * 255.0);
 
@@ -550,9 +544,9 @@ public class MacroImageAnalyzer {
      *
      * @param image the RGB macro image
      * @param params additional parameters (medianKernel, morphCloseKernel, morphCloseIter)
-     * @return binary thresholded image (black=tissue, white=background)
+     * @return tissue mask
      */
-    private static BufferedImage applyArtifactFilter(BufferedImage image, Map<String, Object> params) {
+    private static BinaryMask applyArtifactFilter(BufferedImage image, Map<String, Object> params) {
         int width = image.getWidth();
         int height = image.getHeight();
 
@@ -562,21 +556,19 @@ public class MacroImageAnalyzer {
 
         // Step 1: Compute artifact filter image: max(R-G, 0) * max(B-G, 0)
         // High values indicate artifacts (pen marks, dust with non-tissue color)
-        int[] artifactScores = new int[width * height];
+        int[] artifactScores = RgbPixelClassifier.readRgb(image);
         int maxScore = 0;
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int rgb = image.getRGB(x, y);
-                int r = (rgb >> 16) & 0xFF;
-                int g = (rgb >> 8) & 0xFF;
-                int b = rgb & 0xFF;
-
-                int rgDiff = Math.max(r - g, 0);
-                int bgDiff = Math.max(b - g, 0);
-                int score = rgDiff * bgDiff;
-                artifactScores[y * width + x] = score;
-                maxScore = Math.max(maxScore, score);
-            }
+        for (int i = 0; i < artifactScores.length; i++) {
+            int rgb = artifactScores[i];
+            int r = (rgb >> 16) & 0xFF;
+            int g = (rgb >> 8) & 0xFF;
+            int b = rgb & 0xFF;
+
+            int rgDiff = Math.max(r - g, 0);
+            int bgDiff = Math.max(b - g, 0);
+            int score = rgDiff * bgDiff;
+            artifactScores[i] = score;
+            maxScore = Math.max(maxScore, score);
         }
 
         // Build artifact score histogram and apply Otsu to identify artifact regions
@@ -597,47 +589,34 @@ public class MacroImageAnalyzer {
         }
 
         // Step 2: Convert to grayscale and apply Otsu for tissue detection
-        BufferedImage gray = convertToGrayscale(image);
+        int[] grayLevels = grayLevels(image);
         int[] grayHist = new int[256];
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int pixel = gray.getRGB(x, y) & 0xFF;
-                grayHist[pixel]++;
-            }
+        for (int level : grayLevels) {
+            grayHist[level]++;
         }
         int tissueThreshold = calculateOtsuThreshold(grayHist);
         logger.info("Tissue Otsu threshold: {}", tissueThreshold);
 
-        // Step 3: Create binary image (tissue = dark in grayscale AND not artifact)
-        int[] binaryPixels = new int[width * height];
+        // Step 3: Create tissue mask (tissue = dark in grayscale AND not artifact)
+        BinaryMask tissue = new BinaryMask(width, height);
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
                 int idx = y * width + x;
-                int grayVal = gray.getRGB(x, y) & 0xFF;
-                boolean isTissue = grayVal < tissueThreshold && !isArtifact[idx];
-                binaryPixels[idx] = isTissue ? 1 : 0;
+                if (grayLevels[idx] < tissueThreshold && !isArtifact[idx]) {
+                    tissue.set(x, y);
+                }
             }
         }
 
         // Step 4: Morphological cleanup (median blur approximation + closing)
         // Median blur: replace each pixel with the median of its neighborhood
         if (medianKernel > 1) {
-            binaryPixels = applyMedianFilter(binaryPixels, width, height, medianKernel);
+            tissue = BinaryMasks.median(tissue, medianKernel);
         }
 
         // Morphological closing: dilate then erode (fills small gaps in tissue)
         for (int iter = 0; iter < morphCloseIter; iter++) {
-            binaryPixels = morphDilate(binaryPixels, width, height, morphCloseKernel);
-            binaryPixels = morphErode(binaryPixels, width, height, morphCloseKernel);
-        }
-
-        // Convert back to BufferedImage
-        BufferedImage binary = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int pixel = binaryPixels[y * width + x] == 1 ? 0x000000 : 0xFFFFFF;
-                binary.setRGB(x, y, pixel);
-            }
+            tissue = BinaryMasks.close(tissue, morphCloseKernel);
         }
 
         logger.info(
@@ -645,160 +624,31 @@ public class MacroImageAnalyzer {
                 medianKernel,
                 morphCloseKernel,
                 morphCloseIter);
-        return binary;
+        return tissue;
     }
 
     /**
-     * Applies a median filter to a binary image.
-     * Simple implementation using a square kernel.
+     * Finds connected tissue regions (4-connected) and keeps those whose
+     * bounding box is larger than {@code minSize} pixels.
      */
-    private static int[] applyMedianFilter(int[] pixels, int width, int height, int kernelSize) {
-        int[] result = new int[width * height];
-        int half = kernelSize / 2;
-
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int ones = 0;
-                int total = 0;
-                for (int ky = -half; ky <= half; ky++) {
-                    for (int kx = -half; kx <= half; kx++) {
-                        int ny = y + ky;
-                        int nx = x + kx;
-                        if (ny >= 0 && ny < height && nx >= 0 && nx < width) {
-                            ones += pixels[ny * width + nx];
-                            total++;
-                        }
-                    }
-                }
-                result[y * width + x] = (ones > total / 2) ? 1 : 0;
-            }
-        }
-        return result;
-    }
-
-    /**
-     * Morphological dilation on a binary int array.
-     */
-    private static int[] morphDilate(int[] pixels, int width, int height, int kernelSize) {
-        int[] result = new int[width * height];
-        int half = kernelSize / 2;
-
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                boolean found = false;
-                outer:
-                for (int ky = -half; ky <= half && !found; ky++) {
-                    for (int kx = -half; kx <= half && !found; kx++) {
-                        int ny = y + ky;
-                        int nx = x + kx;
-                        if (ny >= 0 && ny < height && nx >= 0 && nx < width) {
-                            if (pixels[ny * width + nx] == 1) {
-                                found = true;
-                            }
-                        }
-                    }
-                }
-                result[y * width + x] = found ? 1 : 0;
-            }
-        }
-        return result;
-    }
-
-    /**
-     * Morphological erosion on a binary int array.
-     */
-    private static int[] morphErode(int[] pixels, int width, int height, int kernelSize) {
-        int[] result = new int[width * height];
-        int half = kernelSize / 2;
-
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                boolean allSet = true;
-                for (int ky = -half; ky <= half && allSet; ky++) {
-                    for (int kx = -half; kx <= half && allSet; kx++) {
-                        int ny = y + ky;
-                        int nx = x + kx;
-                        if (ny >= 0 && ny < height && nx >= 0 && nx < width) {
-                            if (pixels[ny * width + nx] == 0) {
-                                allSet = false;
-                            }
-                        } else {
-                            // Treat out-of-bounds as background
-                            allSet = false;
-                        }
-                    }
-                }
-                result[y * width + x] = allSet ? 1 : 0;
-            }
-        }
-        return result;
-    }
-
-    /**
-     * Finds connected tissue regions using simple flood fill.
-     * Note: This is a basic implementation - could be enhanced with
-     * morphological operations, size filtering, etc.
-     */
-    private static List<ROI> findTissueRegions(BufferedImage binary, int minSize) {
+    private static List<ROI> findTissueRegions(BinaryMask tissue, int minSize) {
         List<ROI> regions = new ArrayList<>();
-        int width = binary.getWidth();
-        int height = binary.getHeight();
-        boolean[][] visited = new boolean[height][width];
-
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                if (!visited[y][x] && (binary.getRGB(x, y) & 0xFF) == 0) {
-                    // Found tissue pixel - flood fill to find region
-                    Rectangle bounds = floodFill(binary, visited, x, y);
-                    int area = bounds.width * bounds.height;
-                    if (area > minSize) {
-                        ROI roi = ROIs.createRectangleROI(
-                                bounds.x, bounds.y, bounds.width, bounds.height, ImagePlane.getDefaultPlane());
-                        regions.add(roi);
-                    }
-                }
+        for (BinaryMasks.Region region : BinaryMasks.connectedComponents(tissue)) {
+            int area = region.boundsWidth() * region.boundsHeight();
+            if (area > minSize) {
+                ROI roi = ROIs.createRectangleROI(
+                        region.minX(),
+                        region.minY(),
+                        region.boundsWidth(),
+                        region.boundsHeight(),
+                        ImagePlane.getDefaultPlane());
+                regions.add(roi);
             }
         }
 
         return regions;
     }
 
-    /**
-     * Simple flood fill to find connected region bounds.
-     */
-    private static Rectangle floodFill(BufferedImage binary, boolean[][] visited, int startX, int startY) {
-        Queue<Point> queue = new LinkedList<>();
-        queue.add(new Point(startX, startY));
-
-        int minX = startX, maxX = startX;
-        int minY = startY, maxY = startY;
-
-        while (!queue.isEmpty()) {
-            Point p = queue.poll();
-            if (p.x < 0 || p.x >= binary.getWidth() || p.y < 0 || p.y >= binary.getHeight() || visited[p.y][p.x]) {
-                continue;
-            }
-
-            if ((binary.getRGB(p.x, p.y) & 0xFF) != 0) {
-                continue; // Not tissue
-            }
-
-            visited[p.y][p.x] = true;
-            minX = Math.min(minX, p.x);
-            maxX = Math.max(maxX, p.x);
-            minY = Math.min(minY, p.y);
-            maxY = Math.max(maxY, p.y);
-
-            // Add neighbors
-            queue.add(new Point(p.x + 1, p.y));
-            queue.add(new Point(p.x - 1, p.y));
-            queue.add(new Point(p.x, p.y + 1));
-            queue.add(new Point(p.x, p.y - 1));
-        }
-
-        return new Rectangle(minX, minY, maxX - minX + 1, maxY - minY + 1);
-    }
-
     /**
      * Computes overall bounding box for all regions.
      */
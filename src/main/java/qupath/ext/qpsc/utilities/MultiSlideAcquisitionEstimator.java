@@ -20,7 +20,7 @@ import qupath.lib.projects.ProjectImageEntry;
 /**
  * Whole-run acquisition-time estimate for a multi-slide (N-slide) batch.
  *
- * <p>For each slot it counts the tiles its annotations will generate (same grid math the tiler
+ * <p>For each slot it counts the tiles its annotations will generate (same grid and ROI filter the tiler
  * uses, via {@link TilingUtilities#estimateTileCount}), multiplies by the modality's captures per
  * tile (PPM angles / channels), and applies a per-file wall-clock cost:
  * <ul>
@@ -185,9 +185,7 @@ public final class MultiSlideAcquisitionEstimator {
                     }
                 }
                 annCount++;
-                double wUm = a.getROI().getBoundsWidth() * px;
-                double hUm = a.getROI().getBoundsHeight() * px;
-                tiles += TilingUtilities.estimateTileCount(wUm, hUm, fov[0], fov[1], overlapPct);
+                tiles += TilingUtilities.estimateTileCount(a.getROI(), fov[0] / px, fov[1] / px, overlapPct, true);
             }
 
             long totalImages = tiles * captures;
@@ -0,0 +1,92 @@
+package qupath.ext.qpsc.utilities;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Incremental reader for an NDJSON file that another process is still
+ * appending to (the server's {@code tile_measurements.ndjson}).
+ *
+ * <p>Each {@link #readNew()} call picks up from the last consumed offset and
+ * returns only complete lines; a trailing partial line is left for the next
+ * call. The file may not exist yet, in which case nothing is returned.
+ *
+ * <p>Not thread-safe: each consumer owns its own tail and calls it from one
+ * thread at a time.
+ */
+class NdjsonTail {
+
+    private static final Logger logger = LoggerFactory.getLogger(NdjsonTail.class);
+
+    private final Path path;
+    private final com.google.gson.Gson gson = new com.google.gson.Gson();
+    private final java.lang.reflect.Type mapType =
+            new com.google.gson.reflect.TypeToken<Map<String, Object>>() {}.getType();
+
+    private long offset = 0L;
+
+    NdjsonTail(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Reads and parses every complete line appended since the previous call.
+     * Malformed lines are skipped.
+     *
+     * @return parsed entries in file order; empty if nothing new is complete
+     */
+    List<Map<String, Object>> readNew() throws IOException {
+        File file = path.toFile();
+        if (!file.exists() || file.length() <= offset) {
+            return List.of();
+        }
+
+        List<Map<String, Object>> entries = new ArrayList<>();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(offset);
+            long available = raf.length() - offset;
+            if (available <= 0) return List.of();
+
+            byte[] buf = new byte[(int) Math.min(available, Integer.MAX_VALUE)];
+            raf.readFully(buf);
+
+            // Find the last newline so we don't consume a partial trailing line.
+            int lastNewline = -1;
+            for (int i = buf.length - 1; i >= 0; i--) {
+                if (buf[i] == '\n') {
+                    lastNewline = i;
+                    break;
+                }
+            }
+            if (lastNewline < 0) {
+                // No complete line yet -- leave offset alone.
+                return List.of();
+            }
+
+            String block = new String(buf, 0, lastNewline, StandardCharsets.UTF_8);
+            offset += lastNewline + 1;
+
+            for (String line : block.split("\n")) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty()) continue;
+                try {
+                    Map<String, Object> entry = gson.fromJson(trimmed, mapType);
+                    if (entry != null) {
+                        entries.add(entry);
+                    }
+                } catch (Exception e) {
+                    logger.debug("Skipping malformed NDJSON line: {}", e.getMessage());
+                }
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,157 @@
+package qupath.ext.qpsc.utilities;
+
+import java.awt.image.BufferedImage;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk colour classification of RGB images into {@link BinaryMask}s.
+ *
+ * <p>The macro-image analysers used to call {@code getRGB(x, y)},
+ * {@code Color.RGBtoHSB} (which allocates a {@code float[]}) and
+ * {@code setRGB} once per pixel. Here the pixels are read once into a packed
+ * {@code int[]}, straight from the raster for the common sRGB layouts, and a
+ * {@link RgbPredicate} is evaluated over row bands in parallel. The HSB
+ * helpers reproduce {@code Color.RGBtoHSB} exactly without allocating, so
+ * predicates keep the thresholds they had.
+ *
+ * <p>A lookup table over quantised RGB was considered, but an exact 24-bit
+ * table costs more predicate evaluations to build than a macro image has
+ * pixels, and a quantised one would move pixels across the configured
+ * thresholds.
+ */
+public final class RgbPixelClassifier {
+
+    /** Images with fewer pixels are classified on the calling thread. */
+    private static final int PARALLEL_MIN_PIXELS = 1 << 18;
+
+    /** Rows per parallel band. */
+    private static final int BAND_ROWS = 64;
+
+    private RgbPixelClassifier() {}
+
+    /** Decides whether one pixel belongs to the mask. */
+    @FunctionalInterface
+    public interface RgbPredicate {
+        /**
+         * @param r Red, 0-255
+         * @param g Green, 0-255
+         * @param b Blue, 0-255
+         */
+        boolean test(int r, int g, int b);
+    }
+
+    /**
+     * Reads every pixel as {@code 0xRRGGBB} (alpha bits unspecified), row-major.
+     * Integer and byte interleaved sRGB images are copied from the raster in
+     * one call; other types go through {@code getRGB} one row at a time.
+     */
+    public static int[] readRgb(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int n = width * height;
+        switch (image.getType()) {
+            case BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB -> {
+                return (int[]) image.getRaster().getDataElements(0, 0, width, height, new int[n]);
+            }
+            case BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR -> {
+                // Data elements come in raster band order (R, G, B[, A]), whatever the memory layout
+                int bands = image.getRaster().getNumBands();
+                byte[] data = (byte[]) image.getRaster().getDataElements(0, 0, width, height, new byte[n * bands]);
+                int[] rgb = new int[n];
+                for (int i = 0, j = 0; i < n; i++, j += bands) {
+                    rgb[i] = ((data[j] & 0xFF) << 16) | ((data[j + 1] & 0xFF) << 8) | (data[j + 2] & 0xFF);
+                }
+                return rgb;
+            }
+            default -> {
+                int[] rgb = new int[n];
+                for (int y = 0; y < height; y++) {
+                    image.getRGB(0, y, width, 1, rgb, y * width, width);
+                }
+                return rgb;
+            }
+        }
+    }
+
+    /** Classifies every pixel of {@code image}; see {@link #classify(int[], int, int, RgbPredicate)}. */
+    public static BinaryMask classify(BufferedImage image, RgbPredicate predicate) {
+        return classify(readRgb(image), image.getWidth(), image.getHeight(), predicate);
+    }
+
+    /**
+     * Sets each mask pixel whose colour passes {@code predicate}. Large images
+     * are split into row bands classified in parallel, so the predicate must
+     * be stateless.
+     *
+     * @param rgb    Row-major {@code 0xRRGGBB} pixels, as from {@link #readRgb}
+     * @param width  Image width
+     * @param height Image height
+     */
+    public static BinaryMask classify(int[] rgb, int width, int height, RgbPredicate predicate) {
+        BinaryMask mask = new BinaryMask(width, height);
+        long[] words = mask.words();
+        int wordsPerRow = mask.wordsPerRow();
+        int bands = (height + BAND_ROWS - 1) / BAND_ROWS;
+        IntStream bandIndices = IntStream.range(0, bands);
+        if ((long) width * height >= PARALLEL_MIN_PIXELS && bands > 1) {
+            bandIndices = bandIndices.parallel();
+        }
+        bandIndices.forEach(band -> {
+            int y1 = Math.min(height, (band + 1) * BAND_ROWS);
+            for (int y = band * BAND_ROWS; y < y1; y++) {
+                int row = y * width;
+                int wordBase = y * wordsPerRow;
+                for (int x0 = 0; x0 < width; x0 += 64) {
+                    int x1 = Math.min(width, x0 + 64);
+                    long bits = 0;
+                    for (int x = x0; x < x1; x++) {
+                        int p = rgb[row + x];
+                        if (predicate.test((p >> 16) & 0xFF, (p >> 8) & 0xFF, p & 0xFF)) {
+                            bits |= 1L << (x - x0);
+                        }
+                    }
+                    words[wordBase + (x0 >>> 6)] = bits;
+                }
+            }
+        });
+        return mask;
+    }
+
+    /** Hue in {@code [0, 1)}, as {@code Color.RGBtoHSB(r, g, b, null)[0]}. */
+    public static float hue(int r, int g, int b) {
+        int cmax = Math.max(Math.max(r, g), b);
+        int cmin = Math.min(Math.min(r, g), b);
+        if (cmax == 0 || cmax == cmin) {
+            return 0;
+        }
+        float range = (float) (cmax - cmin);
+        float redc = ((float) (cmax - r)) / range;
+        float greenc = ((float) (cmax - g)) / range;
+        float bluec = ((float) (cmax - b)) / range;
+        float hue;
+        if (r == cmax) {
+            hue = bluec - greenc;
+        } else if (g == cmax) {
+            hue = 2.0f + redc - bluec;
+        } else {
+            hue = 4.0f + greenc - redc;
+        }
+        hue = hue / 6.0f;
+        if (hue < 0) {
+            hue = hue + 1.0f;
+        }
+        return hue;
+    }
+
+    /** Saturation in {@code [0, 1]}, as {@code Color.RGBtoHSB(r, g, b, null)[1]}. */
+    public static float saturation(int r, int g, int b) {
+        int cmax = Math.max(Math.max(r, g), b);
+        int cmin = Math.min(Math.min(r, g), b);
+        return cmax != 0 ? ((float) (cmax - cmin)) / ((float) cmax) : 0;
+    }
+
+    /** Brightness in {@code [0, 1]}, as {@code Color.RGBtoHSB(r, g, b, null)[2]}. */
+    public static float brightness(int r, int g, int b) {
+        return ((float) Math.max(Math.max(r, g), b)) / 255.0f;
+    }
+}
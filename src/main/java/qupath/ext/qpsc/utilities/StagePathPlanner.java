@@ -0,0 +1,463 @@
+package qupath.ext.qpsc.utilities;
+
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import qupath.ext.qpsc.preferences.QPPreferenceDialog;
+
+/**
+ * Orders stage positions so the stage spends as little time as possible moving
+ * between them.
+ *
+ * <p>Used for both the order annotations are acquired in and the order of tiles
+ * inside an irregular annotation. A fixed serpentine is ideal for a full
+ * rectangle, but once an annotation's mask skips most of a row the serpentine
+ * still sweeps the stage across the empty span and back; a greedy
+ * nearest-neighbor pass fixes the crossings but leaves long jumps at the end.
+ *
+ * <p>The plan is built in three steps, always keeping the first position first
+ * (the user-prioritized annotation, or the tile the acquisition starts on):
+ * <ol>
+ *   <li>a greedy nearest-neighbor seed under the {@link MotionModel} cost,</li>
+ *   <li>2-opt: reverse any stretch of the path whose reversal lowers the cost,</li>
+ *   <li>Or-opt: move runs of one to three positions to a cheaper place in the path,</li>
+ * </ol>
+ * repeating 2 and 3 until neither helps or the time budget runs out. The input
+ * order is returned unchanged if the plan does not beat it.
+ *
+ * <p>All coordinates are in microns, along the stage axes: the
+ * {@link MotionModel} charges X and Y separately, so its costs only land on the
+ * right axis when the positions are stage coordinates. Flipping an axis gives
+ * the same plan, but a swap or rotation does not. Positions in another frame,
+ * such as QuPath pixel coordinates scaled by the pixel size, should be planned
+ * with {@link MotionModel#axisSymmetric()}.
+ */
+public final class StagePathPlanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(StagePathPlanner.class);
+
+    /** Longest run of positions Or-opt tries to move. */
+    static final int OR_OPT_MAX_RUN = 3;
+
+    /** Plans above this size keep the greedy seed only; 2-opt is quadratic per pass. */
+    static final int MAX_REFINED_POSITIONS = 4000;
+
+    /** Wall-clock budget for refinement, after which the best plan so far is used. */
+    static final long REFINE_BUDGET_NANOS = 2_000_000_000L;
+
+    /** Improvements smaller than this (seconds) are treated as ties. */
+    private static final double EPSILON = 1e-9;
+
+    /** Moves shorter than this (microns) along an axis do not count as a direction on that axis. */
+    private static final double AXIS_DEADBAND_UM = 1.0;
+
+    /**
+     * Cost of stage moves, in seconds.
+     *
+     * <p>The X and Y axes move together, so a move takes as long as its slower
+     * axis. Each time an axis changes direction between one move and the next,
+     * its reversal penalty is added; this stands in for backlash take-up and the
+     * extra settling a reversal needs. Only the moves on either side of a
+     * position are compared, so a reversal separated by a move with no travel on
+     * that axis is not counted.
+     *
+     * @param xSpeedUmPerS Sustained X speed
+     * @param ySpeedUmPerS Sustained Y speed
+     * @param xReversalS   Penalty for reversing X
+     * @param yReversalS   Penalty for reversing Y
+     */
+    public record MotionModel(double xSpeedUmPerS, double ySpeedUmPerS, double xReversalS, double yReversalS) {
+
+        /** Used when the stage config has no {@code stage.motion} section. */
+        public static final MotionModel DEFAULT = new MotionModel(5000.0, 5000.0, 0.05, 0.05);
+
+        public MotionModel {
+            if (!(xSpeedUmPerS > 0) || !(ySpeedUmPerS > 0)) {
+                throw new IllegalArgumentException("Stage speeds must be positive");
+            }
+            xReversalS = Math.max(0.0, xReversalS);
+            yReversalS = Math.max(0.0, yReversalS);
+        }
+
+        /**
+         * The same model with both axes given the slower speed and the larger
+         * reversal penalty, for positions whose axes may not be the stage axes.
+         */
+        public MotionModel axisSymmetric() {
+            double speed = Math.min(xSpeedUmPerS, ySpeedUmPerS);
+            double reversal = Math.max(xReversalS, yReversalS);
+            return new MotionModel(speed, speed, reversal, reversal);
+        }
+
+        /** Time to move between two positions. */
+        public double travelSeconds(double[] from, double[] to) {
+            return Math.max(Math.abs(to[0] - from[0]) / xSpeedUmPerS, Math.abs(to[1] - from[1]) / ySpeedUmPerS);
+        }
+
+        /** Reversal penalty for passing through {@code via} on the way from {@code from} to {@code to}. */
+        public double turnSeconds(double[] from, double[] via, double[] to) {
+            double penalty = 0.0;
+            if (reverses(via[0] - from[0], to[0] - via[0])) {
+                penalty += xReversalS;
+            }
+            if (reverses(via[1] - from[1], to[1] - via[1])) {
+                penalty += yReversalS;
+            }
+            return penalty;
+        }
+
+        private static boolean reverses(double first, double second) {
+            return (first > AXIS_DEADBAND_UM && second < -AXIS_DEADBAND_UM)
+                    || (first < -AXIS_DEADBAND_UM && second > AXIS_DEADBAND_UM);
+        }
+
+        /**
+         * Reads the {@code stage.motion} section of a microscope config:
+         * {@code x_speed_um_per_s}, {@code y_speed_um_per_s}, {@code x_reversal_s}
+         * and {@code y_reversal_s}. Missing or invalid keys fall back to {@link #DEFAULT}.
+         */
+        public static MotionModel fromConfig(MicroscopeConfigManager mgr) {
+            if (mgr == null) {
+                return DEFAULT;
+            }
+            try {
+                return new MotionModel(
+                        valueOr(mgr.getDouble("stage", "motion", "x_speed_um_per_s"), DEFAULT.xSpeedUmPerS),
+                        valueOr(mgr.getDouble("stage", "motion", "y_speed_um_per_s"), DEFAULT.ySpeedUmPerS),
+                        valueOr(mgr.getDouble("stage", "motion", "x_reversal_s"), DEFAULT.xReversalS),
+                        valueOr(mgr.getDouble("stage", "motion", "y_reversal_s"), DEFAULT.yReversalS));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Invalid stage.motion settings ({}), using defaults", e.getMessage());
+                return DEFAULT;
+            }
+        }
+
+        /** {@link #fromConfig} for the microscope config selected in preferences. */
+        public static MotionModel fromCurrentConfig() {
+            try {
+                String configPath = QPPreferenceDialog.getMicroscopeConfigFileProperty();
+                if (configPath == null || configPath.isBlank()) {
+                    return DEFAULT;
+                }
+                return fromConfig(MicroscopeConfigManager.getInstance(configPath));
+            } catch (RuntimeException e) {
+                logger.debug("Stage motion settings unavailable, using defaults: {}", e.getMessage());
+                return DEFAULT;
+            }
+        }
+
+        private static double valueOr(Double value, double fallback) {
+            return value != null ? value : fallback;
+        }
+    }
+
+    private final double[][] points;
+    private final MotionModel model;
+    private final int[] order;
+    private final int n;
+
+    private StagePathPlanner(List<double[]> positions, MotionModel model) {
+        this.points = positions.toArray(new double[0][]);
+        this.model = model;
+        this.n = points.length;
+        this.order = new int[n];
+    }
+
+    /**
+     * Plans a visiting order for the given positions, keeping the first one first.
+     *
+     * @param positions Stage positions as {@code [x, y]} in microns
+     * @param model     Move cost model
+     * @return indices into {@code positions} in visiting order; the identity if
+     *         no cheaper order was found
+     */
+    public static int[] plan(List<double[]> positions, MotionModel model) {
+        StagePathPlanner planner = new StagePathPlanner(positions, model);
+        if (planner.n <= 2) {
+            return identity(planner.n);
+        }
+        return planner.run();
+    }
+
+    /** Total cost in seconds of visiting {@code positions} in the given order. */
+    public static double pathCost(List<double[]> positions, int[] order, MotionModel model) {
+        double total = 0.0;
+        for (int p = 1; p < order.length; p++) {
+            double[] prev = positions.get(order[p - 1]);
+            double[] cur = positions.get(order[p]);
+            total += model.travelSeconds(prev, cur);
+            if (p >= 2) {
+                total += model.turnSeconds(positions.get(order[p - 2]), prev, cur);
+            }
+        }
+        return total;
+    }
+
+    private int[] run() {
+        long start = System.nanoTime();
+        double inputCost = cost(identity(n));
+
+        greedySeed();
+        double seedCost = cost(order);
+        int twoOptMoves = 0;
+        int orOptMoves = 0;
+        if (n <= MAX_REFINED_POSITIONS) {
+            long deadline = start + REFINE_BUDGET_NANOS;
+            boolean improved = true;
+            while (improved && System.nanoTime() < deadline) {
+                int reversed = twoOptPass(deadline);
+                int moved = orOptPass(deadline);
+                twoOptMoves += reversed;
+                orOptMoves += moved;
+                improved = reversed + moved > 0;
+            }
+        }
+        double planCost = cost(order);
+
+        logger.debug(
+                "Planned {} positions in {} ms: input {}s, greedy {}s, refined {}s ({} 2-opt, {} Or-opt moves)",
+                n,
+                (System.nanoTime() - start) / 1_000_000,
+                String.format("%.2f", inputCost),
+                String.format("%.2f", seedCost),
+                String.format("%.2f", planCost),
+                twoOptMoves,
+                orOptMoves);
+        return planCost < inputCost - EPSILON ? order.clone() : identity(n);
+    }
+
+    private void greedySeed() {
+        boolean[] visited = new boolean[n];
+        order[0] = 0;
+        visited[0] = true;
+        for (int p = 1; p < n; p++) {
+            int prev = order[p - 1];
+            int best = -1;
+            double bestCost = Double.MAX_VALUE;
+            for (int candidate = 1; candidate < n; candidate++) {
+                if (visited[candidate]) {
+                    continue;
+                }
+                double c = model.travelSeconds(points[prev], points[candidate]);
+                if (p >= 2) {
+                    c += model.turnSeconds(points[order[p - 2]], points[prev], points[candidate]);
+                }
+                if (c < bestCost) {
+                    bestCost = c;
+                    best = candidate;
+                }
+            }
+            order[p] = best;
+            visited[best] = true;
+        }
+    }
+
+    // ---- Cost terms -------------------------------------------------------------------------
+
+    /** Maps a position in a candidate path to a point index. */
+    @FunctionalInterface
+    private interface PathView {
+        int at(int position);
+    }
+
+    /** Cost of the move into path position {@code p}, or 0 outside the path. */
+    private double edge(PathView path, int p) {
+        if (p < 1 || p >= n) {
+            return 0.0;
+        }
+        return model.travelSeconds(points[path.at(p - 1)], points[path.at(p)]);
+    }
+
+    /** Reversal penalty at path position {@code p}, or 0 at either end. */
+    private double turn(PathView path, int p) {
+        if (p < 1 || p >= n - 1) {
+            return 0.0;
+        }
+        return model.turnSeconds(points[path.at(p - 1)], points[path.at(p)], points[path.at(p + 1)]);
+    }
+
+    /**
+     * Sum of the moves into {@code edges} and the turns at {@code turns}, each
+     * position counted once even if listed twice.
+     */
+    private double local(PathView path, int[] edges, int[] turns) {
+        double total = 0.0;
+        for (int i = 0; i < edges.length; i++) {
+            if (firstOccurrence(edges, i)) {
+                total += edge(path, edges[i]);
+            }
+        }
+        for (int i = 0; i < turns.length; i++) {
+            if (firstOccurrence(turns, i)) {
+                total += turn(path, turns[i]);
+            }
+        }
+        return total;
+    }
+
+    private static boolean firstOccurrence(int[] values, int index) {
+        for (int j = 0; j < index; j++) {
+            if (values[j] == values[index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private double cost(int[] path) {
+        PathView view = i -> path[i];
+        double total = 0.0;
+        for (int p = 1; p < n; p++) {
+            total += edge(view, p) + turn(view, p);
+        }
+        return total;
+    }
+
+    // ---- 2-opt ------------------------------------------------------------------------------
+
+    /**
+     * Change in cost from reversing path positions {@code i..j}. Moves inside
+     * the reversed stretch keep their length and their turns (both moves at a
+     * position flip sign together), so only the two seam moves and the turns at
+     * the four positions around them change.
+     */
+    double twoOptDelta(int i, int j) {
+        PathView before = p -> order[p];
+        PathView after = p -> (p >= i && p <= j) ? order[i + j - p] : order[p];
+        int[] edges = {i, j + 1};
+        int[] turns = {i - 1, i, j, j + 1};
+        return local(after, edges, turns) - local(before, edges, turns);
+    }
+
+    private int twoOptPass(long deadline) {
+        int moves = 0;
+        for (int i = 1; i < n - 1; i++) {
+            if (System.nanoTime() > deadline) {
+                break;
+            }
+            for (int j = i + 1; j < n; j++) {
+                if (twoOptDelta(i, j) < -EPSILON) {
+                    reverse(i, j);
+                    moves++;
+                }
+            }
+        }
+        return moves;
+    }
+
+    private void reverse(int i, int j) {
+        while (i < j) {
+            int tmp = order[i];
+            order[i++] = order[j];
+            order[j--] = tmp;
+        }
+    }
+
+    // ---- Or-opt -----------------------------------------------------------------------------
+
+    /**
+     * Change in cost from moving the run at positions {@code s..e} to just after
+     * position {@code k} (outside the run). The run and the positions it jumps
+     * over keep their internal moves and turns; the three seam moves and the
+     * turns at the six positions beside them are compared.
+     */
+    double orOptDelta(int s, int e, int k) {
+        int len = e - s + 1;
+        PathView before = p -> order[p];
+        PathView after;
+        int[] edgesBefore;
+        int[] turnsBefore;
+        int[] edgesAfter;
+        int[] turnsAfter;
+        if (k > e) {
+            // [..s-1][e+1..k][s..e][k+1..]
+            after = p -> {
+                if (p < s || p > k) return order[p];
+                if (p <= k - len) return order[p + len];
+                return order[p - (k - len + 1) + s];
+            };
+            edgesBefore = new int[] {s, e + 1, k + 1};
+            turnsBefore = new int[] {s - 1, s, e, e + 1, k, k + 1};
+            edgesAfter = new int[] {s, k - len + 1, k + 1};
+            turnsAfter = new int[] {s - 1, k - len + 1, k, s, k - len, k + 1};
+        } else {
+            // [..k][s..e][k+1..s-1][e+1..]
+            after = p -> {
+                if (p <= k || p > e) return order[p];
+                if (p <= k + len) return order[p - (k + 1) + s];
+                return order[p - len];
+            };
+            edgesBefore = new int[] {k + 1, s, e + 1};
+            turnsBefore = new int[] {k, s, e, k + 1, s - 1, e + 1};
+            edgesAfter = new int[] {k + 1, k + len + 1, e + 1};
+            turnsAfter = new int[] {k, k + 1, k + len, k + len + 1, e, e + 1};
+        }
+        return local(after, edgesAfter, turnsAfter) - local(before, edgesBefore, turnsBefore);
+    }
+
+    private int orOptPass(long deadline) {
+        int moves = 0;
+        for (int len = 1; len <= OR_OPT_MAX_RUN; len++) {
+            for (int s = 1; s + len - 1 < n; s++) {
+                if (System.nanoTime() > deadline) {
+                    return moves;
+                }
+                int e = s + len - 1;
+                for (int k = 0; k < n; k++) {
+                    if (k >= s - 1 && k <= e) {
+                        continue;
+                    }
+                    if (orOptDelta(s, e, k) < -EPSILON) {
+                        moveRun(s, e, k);
+                        moves++;
+                        break;
+                    }
+                }
+            }
+        }
+        return moves;
+    }
+
+    private void moveRun(int s, int e, int k) {
+        int len = e - s + 1;
+        int[] run = new int[len];
+        System.arraycopy(order, s, run, 0, len);
+        if (k > e) {
+            System.arraycopy(order, e + 1, order, s, k - e);
+            System.arraycopy(run, 0, order, k - len + 1, len);
+        } else {
+            System.arraycopy(order, k + 1, order, k + 1 + len, s - k - 1);
+            System.arraycopy(run, 0, order, k + 1, len);
+        }
+    }
+
+    private static int[] identity(int n) {
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i;
+        }
+        return ids;
+    }
+
+    /** Test hook: a planner whose current path is {@code path}. */
+    static StagePathPlanner withPath(List<double[]> positions, MotionModel model, int[] path) {
+        StagePathPlanner planner = new StagePathPlanner(positions, model);
+        System.arraycopy(path, 0, planner.order, 0, path.length);
+        return planner;
+    }
+
+    /** Test hook: cost of the current path. */
+    double currentCost() {
+        return cost(order);
+    }
+
+    /** Test hook: applies a 2-opt reversal to the current path. */
+    void applyTwoOpt(int i, int j) {
+        reverse(i, j);
+    }
+
+    /** Test hook: applies an Or-opt move to the current path. */
+    void applyOrOpt(int s, int e, int k) {
+        moveRun(s, e, k);
+    }
+}
@@ -3,26 +3,37 @@ package qupath.ext.qpsc.utilities;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import qupath.ext.qpsc.model.StagePositionProvider;
+import qupath.ext.qpsc.model.StageState;
 
 /**
  * Centralized manager for stage position polling and event notification.
  *
- * <p>This singleton polls all stage axes (X, Y, Z, R) at a configurable interval
- * and fires property change events when positions change. UI components can
- * register as listeners to receive real-time position updates without each
- * component needing its own polling thread.
+ * <p>This singleton polls all stage axes (X, Y, Z, R) and fires property change
+ * events when positions change. UI components can register as listeners to
+ * receive real-time position updates without each component needing its own
+ * polling thread.
+ *
+ * <p>Each cycle reads every axis with a single batched stage-state query when
+ * the server supports it, falling back to one query per axis otherwise. With
+ * the batched query the poll rate adapts: fast while the stage is moving or
+ * its position changes, and for a short settle period afterwards, slow when
+ * idle. A busy server alone does not speed polling up, since it reports busy
+ * for a whole acquisition. The per-axis fallback keeps a fixed rate, because
+ * fast polling there would multiply the round trips per cycle.
  *
  * <p>Key features:
  * <ul>
  *   <li>Single source of truth for stage positions</li>
  *   <li>Reference counting for automatic start/stop of polling</li>
  *   <li>Tolerance-based change detection to avoid spurious updates</li>
+ *   <li>Adaptive poll rate driven by stage motion</li>
  *   <li>Thread-safe position caching</li>
  * </ul>
  *
@@ -56,8 +67,17 @@ public class StagePositionManager {
     /** Lock object for singleton initialization */
     private static final Object LOCK = new Object();
 
-    /** Polling interval in milliseconds */
-    private static final long POLL_INTERVAL_MS = 500;
+    /** Polling interval while the stage is moving, in milliseconds */
+    static final long FAST_POLL_INTERVAL_MS = 100;
+
+    /** Polling interval while the stage is idle, in milliseconds */
+    static final long IDLE_POLL_INTERVAL_MS = 1000;
+
+    /** Fixed polling interval for servers without the batched stage-state query, in milliseconds */
+    static final long PER_AXIS_POLL_INTERVAL_MS = 500;
+
+    /** Fast polls kept after motion stops, so the final position lands promptly */
+    static final int SETTLE_POLL_CYCLES = 5;
 
     /**
      * Position change tolerance in microns.
@@ -98,6 +118,15 @@ public class StagePositionManager {
     /** Provider for stage position queries (must be set before polling starts) */
     private volatile StagePositionProvider positionProvider;
 
+    /** Fast polls remaining before dropping back to the idle rate (poller thread only) */
+    private int fastCyclesRemaining = 0;
+
+    /** Motion state from the most recent poll */
+    private volatile boolean stageMoving = false;
+
+    /** Whether the most recent poll used the batched stage-state query */
+    private volatile boolean batchedPoll = false;
+
     /**
      * Private constructor for singleton pattern.
      */
@@ -178,8 +207,13 @@ public class StagePositionManager {
             return;
         }
 
-        logger.info("Starting stage position polling at {}ms interval", POLL_INTERVAL_MS);
+        logger.info(
+                "Starting stage position polling ({}ms moving, {}ms idle, {}ms per-axis)",
+                FAST_POLL_INTERVAL_MS,
+                IDLE_POLL_INTERVAL_MS,
+                PER_AXIS_POLL_INTERVAL_MS);
         pollingActive = true;
+        fastCyclesRemaining = 0;
 
         poller = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread t = new Thread(r, "StagePositionManager-Poller");
@@ -187,7 +221,41 @@ public class StagePositionManager {
             return t;
         });
 
-        poller.scheduleWithFixedDelay(this::pollPositions, 0, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        ScheduledExecutorService scheduler = poller;
+        scheduler.schedule(() -> pollCycle(scheduler), 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs one poll and schedules the next at a rate chosen from the motion
+     * state it observed.
+     */
+    private void pollCycle(ScheduledExecutorService scheduler) {
+        boolean moving = pollPositions();
+        boolean batched = batchedPoll;
+        if (!batched) {
+            fastCyclesRemaining = 0;
+        } else if (moving) {
+            fastCyclesRemaining = SETTLE_POLL_CYCLES;
+        } else if (fastCyclesRemaining > 0) {
+            fastCyclesRemaining--;
+        }
+        long delay = nextPollDelayMs(batched, moving, fastCyclesRemaining);
+        try {
+            scheduler.schedule(() -> pollCycle(scheduler), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Polling stopped while this cycle ran
+        }
+    }
+
+    /**
+     * Delay before the next poll. After a batched poll: fast while moving or
+     * settling, idle otherwise. After per-axis polls: the fixed per-axis rate.
+     */
+    static long nextPollDelayMs(boolean batched, boolean moving, int settleCyclesRemaining) {
+        if (!batched) {
+            return PER_AXIS_POLL_INTERVAL_MS;
+        }
+        return moving || settleCyclesRemaining > 0 ? FAST_POLL_INTERVAL_MS : IDLE_POLL_INTERVAL_MS;
     }
 
     /**
@@ -220,47 +288,90 @@ public class StagePositionManager {
     /**
      * Polls all stage positions and fires events for any that changed.
      * Called periodically by the polling thread.
+     *
+     * @return true if the stage is moving (reported by the server, or inferred
+     *         from a position change)
      */
-    private void pollPositions() {
+    private boolean pollPositions() {
+        batchedPoll = false;
         try {
             StagePositionProvider provider = this.positionProvider;
             if (provider == null || !provider.isConnected()) {
                 logger.trace("Position provider not available, skipping position poll");
-                return;
-            }
-
-            // Poll XY position
-            try {
-                double[] xy = provider.getStagePositionXY();
-                updatePosition(PROP_POS_X, posX, xy[0], v -> posX = v);
-                updatePosition(PROP_POS_Y, posY, xy[1], v -> posY = v);
-            } catch (Exception e) {
-                logger.trace("Failed to poll XY position: {}", e.getMessage());
+                return false;
             }
 
-            // Poll Z position
+            boolean moving;
+            StageState state = null;
             try {
-                double z = provider.getStagePositionZ();
-                updatePosition(PROP_POS_Z, posZ, z, v -> posZ = v);
+                state = provider.getStageState();
             } catch (Exception e) {
-                logger.trace("Failed to poll Z position: {}", e.getMessage());
+                logger.trace("Failed to poll stage state: {}", e.getMessage());
             }
-
-            // Poll R position (only if microscope has a rotation stage)
-            if (provider.hasRotationStage()) {
-                try {
-                    double r = provider.getStagePositionR();
-                    updatePosition(PROP_POS_R, posR, r, v -> posR = v);
-                } catch (Exception e) {
-                    logger.trace("Failed to poll R position: {}", e.getMessage());
+            if (state != null) {
+                boolean hadPositions = !Double.isNaN(posX) && !Double.isNaN(posZ);
+                boolean changed = updatePosition(PROP_POS_X, posX, state.x(), v -> posX = v);
+                changed |= updatePosition(PROP_POS_Y, posY, state.y(), v -> posY = v);
+                changed |= updatePosition(PROP_POS_Z, posZ, state.z(), v -> posZ = v);
+                if (state.hasRotation() && provider.hasRotationStage()) {
+                    changed |= updatePosition(PROP_POS_R, posR, state.r(), v -> posR = v);
                 }
+                // A change with no motion flag is a move that finished between polls. Busy alone
+                // is not motion: the server stays busy for a whole acquisition.
+                moving = state.isMoving() || (changed && hadPositions);
+                batchedPoll = true;
+            } else {
+                moving = pollEachAxis(provider);
             }
+            stageMoving = moving;
+            return moving;
 
         } catch (Exception e) {
             logger.debug("Error in position poll cycle: {}", e.getMessage());
+            return false;
         }
     }
 
+    /**
+     * Per-axis fallback for servers without the batched stage-state query.
+     *
+     * @return true if any axis moved since the previous poll
+     */
+    private boolean pollEachAxis(StagePositionProvider provider) {
+        boolean hadPositions = !Double.isNaN(posX) && !Double.isNaN(posZ);
+        boolean changed = false;
+
+        // Poll XY position
+        try {
+            double[] xy = provider.getStagePositionXY();
+            changed |= updatePosition(PROP_POS_X, posX, xy[0], v -> posX = v);
+            changed |= updatePosition(PROP_POS_Y, posY, xy[1], v -> posY = v);
+        } catch (Exception e) {
+            logger.trace("Failed to poll XY position: {}", e.getMessage());
+        }
+
+        // Poll Z position
+        try {
+            double z = provider.getStagePositionZ();
+            changed |= updatePosition(PROP_POS_Z, posZ, z, v -> posZ = v);
+        } catch (Exception e) {
+            logger.trace("Failed to poll Z position: {}", e.getMessage());
+        }
+
+        // Poll R position (only if microscope has a rotation stage)
+        if (provider.hasRotationStage()) {
+            try {
+                double r = provider.getStagePositionR();
+                changed |= updatePosition(PROP_POS_R, posR, r, v -> posR = v);
+            } catch (Exception e) {
+                logger.trace("Failed to poll R position: {}", e.getMessage());
+            }
+        }
+
+        // The first successful poll "changes" from NaN; that is not motion
+        return changed && hadPositions;
+    }
+
     /**
      * Updates a cached position and fires a property change event if changed.
      *
@@ -268,8 +379,9 @@ public class StagePositionManager {
      * @param oldValue The current cached value
      * @param newValue The new value from the hardware
      * @param setter A function to update the cached value
+     * @return true if the value changed (including the first value after NaN)
      */
-    private void updatePosition(
+    private boolean updatePosition(
             String propertyName, double oldValue, double newValue, java.util.function.DoubleConsumer setter) {
         // Check if value changed beyond tolerance
         boolean isInitialValue = Double.isNaN(oldValue);
@@ -280,6 +392,7 @@ public class StagePositionManager {
             pcs.firePropertyChange(propertyName, oldValue, newValue);
             logger.trace("Position {} changed: {} -> {}", propertyName, oldValue, newValue);
         }
+        return hasChanged;
     }
 
     /**
@@ -326,6 +439,16 @@ public class StagePositionManager {
         pollPositions();
     }
 
+    /**
+     * Whether the most recent poll saw the stage moving or its position change.
+     * With the batched stage-state query the poll rate is fast while this is true.
+     *
+     * @return true if the stage was moving at the last poll
+     */
+    public boolean isStageMoving() {
+        return stageMoving;
+    }
+
     /**
      * Checks if the position manager is currently polling.
      *
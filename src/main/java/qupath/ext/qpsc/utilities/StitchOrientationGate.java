@@ -0,0 +1,143 @@
+package qupath.ext.qpsc.utilities;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serialises access to the stitcher's process-wide flip flags so concurrent
+ * stitch jobs each see their own orientation.
+ *
+ * <p>The tiles-to-pyramid strategies read their axis flips from
+ * {@code volatile static} fields ({@code TileConfigurationTxtStrategy.flipStitchingX/Y},
+ * {@code MicroManagerMetadataStrategy.flipStitchingX/Y}). Setting them around
+ * each {@code StitchingWorkflow.run} call was only safe while stitches ran one
+ * at a time: a second job could overwrite the first job's flags, and the first
+ * job's {@code finally} reset them to false underneath the second.
+ *
+ * <p>Each job now carries its orientation and runs through {@link #run}. Jobs
+ * with the same flags share the gate and run in parallel; the flags are applied
+ * when the first of them enters and cleared when the last leaves. A job with
+ * different flags waits until the current group drains. Waiters are admitted
+ * in arrival order, so a steady stream of one orientation cannot starve
+ * another.
+ */
+public final class StitchOrientationGate {
+
+    private static final Logger logger = LoggerFactory.getLogger(StitchOrientationGate.class);
+
+    /** Writes the flip flags into the stitcher's static fields. */
+    @FunctionalInterface
+    public interface FlagApplier {
+        void apply(boolean flipX, boolean flipY);
+    }
+
+    /** A stitch run executed while the gate holds this job's orientation. */
+    @FunctionalInterface
+    public interface StitchCall<T> {
+        T run() throws Exception;
+    }
+
+    private final String name;
+    private final FlagApplier applier;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    /** Waiting jobs in arrival order; only the head may be admitted next. */
+    private final Deque<Object> queue = new ArrayDeque<>();
+
+    // Guarded by lock
+    private int activeCount = 0;
+    private int activeMode = -1;
+
+    /**
+     * @param name    Label for log messages (the strategy whose flags are guarded)
+     * @param applier Writes the flags; called with the job's flags when a group
+     *                starts and with {@code (false, false)} when it ends
+     */
+    public StitchOrientationGate(String name, FlagApplier applier) {
+        this.name = name;
+        this.applier = applier;
+    }
+
+    /**
+     * Runs one stitch with the given flip flags applied for its whole duration.
+     *
+     * @param flipX Stitcher X flip for this job
+     * @param flipY Stitcher Y flip for this job
+     * @param call  The stitch itself
+     * @return whatever {@code call} returns
+     * @throws Exception whatever {@code call} throws, or InterruptedException if
+     *                   interrupted while waiting for the gate
+     */
+    public <T> T run(boolean flipX, boolean flipY, StitchCall<T> call) throws Exception {
+        int mode = (flipX ? 1 : 0) | (flipY ? 2 : 0);
+        enter(mode, flipX, flipY);
+        try {
+            return call.run();
+        } finally {
+            leave();
+        }
+    }
+
+    private void enter(int mode, boolean flipX, boolean flipY) throws InterruptedException {
+        Object ticket = new Object();
+        lock.lock();
+        try {
+            queue.addLast(ticket);
+            try {
+                while (queue.peekFirst() != ticket || (activeCount > 0 && activeMode != mode)) {
+                    if (queue.peekFirst() == ticket) {
+                        logger.debug("{} stitch waiting for flip flags {} to drain", name, describe(activeMode));
+                    }
+                    changed.await();
+                }
+            } catch (InterruptedException e) {
+                queue.remove(ticket);
+                changed.signalAll();
+                throw e;
+            }
+            queue.removeFirst();
+            if (activeCount == 0) {
+                activeMode = mode;
+                applier.apply(flipX, flipY);
+                logger.debug("{} stitch flip flags set to {}", name, describe(mode));
+            }
+            activeCount++;
+            // The next waiter may share this orientation and can enter alongside
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void leave() {
+        lock.lock();
+        try {
+            activeCount--;
+            if (activeCount == 0) {
+                applier.apply(false, false);
+                activeMode = -1;
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Number of stitches currently running through the gate. */
+    int getActiveCount() {
+        lock.lock();
+        try {
+            return activeCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String describe(int mode) {
+        return "flipX=" + ((mode & 1) != 0) + ", flipY=" + ((mode & 2) != 0);
+    }
+}
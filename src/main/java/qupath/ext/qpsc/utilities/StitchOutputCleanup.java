@@ -0,0 +1,102 @@
+package qupath.ext.qpsc.utilities;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Removes the partial output of a failed stitch without touching anything
+ * else in the shared {@code <sample>/SlideImages} folder.
+ *
+ * <p>Every stitch job of a sample writes into the same folder, and the
+ * stitching scheduler runs several of them at once. A failed job therefore
+ * deletes only files that are both new since its own snapshot and named for
+ * this job: the configured output name, plus in batch mode one name per
+ * angle subfolder. Earlier outputs and outputs of concurrent siblings stay.
+ */
+public final class StitchOutputCleanup {
+
+    private static final Logger logger = LoggerFactory.getLogger(StitchOutputCleanup.class);
+
+    private static final String[] EXTENSIONS = {".ome.tif", ".ome.zarr"};
+
+    private StitchOutputCleanup() {}
+
+    /** Names of the OME-TIFF files and OME-ZARR folders in {@code outputDir}. */
+    public static Set<String> snapshot(File outputDir) {
+        Set<String> names = new HashSet<>();
+        File[] existing = outputDir.listFiles((dir, name) -> stem(name) != null);
+        if (existing != null) {
+            for (File f : existing) {
+                names.add(f.getName());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Output names, without extension, that a stitch job may write.
+     *
+     * @param outputName The stitcher's configured output file name
+     * @param tileFolder The job's tile folder; its subfolders name the outputs in batch mode
+     * @param batch      Whether the job stitches every subfolder (matching string ".")
+     */
+    public static Set<String> jobOutputStems(String outputName, File tileFolder, boolean batch) {
+        Set<String> stems = new HashSet<>();
+        stems.add(outputName);
+        if (batch) {
+            File[] subdirs = tileFolder.listFiles(File::isDirectory);
+            if (subdirs != null) {
+                for (File d : subdirs) {
+                    stems.add(d.getName());
+                }
+            }
+        }
+        return stems;
+    }
+
+    /**
+     * Deletes outputs in {@code outputDir} that are absent from
+     * {@code existingFiles} and whose name, less its extension, is in
+     * {@code ownStems}.
+     */
+    public static void deleteFailedOutput(File outputDir, Set<String> existingFiles, Set<String> ownStems) {
+        File[] candidates = outputDir.listFiles((dir, name) -> {
+            String stem = stem(name);
+            return stem != null && ownStems.contains(stem) && !existingFiles.contains(name);
+        });
+        if (candidates == null) {
+            return;
+        }
+        for (File f : candidates) {
+            logger.info("Cleaning up corrupt stitching output: {}", f.getName());
+            if (f.isDirectory()) {
+                // OME-ZARR is a directory tree
+                try (Stream<Path> tree = Files.walk(f.toPath())) {
+                    tree.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+                } catch (IOException e) {
+                    logger.warn("Failed to clean up ZARR directory {}: {}", f.getName(), e.getMessage());
+                }
+            } else if (!f.delete()) {
+                logger.warn("Failed to delete corrupt file: {}", f.getName());
+            }
+        }
+    }
+
+    /** File name without its OME extension, or null for other files. */
+    private static String stem(String name) {
+        for (String ext : EXTENSIONS) {
+            if (name.endsWith(ext)) {
+                return name.substring(0, name.length() - ext.length());
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,409 @@
+package qupath.ext.qpsc.utilities;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes a tile folder to a ZIP archive, compressing entries in parallel.
+ *
+ * <p>{@link java.util.zip.ZipOutputStream} deflates on the writing thread, so
+ * archiving a large acquisition kept one core busy for minutes while the rest
+ * sat idle. Here each file is read and compressed on a worker thread, and a
+ * single writer appends the finished entries to the archive in folder order.
+ * At most a few entries per worker are held in memory at once.
+ *
+ * <p>Each entry is stored or deflated based on a quick entropy sample of its
+ * bytes. Already-compressed TIFFs and noisy 16-bit tiles gain almost nothing
+ * from deflate, so they are stored as-is instead of burning CPU. Deflated
+ * entries use {@link Deflater#BEST_SPEED}, which gets most of the size
+ * reduction on image data for a fraction of the default level's time. An
+ * entry that would come out larger than its input is stored.
+ *
+ * <p>The archive is a standard ZIP with UTF-8 names and forward-slash paths.
+ * ZIP64 records are written when an entry, the archive or the entry count
+ * exceeds the classic ZIP limits, so multi-gigabyte tile sets open in any
+ * current unzip tool.
+ */
+public final class TileArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(TileArchiver.class);
+
+    /** Bits per byte above which a sample is treated as incompressible. */
+    static final double STORE_ENTROPY_BITS = 7.5;
+
+    /** Bytes sampled for the entropy estimate, spread over the file. */
+    static final int ENTROPY_SAMPLE_BYTES = 64 * 1024;
+
+    /** Number of evenly spaced chunks the entropy sample is taken from. */
+    private static final int ENTROPY_SAMPLE_CHUNKS = 8;
+
+    /** Compressed entries queued for the writer, per worker thread. */
+    private static final int ENTRIES_IN_FLIGHT_PER_THREAD = 2;
+
+    /**
+     * Outcome of archiving one folder.
+     *
+     * @param entries     Files written to the archive
+     * @param stored      Entries stored uncompressed
+     * @param inputBytes  Total size of the archived files
+     * @param outputBytes Size of the archive
+     */
+    public record Result(int entries, int stored, long inputBytes, long outputBytes) {}
+
+    /** One entry, compressed and ready to be written. */
+    record Entry(String name, byte[] data, int dataLength, boolean deflated, long size, long crc, long modified) {}
+
+    private TileArchiver() {}
+
+    /**
+     * Default worker count: all cores but one, capped so a NAS target is not
+     * flooded with more data than it can take.
+     */
+    public static int defaultThreads() {
+        return Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * Archives every file under {@code sourceDir} into {@code zipPath}, keeping
+     * paths relative to {@code sourceDir}.
+     *
+     * @param sourceDir Folder to archive
+     * @param zipPath   Archive to create; overwritten if it exists
+     * @param threads   Worker threads for reading and compressing
+     * @return what was written
+     * @throws IOException if any file cannot be read or the archive cannot be
+     *                     written; the archive is incomplete in that case
+     */
+    public static Result archive(Path sourceDir, Path zipPath, int threads) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(sourceDir)) {
+            files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        return archive(sourceDir, files, zipPath, threads, false);
+    }
+
+    static Result archive(Path sourceDir, List<Path> files, Path zipPath, int threads, boolean forceZip64)
+            throws IOException {
+        int workers = Math.max(1, threads);
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "tile-archiver");
+            t.setDaemon(true);
+            return t;
+        });
+        int stored = 0;
+        long inputBytes = 0;
+        try (ZipWriter writer = new ZipWriter(Files.newOutputStream(zipPath), forceZip64)) {
+            Deque<Future<Entry>> inFlight = new ArrayDeque<>();
+            int window = workers * ENTRIES_IN_FLIGHT_PER_THREAD;
+            for (Path file : files) {
+                String name = sourceDir.relativize(file).toString().replace('\\', '/');
+                inFlight.addLast(pool.submit(() -> compress(file, name)));
+                if (inFlight.size() >= window) {
+                    Entry entry = await(inFlight.removeFirst());
+                    writer.write(entry);
+                    stored += entry.deflated() ? 0 : 1;
+                    inputBytes += entry.size();
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                Entry entry = await(inFlight.removeFirst());
+                writer.write(entry);
+                stored += entry.deflated() ? 0 : 1;
+                inputBytes += entry.size();
+            }
+            writer.finish();
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Result(files.size(), stored, inputBytes, Files.size(zipPath));
+    }
+
+    private static Entry await(Future<Entry> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while archiving tiles", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException io ? io : new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    /** Reads one file and compresses it unless the sample says it will not pay off. */
+    static Entry compress(Path file, String name) throws IOException {
+        byte[] data = Files.readAllBytes(file);
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        CRC32 crc = new CRC32();
+        crc.update(data);
+
+        if (data.length > 0 && sampleEntropy(data) < STORE_ENTROPY_BITS) {
+            byte[] deflated = new byte[data.length];
+            int length = deflate(data, deflated);
+            if (length >= 0) {
+                return new Entry(name, deflated, length, true, data.length, crc.getValue(), modified);
+            }
+        }
+        return new Entry(name, data, data.length, false, data.length, crc.getValue(), modified);
+    }
+
+    /**
+     * Raw-deflates {@code data} into {@code out} (sized like the input).
+     *
+     * @return the deflated length, or -1 as soon as the output would not be
+     *         smaller than the input
+     */
+    private static int deflate(byte[] data, byte[] out) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length >= out.length) {
+                    return -1;
+                }
+                length += deflater.deflate(out, length, out.length - length);
+            }
+            return length < data.length ? length : -1;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Shannon entropy in bits per byte of up to {@link #ENTROPY_SAMPLE_BYTES}
+     * taken in evenly spaced chunks, so a file's header does not dominate.
+     */
+    static double sampleEntropy(byte[] data) {
+        int[] counts = new int[256];
+        int sampled;
+        if (data.length <= ENTROPY_SAMPLE_BYTES) {
+            for (byte b : data) {
+                counts[b & 0xFF]++;
+            }
+            sampled = data.length;
+        } else {
+            int chunk = ENTROPY_SAMPLE_BYTES / ENTROPY_SAMPLE_CHUNKS;
+            long stride = (data.length - chunk) / (ENTROPY_SAMPLE_CHUNKS - 1);
+            for (int c = 0; c < ENTROPY_SAMPLE_CHUNKS; c++) {
+                int start = (int) (c * stride);
+                for (int i = start; i < start + chunk; i++) {
+                    counts[data[i] & 0xFF]++;
+                }
+            }
+            sampled = chunk * ENTROPY_SAMPLE_CHUNKS;
+        }
+        if (sampled == 0) {
+            return 0.0;
+        }
+        double entropy = 0.0;
+        for (int count : counts) {
+            if (count > 0) {
+                double p = (double) count / sampled;
+                entropy -= p * (Math.log(p) / Math.log(2));
+            }
+        }
+        return entropy;
+    }
+
+    /**
+     * Minimal sequential ZIP writer for entries whose data, sizes and CRC are
+     * already known, so local headers carry the real sizes and no data
+     * descriptors are needed.
+     */
+    private static final class ZipWriter implements AutoCloseable {
+
+        private static final int LOCAL_HEADER_SIG = 0x04034b50;
+        private static final int CENTRAL_HEADER_SIG = 0x02014b50;
+        private static final int ZIP64_END_SIG = 0x06064b50;
+        private static final int ZIP64_LOCATOR_SIG = 0x07064b50;
+        private static final int END_SIG = 0x06054b50;
+        private static final int VERSION_DEFAULT = 20;
+        private static final int VERSION_ZIP64 = 45;
+        private static final int FLAG_UTF8 = 0x0800;
+        private static final int METHOD_STORED = 0;
+        private static final int METHOD_DEFLATED = 8;
+        private static final long MAX_32 = 0xFFFFFFFFL;
+        private static final int MAX_16 = 0xFFFF;
+
+        private record Written(Entry entry, byte[] name, long offset, long compressedSize) {}
+
+        private final OutputStream out;
+        private final boolean forceZip64;
+        private final List<Written> written = new ArrayList<>();
+        private final ByteArrayOutputStream header = new ByteArrayOutputStream(256);
+        private long position = 0;
+        private boolean finished = false;
+
+        ZipWriter(OutputStream out, boolean forceZip64) {
+            this.out = new BufferedOutputStream(out, 1 << 20);
+            this.forceZip64 = forceZip64;
+        }
+
+        void write(Entry entry) throws IOException {
+            byte[] name = entry.name().getBytes(StandardCharsets.UTF_8);
+            long compressedSize = entry.dataLength();
+            boolean zip64 = forceZip64 || entry.size() >= MAX_32 || compressedSize >= MAX_32;
+            int[] dosTime = dosDateTime(entry.modified());
+
+            header.reset();
+            int32(LOCAL_HEADER_SIG);
+            int16(zip64 ? VERSION_ZIP64 : VERSION_DEFAULT);
+            int16(FLAG_UTF8);
+            int16(entry.deflated() ? METHOD_DEFLATED : METHOD_STORED);
+            int16(dosTime[0]);
+            int16(dosTime[1]);
+            int32((int) entry.crc());
+            int32(zip64 ? -1 : (int) compressedSize);
+            int32(zip64 ? -1 : (int) entry.size());
+            int16(name.length);
+            int16(zip64 ? 20 : 0);
+            header.write(name);
+            if (zip64) {
+                int16(0x0001);
+                int16(16);
+                int64(entry.size());
+                int64(compressedSize);
+            }
+            written.add(new Written(entry, name, position, compressedSize));
+            emit(header);
+            out.write(entry.data(), 0, entry.dataLength());
+            position += entry.dataLength();
+        }
+
+        void finish() throws IOException {
+            long centralStart = position;
+            for (Written w : written) {
+                Entry entry = w.entry();
+                boolean sizes64 = forceZip64 || entry.size() >= MAX_32 || w.compressedSize() >= MAX_32;
+                boolean offset64 = forceZip64 || w.offset() >= MAX_32;
+                int extraLength = (sizes64 ? 16 : 0) + (offset64 ? 8 : 0);
+                int[] dosTime = dosDateTime(entry.modified());
+
+                header.reset();
+                int32(CENTRAL_HEADER_SIG);
+                int16(VERSION_ZIP64);
+                int16(sizes64 || offset64 ? VERSION_ZIP64 : VERSION_DEFAULT);
+                int16(FLAG_UTF8);
+                int16(entry.deflated() ? METHOD_DEFLATED : METHOD_STORED);
+                int16(dosTime[0]);
+                int16(dosTime[1]);
+                int32((int) entry.crc());
+                int32(sizes64 ? -1 : (int) w.compressedSize());
+                int32(sizes64 ? -1 : (int) entry.size());
+                int16(w.name().length);
+                int16(extraLength > 0 ? extraLength + 4 : 0);
+                int16(0); // comment length
+                int16(0); // disk number start
+                int16(0); // internal attributes
+                int32(0); // external attributes
+                int32(offset64 ? -1 : (int) w.offset());
+                header.write(w.name());
+                if (extraLength > 0) {
+                    int16(0x0001);
+                    int16(extraLength);
+                    if (sizes64) {
+                        int64(entry.size());
+                        int64(w.compressedSize());
+                    }
+                    if (offset64) {
+                        int64(w.offset());
+                    }
+                }
+                emit(header);
+            }
+            long centralSize = position - centralStart;
+            long count = written.size();
+
+            header.reset();
+            if (forceZip64 || count >= MAX_16 || centralSize >= MAX_32 || centralStart >= MAX_32) {
+                long zip64EndOffset = position;
+                int32(ZIP64_END_SIG);
+                int64(44); // size of the remaining record
+                int16(VERSION_ZIP64);
+                int16(VERSION_ZIP64);
+                int32(0); // this disk
+                int32(0); // disk with the central directory
+                int64(count);
+                int64(count);
+                int64(centralSize);
+                int64(centralStart);
+                int32(ZIP64_LOCATOR_SIG);
+                int32(0);
+                int64(zip64EndOffset);
+                int32(1); // total disks
+            }
+            int32(END_SIG);
+            int16(0);
+            int16(0);
+            int16((int) Math.min(count, MAX_16));
+            int16((int) Math.min(count, MAX_16));
+            int32((int) Math.min(centralSize, MAX_32));
+            int32((int) Math.min(centralStart, MAX_32));
+            int16(0); // comment length
+            emit(header);
+            finished = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!finished) {
+                logger.debug("Closing unfinished tile archive after {} entries", written.size());
+            }
+            out.close();
+        }
+
+        private void emit(ByteArrayOutputStream bytes) throws IOException {
+            bytes.writeTo(out);
+            position += bytes.size();
+        }
+
+        private void int16(int v) {
+            header.write(v & 0xFF);
+            header.write((v >>> 8) & 0xFF);
+        }
+
+        private void int32(int v) {
+            int16(v & 0xFFFF);
+            int16((v >>> 16) & 0xFFFF);
+        }
+
+        private void int64(long v) {
+            int32((int) v);
+            int32((int) (v >>> 32));
+        }
+
+        /** MS-DOS {time, date} for the ZIP headers, clamped to the format's 1980 epoch. */
+        private static int[] dosDateTime(long millis) {
+            LocalDateTime t = LocalDateTime.ofInstant(java.time.Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+            if (t.getYear() < 1980) {
+                return new int[] {0, (1 << 5) | 1};
+            }
+            int time = (t.getHour() << 11) | (t.getMinute() << 5) | (t.getSecond() / 2);
+            int date = ((t.getYear() - 1980) << 9) | (t.getMonthValue() << 5) | t.getDayOfMonth();
+            return new int[] {time, date};
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package qupath.ext.qpsc.utilities;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * Finds which cells of a tile grid touch a region, one grid row at a time.
+ *
+ * <p>The tiler used to build a rectangle per grid cell and test it against the
+ * full annotation geometry, so every cell paid for every vertex. For a
+ * whole-slide annotation with thousands of vertices tiled at high
+ * magnification that is millions of cells times thousands of vertices, and
+ * the tiling dialog froze for seconds.
+ *
+ * <p>Here each row is treated as a horizontal band the height of a tile. The
+ * x-extent of the region inside the band is the union of
+ * <ul>
+ *   <li>every outline edge clipped to the band, and</li>
+ *   <li>the inside spans of each polygon along the band's top and bottom lines.</li>
+ * </ul>
+ * Any point of the region inside the band either reaches an edge moving
+ * straight down to the band's bottom line, or reaches that line while still
+ * inside, so nothing is missed. A cell touches the region exactly when its
+ * x-range overlaps one of these intervals, which is the same test as
+ * {@link Geometry#intersects} on the cell rectangle (touching counts). Edges
+ * are bucketed by the rows their y-range overlaps, so each row only looks at
+ * the edges that cross it.
+ *
+ * <p>Used by the tiler and by the tile-count estimates, so the estimate is the
+ * number of tiles the tiler actually generates.
+ */
+public final class TileGridCoverage {
+
+    private TileGridCoverage() {}
+
+    /**
+     * A tile grid: cell {@code (row, col)} is the frame-sized rectangle at
+     * {@code (startX + col * xStep, startY + row * yStep)}.
+     *
+     * @param startX      Left edge of the first column
+     * @param startY      Top edge of the first row
+     * @param xStep       Column pitch (frame width minus overlap)
+     * @param yStep       Row pitch (frame height minus overlap)
+     * @param frameWidth  Width of one tile
+     * @param frameHeight Height of one tile
+     * @param nCols       Number of columns
+     * @param nRows       Number of rows
+     */
+    public record Grid(
+            double startX,
+            double startY,
+            double xStep,
+            double yStep,
+            double frameWidth,
+            double frameHeight,
+            int nCols,
+            int nRows) {
+
+        /**
+         * The grid the tiler lays over a region: enough columns and rows to
+         * cover it at the given overlap, plus one more when the region is an
+         * exact multiple of the step so the far edge is covered.
+         *
+         * @throws IllegalArgumentException if the overlap leaves no step between tiles
+         */
+        public static Grid covering(
+                double x,
+                double y,
+                double width,
+                double height,
+                double frameWidth,
+                double frameHeight,
+                double overlapPercent) {
+            double overlapFraction = overlapPercent / 100.0;
+            double xStep = frameWidth * (1 - overlapFraction);
+            double yStep = frameHeight * (1 - overlapFraction);
+            if (!(xStep > 0) || !(yStep > 0)) {
+                throw new IllegalArgumentException(String.format(
+                        "Tile step must be positive (frame %.1f x %.1f, overlap %.1f%%)",
+                        frameWidth, frameHeight, overlapPercent));
+            }
+            int nCols = (int) Math.ceil(width / xStep);
+            int nRows = (int) Math.ceil(height / yStep);
+            // If the division is exact, we still need one more tile to cover the far edge
+            if (width % xStep == 0) nCols++;
+            if (height % yStep == 0) nRows++;
+            return new Grid(x, y, xStep, yStep, frameWidth, frameHeight, nCols, nRows);
+        }
+
+        /** Left edge of column {@code col}. */
+        public double cellX(int col) {
+            return startX + col * xStep;
+        }
+
+        /** Top edge of row {@code row}. */
+        public double cellY(int row) {
+            return startY + row * yStep;
+        }
+
+        /** Total number of cells. */
+        public long cellCount() {
+            return (long) nCols * nRows;
+        }
+    }
+
+    /**
+     * The cells of {@code grid} that touch {@code geometry}.
+     *
+     * @return one {@link BitSet} of column indices per row
+     */
+    public static BitSet[] coveredCells(Geometry geometry, Grid grid) {
+        return coveredCells(Outline.of(geometry), grid);
+    }
+
+    /** Number of cells of {@code grid} that touch {@code geometry}. */
+    public static long countCoveredCells(Geometry geometry, Grid grid) {
+        long count = 0;
+        for (BitSet row : coveredCells(geometry, grid)) {
+            count += row.cardinality();
+        }
+        return count;
+    }
+
+    /**
+     * Outline edges of a region. Edges of the same polygon (shell and holes)
+     * share a polygon id, used for even-odd spans; open lines and points have
+     * id -1 and only contribute their clipped extent.
+     */
+    static final class Outline {
+        private double[] coords = new double[64]; // x0, y0, x1, y1 per edge
+        private int[] polygonIds = new int[16];
+        private int size;
+        private int polygons;
+
+        static Outline of(Geometry geometry) {
+            Outline outline = new Outline();
+            outline.add(geometry);
+            return outline;
+        }
+
+        private void add(Geometry geometry) {
+            if (geometry == null || geometry.isEmpty()) {
+                return;
+            }
+            if (geometry instanceof Polygon polygon) {
+                int id = newPolygon();
+                addPath(polygon.getExteriorRing().getCoordinates(), id);
+                for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+                    addPath(polygon.getInteriorRingN(i).getCoordinates(), id);
+                }
+            } else if (geometry instanceof LineString line) {
+                addPath(line.getCoordinates(), -1);
+            } else if (geometry instanceof Point point) {
+                addEdge(point.getX(), point.getY(), point.getX(), point.getY(), -1);
+            } else {
+                for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                    add(geometry.getGeometryN(i));
+                }
+            }
+        }
+
+        private void addPath(Coordinate[] path, int polygonId) {
+            for (int i = 1; i < path.length; i++) {
+                addEdge(path[i - 1].x, path[i - 1].y, path[i].x, path[i].y, polygonId);
+            }
+        }
+
+        /** Starts a new polygon; returns its id. */
+        int newPolygon() {
+            return polygons++;
+        }
+
+        /** Adds a closed ring given as parallel coordinate arrays. */
+        void addRing(double[] xs, double[] ys, int polygonId) {
+            for (int i = 0; i < xs.length; i++) {
+                int j = (i + 1) % xs.length;
+                addEdge(xs[i], ys[i], xs[j], ys[j], polygonId);
+            }
+        }
+
+        void addEdge(double x0, double y0, double x1, double y1, int polygonId) {
+            if (size == polygonIds.length) {
+                polygonIds = Arrays.copyOf(polygonIds, size * 2);
+                coords = Arrays.copyOf(coords, size * 8);
+            }
+            int c = size * 4;
+            coords[c] = x0;
+            coords[c + 1] = y0;
+            coords[c + 2] = x1;
+            coords[c + 3] = y1;
+            polygonIds[size++] = polygonId;
+        }
+
+        double minY(int edge) {
+            return Math.min(coords[edge * 4 + 1], coords[edge * 4 + 3]);
+        }
+
+        double maxY(int edge) {
+            return Math.max(coords[edge * 4 + 1], coords[edge * 4 + 3]);
+        }
+    }
+
+    static BitSet[] coveredCells(Outline outline, Grid grid) {
+        int nRows = grid.nRows();
+        BitSet[] covered = new BitSet[nRows];
+        for (int r = 0; r < nRows; r++) {
+            covered[r] = new BitSet(grid.nCols());
+        }
+        if (outline.size == 0 || nRows == 0 || grid.nCols() == 0) {
+            return covered;
+        }
+
+        int[][] rowEdges = bucketEdgesByRow(outline, grid);
+        Intervals intervals = new Intervals();
+        double[] crossings = new double[16];
+        for (int r = 0; r < nRows; r++) {
+            int[] edges = rowEdges[r];
+            if (edges.length == 0) {
+                continue;
+            }
+            double bandTop = grid.cellY(r);
+            double bandBottom = bandTop + grid.frameHeight();
+            intervals.clear();
+
+            for (int e : edges) {
+                clipToBand(outline, e, bandTop, bandBottom, intervals);
+            }
+            for (double scanY : new double[] {bandTop, bandBottom}) {
+                crossings = addInsideSpans(outline, edges, scanY, intervals, crossings);
+            }
+            markColumns(intervals, grid, covered[r]);
+        }
+        return covered;
+    }
+
+    /** For each row, the edges whose y-range overlaps the row's band. */
+    private static int[][] bucketEdgesByRow(Outline outline, Grid grid) {
+        int nRows = grid.nRows();
+        int[] counts = new int[nRows];
+        int[] firstRow = new int[outline.size];
+        int[] lastRow = new int[outline.size];
+        for (int e = 0; e < outline.size; e++) {
+            // Band r is [startY + r*yStep, startY + r*yStep + frameHeight]
+            double lo = Math.ceil((outline.minY(e) - grid.frameHeight() - grid.startY()) / grid.yStep());
+            double hi = Math.floor((outline.maxY(e) - grid.startY()) / grid.yStep());
+            firstRow[e] = (int) Math.max(0, lo);
+            lastRow[e] = (int) Math.min(nRows - 1, hi);
+            for (int r = firstRow[e]; r <= lastRow[e]; r++) {
+                counts[r]++;
+            }
+        }
+        int[][] rows = new int[nRows][];
+        for (int r = 0; r < nRows; r++) {
+            rows[r] = new int[counts[r]];
+            counts[r] = 0;
+        }
+        for (int e = 0; e < outline.size; e++) {
+            for (int r = firstRow[e]; r <= lastRow[e]; r++) {
+                rows[r][counts[r]++] = e;
+            }
+        }
+        return rows;
+    }
+
+    /** Adds the x-extent of edge {@code e} clipped to the band, if it reaches it. */
+    private static void clipToBand(Outline outline, int e, double top, double bottom, Intervals out) {
+        int c = e * 4;
+        double x0 = outline.coords[c];
+        double y0 = outline.coords[c + 1];
+        double x1 = outline.coords[c + 2];
+        double y1 = outline.coords[c + 3];
+        double lo = Math.max(Math.min(y0, y1), top);
+        double hi = Math.min(Math.max(y0, y1), bottom);
+        if (lo > hi) {
+            return;
+        }
+        if (y0 == y1) {
+            out.add(Math.min(x0, x1), Math.max(x0, x1));
+            return;
+        }
+        double xa = x0 + (x1 - x0) * (lo - y0) / (y1 - y0);
+        double xb = x0 + (x1 - x0) * (hi - y0) / (y1 - y0);
+        out.add(Math.min(xa, xb), Math.max(xa, xb));
+    }
+
+    /**
+     * Adds the even-odd inside spans of each polygon along the horizontal line
+     * {@code y}. Returns the (possibly grown) crossing buffer.
+     */
+    private static double[] addInsideSpans(
+            Outline outline, int[] edges, double y, Intervals out, double[] crossings) {
+        // Edges are grouped by polygon id in insertion order, so one pass per polygon suffices
+        int i = 0;
+        while (i < edges.length) {
+            int polygonId = outline.polygonIds[edges[i]];
+            int n = 0;
+            int j = i;
+            for (; j < edges.length && outline.polygonIds[edges[j]] == polygonId; j++) {
+                if (polygonId < 0) {
+                    continue;
+                }
+                int c = edges[j] * 4;
+                double y0 = outline.coords[c + 1];
+                double y1 = outline.coords[c + 3];
+                // Half-open rule so a vertex on the line is counted once
+                if ((y0 <= y && y < y1) || (y1 <= y && y < y0)) {
+                    double x0 = outline.coords[c];
+                    double x1 = outline.coords[c + 2];
+                    if (n == crossings.length) {
+                        crossings = Arrays.copyOf(crossings, n * 2);
+                    }
+                    crossings[n++] = x0 + (x1 - x0) * (y - y0) / (y1 - y0);
+                }
+            }
+            if (n >= 2) {
+                Arrays.sort(crossings, 0, n);
+                for (int k = 0; k + 1 < n; k += 2) {
+                    out.add(crossings[k], crossings[k + 1]);
+                }
+            }
+            i = j;
+        }
+        return crossings;
+    }
+
+    /** Sets the columns whose x-range overlaps any interval. */
+    private static void markColumns(Intervals intervals, Grid grid, BitSet row) {
+        for (int k = 0; k < intervals.size; k++) {
+            double a = intervals.lo[k];
+            double b = intervals.hi[k];
+            // Column c spans [startX + c*xStep, startX + c*xStep + frameWidth]
+            double first = Math.ceil((a - grid.frameWidth() - grid.startX()) / grid.xStep());
+            double last = Math.floor((b - grid.startX()) / grid.xStep());
+            int from = (int) Math.max(0, first);
+            int to = (int) Math.min(grid.nCols() - 1, last);
+            if (from <= to) {
+                row.set(from, to + 1);
+            }
+        }
+    }
+
+    /** Growable list of [lo, hi] intervals, reused across rows. */
+    private static final class Intervals {
+        double[] lo = new double[32];
+        double[] hi = new double[32];
+        int size;
+
+        void clear() {
+            size = 0;
+        }
+
+        void add(double a, double b) {
+            if (size == lo.length) {
+                lo = Arrays.copyOf(lo, size * 2);
+                hi = Arrays.copyOf(hi, size * 2);
+            }
+            lo[size] = a;
+            hi[size++] = b;
+        }
+    }
+}
@@ -0,0 +1,506 @@
+package qupath.ext.qpsc.utilities;
+
+import java.awt.geom.AffineTransform;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Formatter;
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The tiles of one acquisition region, held as columns: tile index, QuPath
+ * pixel centroid, stage centroid, focus Z and flag bits.
+ *
+ * <p>The tiler writes {@code TileConfiguration_QP.txt} (pixels) and
+ * {@code TileConfiguration.txt} (pixels, rewritten to stage microns by
+ * {@link TransformationFunctions#transformTileConfiguration}). Every later
+ * reader used to re-parse those text files with its own regex. The layout is
+ * now also saved as a small binary sidecar ({@value #SIDECAR_NAME}) next to
+ * them. {@link #load} reads the sidecar when it is at least as new as the text
+ * file it stands in for, and falls back to parsing the text otherwise, for
+ * example in folders from older versions or after something else rewrote the
+ * text. The text files are still written in the usual format, because the
+ * stitcher and the microscope server read them.
+ *
+ * <h2>Sidecar format</h2>
+ * Little-endian:
+ * <pre>
+ *   int    magic 'QPTL', int version, int count, int contents (HAS_* bits)
+ *   int[]  index
+ *   double[] pixelX, pixelY      if HAS_PIXEL
+ *   double[] stageX, stageY      if HAS_STAGE
+ *   double[] z                   (NaN where unknown)
+ *   byte[] flags
+ *   labels                       if HAS_LABELS: per tile, short length + UTF-8 bytes
+ * </pre>
+ * Labels are only stored when a tile is not named {@code <index>.tif}.
+ */
+public final class TileLayout {
+
+    private static final Logger logger = LoggerFactory.getLogger(TileLayout.class);
+
+    /** Text configuration the acquisition and stitcher use (stage microns once transformed). */
+    public static final String STAGE_CONFIG = "TileConfiguration.txt";
+
+    /** Text configuration in QuPath full-resolution pixels. */
+    public static final String PIXEL_CONFIG = "TileConfiguration_QP.txt";
+
+    /** Binary sidecar holding both coordinate sets. */
+    public static final String SIDECAR_NAME = "TileConfiguration.tiles";
+
+    private static final int MAGIC = 0x4C545051; // "QPTL" little-endian
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int HAS_PIXEL = 1;
+    private static final int HAS_STAGE = 2;
+    private static final int HAS_LABELS = 4;
+
+    /** Coordinate space of a column pair, and the text file that holds it. */
+    public enum Space {
+        PIXEL(PIXEL_CONFIG),
+        STAGE(STAGE_CONFIG);
+
+        private final String configName;
+
+        Space(String configName) {
+            this.configName = configName;
+        }
+
+        /** The text configuration file for this space. */
+        public String configName() {
+            return configName;
+        }
+
+        /** The space a text configuration file is read into, by its name. */
+        public static Space forConfigFile(Path file) {
+            return PIXEL_CONFIG.equals(file.getFileName().toString()) ? PIXEL : STAGE;
+        }
+    }
+
+    private final int count;
+    private final int[] index;
+    private final String[] labels; // null when every tile is "<index>.tif"
+    private double[] pixelX;
+    private double[] pixelY;
+    private double[] stageX;
+    private double[] stageY;
+    private final double[] z;
+    private final byte[] flags;
+
+    private TileLayout(int count, int[] index, String[] labels) {
+        this.count = count;
+        this.index = index;
+        this.labels = labels;
+        this.z = new double[count];
+        Arrays.fill(z, Double.NaN);
+        this.flags = new byte[count];
+    }
+
+    /** Collects tiles in acquisition order. */
+    public static final class Builder {
+        private final Space space;
+        private int count;
+        private int[] index = new int[64];
+        private double[] xs = new double[64];
+        private double[] ys = new double[64];
+        private String[] labels;
+
+        /** @param space the coordinate space of the positions that will be added */
+        public Builder(Space space) {
+            this.space = space;
+        }
+
+        /** Adds tile {@code <count>.tif} at the given centroid. */
+        public Builder add(double x, double y) {
+            return add(count, null, x, y);
+        }
+
+        /**
+         * Adds a tile.
+         *
+         * @param tileIndex the tile number, or -1 if the label is not a number
+         * @param label     the file name, or null for {@code <tileIndex>.tif}
+         */
+        public Builder add(int tileIndex, String label, double x, double y) {
+            if (count == index.length) {
+                index = Arrays.copyOf(index, count * 2);
+                xs = Arrays.copyOf(xs, count * 2);
+                ys = Arrays.copyOf(ys, count * 2);
+                if (labels != null) {
+                    labels = Arrays.copyOf(labels, count * 2);
+                }
+            }
+            if (label != null && !label.equals(tileIndex + ".tif")) {
+                if (labels == null) {
+                    labels = new String[index.length];
+                }
+                labels[count] = label;
+            }
+            index[count] = tileIndex;
+            xs[count] = x;
+            ys[count] = y;
+            count++;
+            return this;
+        }
+
+        public TileLayout build() {
+            String[] finalLabels = null;
+            if (labels != null) {
+                finalLabels = Arrays.copyOf(labels, count);
+                for (int i = 0; i < count; i++) {
+                    if (finalLabels[i] == null) {
+                        finalLabels[i] = index[i] + ".tif";
+                    }
+                }
+            }
+            TileLayout layout = new TileLayout(count, Arrays.copyOf(index, count), finalLabels);
+            layout.setColumns(space, Arrays.copyOf(xs, count), Arrays.copyOf(ys, count));
+            return layout;
+        }
+    }
+
+    private void setColumns(Space space, double[] xs, double[] ys) {
+        if (space == Space.PIXEL) {
+            pixelX = xs;
+            pixelY = ys;
+        } else {
+            stageX = xs;
+            stageY = ys;
+        }
+    }
+
+    /** Number of tiles. */
+    public int size() {
+        return count;
+    }
+
+    /** Tile number of the {@code i}-th tile in acquisition order, or -1 for a non-numeric label. */
+    public int index(int i) {
+        return index[i];
+    }
+
+    /** File name of the {@code i}-th tile. */
+    public String label(int i) {
+        return labels != null ? labels[i] : index[i] + ".tif";
+    }
+
+    /** Whether positions in {@code space} are known. */
+    public boolean has(Space space) {
+        return space == Space.PIXEL ? pixelX != null : stageX != null;
+    }
+
+    /** X centroid of the {@code i}-th tile in {@code space}. */
+    public double x(Space space, int i) {
+        return column(space, true)[i];
+    }
+
+    /** Y centroid of the {@code i}-th tile in {@code space}. */
+    public double y(Space space, int i) {
+        return column(space, false)[i];
+    }
+
+    private double[] column(Space space, boolean x) {
+        double[] column = space == Space.PIXEL ? (x ? pixelX : pixelY) : (x ? stageX : stageY);
+        if (column == null) {
+            throw new IllegalStateException("No " + space + " positions in this tile layout");
+        }
+        return column;
+    }
+
+    /** Focus Z of the {@code i}-th tile in stage microns, or NaN if not known. */
+    public double z(int i) {
+        return z[i];
+    }
+
+    /** Sets the focus Z of every tile. */
+    public void fillZ(double zUm) {
+        Arrays.fill(z, zUm);
+    }
+
+    /** Flag bits of the {@code i}-th tile. No bits are defined yet; the column is reserved. */
+    public byte flags(int i) {
+        return flags[i];
+    }
+
+    /**
+     * {@code [minX, minY, maxX, maxY]} of the tile centroids in {@code space};
+     * infinities when the layout is empty.
+     */
+    public double[] bounds(Space space) {
+        double[] xs = column(space, true);
+        double[] ys = column(space, false);
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        return new double[] {minX, minY, maxX, maxY};
+    }
+
+    /**
+     * Computes the stage positions from the pixel positions in one pass over the
+     * columns, replacing any stage positions already present.
+     *
+     * @param pixelToStage QuPath full-resolution pixels to stage microns
+     */
+    public void transformToStage(AffineTransform pixelToStage) {
+        double[] xs = column(Space.PIXEL, true);
+        double[] ys = column(Space.PIXEL, false);
+        double[] points = new double[count * 2];
+        for (int i = 0; i < count; i++) {
+            points[2 * i] = xs[i];
+            points[2 * i + 1] = ys[i];
+        }
+        pixelToStage.transform(points, 0, points, 0, count);
+        double[] sx = new double[count];
+        double[] sy = new double[count];
+        for (int i = 0; i < count; i++) {
+            sx[i] = points[2 * i];
+            sy[i] = points[2 * i + 1];
+        }
+        stageX = sx;
+        stageY = sy;
+    }
+
+    // ---- Text ----------------------------------------------------------------------------
+
+    /**
+     * Writes a TileConfiguration text file ({@code dim = 2} and one
+     * {@code name; ; (x, y)} line per tile, three decimals) in {@code space}.
+     */
+    public void writeText(Path file, Space space) throws IOException {
+        double[] xs = column(space, true);
+        double[] ys = column(space, false);
+        StringBuilder sb = new StringBuilder(count * 32 + 16);
+        try (Formatter formatter = new Formatter(sb, Locale.ROOT)) {
+            formatter.format("dim = 2%n");
+            for (int i = 0; i < count; i++) {
+                formatter.format("%s; ; (%.3f, %.3f)%n", label(i), xs[i], ys[i]);
+            }
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.append(sb);
+        }
+    }
+
+    /**
+     * Parses a TileConfiguration text file into {@code space}. Lines that are
+     * not tile entries ({@code dim}, comments, blanks) are skipped, as are
+     * entries whose coordinates do not parse.
+     */
+    public static TileLayout readText(Path file, Space space) throws IOException {
+        Builder builder = new Builder(space);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String raw;
+            while ((raw = reader.readLine()) != null) {
+                String line = raw.trim();
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("dim")) {
+                    continue;
+                }
+                int semi = line.indexOf(';');
+                int open = line.indexOf('(', Math.max(semi, 0));
+                int comma = open < 0 ? -1 : line.indexOf(',', open);
+                int close = comma < 0 ? -1 : line.indexOf(')', comma);
+                if (semi <= 0 || close < 0) {
+                    continue;
+                }
+                String label = line.substring(0, semi).trim();
+                if (!label.endsWith(".tif")) {
+                    continue;
+                }
+                try {
+                    double x = Double.parseDouble(line.substring(open + 1, comma).trim());
+                    double y = Double.parseDouble(line.substring(comma + 1, close).trim());
+                    builder.add(parseIndex(label), label, x, y);
+                } catch (NumberFormatException e) {
+                    logger.debug("Skipping unparseable TileConfiguration line: {}", line);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static int parseIndex(String label) {
+        String stem = label.substring(0, label.length() - ".tif".length());
+        if (stem.isEmpty() || stem.length() > 9) {
+            return -1;
+        }
+        for (int i = 0; i < stem.length(); i++) {
+            if (!Character.isDigit(stem.charAt(i))) {
+                return -1;
+            }
+        }
+        return Integer.parseInt(stem);
+    }
+
+    // ---- Sidecar -------------------------------------------------------------------------
+
+    /** Writes the binary sidecar into {@code tileDir}, replacing it atomically. */
+    public void writeSidecar(Path tileDir) throws IOException {
+        int contents = (pixelX != null ? HAS_PIXEL : 0) | (stageX != null ? HAS_STAGE : 0);
+        byte[][] labelBytes = null;
+        int labelSize = 0;
+        if (labels != null) {
+            contents |= HAS_LABELS;
+            labelBytes = new byte[count][];
+            for (int i = 0; i < count; i++) {
+                labelBytes[i] = labels[i].getBytes(StandardCharsets.UTF_8);
+                labelSize += 2 + labelBytes[i].length;
+            }
+        }
+        int columns = (pixelX != null ? 2 : 0) + (stageX != null ? 2 : 0) + 1;
+        long size = HEADER_BYTES + 4L * count + 8L * columns * count + count + labelSize;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Tile layout too large for a sidecar: " + count + " tiles");
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(contents);
+        buf.asIntBuffer().put(index);
+        buf.position(buf.position() + 4 * count);
+        for (double[] column : new double[][] {pixelX, pixelY, stageX, stageY, z}) {
+            if (column != null) {
+                buf.asDoubleBuffer().put(column);
+                buf.position(buf.position() + 8 * count);
+            }
+        }
+        buf.put(flags);
+        if (labelBytes != null) {
+            for (byte[] label : labelBytes) {
+                buf.putShort((short) label.length).put(label);
+            }
+        }
+        buf.flip();
+
+        Path target = tileDir.resolve(SIDECAR_NAME);
+        Path part = tileDir.resolve(SIDECAR_NAME + ".part");
+        try (FileChannel channel = FileChannel.open(
+                part, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+        }
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Reads a binary sidecar written by {@link #writeSidecar}. */
+    public static TileLayout readSidecar(Path file) throws IOException {
+        ByteBuffer buf;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a tile layout sidecar: " + file);
+            }
+            buf = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+            while (buf.hasRemaining() && channel.read(buf) >= 0) {
+                // keep reading
+            }
+            buf.flip();
+        }
+        try {
+            if (buf.getInt() != MAGIC) {
+                throw new IOException("Not a tile layout sidecar: " + file);
+            }
+            int version = buf.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported tile layout sidecar version " + version + ": " + file);
+            }
+            int count = buf.getInt();
+            int contents = buf.getInt();
+            if (count < 0) {
+                throw new IOException("Corrupt tile layout sidecar: " + file);
+            }
+
+            int[] index = new int[count];
+            buf.asIntBuffer().get(index);
+            buf.position(buf.position() + 4 * count);
+            double[] px = (contents & HAS_PIXEL) != 0 ? readColumn(buf, count) : null;
+            double[] py = (contents & HAS_PIXEL) != 0 ? readColumn(buf, count) : null;
+            double[] sx = (contents & HAS_STAGE) != 0 ? readColumn(buf, count) : null;
+            double[] sy = (contents & HAS_STAGE) != 0 ? readColumn(buf, count) : null;
+            double[] z = readColumn(buf, count);
+            byte[] flags = new byte[count];
+            buf.get(flags);
+            String[] labels = null;
+            if ((contents & HAS_LABELS) != 0) {
+                labels = new String[count];
+                for (int i = 0; i < count; i++) {
+                    byte[] bytes = new byte[buf.getShort() & 0xFFFF];
+                    buf.get(bytes);
+                    labels[i] = new String(bytes, StandardCharsets.UTF_8);
+                }
+            }
+
+            TileLayout layout = new TileLayout(count, index, labels);
+            layout.pixelX = px;
+            layout.pixelY = py;
+            layout.stageX = sx;
+            layout.stageY = sy;
+            System.arraycopy(z, 0, layout.z, 0, count);
+            System.arraycopy(flags, 0, layout.flags, 0, count);
+            return layout;
+        } catch (java.nio.BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Truncated tile layout sidecar: " + file, e);
+        }
+    }
+
+    private static double[] readColumn(ByteBuffer buf, int count) {
+        double[] column = new double[count];
+        buf.asDoubleBuffer().get(column);
+        buf.position(buf.position() + 8 * count);
+        return column;
+    }
+
+    /**
+     * Whether the sidecar can stand in for {@code textFile}: it exists and was
+     * written no earlier than the text file (or the text file is missing).
+     */
+    public static boolean isSidecarCurrent(Path sidecar, Path textFile) {
+        try {
+            if (!Files.isRegularFile(sidecar)) {
+                return false;
+            }
+            return !Files.exists(textFile)
+                    || Files.getLastModifiedTime(sidecar).compareTo(Files.getLastModifiedTime(textFile)) >= 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Loads the tiles of a region folder with positions in {@code space}: from
+     * the sidecar when it is current and holds that space, else by parsing the
+     * space's text configuration.
+     *
+     * @throws java.nio.file.NoSuchFileException if neither file is present
+     */
+    public static TileLayout load(Path tileDir, Space space) throws IOException {
+        Path sidecar = tileDir.resolve(SIDECAR_NAME);
+        Path text = tileDir.resolve(space.configName());
+        if (isSidecarCurrent(sidecar, text)) {
+            try {
+                TileLayout layout = readSidecar(sidecar);
+                if (layout.has(space)) {
+                    return layout;
+                }
+            } catch (IOException e) {
+                logger.debug("Ignoring unreadable tile layout sidecar {}: {}", sidecar, e.getMessage());
+            }
+        }
+        return readText(text, space);
+    }
+}
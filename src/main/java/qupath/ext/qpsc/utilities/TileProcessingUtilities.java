@@ -5,8 +5,6 @@ import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 import javafx.application.Platform;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,11 +57,40 @@ public class TileProcessingUtilities {
      */
     public static final String REGISTRATION_MODE_KEY = "registrationMode";
 
+    /**
+     * {@code stitchParams} key carrying the {@link StageImageTransform} this stitch must use.
+     *
+     * <p>Callers capture it when the job is created, so a job queued behind others keeps the
+     * orientation it was acquired with even if the active microscope changes meanwhile. Absent,
+     * {@link StageImageTransform#current()} is read at stitch time.
+     */
+    public static final String STAGE_TRANSFORM_KEY = "stageImageTransform";
+
+    /**
+     * Gate over {@code TileConfigurationTxtStrategy}'s static flip flags. Every stitch that uses
+     * that strategy -- acquisition, recovery, rapid scan -- must set the flags through it, or it
+     * can race a concurrent stitch with a different orientation.
+     */
+    public static final StitchOrientationGate TILE_CONFIG_ORIENTATION =
+            new StitchOrientationGate("TileConfiguration", (flipX, flipY) -> {
+                TileConfigurationTxtStrategy.flipStitchingX = flipX;
+                TileConfigurationTxtStrategy.flipStitchingY = flipY;
+            });
+
     private static final ResourceBundle res = ResourceBundle.getBundle("qupath.ext.qpsc.ui.strings");
 
     /** Seconds to wait for a stitched-image import to run on the FX thread before warning. */
     private static final long IMPORT_AWAIT_TIMEOUT_S = 180;
 
+    /**
+     * The orientation a stitch job carries under {@link #STAGE_TRANSFORM_KEY}, or the
+     * active microscope's transform when the job does not carry one.
+     */
+    public static StageImageTransform stageTransformFor(Map<String, Object> stitchParams) {
+        Object transform = stitchParams == null ? null : stitchParams.get(STAGE_TRANSFORM_KEY);
+        return transform instanceof StageImageTransform t ? t : StageImageTransform.current();
+    }
+
     /**
      * Dispatches a stitched-image import body to the JavaFX Application Thread.
      *
@@ -152,7 +179,8 @@ public class TileProcessingUtilities {
      * @param pixelSizeMicrons    Physical pixel size in micrometers for the OME-TIFF metadata
      * @param downsample          Downsample factor for pyramid generation (1 = no downsampling)
      * @param modalityHandler     Handler for modality-specific file naming (can be null)
-     * @param stitchParams        Additional parameters including metadata for image import (can be null)
+     * @param stitchParams        Additional parameters including metadata for image import and the
+     *                           job's {@link #STAGE_TRANSFORM_KEY} orientation (can be null)
      *
      * @return Absolute path to the last stitched OME-TIFF processed, or null if stitching failed
      *
@@ -211,20 +239,10 @@ public class TileProcessingUtilities {
             outputDir.mkdirs();
         }
 
-        // Track files before stitching for batch operations
-        Set<String> existingFiles = new HashSet<>();
-        if (matchingString.equals(".")) {
-            logger.info("Batch mode detected - scanning for existing OME-TIFF files");
-            if (outputDir.exists()) {
-                File[] existing = outputDir.listFiles((dir, name) -> name.endsWith(".ome.tif"));
-                if (existing != null) {
-                    for (File f : existing) {
-                        existingFiles.add(f.getName());
-                    }
-                }
-            }
-            logger.info("Found {} existing OME-TIFF files before stitching", existingFiles.size());
-        }
+        // Track files before stitching: batch mode imports only new files, and a failed
+        // stitch must not delete earlier outputs or those of concurrent jobs in this folder
+        Set<String> existingFiles = StitchOutputCleanup.snapshot(outputDir);
+        logger.info("Found {} existing OME-TIFF/ZARR outputs before stitching", existingFiles.size());
 
         // Configure and run the stitching workflow
         // Get output format from preferences
@@ -279,29 +297,30 @@ public class TileProcessingUtilities {
             TileRegistrationSupport.apply(config, registrationMode, matchingString);
         }
 
-        // Pass the composite stage/camera transform to the tile-config stitching
+        // Pass this job's composite stage/camera transform to the tile-config stitching
         // strategy via the flip flags. StageImageTransform folds stage polarity and
         // camera orientation into two booleans; rotation cases fall back to an
-        // approximation and log a warning.
-        boolean[] stitcherFlags = StageImageTransform.current().stitcherFlipFlags();
+        // approximation and log a warning. The flags are process-wide statics, so
+        // they are only touched through the orientation gate.
+        boolean[] stitcherFlags = stageTransformFor(stitchParams).stitcherFlipFlags();
 
         // The direct OME-TIFF writer cannot silently corrupt pyramid levels and
         // writes straight to the final path, so the former tile-write-error
         // detection / retry / OME_TIFF_VIA_ZARR escalation has been removed.
         String outPath;
         try {
-            TileConfigurationTxtStrategy.flipStitchingX = stitcherFlags[0];
-            TileConfigurationTxtStrategy.flipStitchingY = stitcherFlags[1];
-            outPath = StitchingWorkflow.run(config);
+            outPath = TILE_CONFIG_ORIENTATION.run(
+                    stitcherFlags[0], stitcherFlags[1], () -> StitchingWorkflow.run(config));
             if (outPath == null) {
                 throw new IOException("Stitching produced no output");
             }
         } catch (Exception stitchEx) {
-            cleanupCorruptStitchingOutput(outputDir, existingFiles);
+            StitchOutputCleanup.deleteFailedOutput(
+                    outputDir,
+                    existingFiles,
+                    StitchOutputCleanup.jobOutputStems(
+                            config.getOutputFilename(), new File(tileFolder), matchingString.equals(".")));
             throw new IOException("Stitching failed: " + stitchEx.getMessage(), stitchEx);
-        } finally {
-            TileConfigurationTxtStrategy.flipStitchingX = false;
-            TileConfigurationTxtStrategy.flipStitchingY = false;
         }
         logger.info("Stitching completed. Output: {}", outPath);
 
@@ -430,6 +449,7 @@ public class TileProcessingUtilities {
                             }
 
                             logger.info("Successfully imported {} to project", new File(pathToImport).getName());
+                            AcquisitionFootprintCache.forProject(project).refreshLater(imported);
 
                             // Optionally open the first image (suppressed in the pipelined batch
                             // acquire pass -- the driver owns the open entry).
@@ -701,6 +721,9 @@ public class TileProcessingUtilities {
                     // import paths all use the same code.
                     qupath.ext.qpsc.controller.workflow.StitchingHelper.autoRegisterBoundsTransformIfAvailable(
                             new File(lastProcessedPath), finalMetadata, project);
+                    // Cache the Stage Map thumbnail and stage rectangle in the background
+                    // now that the alignment is registered.
+                    AcquisitionFootprintCache.forProject(project).refreshLater(imported);
 
                     // In the pipelined batch acquire pass, suppress the active-image save, the
                     // open-entry, and the setProject/refresh: switching the active viewer image
@@ -785,11 +808,6 @@ public class TileProcessingUtilities {
         return lastProcessedPath;
     }
 
-    /**
-     * Removes any newly-created OME-TIFF or OME-ZARR files from the output directory
-     * that were not present before stitching started. Called on stitching failure
-     * to clean up corrupt partial output before a retry.
-     */
     /**
      * Returns the active microscope's display name from the config manager, or
      * {@code null} when none is set or the config reports "Unknown". Mirrors the
@@ -809,33 +827,6 @@ public class TileProcessingUtilities {
         }
     }
 
-    private static void cleanupCorruptStitchingOutput(File outputDir, Set<String> existingFiles) {
-        File[] candidates = outputDir.listFiles((dir, name) ->
-                (name.endsWith(".ome.tif") || name.endsWith(".ome.zarr")) && !existingFiles.contains(name));
-        if (candidates == null || candidates.length == 0) {
-            return;
-        }
-        for (File f : candidates) {
-            logger.info("Cleaning up corrupt stitching output: {}", f.getName());
-            if (f.isDirectory()) {
-                // OME-ZARR is a directory tree
-                try {
-                    java.nio.file.Path zarr = f.toPath();
-                    java.nio.file.Files.walk(zarr)
-                            .sorted(java.util.Comparator.reverseOrder())
-                            .map(java.nio.file.Path::toFile)
-                            .forEach(File::delete);
-                } catch (IOException e) {
-                    logger.warn("Failed to clean up ZARR directory {}: {}", f.getName(), e.getMessage());
-                }
-            } else {
-                if (!f.delete()) {
-                    logger.warn("Failed to delete corrupt file: {}", f.getName());
-                }
-            }
-        }
-    }
-
     /**
      * Extracts the original region name from a potentially combined path.
      * When using directory isolation for multi-angle stitching, temporary directories
@@ -1055,12 +1046,18 @@ public class TileProcessingUtilities {
      * as the original folder. The ZIP filename will match the original folder name.
      * The subdirectory structure within the folder is preserved in the ZIP archive.
      *
+     * <p>Entries are compressed in parallel by {@link TileArchiver}, which stores
+     * incompressible tiles instead of deflating them. The archive is written under a
+     * temporary name and renamed once complete, so an interrupted run never leaves a
+     * truncated ZIP that looks finished.
+     *
      * @param folderPath Path to the folder containing tiles to compress
-     * @return true if compression was successful, false otherwise
+     * @return true if every file was archived, false otherwise
      */
     public static boolean zipTilesAndMove(String folderPath) {
         logger.info("Compressing tiles in folder: {}", folderPath);
 
+        Path partPath = null;
         try {
             Path dir = Paths.get(folderPath);
 
@@ -1069,14 +1066,6 @@ public class TileProcessingUtilities {
                 return false;
             }
 
-            // Count files to zip
-            long fileCount = Files.walk(dir).filter(Files::isRegularFile).count();
-            if (fileCount == 0) {
-                logger.warn("No files found to compress in: {}", folderPath);
-                return false;
-            }
-            logger.info("Found {} files to compress", fileCount);
-
             Path parent = dir.getParent();
             Path compressed = parent.resolve("Compressed tiles");
 
@@ -1086,43 +1075,42 @@ public class TileProcessingUtilities {
                 Files.createDirectories(compressed);
             }
 
-            // Create ZIP file
             Path zipPath = compressed.resolve(dir.getFileName() + ".zip");
-            logger.info("Creating ZIP file: {}", zipPath);
-
-            final long[] zippedCount = {0};
-            try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(zipPath.toFile()))) {
-                Files.walk(dir).filter(Files::isRegularFile).forEach(p -> {
-                    // Use relative path to preserve subdirectory structure
-                    String relativePath = dir.relativize(p).toString();
-                    ZipEntry e = new ZipEntry(relativePath);
-                    try {
-                        zos.putNextEntry(e);
-                        Files.copy(p, zos);
-                        zos.closeEntry();
-                        zippedCount[0]++;
-                        logger.trace("Added to ZIP: {}", relativePath);
-                    } catch (IOException ex) {
-                        logger.error("Failed to zip file: {}", p, ex);
-                    }
-                });
-            }
+            partPath = compressed.resolve(dir.getFileName() + ".zip.part");
+            int threads = TileArchiver.defaultThreads();
+            logger.info("Creating ZIP file: {} ({} compression threads)", zipPath, threads);
 
-            // Verify zip was created and has content
-            if (Files.exists(zipPath) && Files.size(zipPath) > 0) {
-                logger.info(
-                        "Successfully compressed {} files to ZIP archive: {} ({} bytes)",
-                        zippedCount[0],
-                        zipPath,
-                        Files.size(zipPath));
-                return true;
-            } else {
-                logger.error("ZIP file creation failed or file is empty");
+            long start = System.currentTimeMillis();
+            TileArchiver.Result result = TileArchiver.archive(dir, partPath, threads);
+            if (result.entries() == 0) {
+                logger.warn("No files found to compress in: {}", folderPath);
+                Files.deleteIfExists(partPath);
                 return false;
             }
+            Files.move(partPath, zipPath, StandardCopyOption.REPLACE_EXISTING);
+
+            logger.info(
+                    "Successfully compressed {} files ({} stored uncompressed) to ZIP archive: {} "
+                            + "({} -> {} bytes in {} ms)",
+                    result.entries(),
+                    result.stored(),
+                    zipPath,
+                    result.inputBytes(),
+                    result.outputBytes(),
+                    System.currentTimeMillis() - start);
+            return true;
 
         } catch (IOException ex) {
+            // Any unreadable tile fails the whole archive: the caller deletes the
+            // originals after a successful zip, so a partial archive must not count
             logger.error("Error zipping tiles: {}", ex.getMessage(), ex);
+            if (partPath != null) {
+                try {
+                    Files.deleteIfExists(partPath);
+                } catch (IOException cleanup) {
+                    logger.debug("Could not remove partial archive {}: {}", partPath, cleanup.getMessage());
+                }
+            }
             return false;
         }
     }
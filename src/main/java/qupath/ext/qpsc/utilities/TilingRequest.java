@@ -1,5 +1,6 @@
 package qupath.ext.qpsc.utilities;
 
+import java.awt.geom.AffineTransform;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -100,6 +101,12 @@ public class TilingRequest {
     /** Pixel size in microns for coordinate conversion (required for annotation workflows, use 1.0 for bounding box) */
     private double pixelSizeMicrons = -1.0; // -1.0 indicates not set
 
+    /** Stage cost model for reordering tiles in irregular regions, or null to keep the serpentine */
+    private StagePathPlanner.MotionModel tileOrderModel;
+
+    /** Full-resolution QuPath pixels to stage microns, for tile ordering; null if unknown */
+    private AffineTransform stageTransform;
+
     // Builder pattern implementation
     /**
      * Builder class for constructing TilingRequest instances.
@@ -284,6 +291,36 @@ public class TilingRequest {
             return this;
         }
 
+        /**
+         * Enables travel-optimized tile order for irregular regions. When tiles
+         * are skipped because they fall outside the region, the remaining tiles
+         * are reordered with {@link StagePathPlanner} instead of following the
+         * serpentine across the gaps. Full rectangles keep the serpentine.
+         *
+         * @param model the stage cost model, or null to always keep the serpentine order
+         * @return this builder instance for method chaining
+         */
+        public Builder optimizeTileOrder(StagePathPlanner.MotionModel model) {
+            logger.debug("Setting tile order model: {}", model);
+            request.tileOrderModel = model;
+            return this;
+        }
+
+        /**
+         * Sets the full-resolution-to-stage transform used to plan tile order in
+         * stage axes. Without it, tile order is planned in image axes with an
+         * axis-symmetric cost, since the image axes may be swapped or rotated
+         * relative to the stage.
+         *
+         * @param transform the QuPath full-resolution to stage transform, or null if unknown
+         * @return this builder instance for method chaining
+         */
+        public Builder stageTransform(AffineTransform transform) {
+            logger.debug("Setting stage transform for tile ordering: {}", transform);
+            request.stageTransform = transform;
+            return this;
+        }
+
         /**
          * Builds the TilingRequest, validating that all required fields are set.
          * Performs comprehensive validation of all parameters and constraints.
@@ -469,6 +506,24 @@ public class TilingRequest {
         return pixelSizeMicrons;
     }
 
+    /**
+     * Gets the stage cost model used to reorder tiles in irregular regions.
+     *
+     * @return the model, or null if tiles keep the serpentine order
+     */
+    public StagePathPlanner.MotionModel getTileOrderModel() {
+        return tileOrderModel;
+    }
+
+    /**
+     * Gets the full-resolution-to-stage transform used to plan tile order.
+     *
+     * @return the transform, or null if tile order is planned in image axes
+     */
+    public AffineTransform getStageTransform() {
+        return stageTransform;
+    }
+
     /**
      * Checks if this request is for bounding box-based tiling.
      * This method determines the tiling strategy that should be used.
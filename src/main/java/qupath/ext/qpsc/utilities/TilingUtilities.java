@@ -1,14 +1,17 @@
 package qupath.ext.qpsc.utilities;
 
+import java.awt.geom.AffineTransform;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import qupath.ext.qpsc.controller.MicroscopeController;
 import qupath.ext.qpsc.model.SampleSetupResult;
 import qupath.ext.qpsc.preferences.QPPreferenceDialog;
 import qupath.lib.gui.QuPathGUI;
@@ -144,16 +147,13 @@ public class TilingUtilities {
                     roi.getBoundsHeight());
 
             // Calculate bounds with optional buffer
-            double x = roi.getBoundsX();
-            double y = roi.getBoundsY();
-            double w = roi.getBoundsWidth();
-            double h = roi.getBoundsHeight();
-
+            double[] bounds =
+                    tilingBounds(roi, request.getFrameWidth(), request.getFrameHeight(), request.isAddBuffer());
+            double x = bounds[0];
+            double y = bounds[1];
+            double w = bounds[2];
+            double h = bounds[3];
             if (request.isAddBuffer()) {
-                x -= request.getFrameWidth() / 2.0;
-                y -= request.getFrameHeight() / 2.0;
-                w += request.getFrameWidth();
-                h += request.getFrameHeight();
                 logger.debug("Added buffer - new bounds: ({}, {}, {}, {})", x, y, w, h);
             }
 
@@ -172,6 +172,26 @@ public class TilingUtilities {
         }
     }
 
+    /**
+     * The area the tile grid covers for an ROI: its bounds, grown by half a frame
+     * on every side when a buffer is requested.
+     *
+     * @return {@code [x, y, width, height]}
+     */
+    private static double[] tilingBounds(ROI roi, double frameWidth, double frameHeight, boolean addBuffer) {
+        double x = roi.getBoundsX();
+        double y = roi.getBoundsY();
+        double w = roi.getBoundsWidth();
+        double h = roi.getBoundsHeight();
+        if (addBuffer) {
+            x -= frameWidth / 2.0;
+            y -= frameHeight / 2.0;
+            w += frameWidth;
+            h += frameHeight;
+        }
+        return new double[] {x, y, w, h};
+    }
+
     /**
      * Core tiling algorithm that generates a grid of tiles and writes the configuration.
      * <p>
@@ -180,6 +200,7 @@ public class TilingUtilities {
      *   <li>Step size calculation based on overlap</li>
      *   <li>Serpentine/snake pattern for efficient stage movement</li>
      *   <li>Optional filtering by ROI intersection</li>
+     *   <li>Travel-optimized order when filtering leaves gaps (see {@link TilingRequest#getTileOrderModel()})</li>
      *   <li>QuPath detection object creation</li>
      *   <li>TileConfiguration.txt generation in ImageJ/Fiji format</li>
      * </ul>
@@ -205,18 +226,19 @@ public class TilingUtilities {
             String annotationName)
             throws IOException {
 
-        // Calculate step sizes based on overlap
-        double overlapFraction = request.getOverlapPercent() / 100.0;
-        double xStep = request.getFrameWidth() * (1 - overlapFraction);
-        double yStep = request.getFrameHeight() * (1 - overlapFraction);
-
-        // Calculate number of tiles needed
-        int nCols = (int) Math.ceil(width / xStep);
-        int nRows = (int) Math.ceil(height / yStep);
-
-        // If the division is exact, we still need one more tile to cover the far edge
-        if (width % xStep == 0) nCols++;
-        if (height % yStep == 0) nRows++;
+        // Calculate step sizes and the number of tiles needed from the overlap
+        TileGridCoverage.Grid grid = TileGridCoverage.Grid.covering(
+                startX,
+                startY,
+                width,
+                height,
+                request.getFrameWidth(),
+                request.getFrameHeight(),
+                request.getOverlapPercent());
+        double xStep = grid.xStep();
+        double yStep = grid.yStep();
+        int nCols = grid.nCols();
+        int nRows = grid.nRows();
 
         logger.info("Tile grid configuration:");
         logger.info("  Area: ({}, {}) to ({}, {})", startX, startY, startX + width, startY + height);
@@ -230,14 +252,14 @@ public class TilingUtilities {
         // Prepare output structures
         // NOTE: Both files start with pixel coordinates. TileConfiguration.txt will be transformed
         // to stage coordinates later by TransformationFunctions.transformTileConfiguration()
-        List<String> configLinesForTransform = new ArrayList<>(); // For transformation to stage
-        List<String> configLinesPixels = new ArrayList<>(); // For QuPath (pixel coordinates)
-        configLinesForTransform.add("dim = 2");
-        configLinesPixels.add("dim = 2");
+        TileLayout.Builder layout = new TileLayout.Builder(TileLayout.Space.PIXEL);
         List<PathObject> detectionTiles = new ArrayList<>();
-        int tileIndex = 0;
+        List<GridTile> keptTiles = new ArrayList<>();
         int skippedTiles = 0;
 
+        // Cells touching the ROI, found row by row instead of testing each cell against the whole geometry
+        BitSet[] coveredCells = filterROI != null ? TileGridCoverage.coveredCells(filterROI.getGeometry(), grid) : null;
+
         // Generate tiles
         for (int row = 0; row < nRows; row++) {
             // When Y is inverted, we need to process rows in reverse order
@@ -255,52 +277,50 @@ public class TilingUtilities {
                 int gridCol = request.isStageInvertedX() ? (nCols - 1 - serpentineCol) : serpentineCol;
                 double x = startX + gridCol * xStep;
 
+                // Check if we should include this tile (it touches the ROI)
+                if (coveredCells != null && !coveredCells[gridRow].get(gridCol)) {
+                    skippedTiles++;
+                    continue;
+                }
+
                 // Create tile ROI
                 ROI tileROI = ROIs.createRectangleROI(
                         x, y, request.getFrameWidth(), request.getFrameHeight(), ImagePlane.getDefaultPlane());
+                keptTiles.add(new GridTile(tileROI, gridRow, gridCol));
+            }
+        }
 
-                // Check if we should include this tile
-                boolean includeTile = true;
-                if (filterROI != null) {
-                    includeTile = filterROI.contains(tileROI.getCentroidX(), tileROI.getCentroidY())
-                            || filterROI.getGeometry().intersects(tileROI.getGeometry());
-                }
-
-                if (!includeTile) {
-                    skippedTiles++;
-                    continue;
-                }
+        // Gaps in the rows make the serpentine sweep the stage across empty space;
+        // plan the order for travel time instead (the first tile stays first)
+        if (skippedTiles > 0 && request.getTileOrderModel() != null && keptTiles.size() > 2) {
+            keptTiles = planTileOrder(keptTiles, request);
+        }
 
-                // Add to configuration files
-                // 1. TileConfiguration.txt - QuPath pixel coordinates (will be transformed to stage later)
-                // NOTE: These are in PIXELS, not microns! The transformation to stage coordinates
-                // happens later in TransformationFunctions.transformTileConfiguration()
-                configLinesForTransform.add(String.format(
-                        "%d.tif; ; (%.3f, %.3f)", tileIndex, tileROI.getCentroidX(), tileROI.getCentroidY()));
-
-                // 2. TileConfiguration_QP.txt - QuPath pixel coordinates (for stitching back into QuPath)
-                configLinesPixels.add(String.format(
-                        "%d.tif; ; (%.3f, %.3f)", tileIndex, tileROI.getCentroidX(), tileROI.getCentroidY()));
-
-                // Create QuPath detection object if requested
-                if (request.isCreateDetections()) {
-                    PathObject tile =
-                            PathObjects.createDetectionObject(tileROI, QP.getPathClass(request.getModalityName()));
-                    // Set name to include both tile number and annotation name
-                    if (annotationName != null) {
-                        tile.setName(String.format("%d_%s", tileIndex, annotationName));
-                    } else {
-                        tile.setName(String.valueOf(tileIndex));
-                    }
-
-                    tile.getMeasurements().put("TileNumber", tileIndex);
-                    tile.getMeasurements().put("Row", gridRow);
-                    tile.getMeasurements().put("Column", gridCol);
-                    detectionTiles.add(tile);
+        int tileIndex = 0;
+        for (GridTile gridTile : keptTiles) {
+            ROI tileROI = gridTile.roi();
+
+            // Add to the tile layout (QuPath pixel coordinates; written out below)
+            layout.add(tileROI.getCentroidX(), tileROI.getCentroidY());
+
+            // Create QuPath detection object if requested
+            if (request.isCreateDetections()) {
+                PathObject tile =
+                        PathObjects.createDetectionObject(tileROI, QP.getPathClass(request.getModalityName()));
+                // Set name to include both tile number and annotation name
+                if (annotationName != null) {
+                    tile.setName(String.format("%d_%s", tileIndex, annotationName));
+                } else {
+                    tile.setName(String.valueOf(tileIndex));
                 }
 
-                tileIndex++;
+                tile.getMeasurements().put("TileNumber", tileIndex);
+                tile.getMeasurements().put("Row", gridTile.gridRow());
+                tile.getMeasurements().put("Column", gridTile.gridCol());
+                detectionTiles.add(tile);
             }
+
+            tileIndex++;
         }
 
         logger.info("Generated {} tiles, skipped {} tiles outside ROI", tileIndex, skippedTiles);
@@ -310,14 +330,18 @@ public class TilingUtilities {
         Files.createDirectories(configFilePath.getParent());
 
         // Write TileConfiguration.txt - QuPath pixel coordinates (will be transformed to stage later)
-        Files.write(configFilePath, configLinesForTransform, StandardCharsets.UTF_8);
+        TileLayout tileLayout = layout.build();
+        tileLayout.writeText(configFilePath, TileLayout.Space.PIXEL);
         logger.info("Wrote tile configuration (pixels, pre-transform) to: {}", configPath);
 
         // Write TileConfiguration_QP.txt - QuPath pixel coordinates (for stitching)
-        Path configFilePathQP = Paths.get(configFilePath.getParent().toString(), "TileConfiguration_QP.txt");
-        Files.write(configFilePathQP, configLinesPixels, StandardCharsets.UTF_8);
+        Path configFilePathQP = configFilePath.resolveSibling(TileLayout.PIXEL_CONFIG);
+        tileLayout.writeText(configFilePathQP, TileLayout.Space.PIXEL);
         logger.info("Wrote QuPath tile configuration to: {}", configFilePathQP);
 
+        // Binary sidecar last, so it is at least as new as both text files
+        tileLayout.writeSidecar(configFilePath.getParent());
+
         // Add detection objects to QuPath hierarchy.
         // Use GUI's ImageData hierarchy (which is stable for the session even if the
         // viewer later switches to a different image). Fall back to QP static context.
@@ -334,6 +358,66 @@ public class TilingUtilities {
         }
     }
 
+    /** A tile kept for acquisition, with its position in the full grid. */
+    private record GridTile(ROI roi, int gridRow, int gridCol) {}
+
+    /**
+     * Reorders the kept tiles of an irregular region with {@link StagePathPlanner},
+     * keeping the serpentine's first tile first. Returns the serpentine order
+     * unchanged if the plan is no faster.
+     *
+     * <p>Tiles are planned in stage coordinates when the request has a stage
+     * transform, so each axis gets its own speed and reversal cost. Otherwise
+     * they are planned in image axes scaled by the pixel size, with an
+     * axis-symmetric cost, because the image axes may be swapped or rotated
+     * relative to the stage.
+     */
+    private static List<GridTile> planTileOrder(List<GridTile> serpentine, TilingRequest request) {
+        AffineTransform stageTransform = request.getStageTransform();
+        StagePathPlanner.MotionModel model = request.getTileOrderModel();
+        double micronsPerUnit = request.getPixelSizeMicrons() > 0 ? request.getPixelSizeMicrons() : 1.0;
+        List<double[]> positions = new ArrayList<>(serpentine.size());
+        for (GridTile tile : serpentine) {
+            double[] centroid = {tile.roi().getCentroidX(), tile.roi().getCentroidY()};
+            if (stageTransform != null) {
+                positions.add(TransformationFunctions.transformQuPathFullResToStage(centroid, stageTransform));
+            } else {
+                positions.add(new double[] {centroid[0] * micronsPerUnit, centroid[1] * micronsPerUnit});
+            }
+        }
+        if (stageTransform == null) {
+            model = model.axisSymmetric();
+        }
+        int[] plan = StagePathPlanner.plan(positions, model);
+
+        List<GridTile> ordered = new ArrayList<>(serpentine.size());
+        for (int index : plan) {
+            ordered.add(serpentine.get(index));
+        }
+        int[] identity = new int[plan.length];
+        Arrays.setAll(identity, i -> i);
+        logger.info(
+                "Tile order planned for stage travel: est. {}s (serpentine) -> {}s",
+                String.format("%.1f", StagePathPlanner.pathCost(positions, identity, model)),
+                String.format("%.1f", StagePathPlanner.pathCost(positions, plan, model)));
+        return ordered;
+    }
+
+    /** The stage cost model for tile ordering, or null when the preference is off. */
+    private static StagePathPlanner.MotionModel tileOrderModel() {
+        return QPPreferenceDialog.getOptimizeStagePath() ? StagePathPlanner.MotionModel.fromCurrentConfig() : null;
+    }
+
+    /** The current full-resolution-to-stage transform for tile ordering, or null if none is set. */
+    private static AffineTransform tileOrderTransform() {
+        try {
+            return MicroscopeController.getInstance().getCurrentTransform();
+        } catch (RuntimeException e) {
+            logger.debug("No stage transform for tile ordering: {}", e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Creates tiles for annotations using camera FOV from the microscope server.
      *
@@ -444,6 +528,8 @@ public class TilingUtilities {
                 .createDetections(true)
                 .addBuffer(true)
                 .pixelSizeMicrons(imagePixelSize) // For converting tile coordinates to microns
+                .optimizeTileOrder(tileOrderModel())
+                .stageTransform(tileOrderTransform())
                 .build();
 
         createTiles(request);
@@ -554,6 +640,8 @@ public class TilingUtilities {
                 .createDetections(true)
                 .addBuffer(true)
                 .pixelSizeMicrons(imagePixelSize)
+                .optimizeTileOrder(tileOrderModel())
+                .stageTransform(tileOrderTransform())
                 .build();
 
         createTiles(request);
@@ -634,8 +722,8 @@ public class TilingUtilities {
      * MUST be in the same unit (both microns, or both pixels). Mirrors the acquisition grid math
      * ({@code nCols = ceil(annW / (frameW*(1-overlap)))}, likewise for rows). Returns at least 1.
      *
-     * <p>Shared by the acquisition tile-count estimate ({@code AcquisitionManager}) and the
-     * multi-slide run-time estimate so both agree with the grid the tiler actually generates.
+     * <p>Counts the whole bounding rectangle; use {@link #estimateTileCount(ROI, double, double,
+     * double, boolean)} for the tiles an irregular annotation actually needs.
      */
     public static int estimateTileCount(
             double annWidth, double annHeight, double frameWidth, double frameHeight, double overlapPercent) {
@@ -648,4 +736,34 @@ public class TilingUtilities {
         int tilesY = (int) Math.ceil(annHeight / effH);
         return Math.max(1, tilesX * tilesY);
     }
+
+    /**
+     * Number of tiles the tiler generates for an annotation: the cells of its
+     * grid that touch the ROI, found with {@link TileGridCoverage} exactly as
+     * {@link #createTilesForAnnotations} filters them. Irregular and sparse
+     * annotations need far fewer tiles than their bounding rectangle.
+     * {@code frameWidth}/{@code frameHeight} MUST be in the ROI's unit (image
+     * pixels). Returns at least 1.
+     *
+     * <p>Shared by the acquisition tile-count estimate ({@code AcquisitionManager}) and the
+     * multi-slide run-time estimate so both agree with the grid the tiler actually generates.
+     *
+     * @param roi            The annotation ROI
+     * @param frameWidth     Camera frame width in image pixels
+     * @param frameHeight    Camera frame height in image pixels
+     * @param overlapPercent Tile overlap
+     * @param addBuffer      Whether the grid is grown by half a frame on each side,
+     *                       as it is for acquisition tiling
+     */
+    public static int estimateTileCount(
+            ROI roi, double frameWidth, double frameHeight, double overlapPercent, boolean addBuffer) {
+        if (roi == null || frameWidth <= 0 || frameHeight <= 0 || overlapPercent >= 100) {
+            return 1;
+        }
+        double[] bounds = tilingBounds(roi, frameWidth, frameHeight, addBuffer);
+        TileGridCoverage.Grid grid = TileGridCoverage.Grid.covering(
+                bounds[0], bounds[1], bounds[2], bounds[3], frameWidth, frameHeight, overlapPercent);
+        long tiles = TileGridCoverage.countCoveredCells(roi.getGeometry(), grid);
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, tiles));
+    }
 }
@@ -4,13 +4,12 @@ import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
 import java.io.*;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import qupath.lib.objects.PathObject;
@@ -870,65 +869,62 @@ public class TransformationFunctions {
         logger.info("CRITICAL: Transform being applied to tiles:");
         logger.info("  Transform scale X: {}", transform.getScaleX());
         logger.info("  Transform scale Y: {}", transform.getScaleY());
+        Path tileDir = inFile.toPath().getParent();
+
+        // Read the pixel positions before the backup copy below touches the folder. The
+        // sidecar only stands in for TileConfiguration.txt if it is current and was not
+        // already transformed; otherwise parse the text as before.
+        Path sidecar = tileDir.resolve(TileLayout.SIDECAR_NAME);
+        TileLayout layout = null;
+        if (TileLayout.isSidecarCurrent(sidecar, inFile.toPath())) {
+            try {
+                TileLayout fromSidecar = TileLayout.readSidecar(sidecar);
+                if (fromSidecar.has(TileLayout.Space.PIXEL) && !fromSidecar.has(TileLayout.Space.STAGE)) {
+                    layout = fromSidecar;
+                }
+            } catch (IOException e) {
+                logger.debug("Ignoring unreadable tile layout sidecar {}: {}", sidecar, e.getMessage());
+            }
+        }
+        if (layout == null) {
+            layout = TileLayout.readText(inFile.toPath(), TileLayout.Space.PIXEL);
+        }
+
         // Backup original
-        File backupFile = new File(inFile.getParent(), "TileConfiguration_QP.txt");
+        File backupFile = new File(inFile.getParent(), TileLayout.PIXEL_CONFIG);
         Files.copy(inFile.toPath(), backupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
         logger.info("Backed up original to: {}", backupFile.getAbsolutePath());
 
-        List<String> lines = Files.readAllLines(inFile.toPath());
-        List<String> out = new ArrayList<>(lines.size());
-        Pattern p = Pattern.compile("(\\d+\\.tif); ; \\((.*?), (.*?)\\)");
-
-        int transformedCount = 0;
-        for (String line : lines) {
-            Matcher m = p.matcher(line);
-            if (m.find()) {
-                String filename = m.group(1);
-                double x = Double.parseDouble(m.group(2).trim());
-                double y = Double.parseDouble(m.group(3).trim());
-                if (filename.equals("0.tif")) {
-                    logger.info("CRITICAL: First tile transformation:");
-                    logger.info("  Input (QuPath pixels): ({}, {})", x, y);
-                }
-                double[] coords = transformQuPathFullResToStage(new double[] {x, y}, transform);
-                if (filename.equals("0.tif")) {
-                    logger.info("  Output (stage um): ({}, {})", coords[0], coords[1]);
-                    logger.info(
-                            "  Transform verification: stage_x/qp_x = {} um/pixel (should match transform scale)",
-                            Math.abs(coords[0] / x));
-                }
-                String transformedLine = String.format("%s; ; (%.3f, %.3f)", filename, coords[0], coords[1]);
-                out.add(transformedLine);
-                transformedCount++;
-            } else {
-                out.add(line);
-            }
+        layout.transformToStage(transform);
+        if (layout.size() > 0 && layout.index(0) == 0) {
+            double x = layout.x(TileLayout.Space.PIXEL, 0);
+            logger.info("CRITICAL: First tile transformation:");
+            logger.info("  Input (QuPath pixels): ({}, {})", x, layout.y(TileLayout.Space.PIXEL, 0));
+            logger.info(
+                    "  Output (stage um): ({}, {})",
+                    layout.x(TileLayout.Space.STAGE, 0),
+                    layout.y(TileLayout.Space.STAGE, 0));
+            logger.info(
+                    "  Transform verification: stage_x/qp_x = {} um/pixel (should match transform scale)",
+                    Math.abs(layout.x(TileLayout.Space.STAGE, 0) / x));
         }
 
-        Files.write(inFile.toPath(), out);
-        logger.info("Transformed {} tile coordinates", transformedCount);
+        layout.writeText(inFile.toPath(), TileLayout.Space.STAGE);
+        layout.writeSidecar(tileDir);
+        logger.info("Transformed {} tile coordinates", layout.size());
     }
 
     /**
      * Reads min and max X,Y from a TileConfiguration file.
      */
     public static List<List<Double>> findImageBoundaries(File tileConfigFile) throws IOException {
-        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
-        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
-        Pattern p = Pattern.compile("\\d+\\.tif; ; \\((.*?), (.*?)\\)");
-
-        for (String line : Files.readAllLines(tileConfigFile.toPath())) {
-            Matcher m = p.matcher(line);
-            if (m.find()) {
-                double x = Double.parseDouble(m.group(1).trim());
-                double y = Double.parseDouble(m.group(2).trim());
-                minX = Math.min(minX, x);
-                minY = Math.min(minY, y);
-                maxX = Math.max(maxX, x);
-                maxY = Math.max(maxY, y);
-            }
-        }
-        return Arrays.asList(Arrays.asList(minX, minY), Arrays.asList(maxX, maxY));
+        Path path = tileConfigFile.toPath();
+        TileLayout.Space space = TileLayout.Space.forConfigFile(path);
+        TileLayout layout = path.getFileName().toString().equals(space.configName())
+                ? TileLayout.load(path.getParent(), space)
+                : TileLayout.readText(path, space);
+        double[] bounds = layout.bounds(space);
+        return Arrays.asList(Arrays.asList(bounds[0], bounds[1]), Arrays.asList(bounds[2], bounds[3]));
     }
 
     /**
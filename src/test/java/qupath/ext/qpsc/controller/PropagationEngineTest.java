@@ -0,0 +1,98 @@
+package qupath.ext.qpsc.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import qupath.ext.qpsc.controller.workflow.CancellationToken;
+import qupath.lib.projects.ProjectImageEntry;
+
+/**
+ * Tests for {@link PropagationEngine}: results keep target order, one failing
+ * target does not stop the others, and cancellation skips only tasks that
+ * have not started.
+ */
+class PropagationEngineTest {
+
+    @SuppressWarnings("unchecked")
+    private static List<ProjectImageEntry<BufferedImage>> entries(int n) {
+        List<ProjectImageEntry<BufferedImage>> list = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            list.add(mock(ProjectImageEntry.class));
+        }
+        return list;
+    }
+
+    @Test
+    void outcomesKeepTargetOrderAndIsolateFailures() throws Exception {
+        List<ProjectImageEntry<BufferedImage>> targets = entries(12);
+        AtomicInteger progress = new AtomicInteger();
+        try (PropagationEngine engine = new PropagationEngine(4, null)) {
+            engine.setProgressListener(progress::set);
+            List<PropagationEngine.Outcome<Integer>> outcomes = engine.forEachTarget(targets, target -> {
+                int i = targets.indexOf(target);
+                // Later targets finish first, so completion order differs from target order
+                Thread.sleep((12 - i) * 2L);
+                if (i == 5) throw new IOException("unreadable");
+                return i * i;
+            });
+
+            assertEquals(12, outcomes.size());
+            for (int i = 0; i < 12; i++) {
+                PropagationEngine.Outcome<Integer> o = outcomes.get(i);
+                assertSame(targets.get(i), o.target());
+                if (i == 5) {
+                    assertFalse(o.succeeded());
+                    assertFalse(o.cancelled());
+                    assertInstanceOf(IOException.class, o.error());
+                } else {
+                    assertTrue(o.succeeded());
+                    assertEquals(i * i, (int) o.value());
+                }
+            }
+        }
+        assertEquals(12, progress.get());
+    }
+
+    @Test
+    void cancellationSkipsTasksThatHaveNotStarted() throws Exception {
+        List<ProjectImageEntry<BufferedImage>> targets = entries(6);
+        CancellationToken token = new CancellationToken();
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (PropagationEngine engine = new PropagationEngine(1, token)) {
+            Thread canceller = new Thread(() -> {
+                try {
+                    firstStarted.await(5, TimeUnit.SECONDS);
+                    token.cancel();
+                    release.countDown();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            canceller.start();
+            List<PropagationEngine.Outcome<String>> outcomes = engine.forEachTarget(targets, target -> {
+                firstStarted.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return "done";
+            });
+            canceller.join();
+
+            // The running task finishes; everything queued behind it is skipped
+            assertTrue(outcomes.get(0).succeeded());
+            assertEquals("done", outcomes.get(0).value());
+            for (int i = 1; i < 6; i++) {
+                assertTrue(outcomes.get(i).cancelled(), "target " + i);
+                assertNull(outcomes.get(i).value());
+            }
+            assertTrue(engine.isCancelled());
+        }
+    }
+}
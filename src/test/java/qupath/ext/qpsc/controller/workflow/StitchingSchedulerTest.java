@@ -0,0 +1,201 @@
+package qupath.ext.qpsc.controller.workflow;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import qupath.ext.qpsc.utilities.StitchOutputCleanup;
+
+/**
+ * Tests for {@link StitchingScheduler} admission: the core and heap limits,
+ * viewed-slide priority, per-job progress, and failure cleanup in a shared
+ * output folder. Each test builds its own
+ * scheduler with fixed limits, so the machine's core count and heap size
+ * do not matter.
+ */
+class StitchingSchedulerTest {
+
+    private static final long MB = 1024L * 1024L;
+
+    @TempDir
+    Path tempDir;
+
+    /** A job body that signals when it starts and blocks until released. */
+    private static Runnable blockingJob(String name, List<String> started, CountDownLatch release) {
+        return () -> {
+            started.add(name);
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private static void awaitCondition(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out waiting for the scheduler");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void runsUpToTheCoreLimitInParallel() throws Exception {
+        StitchingScheduler scheduler = new StitchingScheduler(() -> 2, () -> 1000 * MB);
+        List<String> started = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+
+        for (String name : new String[] {"A1", "A2", "A3"}) {
+            scheduler.submit(name, 10 * MB, () -> false, blockingJob(name, started, release));
+        }
+        awaitCondition(() -> started.size() == 2);
+        assertEquals(2, scheduler.getRunningCount());
+        assertEquals(1, scheduler.getQueueDepth());
+
+        release.countDown();
+        awaitCondition(() -> started.size() == 3 && scheduler.getRunningCount() == 0);
+        // A1 and A2 start together in either order; A3 waits for a free slot
+        assertEquals("A3", started.get(2));
+    }
+
+    @Test
+    void heapBudgetKeepsLargeJobsApart() throws Exception {
+        StitchingScheduler scheduler = new StitchingScheduler(() -> 4, () -> 100 * MB);
+        List<String> started = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Larger than the whole budget: still admitted because nothing else runs
+        scheduler.submit("huge", 500 * MB, () -> false, blockingJob("huge", started, release));
+        scheduler.submit("small", 5 * MB, () -> false, blockingJob("small", started, release));
+        // Admission runs inside submit, so the decision is already visible
+        List<StitchingScheduler.JobStatus> jobs = scheduler.getJobs();
+        assertEquals(2, jobs.size());
+        assertEquals("huge", jobs.get(0).name());
+        assertEquals(StitchingScheduler.State.RUNNING, jobs.get(0).state());
+        assertEquals("small", jobs.get(1).name());
+        assertEquals(StitchingScheduler.State.QUEUED, jobs.get(1).state(), "the huge job reserves the whole budget");
+        assertEquals(1, scheduler.getRunningCount());
+        awaitCondition(() -> started.size() == 1);
+        assertEquals(List.of("huge"), started);
+
+        release.countDown();
+        awaitCondition(() -> started.size() == 2 && scheduler.getRunningCount() == 0);
+    }
+
+    @Test
+    void viewedSlideIsStitchedFirst() throws Exception {
+        StitchingScheduler scheduler = new StitchingScheduler(() -> 1, () -> 1000 * MB);
+        List<String> started = new CopyOnWriteArrayList<>();
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CountDownLatch releaseRest = new CountDownLatch(0);
+
+        scheduler.submit("running", MB, () -> false, blockingJob("running", started, releaseFirst));
+        awaitCondition(() -> started.size() == 1);
+        scheduler.submit("other-slide", MB, () -> false, blockingJob("other-slide", started, releaseRest));
+        scheduler.submit("viewed-slide", MB, () -> true, blockingJob("viewed-slide", started, releaseRest));
+
+        List<StitchingScheduler.JobStatus> jobs = scheduler.getJobs();
+        assertEquals(StitchingScheduler.State.RUNNING, jobs.get(0).state());
+        assertEquals(StitchingScheduler.State.QUEUED, jobs.get(1).state());
+
+        releaseFirst.countDown();
+        awaitCondition(() -> started.size() == 3);
+        assertEquals(List.of("running", "viewed-slide", "other-slide"), started);
+    }
+
+    @Test
+    void targetProgressIsVisibleWhileTheJobRuns() throws Exception {
+        StitchingScheduler scheduler = new StitchingScheduler(() -> 1, () -> 1000 * MB);
+        CountDownLatch reported = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        scheduler.submit("A1", MB, () -> false, () -> {
+            StitchingScheduler.TargetProgress progress = StitchingScheduler.progressForCurrentThread();
+            progress.update(3, 5);
+            // A late update from a slower target must not move progress back
+            progress.update(2, 5);
+            reported.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(reported.await(5, TimeUnit.SECONDS));
+
+        StitchingScheduler.JobStatus status = scheduler.getJobs().get(0);
+        assertEquals("A1", status.name());
+        assertEquals(3, status.targetsDone());
+        assertEquals(5, status.targetsTotal());
+        release.countDown();
+
+        // Outside a job the sink is a harmless no-op
+        StitchingScheduler.progressForCurrentThread().update(1, 1);
+    }
+
+    @Test
+    void failedJobKeepsSiblingOutputInSharedFolder() throws Exception {
+        StitchingScheduler scheduler = new StitchingScheduler(() -> 2, () -> 1000 * MB);
+        File slideImages = Files.createDirectories(tempDir.resolve("SlideImages")).toFile();
+        File earlier = new File(slideImages, "earlier.ome.tif");
+        assertTrue(earlier.createNewFile());
+        File siblingOutput = new File(slideImages, "sibling.ome.tif");
+        File failedTiff = new File(slideImages, "failing.ome.tif");
+        File failedZarr = new File(slideImages, "failing.ome.zarr");
+        CountDownLatch failingSnapshotTaken = new CountDownLatch(1);
+        CountDownLatch siblingWriting = new CountDownLatch(1);
+        CountDownLatch failedCleanedUp = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // The sibling starts writing after the failing job's snapshot, so its file is new to it
+        scheduler.submit("sibling", MB, () -> false, () -> {
+            try {
+                failingSnapshotTaken.await(5, TimeUnit.SECONDS);
+                Files.writeString(siblingOutput.toPath(), "partial");
+                siblingWriting.countDown();
+                release.await(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        scheduler.submit("failing", MB, () -> false, () -> {
+            try {
+                Set<String> existing = StitchOutputCleanup.snapshot(slideImages);
+                failingSnapshotTaken.countDown();
+                siblingWriting.await(5, TimeUnit.SECONDS);
+                assertTrue(failedTiff.createNewFile());
+                Files.createDirectories(failedZarr.toPath().resolve("0"));
+                Files.writeString(failedZarr.toPath().resolve("0/.zarray"), "{}");
+                StitchOutputCleanup.deleteFailedOutput(
+                        slideImages,
+                        existing,
+                        StitchOutputCleanup.jobOutputStems("failing", tempDir.toFile(), false));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            } finally {
+                failedCleanedUp.countDown();
+            }
+            throw new IllegalStateException("stitching failed");
+        });
+
+        assertTrue(failedCleanedUp.await(5, TimeUnit.SECONDS));
+        awaitCondition(() -> scheduler.getRunningCount() == 1);
+        assertFalse(failedTiff.exists());
+        assertFalse(failedZarr.exists());
+        assertTrue(siblingOutput.exists(), "a failed job must not delete a running sibling's output");
+        assertTrue(earlier.exists());
+
+        release.countDown();
+        awaitCondition(() -> scheduler.getRunningCount() == 0);
+        assertTrue(siblingOutput.exists());
+    }
+}
@@ -0,0 +1,101 @@
+package qupath.ext.qpsc.controller.workflow;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link TissueFractionMap}: summed-area tile fractions against a
+ * direct per-pixel count, and the overview downsample bounds and pixel limit.
+ */
+class TissueFractionMapTest {
+
+    private static final int WHITE = 230;
+    private static final int DARK = 20;
+
+    private static BufferedImage randomImage(int width, int height, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int v = rnd.nextInt(256);
+                img.setRGB(x, y, (v << 16) | (rnd.nextInt(256) << 8) | v);
+            }
+        }
+        return img;
+    }
+
+    /** The per-tile score the map replaces, over a sub-rectangle of the image. */
+    private static double directScore(BufferedImage img, int x0, int y0, int x1, int y1) {
+        int tissue = 0;
+        for (int y = y0; y < y1; y++) {
+            for (int x = x0; x < x1; x++) {
+                int rgb = img.getRGB(x, y);
+                int mean = (((rgb >> 16) & 0xFF) + ((rgb >> 8) & 0xFF) + (rgb & 0xFF)) / 3;
+                if (mean < WHITE && mean > DARK) {
+                    tissue++;
+                }
+            }
+        }
+        return (double) tissue / ((x1 - x0) * (y1 - y0));
+    }
+
+    @Test
+    void fractionsMatchDirectCountAtFullResolution() {
+        BufferedImage img = randomImage(97, 61, 3);
+        int[] rects = {0, 0, 32, 32, 40, 10, 57, 51, 90, 50, 7, 11, 5, 5, 1, 1};
+        double[] fractions = TissueFractionMap.fractions(img, 97, 61, rects, WHITE, DARK);
+        for (int i = 0; i < rects.length / 4; i++) {
+            int x = rects[4 * i];
+            int y = rects[4 * i + 1];
+            double expected = directScore(img, x, y, x + rects[4 * i + 2], y + rects[4 * i + 3]);
+            assertEquals(expected, fractions[i], 1e-12, "tile " + i);
+        }
+    }
+
+    @Test
+    void fractionsScaleTilesIntoDownsampledOverview() {
+        BufferedImage img = randomImage(50, 40, 9);
+        // Region is 4x the overview; tile (40, 20, 80, 60) covers overview (10, 5)-(30, 20)
+        int[] rects = {40, 20, 80, 60};
+        double[] fractions = TissueFractionMap.fractions(img, 200, 160, rects, WHITE, DARK);
+        assertEquals(directScore(img, 10, 5, 30, 20), fractions[0], 1e-12);
+    }
+
+    @Test
+    void emptyTilesAreNaNAndTinyTilesUseOnePixel() {
+        BufferedImage img = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 10; y++) {
+            for (int x = 0; x < 10; x++) {
+                img.setRGB(x, y, 0x808080);
+            }
+        }
+        int[] rects = {0, 0, 0, 5, 3, 3, 1, 1};
+        double[] fractions = TissueFractionMap.fractions(img, 1000, 1000, rects, WHITE, DARK);
+        assertTrue(Double.isNaN(fractions[0]));
+        assertEquals(1.0, fractions[1], 0.0);
+    }
+
+    @Test
+    void overviewDownsampleIsBoundedByCapAndTileSize() {
+        // Small region: the finest downsample wins
+        assertEquals(2.0, TissueFractionMap.overviewDownsample(1000, 800, 500, 400, 2.0), 0.0);
+        // Large region: capped at MAX_OVERVIEW_SIZE on the long edge
+        assertEquals(
+                40960.0 / TissueFractionMap.MAX_OVERVIEW_SIZE,
+                TissueFractionMap.overviewDownsample(40960, 20000, 2000, 2000, 2.0),
+                1e-12);
+        // Huge region of small tiles: tiles keep MIN_TILE_PIXELS
+        assertEquals(
+                320.0 / TissueFractionMap.MIN_TILE_PIXELS,
+                TissueFractionMap.overviewDownsample(200000, 1000, 320, 400, 2.0),
+                1e-12);
+        // Huge area of small tiles: the pixel limit wins over MIN_TILE_PIXELS
+        double downsample = TissueFractionMap.overviewDownsample(200000, 200000, 320, 400, 2.0);
+        assertTrue(downsample > 320.0 / TissueFractionMap.MIN_TILE_PIXELS);
+        long pixels = (long) Math.ceil(200000 / downsample) * (long) Math.ceil(200000 / downsample);
+        assertTrue(pixels <= TissueFractionMap.MAX_OVERVIEW_PIXELS + 2 * 4096, "overview pixels " + pixels);
+    }
+}
@@ -0,0 +1,119 @@
+package qupath.ext.qpsc.service.microscope;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import qupath.ext.qpsc.service.microscope.AcquisitionEventStream.Event;
+import qupath.ext.qpsc.service.microscope.AcquisitionEventStream.Type;
+
+/**
+ * Tests for {@link AcquisitionEventStream} against a loopback server pushing
+ * event frames, covering decoding, ordering, unknown types and disconnects.
+ */
+class AcquisitionEventStreamTest {
+
+    private ServerSocket server;
+    private Socket clientSide;
+    private Socket serverSide;
+    private DataOutputStream serverOut;
+    private AcquisitionEventStream stream;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        clientSide = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort());
+        serverSide = server.accept();
+        serverOut = new DataOutputStream(serverSide.getOutputStream());
+        stream = AcquisitionEventStream.start(clientSide, new DataInputStream(clientSide.getInputStream()));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        stream.close();
+        serverSide.close();
+        server.close();
+    }
+
+    private void push(Type type, byte[] body) throws IOException {
+        push(type.ordinal(), body);
+    }
+
+    private void push(int code, byte[] body) throws IOException {
+        serverOut.writeInt(code);
+        serverOut.writeInt(body.length);
+        serverOut.write(body);
+        serverOut.flush();
+    }
+
+    private static byte[] ints(int... values) {
+        ByteBuffer buf = ByteBuffer.allocate(values.length * 4);
+        for (int v : values) {
+            buf.putInt(v);
+        }
+        return buf.array();
+    }
+
+    private static byte[] text(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void deliversEventsInOrder() throws Exception {
+        push(Type.STATE, text("RUNNING"));
+        push(Type.PROGRESS, ints(3, 40));
+        push(Type.MANUAL_FOCUS, ints(2));
+        push(Type.SATURATION, text("angle 7.0: 12% saturated"));
+
+        Event state = stream.poll(2000);
+        assertEquals(Type.STATE, state.type());
+        assertEquals("RUNNING", state.message());
+
+        Event progress = stream.poll(2000);
+        assertEquals(Type.PROGRESS, progress.type());
+        assertEquals(3, progress.first());
+        assertEquals(40, progress.second());
+
+        Event focus = stream.poll(2000);
+        assertEquals(Type.MANUAL_FOCUS, focus.type());
+        assertEquals(2, focus.first());
+
+        Event saturation = stream.poll(2000);
+        assertEquals(Type.SATURATION, saturation.type());
+        assertEquals("angle 7.0: 12% saturated", saturation.message());
+    }
+
+    @Test
+    void skipsUnknownEventTypes() throws Exception {
+        push(99, text("from a newer server"));
+        push(Type.KEEPALIVE, new byte[0]);
+
+        Event event = stream.poll(2000);
+        assertEquals(Type.KEEPALIVE, event.type());
+        assertTrue(stream.isRunning());
+    }
+
+    @Test
+    void stopsRunningWhenServerDisconnects() throws Exception {
+        serverSide.close();
+
+        assertNull(stream.poll(2000));
+        assertFalse(stream.isRunning());
+        assertNotNull(stream.getFailureMessage());
+    }
+
+    @Test
+    void decodeRejectsShortBodiesAndUnknownTypes() throws Exception {
+        assertThrows(IOException.class, () -> AcquisitionEventStream.decode(Type.PROGRESS.ordinal(), ints(1)));
+        assertNull(AcquisitionEventStream.decode(-1, new byte[0]));
+    }
+}
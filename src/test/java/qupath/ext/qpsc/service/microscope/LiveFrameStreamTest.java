@@ -0,0 +1,110 @@
+package qupath.ext.qpsc.service.microscope;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import qupath.ext.qpsc.ui.liveviewer.FrameData;
+
+/**
+ * Tests for {@link LiveFrameStream} reading pushed frames from a loopback
+ * socket, covering keep-alives, frame delivery and corrupt-header shutdown.
+ */
+class LiveFrameStreamTest {
+
+    private ServerSocket server;
+    private Socket clientSide;
+    private Socket serverSide;
+    private DataOutputStream serverOut;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        clientSide = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort());
+        serverSide = server.accept();
+        serverOut = new DataOutputStream(serverSide.getOutputStream());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        clientSide.close();
+        serverSide.close();
+        server.close();
+    }
+
+    private void pushHeader(int w, int h, int ch, int bpp, int len) throws IOException {
+        serverOut.writeInt(w);
+        serverOut.writeInt(h);
+        serverOut.writeInt(ch);
+        serverOut.writeInt(bpp);
+        serverOut.writeInt(len);
+    }
+
+    private void pushFrame(int w, int h, int ch, int bpp, int fill) throws IOException {
+        int len = w * h * ch * bpp;
+        pushHeader(w, h, ch, bpp, len);
+        byte[] data = new byte[len];
+        java.util.Arrays.fill(data, (byte) fill);
+        serverOut.write(data);
+        serverOut.flush();
+    }
+
+    @Test
+    void deliversFramesAndSkipsKeepAlives() throws Exception {
+        List<FrameData> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        LiveFrameStream stream = LiveFrameStream.start(
+                clientSide, new DataInputStream(clientSide.getInputStream()), f -> {
+                    received.add(f);
+                    latch.countDown();
+                });
+        try {
+            pushHeader(0, 0, 0, 0, 0); // keep-alive
+            pushFrame(4, 3, 1, 2, 7);
+            pushHeader(0, 0, 0, 0, 0);
+            pushFrame(2, 2, 3, 1, 9);
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS), "frames not delivered");
+            assertEquals(2, received.size());
+            assertEquals(4, received.get(0).width());
+            assertEquals(2, received.get(0).bytesPerPixel());
+            assertEquals(24, received.get(0).rawPixels().length);
+            assertTrue(received.get(1).isRGB());
+            assertEquals(9, received.get(1).rawPixels()[0]);
+            assertEquals(2, stream.getFramesReceived());
+            assertTrue(stream.isRunning());
+        } finally {
+            stream.close();
+        }
+        assertFalse(stream.isRunning());
+        assertNull(stream.getFailureMessage(), "deliberate close is not a failure");
+    }
+
+    @Test
+    void corruptHeaderEndsStream() throws Exception {
+        LiveFrameStream stream =
+                LiveFrameStream.start(clientSide, new DataInputStream(clientSide.getInputStream()), f -> {});
+        // dataLength disagrees with width*height*channels*bpp
+        pushHeader(10, 10, 1, 1, 50);
+        serverOut.flush();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (stream.isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(stream.isRunning());
+        assertNotNull(stream.getFailureMessage());
+        assertTrue(stream.getFailureMessage().contains("Corrupt frame header"));
+    }
+}
@@ -0,0 +1,137 @@
+package qupath.ext.qpsc.service.microscope;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import qupath.ext.qpsc.service.microscope.MicroscopeSocketClient.Command;
+
+/**
+ * Tests for {@link MultiplexedChannel} against a loopback server speaking the
+ * tagged framing, covering out-of-order replies, timeouts and shutdown.
+ */
+class MultiplexedChannelTest {
+
+    private ServerSocket server;
+    private Socket clientSide;
+    private Socket serverSide;
+    private DataInputStream serverIn;
+    private DataOutputStream serverOut;
+    private MultiplexedChannel channel;
+
+    /** One request as decoded by the fake server. */
+    private record Request(int id, String command, byte[] payload) {}
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        clientSide = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort());
+        serverSide = server.accept();
+        serverSide.setSoTimeout(5000);
+        serverIn = new DataInputStream(serverSide.getInputStream());
+        serverOut = new DataOutputStream(serverSide.getOutputStream());
+        channel = MultiplexedChannel.start(
+                clientSide,
+                new DataInputStream(clientSide.getInputStream()),
+                new DataOutputStream(clientSide.getOutputStream()));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        channel.close();
+        serverSide.close();
+        server.close();
+    }
+
+    private Request readRequest() throws IOException {
+        int id = serverIn.readInt();
+        byte[] cmd = new byte[8];
+        serverIn.readFully(cmd);
+        byte[] payload = new byte[serverIn.readInt()];
+        serverIn.readFully(payload);
+        return new Request(id, new String(cmd, StandardCharsets.US_ASCII), payload);
+    }
+
+    private void reply(int id, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.US_ASCII);
+        serverOut.writeInt(id);
+        serverOut.writeInt(bytes.length);
+        serverOut.write(bytes);
+        serverOut.flush();
+    }
+
+    @Test
+    void dispatchesOutOfOrderRepliesToTheirRequests() throws Exception {
+        CompletableFuture<byte[]> slow = channel.submit(Command.ACQUIRE, new byte[] {1, 2, 3});
+        CompletableFuture<byte[]> status = channel.submit(Command.STATUS, null);
+
+        Request first = readRequest();
+        Request second = readRequest();
+        assertEquals("acquire_", first.command());
+        assertArrayEquals(new byte[] {1, 2, 3}, first.payload());
+        assertEquals("status__", second.command());
+        assertEquals(0, second.payload().length);
+        assertNotEquals(first.id(), second.id());
+
+        // The quick poll is answered while the slow command is still running
+        reply(second.id(), "RUNNING");
+        assertEquals("RUNNING", new String(status.get(5, TimeUnit.SECONDS), StandardCharsets.US_ASCII));
+        assertFalse(slow.isDone());
+
+        reply(first.id(), "STARTED");
+        assertEquals("STARTED", new String(slow.get(5, TimeUnit.SECONDS), StandardCharsets.US_ASCII));
+        assertEquals(0, channel.getInFlightCount());
+    }
+
+    @Test
+    void timedOutCallLeavesChannelUsable() throws Exception {
+        assertThrows(SocketTimeoutException.class, () -> channel.call(Command.PROGRESS, null, 100));
+        Request abandoned = readRequest();
+
+        CompletableFuture<byte[]> next = channel.submit(Command.GETXY, null);
+        Request live = readRequest();
+
+        // Late reply for the abandoned request is discarded, not mis-delivered
+        reply(abandoned.id(), "LATE____");
+        reply(live.id(), "XYXYXYXY");
+        assertEquals("XYXYXYXY", new String(next.get(5, TimeUnit.SECONDS), StandardCharsets.US_ASCII));
+        assertTrue(channel.isRunning());
+    }
+
+    @Test
+    void serverDisconnectFailsPendingRequests() throws Exception {
+        CompletableFuture<byte[]> pending = channel.submit(Command.STATUS, null);
+        readRequest();
+        serverSide.close();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> pending.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, e.getCause());
+        assertFalse(channel.isRunning());
+        assertTrue(channel.submit(Command.STATUS, null).isCompletedExceptionally());
+    }
+
+    @Test
+    void corruptLengthClosesChannel() throws Exception {
+        CompletableFuture<byte[]> pending = channel.submit(Command.STATUS, null);
+        Request request = readRequest();
+        serverOut.writeInt(request.id());
+        serverOut.writeInt(-1);
+        serverOut.flush();
+
+        assertThrows(ExecutionException.class, () -> pending.get(5, TimeUnit.SECONDS));
+        assertFalse(channel.isRunning());
+        assertNotNull(channel.getFailureMessage());
+    }
+}
@@ -0,0 +1,107 @@
+package qupath.ext.qpsc.ui;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link SiftRegionCache}: pixels are packed in the live-frame wire
+ * format, the PNG fallback is rebuilt from them, a repeated key skips the
+ * read, and eviction deletes PNG files written for dropped regions.
+ */
+class SiftRegionCacheTest {
+
+    private static SiftRegionCache.Key key(int x) {
+        return new SiftRegionCache.Key("server", x, 0, 400, 200, 4.0);
+    }
+
+    @Test
+    void packsRgbGray8AndGray16() throws Exception {
+        SiftRegionCache cache = new SiftRegionCache(Long.MAX_VALUE);
+
+        BufferedImage rgb = new BufferedImage(2, 1, BufferedImage.TYPE_INT_RGB);
+        rgb.setRGB(0, 0, 0x102030);
+        rgb.setRGB(1, 0, 0xA0B0C0);
+        SiftRegionCache.PreparedRegion r = cache.get(key(0), 0.5, () -> rgb);
+        assertEquals(3, r.channels());
+        assertEquals(1, r.bytesPerPixel());
+        assertArrayEquals(new byte[] {0x10, 0x20, 0x30, (byte) 0xA0, (byte) 0xB0, (byte) 0xC0}, r.pixels());
+
+        BufferedImage gray8 = new BufferedImage(2, 1, BufferedImage.TYPE_BYTE_GRAY);
+        gray8.getRaster().setSample(0, 0, 0, 7);
+        gray8.getRaster().setSample(1, 0, 0, 250);
+        r = cache.get(key(1), 0.5, () -> gray8);
+        assertEquals(1, r.channels());
+        assertEquals(1, r.bytesPerPixel());
+        assertArrayEquals(new byte[] {7, (byte) 250}, r.pixels());
+
+        BufferedImage gray16 = new BufferedImage(2, 1, BufferedImage.TYPE_USHORT_GRAY);
+        gray16.getRaster().setSample(0, 0, 0, 0x1234);
+        gray16.getRaster().setSample(1, 0, 0, 0xFF01);
+        r = cache.get(key(2), 0.5, () -> gray16);
+        assertEquals(1, r.channels());
+        assertEquals(2, r.bytesPerPixel());
+        // Big-endian samples, as in the GETFRAME header format
+        assertArrayEquals(new byte[] {0x12, 0x34, (byte) 0xFF, 0x01}, r.pixels());
+    }
+
+    @Test
+    void pngFallbackIsRebuiltFromPackedPixels() throws Exception {
+        SiftRegionCache cache = new SiftRegionCache(Long.MAX_VALUE);
+
+        BufferedImage rgb = new BufferedImage(2, 1, BufferedImage.TYPE_INT_RGB);
+        rgb.setRGB(0, 0, 0x102030);
+        rgb.setRGB(1, 0, 0xA0B0C0);
+        BufferedImage decoded = ImageIO.read(cache.get(key(0), 0.5, () -> rgb).pngFile());
+        assertEquals(0x102030, decoded.getRGB(0, 0) & 0xFFFFFF);
+        assertEquals(0xA0B0C0, decoded.getRGB(1, 0) & 0xFFFFFF);
+
+        BufferedImage gray16 = new BufferedImage(2, 1, BufferedImage.TYPE_USHORT_GRAY);
+        gray16.getRaster().setSample(0, 0, 0, 0x1234);
+        gray16.getRaster().setSample(1, 0, 0, 0xFF01);
+        decoded = ImageIO.read(cache.get(key(1), 0.5, () -> gray16).pngFile());
+        assertEquals(0x1234, decoded.getRaster().getSample(0, 0, 0));
+        assertEquals(0xFF01, decoded.getRaster().getSample(1, 0, 0));
+        cache.clear();
+    }
+
+    @Test
+    void repeatedKeyReusesRegionAndReportsEffectivePixelSize() throws Exception {
+        SiftRegionCache cache = new SiftRegionCache(Long.MAX_VALUE);
+        AtomicInteger reads = new AtomicInteger();
+        SiftRegionCache.RegionReader reader = () -> {
+            reads.incrementAndGet();
+            return new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB);
+        };
+
+        SiftRegionCache.PreparedRegion first = cache.get(key(0), 0.25, reader);
+        SiftRegionCache.PreparedRegion second = cache.get(key(0), 0.25, reader);
+
+        assertSame(first, second);
+        assertEquals(1, reads.get());
+        // 400 full-res px read as 100 px at 0.25 um/px
+        assertEquals(1.0, first.effectivePixelSize(), 1e-12);
+    }
+
+    @Test
+    void evictionDeletesPngOfDroppedRegion() throws Exception {
+        // Room for one 100x50 RGB region (15000 bytes) but not two
+        SiftRegionCache cache = new SiftRegionCache(20_000);
+        SiftRegionCache.PreparedRegion first =
+                cache.get(key(0), 0.25, () -> new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB));
+        File png = first.pngFile();
+        assertTrue(png.isFile());
+        assertSame(png, first.pngFile());
+
+        cache.get(key(1), 0.25, () -> new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB));
+
+        assertEquals(1, cache.size());
+        assertFalse(png.exists());
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,75 @@
+package qupath.ext.qpsc.ui.liveviewer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ContrastLutTest {
+
+    @Test
+    void linearTableMatchesPerPixelFormula() {
+        int min = 1200;
+        int max = 40000;
+        ContrastLut lut = ContrastLut.of(2, min, max, 1.0);
+        int range = max - min;
+        for (int v = 0; v < 65536; v++) {
+            int expected = Math.max(0, Math.min(255, (v - min) * 255 / range));
+            assertEquals(expected, lut.map(0, v), "value " + v);
+        }
+    }
+
+    @Test
+    void gammaBrightensMidTones() {
+        ContrastLut linear = ContrastLut.of(1, 0, 255, 1.0);
+        ContrastLut bright = ContrastLut.of(1, 0, 255, 2.0);
+        assertEquals(128, linear.map(0, 128));
+        assertTrue(bright.map(0, 128) > 170);
+        assertEquals(0, bright.map(0, 0));
+        assertEquals(255, bright.map(0, 255));
+    }
+
+    @Test
+    void perChannelTablesAreIndependent() {
+        ContrastLut lut = ContrastLut.perChannel(1, new int[] {0, 100, 0}, new int[] {255, 200, 255}, 1.0);
+        assertEquals(150, lut.map(0, 150));
+        assertEquals(127, lut.map(1, 150));
+        assertSame(lut.table(0), lut.table(2), "identical ranges share a table");
+        assertSame(lut.table(2), lut.table(5), "extra channels reuse the last table");
+    }
+
+    @Test
+    void settingsCacheTableUntilRangeChanges() {
+        ContrastSettings settings = new ContrastSettings();
+        FrameData frame = new FrameData(1, 1, 1, 2, new byte[2], 0);
+        settings.applyFullRange(frame);
+
+        ContrastLut first = settings.lookupTable(frame);
+        assertSame(first, settings.lookupTable(frame));
+
+        settings.setDisplayMax(30000);
+        ContrastLut second = settings.lookupTable(frame);
+        assertNotSame(first, second);
+        assertEquals(255, second.map(0, 30000));
+
+        settings.setGamma(0.5);
+        assertNotSame(second, settings.lookupTable(frame));
+    }
+
+    @Test
+    void channelRangesApplyOnlyToMultiChannelFrames() {
+        ContrastSettings settings = new ContrastSettings();
+        settings.setChannelRanges(new int[] {0, 0, 0}, new int[] {255, 127, 255});
+        FrameData rgb = new FrameData(1, 1, 3, 1, new byte[3], 0);
+        FrameData gray = new FrameData(1, 1, 1, 1, new byte[1], 0);
+
+        assertEquals(255, settings.lookupTable(rgb).map(1, 127));
+        assertEquals(127, settings.lookupTable(gray).map(0, 127));
+    }
+
+    @Test
+    void rejectsNonPositiveGamma() {
+        ContrastSettings settings = new ContrastSettings();
+        assertThrows(IllegalArgumentException.class, () -> settings.setGamma(0));
+        assertThrows(IllegalArgumentException.class, () -> settings.setGamma(Double.NaN));
+    }
+}
@@ -0,0 +1,92 @@
+package qupath.ext.qpsc.ui.liveviewer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link FrameBufferPool} reference counting and for the
+ * {@link LatestFrameSlot} releasing frames it drops.
+ */
+class FrameBufferPoolTest {
+
+    private static FrameData pooledFrame(FrameBufferPool pool, int len) {
+        return pool.wrap(len, 1, 1, 1, pool.acquire(len), 0L);
+    }
+
+    @Test
+    void releasedBufferIsReused() {
+        FrameBufferPool pool = new FrameBufferPool(2);
+        FrameData first = pooledFrame(pool, 16);
+        byte[] buffer = first.rawPixels();
+        first.release();
+
+        assertEquals(1, pool.getFreeCount());
+        assertSame(buffer, pool.acquire(16));
+        assertEquals(1, pool.getReusedCount());
+    }
+
+    @Test
+    void retainedBufferIsNotRecycledUntilLastRelease() {
+        FrameBufferPool pool = new FrameBufferPool(2);
+        FrameData frame = pooledFrame(pool, 16);
+        frame.retain();
+        frame.release();
+        assertEquals(0, pool.getFreeCount());
+        frame.release();
+        assertEquals(1, pool.getFreeCount());
+    }
+
+    @Test
+    void overReleaseDoesNotRecycleTwice() {
+        FrameBufferPool pool = new FrameBufferPool(4);
+        FrameData frame = pooledFrame(pool, 16);
+        frame.release();
+        frame.release();
+        frame.retain();
+        frame.release();
+        assertEquals(1, pool.getFreeCount());
+    }
+
+    @Test
+    void formatChangeDropsOldBuffers() {
+        FrameBufferPool pool = new FrameBufferPool(4);
+        pooledFrame(pool, 16).release();
+        assertEquals(1, pool.getFreeCount());
+
+        FrameData other = pooledFrame(pool, 32);
+        assertEquals(0, pool.getFreeCount());
+        other.release();
+        assertEquals(32, pool.acquire(32).length);
+    }
+
+    @Test
+    void detachCopiesPooledPixels() {
+        FrameBufferPool pool = new FrameBufferPool(1);
+        FrameData frame = pooledFrame(pool, 4);
+        frame.rawPixels()[0] = 42;
+        FrameData copy = frame.detach();
+        assertNotSame(frame.rawPixels(), copy.rawPixels());
+        assertEquals(42, copy.rawPixels()[0]);
+        assertNull(copy.lease());
+
+        FrameData plain = new FrameData(1, 1, 1, 1, new byte[1], 0L);
+        assertSame(plain, plain.detach());
+    }
+
+    @Test
+    void slotReleasesDroppedFrames() {
+        FrameBufferPool pool = new FrameBufferPool(4);
+        LatestFrameSlot slot = new LatestFrameSlot();
+        assertTrue(slot.offer(pooledFrame(pool, 8)));
+        assertFalse(slot.offer(pooledFrame(pool, 8)));
+        assertEquals(1, slot.droppedCount());
+        assertEquals(1, pool.getFreeCount());
+
+        FrameData taken = slot.take();
+        assertNotNull(taken);
+        assertNull(slot.take());
+        taken.release();
+        assertEquals(2, pool.getFreeCount());
+    }
+}
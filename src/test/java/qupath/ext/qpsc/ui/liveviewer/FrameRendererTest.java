@@ -0,0 +1,63 @@
+package qupath.ext.qpsc.ui.liveviewer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class FrameRendererTest {
+
+    @Test
+    void fitModeDownsamplesToViewportPreservingAspect() {
+        int[] size = FrameRenderer.displaySize(4000, 3000, true, 1.0, 800, 800);
+        assertArrayEquals(new int[] {800, 600}, size);
+    }
+
+    @Test
+    void fitModeNeverUpsamples() {
+        int[] size = FrameRenderer.displaySize(320, 240, true, 1.0, 1600, 1200);
+        assertArrayEquals(new int[] {320, 240}, size);
+    }
+
+    @Test
+    void fitModeBeforeLayoutRendersAtSourceSize() {
+        int[] size = FrameRenderer.displaySize(640, 480, true, 1.0, 0, 0);
+        assertArrayEquals(new int[] {640, 480}, size);
+    }
+
+    @Test
+    void explicitScaleAppliesToSource() {
+        int[] size = FrameRenderer.displaySize(1000, 500, false, 0.25, 300, 300);
+        assertArrayEquals(new int[] {250, 125}, size);
+    }
+
+    @Test
+    void mapsGray16ThroughDisplayRange() {
+        // 2x1 uint16 big-endian: 1000 and 3000, display range [1000, 3000]
+        byte[] raw = {0x03, (byte) 0xE8, 0x0B, (byte) 0xB8};
+        FrameData frame = new FrameData(2, 1, 1, 2, raw, 0);
+        try (RowStripes stripes = new RowStripes("test", 1)) {
+            FrameRenderer.Rendered out =
+                    new FrameRenderer(stripes).render(frame, 2, 1, ContrastLut.of(2, 1000, 3000, 1.0));
+            assertEquals(0xFF000000, out.argb()[0]);
+            assertEquals(0xFFFFFFFF, out.argb()[1]);
+        }
+    }
+
+    @Test
+    void bandedRenderMatchesInlineRender() {
+        int w = 300;
+        int h = 517;
+        byte[] raw = new byte[w * h * 3];
+        for (int i = 0; i < raw.length; i++) {
+            raw[i] = (byte) (i * 31);
+        }
+        FrameData frame = new FrameData(w, h, 3, 1, raw, 0);
+        ContrastLut lut = ContrastLut.perChannel(1, new int[] {10, 0, 40}, new int[] {240, 255, 200}, 0.8);
+        try (RowStripes inline = new RowStripes("test", 1);
+                RowStripes banded = new RowStripes("test", 4)) {
+            int[] expected = new FrameRenderer(inline).render(frame, 150, 259, lut).argb();
+            int[] actual = new FrameRenderer(banded).render(frame, 150, 259, lut).argb();
+            assertArrayEquals(expected, actual);
+        }
+    }
+}
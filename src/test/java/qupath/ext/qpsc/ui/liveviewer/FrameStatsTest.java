@@ -0,0 +1,128 @@
+package qupath.ext.qpsc.ui.liveviewer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class FrameStatsTest {
+
+    private static FrameData randomFrame(int w, int h, int channels, int bpp, long seed) {
+        byte[] raw = new byte[w * h * channels * bpp];
+        new Random(seed).nextBytes(raw);
+        // Force a few saturated samples
+        for (int i = 0; i < raw.length; i += 97) {
+            raw[i] = (byte) 0xFF;
+            if (bpp == 2 && i + 1 < raw.length) raw[i + 1] = (byte) 0xFF;
+        }
+        return new FrameData(w, h, channels, bpp, raw, 0);
+    }
+
+    /** Histogram as computed by HistogramView before the fused kernel. */
+    private static int[] referenceHistogram(FrameData frame) {
+        int[] histogram = new int[256];
+        int max = frame.maxValue();
+        int stride = frame.channels() * frame.bytesPerPixel();
+        for (int i = 0; i < frame.pixelCount(); i++) {
+            int off = i * stride;
+            int val;
+            if (frame.channels() == 1) {
+                val = frame.readPixelValue(off);
+            } else {
+                int bpp = frame.bytesPerPixel();
+                int r = frame.readPixelValue(off);
+                int g = frame.readPixelValue(off + bpp);
+                int b = frame.readPixelValue(off + 2 * bpp);
+                val = (int) (0.299 * r + 0.587 * g + 0.114 * b);
+            }
+            histogram[Math.min(val * 255 / max, 255)]++;
+        }
+        return histogram;
+    }
+
+    /** Brenner gradient as computed by FocusMetricCalculator before the fused kernel. */
+    private static double referenceBrenner(FrameData frame) {
+        int w = frame.width();
+        int h = frame.height();
+        int stride = frame.channels() * frame.bytesPerPixel();
+        int rowStep = Math.max(1, h / 256);
+        long sumSq = 0;
+        long count = 0;
+        for (int y = 0; y < h; y += rowStep) {
+            for (int x = 0; x < w - 2; x++) {
+                int d = frame.readPixelValue((y * w + x + 2) * stride) - frame.readPixelValue((y * w + x) * stride);
+                sumSq += (long) d * d;
+                count++;
+            }
+        }
+        return count == 0 ? 0.0 : (double) sumSq / count;
+    }
+
+    private static void assertMatchesReference(FrameData frame) {
+        FrameStats stats = FrameStats.compute(frame);
+        assertArrayEquals(referenceHistogram(frame), stats.histogram());
+        assertEquals(referenceBrenner(frame), stats.brennerGradient(), 1e-9);
+
+        int nCh = frame.channels() == 1 ? 1 : 3;
+        int bpp = frame.bytesPerPixel();
+        int stride = frame.channels() * bpp;
+        for (int c = 0; c < nCh; c++) {
+            long sum = 0;
+            long sumSq = 0;
+            long sat = 0;
+            for (int i = 0; i < frame.pixelCount(); i++) {
+                int v = frame.readPixelValue(i * stride + c * bpp);
+                sum += v;
+                sumSq += (long) v * v;
+                if (v >= frame.maxValue()) sat++;
+            }
+            double mean = (double) sum / frame.pixelCount();
+            double std = Math.sqrt(Math.max(0, (double) sumSq / frame.pixelCount() - mean * mean));
+            assertEquals(mean, stats.mean(c), 1e-9);
+            assertEquals(std, stats.stdDev(c), 1e-9);
+            assertEquals(sat, stats.saturatedCounts()[c]);
+        }
+        assertEquals(stats.brennerGradient(), FrameStats.focusOnly(frame).brennerGradient(), 1e-9);
+    }
+
+    @Test
+    void gray8MatchesSeparatePasses() {
+        assertMatchesReference(randomFrame(97, 61, 1, 1, 1));
+    }
+
+    @Test
+    void gray16MatchesSeparatePasses() {
+        assertMatchesReference(randomFrame(64, 600, 1, 2, 2));
+    }
+
+    @Test
+    void rgb8MatchesSeparatePasses() {
+        assertMatchesReference(randomFrame(80, 45, 3, 1, 3));
+    }
+
+    @Test
+    void rgb16MatchesSeparatePasses() {
+        assertMatchesReference(randomFrame(33, 70, 3, 2, 4));
+    }
+
+    @Test
+    void stripedPassMatchesSingleThreaded() {
+        FrameData frame = randomFrame(120, 777, 3, 2, 5);
+        FrameStats single = FrameStats.compute(frame);
+        try (RowStripes stripes = new RowStripes("test", 4)) {
+            FrameStats striped = FrameStats.compute(frame, stripes);
+            assertArrayEquals(single.histogram(), striped.histogram());
+            assertArrayEquals(single.means(), striped.means(), 1e-9);
+            assertArrayEquals(single.stdDevs(), striped.stdDevs(), 1e-9);
+            assertArrayEquals(single.saturatedCounts(), striped.saturatedCounts());
+            assertEquals(single.brennerGradient(), striped.brennerGradient(), 1e-9);
+        }
+    }
+
+    @Test
+    void focusOnlyCarriesNoFullStats() {
+        FrameStats stats = FrameStats.focusOnly(randomFrame(10, 10, 1, 1, 6));
+        assertFalse(stats.hasFullStats());
+        assertTrue(stats.brennerGradient() > 0);
+    }
+}
@@ -0,0 +1,93 @@
+package qupath.ext.qpsc.ui.stagemap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link StageMapRaster}: a pan done as scroll plus clipped strip
+ * repaints must give the same pixels as a full repaint.
+ */
+class StageMapRasterTest {
+
+    private static final int W = 97;
+    private static final int H = 61;
+
+    /** A scene using every primitive, positioned from an integer origin like the canvas does. */
+    private static void paint(StageMapRaster r, int ox, int oy) {
+        r.fillRect(0, 0, r.width(), r.height(), 0xFF202020);
+        r.fillRect(ox, oy, 150, 90, 0xFF404040);
+        r.fillRectBlend(ox + 5, oy + 5, 70, 40, 0x80FF0000);
+        r.drawRectBorder(ox + 20, oy + 10, 50, 30, 0xFFFFFFFF, 2);
+        r.fillCircle(ox + 100.5, oy + 45.0, 20.3, 0xFF00FF00);
+        r.fillCircleBlend(ox + 40.0, oy + 60.0, 15.0, 0x6000FFFF);
+        r.fillAnnulusBlend(ox + 100.5, oy + 45.0, 12.0, 20.3, 0x400000FF);
+        r.drawCircleBorder(ox + 75.0, oy + 45.0, 45.0, 0xFFFFFF00, 2);
+    }
+
+    private static int[] fullPaint(int ox, int oy) {
+        StageMapRaster r = new StageMapRaster(W, H);
+        paint(r, ox, oy);
+        return r.pixels().clone();
+    }
+
+    private static void pan(StageMapRaster r, int fromX, int fromY, int toX, int toY) {
+        List<int[]> strips = r.scroll(toX - fromX, toY - fromY);
+        for (int[] s : strips) {
+            r.setClip(s[0], s[1], s[2], s[3]);
+            paint(r, toX, toY);
+        }
+        r.resetClip();
+    }
+
+    @Test
+    void scrollAndStripRepaintMatchesFullRepaint() {
+        int[][] moves = {{7, 0}, {0, -5}, {-13, 9}, {4, 4}, {-1, -30}, {0, 0}, {200, 3}, {-6, 2}};
+        StageMapRaster r = new StageMapRaster(W, H);
+        int ox = -10;
+        int oy = 3;
+        paint(r, ox, oy);
+        for (int[] m : moves) {
+            pan(r, ox, oy, ox + m[0], oy + m[1]);
+            ox += m[0];
+            oy += m[1];
+            assertArrayEquals(fullPaint(ox, oy), r.pixels(), "after pan to " + ox + "," + oy);
+        }
+    }
+
+    @Test
+    void scrollReportsExposedStrips() {
+        StageMapRaster r = new StageMapRaster(10, 8);
+
+        assertTrue(r.scroll(0, 0).isEmpty());
+
+        List<int[]> strips = r.scroll(3, -2);
+        assertEquals(2, strips.size());
+        assertArrayEquals(new int[] {0, 6, 10, 2}, strips.get(0));
+        assertArrayEquals(new int[] {0, 0, 3, 6}, strips.get(1));
+
+        List<int[]> all = r.scroll(-10, 0);
+        assertEquals(1, all.size());
+        assertArrayEquals(new int[] {0, 0, 10, 8}, all.get(0));
+    }
+
+    @Test
+    void clipLimitsPainting() {
+        StageMapRaster r = new StageMapRaster(4, 4);
+        r.setClip(1, 1, 2, 2);
+        r.fillRect(-5, -5, 20, 20, 0xFFFFFFFF);
+
+        assertEquals(0, r.pixels()[0]);
+        assertEquals(0xFFFFFFFF, r.pixels()[5]);
+        assertEquals(0xFFFFFFFF, r.pixels()[10]);
+        assertEquals(0, r.pixels()[15]);
+    }
+
+    @Test
+    void blendEndpoints() {
+        assertEquals(0xFF102030, StageMapRaster.blend(0xFF102030, 0xFFFFFFFF, 0));
+        assertEquals(0xFFFFFFFF, StageMapRaster.blend(0xFF102030, 0xFFFFFFFF, 255));
+        assertEquals(0xFF808080, StageMapRaster.blend(0xFF000000, 0x80FFFFFF, 128));
+    }
+}
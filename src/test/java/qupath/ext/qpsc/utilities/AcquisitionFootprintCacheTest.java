@@ -0,0 +1,46 @@
+package qupath.ext.qpsc.utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the pure parts of {@link AcquisitionFootprintCache}: the stage
+ * rectangle of a flipped image and the thumbnail contrast stretch.
+ */
+class AcquisitionFootprintCacheTest {
+
+    @Test
+    void stageBoundsCoverFlippedImage() {
+        // 1000 x 500 px at 0.5 um/px, flipped in X with its origin at stage (2000, 100)
+        AffineTransform alignment = new AffineTransform(-0.5, 0, 0, 0.5, 2000, 100);
+
+        double[] bounds = AcquisitionFootprintCache.stageBounds(alignment, 1000, 500);
+
+        assertArrayEquals(new double[] {1500, 100, 2000, 350}, bounds, 1e-9);
+    }
+
+    @Test
+    void normalizeStretchesToFullRange() {
+        BufferedImage img = new BufferedImage(2, 1, BufferedImage.TYPE_INT_RGB);
+        img.setRGB(0, 0, 0x404040);
+        img.setRGB(1, 0, 0x808080);
+
+        BufferedImage out = AcquisitionFootprintCache.normalize(img);
+
+        assertEquals(0xFF000000, out.getRGB(0, 0));
+        assertEquals(0xFFFFFFFF, out.getRGB(1, 0));
+    }
+
+    @Test
+    void normalizeKeepsFlatImage() {
+        BufferedImage img = new BufferedImage(3, 2, BufferedImage.TYPE_BYTE_GRAY);
+
+        BufferedImage out = AcquisitionFootprintCache.normalize(img);
+
+        assertEquals(BufferedImage.TYPE_INT_ARGB, out.getType());
+        assertEquals(img.getRGB(2, 1), out.getRGB(2, 1));
+    }
+}
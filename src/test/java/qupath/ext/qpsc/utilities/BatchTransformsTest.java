@@ -0,0 +1,85 @@
+package qupath.ext.qpsc.utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link BatchTransforms}: envelopes must match transforming each box
+ * on its own, and placement must never call an overlapping box outside or a
+ * crossing box inside.
+ */
+class BatchTransformsTest {
+
+    @Test
+    void envelopesMatchPerBoxTransformUnderRotation() {
+        AffineTransform transform = new AffineTransform();
+        transform.translate(500, -200);
+        transform.rotate(Math.toRadians(17));
+        transform.scale(0.25, -0.25);
+        Random random = new Random(5);
+        int n = 500;
+        double[] boxes = new double[n * 4];
+        for (int i = 0; i < boxes.length; i++) {
+            boxes[i] = (i % 4 < 2) ? random.nextDouble() * 20000 : random.nextDouble() * 300;
+        }
+
+        double[] envelopes = BatchTransforms.envelopes(boxes, transform);
+
+        for (int i = 0; i < n; i++) {
+            Shape shape = transform.createTransformedShape(
+                    new Rectangle2D.Double(boxes[i * 4], boxes[i * 4 + 1], boxes[i * 4 + 2], boxes[i * 4 + 3]));
+            Rectangle2D expected = shape.getBounds2D();
+            assertEquals(expected.getMinX(), envelopes[i * 4], 1e-9, "box " + i);
+            assertEquals(expected.getMinY(), envelopes[i * 4 + 1], 1e-9, "box " + i);
+            assertEquals(expected.getMaxX(), envelopes[i * 4 + 2], 1e-9, "box " + i);
+            assertEquals(expected.getMaxY(), envelopes[i * 4 + 3], 1e-9, "box " + i);
+        }
+    }
+
+    @Test
+    void placementAgainstTheTarget() {
+        double[] boxes = {
+            10, 10, 50, 50, // inside
+            -80, 10, 50, 50, // left of the image
+            90, 90, 50, 50, // across the bottom-right corner
+            0, 0, 100, 100, // exactly the image
+            100, 20, 10, 10, // touching the right edge
+            Double.NaN, Double.NaN, Double.NaN, Double.NaN // no ROI
+        };
+        double[] envelopes = BatchTransforms.envelopes(boxes, null);
+
+        assertEquals(BatchTransforms.Placement.INSIDE, BatchTransforms.place(envelopes, 0, 100, 100));
+        assertEquals(BatchTransforms.Placement.OUTSIDE, BatchTransforms.place(envelopes, 1, 100, 100));
+        assertEquals(BatchTransforms.Placement.STRADDLES, BatchTransforms.place(envelopes, 2, 100, 100));
+        assertEquals(BatchTransforms.Placement.INSIDE, BatchTransforms.place(envelopes, 3, 100, 100));
+        assertEquals(BatchTransforms.Placement.STRADDLES, BatchTransforms.place(envelopes, 4, 100, 100));
+        assertEquals(BatchTransforms.Placement.OUTSIDE, BatchTransforms.place(envelopes, 5, 100, 100));
+    }
+
+    @Test
+    void placementIsNeverWrongForRotatedBoxes() {
+        AffineTransform transform = AffineTransform.getRotateInstance(Math.toRadians(30), 500, 500);
+        Rectangle target = new Rectangle(0, 0, 1000, 1000);
+        Random random = new Random(9);
+        for (int i = 0; i < 2000; i++) {
+            double[] box = {
+                random.nextDouble() * 1600 - 300, random.nextDouble() * 1600 - 300,
+                random.nextDouble() * 200, random.nextDouble() * 200
+            };
+            BatchTransforms.Placement placement =
+                    BatchTransforms.place(BatchTransforms.envelopes(box, transform), 0, 1000, 1000);
+            Shape shape = transform.createTransformedShape(new Rectangle2D.Double(box[0], box[1], box[2], box[3]));
+            if (placement == BatchTransforms.Placement.OUTSIDE) {
+                assertFalse(shape.intersects(target), "box " + i);
+            } else if (placement == BatchTransforms.Placement.INSIDE) {
+                assertTrue(target.contains(shape.getBounds2D()), "box " + i);
+            }
+        }
+    }
+}
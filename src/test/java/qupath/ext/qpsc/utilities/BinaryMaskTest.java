@@ -0,0 +1,73 @@
+package qupath.ext.qpsc.utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link BinaryMask}: bit access across word boundaries and the
+ * packed {@code TYPE_BYTE_BINARY} conversion.
+ */
+class BinaryMaskTest {
+
+    @Test
+    void setGetAndCountAcrossWords() {
+        BinaryMask mask = new BinaryMask(130, 3);
+        mask.set(0, 0);
+        mask.set(63, 1);
+        mask.set(64, 1);
+        mask.set(129, 2);
+        mask.set(129, 2);
+
+        assertTrue(mask.get(63, 1));
+        assertTrue(mask.get(64, 1));
+        assertFalse(mask.get(65, 1));
+        assertEquals(4, mask.count());
+
+        mask.clear(64, 1);
+        assertFalse(mask.get(64, 1));
+        assertEquals(3, mask.count());
+    }
+
+    @Test
+    void nextSetAndClearBitScanRows() {
+        BinaryMask mask = new BinaryMask(200, 2);
+        for (int x = 60; x < 140; x++) {
+            mask.set(x, 1);
+        }
+        mask.set(199, 1);
+
+        assertEquals(200, mask.nextSetBit(0, 0));
+        assertEquals(60, mask.nextSetBit(1, 0));
+        assertEquals(140, mask.nextClearBit(1, 60));
+        assertEquals(199, mask.nextSetBit(1, 140));
+        assertEquals(200, mask.nextClearBit(1, 199));
+        assertEquals(0, mask.nextClearBit(1, 0));
+    }
+
+    @Test
+    void toBinaryImageMatchesBits() {
+        // Width 13 leaves a partial last byte in each raster row
+        BinaryMask mask = new BinaryMask(13, 4);
+        for (int y = 0; y < 4; y++) {
+            for (int x = 0; x < 13; x++) {
+                if ((x * 3 + y) % 4 == 0) {
+                    mask.set(x, y);
+                }
+            }
+        }
+
+        BufferedImage white = mask.toBinaryImage(true);
+        BufferedImage black = mask.toBinaryImage(false);
+
+        assertEquals(BufferedImage.TYPE_BYTE_BINARY, white.getType());
+        for (int y = 0; y < 4; y++) {
+            for (int x = 0; x < 13; x++) {
+                int set = mask.get(x, y) ? 0xFFFFFF : 0;
+                assertEquals(set, white.getRGB(x, y) & 0xFFFFFF, x + "," + y);
+                assertEquals(set ^ 0xFFFFFF, black.getRGB(x, y) & 0xFFFFFF, x + "," + y);
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package qupath.ext.qpsc.utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link BinaryMasks}: the integral-image filters against direct
+ * window scans, and run-based labelling against a flood fill.
+ */
+class BinaryMasksTest {
+
+    private static BinaryMask randomMask(int width, int height, double density, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        BinaryMask mask = new BinaryMask(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (rnd.nextDouble() < density) {
+                    mask.set(x, y);
+                }
+            }
+        }
+        return mask;
+    }
+
+    /** The window scan the filters replace: 0 = median, 1 = dilate, 2 = erode. */
+    private static boolean windowScan(BinaryMask mask, int x, int y, int kernelSize, int op) {
+        int half = kernelSize / 2;
+        int ones = 0;
+        int total = 0;
+        boolean outside = false;
+        for (int ky = -half; ky <= half; ky++) {
+            for (int kx = -half; kx <= half; kx++) {
+                int nx = x + kx;
+                int ny = y + ky;
+                if (nx >= 0 && nx < mask.width() && ny >= 0 && ny < mask.height()) {
+                    total++;
+                    if (mask.get(nx, ny)) {
+                        ones++;
+                    }
+                } else {
+                    outside = true;
+                }
+            }
+        }
+        return switch (op) {
+            case 0 -> ones > total / 2;
+            case 1 -> ones > 0;
+            default -> !outside && ones == total;
+        };
+    }
+
+    @Test
+    void filtersMatchWindowScan() {
+        int[][] sizes = {{1, 1}, {5, 3}, {70, 23}, {130, 9}};
+        int[] kernels = {1, 3, 4, 7, 15};
+        for (int[] size : sizes) {
+            BinaryMask mask = randomMask(size[0], size[1], 0.45, size[0] * 31L + size[1]);
+            for (int k : kernels) {
+                BinaryMask[] filtered = {
+                    BinaryMasks.median(mask, k), BinaryMasks.dilate(mask, k), BinaryMasks.erode(mask, k)
+                };
+                for (int op = 0; op < 3; op++) {
+                    String where = "op " + op + ", kernel " + k + ", size " + size[0] + "x" + size[1];
+                    for (int y = 0; y < size[1]; y++) {
+                        for (int x = 0; x < size[0]; x++) {
+                            assertEquals(windowScan(mask, x, y, k, op), filtered[op].get(x, y), where);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void filtersLargeMaskInParallelBands() {
+        BinaryMask mask = randomMask(700, 400, 0.5, 3);
+
+        BinaryMask median = BinaryMasks.median(mask, 5);
+
+        for (int y = 0; y < 400; y += 7) {
+            for (int x = 0; x < 700; x++) {
+                assertEquals(windowScan(mask, x, y, 5, 0), median.get(x, y), x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void componentsMatchFloodFill() {
+        BinaryMask mask = randomMask(150, 40, 0.55, 9);
+
+        List<BinaryMasks.Region> regions = BinaryMasks.connectedComponents(mask);
+
+        // Reference: 4-connected flood fill in row-major discovery order
+        boolean[] seen = new boolean[150 * 40];
+        List<long[]> expected = new ArrayList<>();
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 150; x++) {
+                if (!mask.get(x, y) || seen[y * 150 + x]) {
+                    continue;
+                }
+                long[] r = {x, y, x, y, 0, 0, 0};
+                ArrayDeque<int[]> queue = new ArrayDeque<>();
+                queue.add(new int[] {x, y});
+                seen[y * 150 + x] = true;
+                while (!queue.isEmpty()) {
+                    int[] p = queue.poll();
+                    r[0] = Math.min(r[0], p[0]);
+                    r[1] = Math.min(r[1], p[1]);
+                    r[2] = Math.max(r[2], p[0]);
+                    r[3] = Math.max(r[3], p[1]);
+                    r[4]++;
+                    r[5] += p[0];
+                    r[6] += p[1];
+                    int[][] next = {{p[0] + 1, p[1]}, {p[0] - 1, p[1]}, {p[0], p[1] + 1}, {p[0], p[1] - 1}};
+                    for (int[] q : next) {
+                        if (q[0] >= 0 && q[0] < 150 && q[1] >= 0 && q[1] < 40 && !seen[q[1] * 150 + q[0]]
+                                && mask.get(q[0], q[1])) {
+                            seen[q[1] * 150 + q[0]] = true;
+                            queue.add(q);
+                        }
+                    }
+                }
+                expected.add(r);
+            }
+        }
+
+        assertEquals(expected.size(), regions.size());
+        for (int i = 0; i < regions.size(); i++) {
+            long[] e = expected.get(i);
+            BinaryMasks.Region r = regions.get(i);
+            assertEquals(e[0], r.minX(), "region " + i);
+            assertEquals(e[1], r.minY(), "region " + i);
+            assertEquals(e[2], r.maxX(), "region " + i);
+            assertEquals(e[3], r.maxY(), "region " + i);
+            assertEquals(e[4], r.area(), "region " + i);
+            assertEquals((double) e[5] / e[4], r.centroidX(), 1e-9);
+            assertEquals((double) e[6] / e[4], r.centroidY(), 1e-9);
+        }
+    }
+
+    @Test
+    void componentsJoinOnlyEdgeNeighbours() {
+        // Two diagonal pixels are separate regions; a U shape is one region
+        BinaryMask mask = new BinaryMask(8, 3);
+        mask.set(0, 0);
+        mask.set(1, 1);
+        mask.set(4, 0);
+        mask.set(6, 0);
+        mask.set(4, 1);
+        mask.set(6, 1);
+        mask.set(4, 2);
+        mask.set(5, 2);
+        mask.set(6, 2);
+
+        List<BinaryMasks.Region> regions = BinaryMasks.connectedComponents(mask);
+
+        assertEquals(3, regions.size());
+        assertEquals(1, regions.get(0).area());
+        assertEquals(7, regions.get(1).area());
+        assertEquals(3, regions.get(1).boundsWidth());
+        assertEquals(1, regions.get(2).area());
+        assertEquals(1, regions.get(2).minY());
+    }
+}
@@ -0,0 +1,157 @@
+package qupath.ext.qpsc.utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import qupath.ext.qpsc.ui.liveviewer.FrameData;
+
+class FocusMetricCalculatorTest {
+
+    private static final String[] STREAMING = {
+        "tenengrad", "laplacian_variance", "brenner_gradient", "normalized_variance", "vollath_f5"
+    };
+
+    /** 8-bit checkerboard with 4 px squares -- a sharply focused texture. */
+    private static FrameData checkerboard(int w, int h) {
+        byte[] raw = new byte[w * h];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                raw[y * w + x] = (byte) (((x / 4 + y / 4) % 2 == 0) ? 40 : 220);
+            }
+        }
+        return new FrameData(w, h, 1, 1, raw, 0);
+    }
+
+    /** 5x5 box blur of an 8-bit mono frame -- the same scene out of focus. */
+    private static FrameData blurred(FrameData frame) {
+        int w = frame.width();
+        int h = frame.height();
+        byte[] src = frame.rawPixels();
+        byte[] dst = new byte[src.length];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int sum = 0;
+                int n = 0;
+                for (int dy = -2; dy <= 2; dy++) {
+                    for (int dx = -2; dx <= 2; dx++) {
+                        int yy = y + dy;
+                        int xx = x + dx;
+                        if (yy >= 0 && yy < h && xx >= 0 && xx < w) {
+                            sum += src[yy * w + xx] & 0xFF;
+                            n++;
+                        }
+                    }
+                }
+                dst[y * w + x] = (byte) (sum / n);
+            }
+        }
+        return new FrameData(w, h, 1, 1, dst, 0);
+    }
+
+    @Test
+    void allStreamingMetricsAreRegistered() {
+        for (String name : STREAMING) {
+            Optional<FocusMetric> metric = FocusMetricCalculator.metric(name);
+            assertTrue(metric.isPresent(), name);
+            assertEquals(name, metric.get().name());
+        }
+        assertTrue(FocusMetricCalculator.metric("sobel").isEmpty(), "server-only metric");
+        assertTrue(FocusMetricCalculator.metric(null).isEmpty());
+    }
+
+    @Test
+    void sharpFrameScoresHigherThanBlurred() {
+        FrameData sharp = checkerboard(64, 48);
+        FrameData soft = blurred(sharp);
+        for (String name : STREAMING) {
+            FocusMetric metric = FocusMetricCalculator.metric(name).orElseThrow();
+            assertTrue(metric.evaluate(sharp) > metric.evaluate(soft), name);
+        }
+    }
+
+    @Test
+    void uniformFrameHasNoGradientEnergy() {
+        byte[] raw = new byte[32 * 32];
+        java.util.Arrays.fill(raw, (byte) 100);
+        FrameData flat = new FrameData(32, 32, 1, 1, raw, 0);
+        assertEquals(0.0, FocusMetricCalculator.metric("tenengrad").orElseThrow().evaluate(flat));
+        assertEquals(0.0, FocusMetricCalculator.metric("laplacian_variance").orElseThrow().evaluate(flat));
+        assertEquals(0.0, FocusMetricCalculator.metric("brenner_gradient").orElseThrow().evaluate(flat));
+        assertEquals(0.0, FocusMetricCalculator.metric("normalized_variance").orElseThrow().evaluate(flat));
+        assertEquals(0.0, FocusMetricCalculator.metric("vollath_f5").orElseThrow().evaluate(flat), 1e-9);
+    }
+
+    @Test
+    void tenengradOfVerticalStepEdge() {
+        // 0 | 100 step between columns 1 and 2 of a 4x3 frame. The interior
+        // pixels (1,1) and (2,1) both see Gx = 4 * 100 and Gy = 0.
+        byte[] raw = new byte[12];
+        for (int y = 0; y < 3; y++) {
+            raw[y * 4 + 2] = 100;
+            raw[y * 4 + 3] = 100;
+        }
+        FrameData frame = new FrameData(4, 3, 1, 1, raw, 0);
+        assertEquals(160000.0, FocusMetricCalculator.tenengrad(frame, FocusMetric.Region.full(frame)), 1e-9);
+    }
+
+    @Test
+    void greyRgbScoresLikeMono16() {
+        FrameData mono = checkerboard(40, 40);
+        int n = 40 * 40;
+        byte[] rgb16 = new byte[n * 6];
+        byte[] mono16 = new byte[n * 2];
+        for (int i = 0; i < n; i++) {
+            int v = (mono.rawPixels()[i] & 0xFF) * 256;
+            for (int c = 0; c < 3; c++) {
+                rgb16[i * 6 + c * 2] = (byte) (v >> 8);
+                rgb16[i * 6 + c * 2 + 1] = (byte) v;
+            }
+            mono16[i * 2] = (byte) (v >> 8);
+            mono16[i * 2 + 1] = (byte) v;
+        }
+        FrameData rgbFrame = new FrameData(40, 40, 3, 2, rgb16, 0);
+        FrameData monoFrame = new FrameData(40, 40, 1, 2, mono16, 0);
+        for (String name : STREAMING) {
+            FocusMetric metric = FocusMetricCalculator.metric(name).orElseThrow();
+            assertEquals(metric.evaluate(monoFrame), metric.evaluate(rgbFrame), 1e-6, name);
+        }
+    }
+
+    @Test
+    void regionRestrictsEvaluation() {
+        // Texture only in the left half; the right half is flat
+        FrameData frame = checkerboard(64, 32);
+        byte[] raw = frame.rawPixels();
+        for (int y = 0; y < 32; y++) {
+            for (int x = 32; x < 64; x++) {
+                raw[y * 64 + x] = 50;
+            }
+        }
+        FocusMetric tenengrad = FocusMetricCalculator.metric("tenengrad").orElseThrow();
+        assertTrue(tenengrad.evaluate(frame, new FocusMetric.Region(0, 0, 32, 32)) > 0);
+        assertEquals(0.0, tenengrad.evaluate(frame, new FocusMetric.Region(33, 0, 31, 32)));
+        // Out-of-bounds regions are clamped, not rejected
+        assertEquals(0.0, tenengrad.evaluate(frame, new FocusMetric.Region(100, 100, 10, 10)));
+    }
+
+    @Test
+    void centreCropIsCentred() {
+        FrameData frame = checkerboard(100, 60);
+        FocusMetric.Region crop = FocusMetric.Region.centreCrop(frame, 0.5);
+        assertEquals(new FocusMetric.Region(25, 15, 50, 30), crop);
+    }
+
+    @Test
+    void streamingMetricFollowsManifestModalityDefault() {
+        FocusMetricsManifest manifest = FocusMetricsManifest.get(null);
+        for (String modality : new String[] {"brightfield", "ppm", "fluorescence"}) {
+            Optional<String> expected = manifest.modalityDefault(modality);
+            Optional<FocusMetric> metric = FocusMetricCalculator.streamingMetricFor(manifest, modality);
+            if (expected.isPresent() && FocusMetricCalculator.metricNames().contains(expected.get())) {
+                assertEquals(expected.get(), metric.orElseThrow().name(), modality);
+            }
+        }
+        assertTrue(FocusMetricCalculator.streamingMetricFor(null, "ppm").isEmpty());
+    }
+}
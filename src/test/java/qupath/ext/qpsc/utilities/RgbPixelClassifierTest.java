@@ -0,0 +1,86 @@
+package qupath.ext.qpsc.utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link RgbPixelClassifier}: HSB parity with {@link Color#RGBtoHSB},
+ * raster fast paths and banded classification.
+ */
+class RgbPixelClassifierTest {
+
+    @Test
+    void hsbMatchesAwt() {
+        for (int r = 0; r < 256; r += 5) {
+            for (int g = 0; g < 256; g += 3) {
+                for (int b = 0; b < 256; b += 7) {
+                    float[] hsb = Color.RGBtoHSB(r, g, b, null);
+                    String rgb = r + "," + g + "," + b;
+                    assertEquals(hsb[0], RgbPixelClassifier.hue(r, g, b), rgb);
+                    assertEquals(hsb[1], RgbPixelClassifier.saturation(r, g, b), rgb);
+                    assertEquals(hsb[2], RgbPixelClassifier.brightness(r, g, b), rgb);
+                }
+            }
+        }
+    }
+
+    @Test
+    void readRgbMatchesGetRgbForEachImageType() {
+        int[] types = {
+            BufferedImage.TYPE_INT_RGB,
+            BufferedImage.TYPE_INT_ARGB,
+            BufferedImage.TYPE_3BYTE_BGR,
+            BufferedImage.TYPE_4BYTE_ABGR,
+            BufferedImage.TYPE_USHORT_565_RGB
+        };
+        SplittableRandom rnd = new SplittableRandom(7);
+        for (int type : types) {
+            BufferedImage img = new BufferedImage(13, 5, type);
+            for (int y = 0; y < 5; y++) {
+                for (int x = 0; x < 13; x++) {
+                    img.setRGB(x, y, 0xFF000000 | rnd.nextInt(0x1000000));
+                }
+            }
+
+            int[] rgb = RgbPixelClassifier.readRgb(img);
+
+            for (int y = 0; y < 5; y++) {
+                for (int x = 0; x < 13; x++) {
+                    assertEquals(img.getRGB(x, y) & 0xFFFFFF, rgb[y * 13 + x] & 0xFFFFFF, "type " + type);
+                }
+            }
+        }
+    }
+
+    @Test
+    void classifyLargeImageMatchesPerPixelPredicate() {
+        // Large enough to run in parallel bands, with a width that is not a multiple of 64
+        int width = 1001;
+        int height = 300;
+        SplittableRandom rnd = new SplittableRandom(11);
+        int[] rgb = new int[width * height];
+        for (int i = 0; i < rgb.length; i++) {
+            rgb[i] = rnd.nextInt(0x1000000);
+        }
+        RgbPixelClassifier.RgbPredicate greenish = (r, g, b) -> g > r && g > b;
+
+        BinaryMask mask = RgbPixelClassifier.classify(rgb, width, height, greenish);
+
+        long expected = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int p = rgb[y * width + x];
+                boolean want = greenish.test((p >> 16) & 0xFF, (p >> 8) & 0xFF, p & 0xFF);
+                assertEquals(want, mask.get(x, y), x + "," + y);
+                if (want) {
+                    expected++;
+                }
+            }
+        }
+        assertEquals(expected, mask.count());
+    }
+}
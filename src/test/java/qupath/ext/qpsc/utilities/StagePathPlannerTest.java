@@ -0,0 +1,124 @@
+package qupath.ext.qpsc.utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link StagePathPlanner}: the incremental 2-opt and Or-opt deltas
+ * must agree with a full recomputation, plans must be permutations that keep
+ * the first position, and sparse masks must beat the serpentine they replace.
+ */
+class StagePathPlannerTest {
+
+    private static final StagePathPlanner.MotionModel MODEL = new StagePathPlanner.MotionModel(4000, 2000, 0.2, 0.1);
+
+    private static List<double[]> randomPoints(int count, long seed) {
+        Random random = new Random(seed);
+        List<double[]> points = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            points.add(new double[] {random.nextDouble() * 20000, random.nextDouble() * 10000});
+        }
+        return points;
+    }
+
+    private static int[] shuffledPath(int count, long seed) {
+        List<Integer> rest = new ArrayList<>();
+        for (int i = 1; i < count; i++) {
+            rest.add(i);
+        }
+        Collections.shuffle(rest, new Random(seed));
+        int[] path = new int[count];
+        for (int i = 1; i < count; i++) {
+            path[i] = rest.get(i - 1);
+        }
+        return path;
+    }
+
+    @Test
+    void incrementalDeltasMatchFullRecomputation() {
+        int count = 12;
+        List<double[]> points = randomPoints(count, 3);
+        int[] path = shuffledPath(count, 5);
+        double base = StagePathPlanner.withPath(points, MODEL, path).currentCost();
+
+        for (int i = 1; i < count - 1; i++) {
+            for (int j = i + 1; j < count; j++) {
+                StagePathPlanner planner = StagePathPlanner.withPath(points, MODEL, path);
+                double delta = planner.twoOptDelta(i, j);
+                planner.applyTwoOpt(i, j);
+                assertEquals(planner.currentCost() - base, delta, 1e-9, "2-opt " + i + ".." + j);
+            }
+        }
+        for (int len = 1; len <= StagePathPlanner.OR_OPT_MAX_RUN; len++) {
+            for (int s = 1; s + len - 1 < count; s++) {
+                int e = s + len - 1;
+                for (int k = 0; k < count; k++) {
+                    if (k >= s - 1 && k <= e) {
+                        continue;
+                    }
+                    StagePathPlanner planner = StagePathPlanner.withPath(points, MODEL, path);
+                    double delta = planner.orOptDelta(s, e, k);
+                    planner.applyOrOpt(s, e, k);
+                    assertEquals(planner.currentCost() - base, delta, 1e-9, "Or-opt " + s + ".." + e + " after " + k);
+                }
+            }
+        }
+    }
+
+    @Test
+    void sparseMaskBeatsSerpentine() {
+        // Two tissue islands at either end of each row: the serpentine crosses the gap on every row
+        List<double[]> tiles = new ArrayList<>();
+        for (int row = 0; row < 8; row++) {
+            int[] cols = (row % 2 == 0) ? new int[] {0, 1, 2, 17, 18, 19} : new int[] {19, 18, 17, 2, 1, 0};
+            for (int col : cols) {
+                tiles.add(new double[] {col * 900.0, row * 700.0});
+            }
+        }
+        int[] plan = StagePathPlanner.plan(tiles, MODEL);
+
+        assertEquals(0, plan[0], "the first tile stays first");
+        int[] sorted = plan.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) {
+            assertEquals(i, sorted[i], "the plan must be a permutation");
+        }
+        int[] identity = new int[tiles.size()];
+        Arrays.setAll(identity, i -> i);
+        double before = StagePathPlanner.pathCost(tiles, identity, MODEL);
+        double after = StagePathPlanner.pathCost(tiles, plan, MODEL);
+        assertTrue(after < 0.6 * before, "expected a large saving, got " + after + "s vs " + before + "s");
+    }
+
+    @Test
+    void keepsAnOrderThatCannotBeImproved() {
+        List<double[]> line = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            line.add(new double[] {i * 1000.0, 0.0});
+        }
+        int[] plan = StagePathPlanner.plan(line, MODEL);
+        for (int i = 0; i < plan.length; i++) {
+            assertEquals(i, plan[i]);
+        }
+    }
+
+    @Test
+    void axisSymmetricCostIgnoresAxisSwaps() {
+        StagePathPlanner.MotionModel symmetric = MODEL.axisSymmetric();
+        double[] origin = {0.0, 0.0};
+        double[] alongX = {3000.0, 500.0};
+        double[] alongY = {500.0, 3000.0};
+        assertEquals(symmetric.travelSeconds(origin, alongX), symmetric.travelSeconds(origin, alongY), 1e-12);
+        // Slower axis speed and larger reversal penalty on both axes
+        assertEquals(3000.0 / 2000.0, symmetric.travelSeconds(origin, alongX), 1e-12);
+        assertEquals(0.2, symmetric.turnSeconds(origin, new double[] {0.0, 1000.0}, origin), 1e-12);
+        // The per-axis model does not: the same move costs more along its slow Y axis
+        assertTrue(MODEL.travelSeconds(origin, alongY) > MODEL.travelSeconds(origin, alongX));
+    }
+}
@@ -0,0 +1,137 @@
+package qupath.ext.qpsc.utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import qupath.ext.qpsc.model.StagePositionProvider;
+import qupath.ext.qpsc.model.StageState;
+
+/**
+ * Tests for the batched stage-state poll, the adaptive poll rate and the
+ * fixed per-axis rate in {@link StagePositionManager}. Polls are driven
+ * through {@code forceRefresh()} so no background thread is involved.
+ */
+class StagePositionManagerTest {
+
+    /** Provider that counts per-axis queries and optionally serves a batched state. */
+    private static class FakeProvider implements StagePositionProvider {
+        StageState state;
+        boolean rotation;
+        double x, y, z, r;
+        int perAxisCalls;
+
+        @Override
+        public boolean isConnected() {
+            return true;
+        }
+
+        @Override
+        public boolean hasRotationStage() {
+            return rotation;
+        }
+
+        @Override
+        public double[] getStagePositionXY() {
+            perAxisCalls++;
+            return new double[] {x, y};
+        }
+
+        @Override
+        public double getStagePositionZ() {
+            perAxisCalls++;
+            return z;
+        }
+
+        @Override
+        public double getStagePositionR() {
+            perAxisCalls++;
+            return r;
+        }
+
+        @Override
+        public StageState getStageState() throws IOException {
+            return state;
+        }
+    }
+
+    private final StagePositionManager manager = StagePositionManager.getInstance();
+
+    @AfterEach
+    void clearProvider() {
+        manager.setPositionProvider(null);
+    }
+
+    @Test
+    void batchedStateReplacesPerAxisQueries() {
+        FakeProvider provider = new FakeProvider();
+        provider.rotation = true;
+        provider.state = StageState.of(101.5, 202.5, 303.5, 45.0, 0);
+        manager.setPositionProvider(provider);
+
+        manager.forceRefresh();
+
+        assertEquals(0, provider.perAxisCalls);
+        assertEquals(101.5, manager.getX());
+        assertEquals(202.5, manager.getY());
+        assertEquals(303.5, manager.getZ());
+        assertEquals(45.0, manager.getR());
+    }
+
+    @Test
+    void motionFlagsMarkStageMoving() {
+        FakeProvider provider = new FakeProvider();
+        provider.state = StageState.of(11.0, 12.0, 13.0, Double.NaN, StageState.FLAG_XY_MOVING);
+        manager.setPositionProvider(provider);
+        manager.forceRefresh();
+        assertTrue(manager.isStageMoving());
+
+        provider.state = StageState.of(11.0, 12.0, 13.0, Double.NaN, StageState.FLAG_BUSY);
+        manager.forceRefresh();
+        assertFalse(manager.isStageMoving(), "busy alone is not motion; the server is busy all acquisition");
+
+        provider.state = StageState.of(14.0, 12.0, 13.0, Double.NaN, StageState.FLAG_BUSY);
+        manager.forceRefresh();
+        assertTrue(manager.isStageMoving(), "a position change between polls is motion");
+
+        provider.state = StageState.of(14.0, 12.0, 13.0, Double.NaN, 0);
+        manager.forceRefresh();
+        assertFalse(manager.isStageMoving());
+    }
+
+    @Test
+    void fallsBackToPerAxisAndInfersMotionFromChange() {
+        FakeProvider provider = new FakeProvider();
+        provider.x = 501.0;
+        provider.y = 502.0;
+        provider.z = 503.0;
+        manager.setPositionProvider(provider);
+
+        manager.forceRefresh();
+        assertEquals(2, provider.perAxisCalls);
+        assertEquals(501.0, manager.getX());
+
+        manager.forceRefresh();
+        assertFalse(manager.isStageMoving(), "unchanged position is idle");
+
+        provider.x = 550.0;
+        manager.forceRefresh();
+        assertTrue(manager.isStageMoving(), "position change implies motion");
+    }
+
+    @Test
+    void pollDelayIsFastWhileMovingOrSettling() {
+        assertEquals(StagePositionManager.FAST_POLL_INTERVAL_MS, StagePositionManager.nextPollDelayMs(true, true, 0));
+        assertEquals(StagePositionManager.FAST_POLL_INTERVAL_MS, StagePositionManager.nextPollDelayMs(true, false, 2));
+        assertEquals(StagePositionManager.IDLE_POLL_INTERVAL_MS, StagePositionManager.nextPollDelayMs(true, false, 0));
+    }
+
+    @Test
+    void perAxisPollingKeepsTheFixedRate() {
+        assertEquals(
+                StagePositionManager.PER_AXIS_POLL_INTERVAL_MS, StagePositionManager.nextPollDelayMs(false, true, 0));
+        assertEquals(
+                StagePositionManager.PER_AXIS_POLL_INTERVAL_MS, StagePositionManager.nextPollDelayMs(false, false, 0));
+    }
+}
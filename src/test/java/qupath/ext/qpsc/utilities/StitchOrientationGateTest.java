@@ -0,0 +1,128 @@
+package qupath.ext.qpsc.utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Regression tests for {@link StitchOrientationGate}: concurrent stitch jobs
+ * with mixed orientations must each see their own flip flags for the whole
+ * run, while jobs sharing an orientation still overlap.
+ */
+class StitchOrientationGateTest {
+
+    /** Stand-in for the stitcher's process-wide static flags. */
+    private static class FakeStitcherFlags {
+        volatile boolean flipX;
+        volatile boolean flipY;
+    }
+
+    @Test
+    void mixedOrientationJobsRunConcurrentlyWithoutSeeingEachOthersFlags() throws Exception {
+        FakeStitcherFlags flags = new FakeStitcherFlags();
+        StitchOrientationGate gate = new StitchOrientationGate("test", (x, y) -> {
+            flags.flipX = x;
+            flags.flipY = y;
+        });
+
+        int jobs = 48;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxOverlap = new AtomicInteger();
+        AtomicInteger mismatches = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < jobs; i++) {
+                // Runs of three jobs per orientation, cycling through all four
+                boolean flipX = (i / 3) % 2 == 1;
+                boolean flipY = (i / 6) % 2 == 1;
+                String name = "target-" + i;
+                results.add(pool.submit(() -> gate.run(flipX, flipY, () -> {
+                    int now = running.incrementAndGet();
+                    maxOverlap.accumulateAndGet(now, Math::max);
+                    try {
+                        // The stitcher reads the flags at several points while it runs
+                        for (int k = 0; k < 5; k++) {
+                            if (flags.flipX != flipX || flags.flipY != flipY) {
+                                mismatches.incrementAndGet();
+                            }
+                            Thread.sleep(2);
+                        }
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                    return name;
+                })));
+            }
+            for (int i = 0; i < jobs; i++) {
+                assertEquals("target-" + i, results.get(i).get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(0, mismatches.get(), "a job saw another job's flip flags");
+        assertTrue(maxOverlap.get() > 1, "jobs sharing an orientation should run in parallel");
+        assertEquals(0, gate.getActiveCount());
+        assertFalse(flags.flipX, "flags must be cleared once the last job leaves");
+        assertFalse(flags.flipY, "flags must be cleared once the last job leaves");
+    }
+
+    @Test
+    void flagsStayUntilLastSameOrientationJobFinishes() throws Exception {
+        FakeStitcherFlags flags = new FakeStitcherFlags();
+        StitchOrientationGate gate = new StitchOrientationGate("test", (x, y) -> {
+            flags.flipX = x;
+            flags.flipY = y;
+        });
+
+        CountDownLatch longJobStarted = new CountDownLatch(1);
+        CountDownLatch releaseLongJob = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> longJob = pool.submit(() -> gate.run(true, false, () -> {
+                longJobStarted.countDown();
+                assertTrue(releaseLongJob.await(10, TimeUnit.SECONDS));
+                return flags.flipX;
+            }));
+            assertTrue(longJobStarted.await(10, TimeUnit.SECONDS));
+
+            // A short job with the same orientation enters and leaves meanwhile;
+            // it must not clear the flags under the long job (the old finally-reset bug)
+            assertEquals("short", gate.run(true, false, () -> "short"));
+            assertTrue(flags.flipX);
+
+            releaseLongJob.countDown();
+            assertTrue(longJob.get(10, TimeUnit.SECONDS));
+            assertFalse(flags.flipX);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedJobReleasesTheGate() throws Exception {
+        FakeStitcherFlags flags = new FakeStitcherFlags();
+        StitchOrientationGate gate = new StitchOrientationGate("test", (x, y) -> {
+            flags.flipX = x;
+            flags.flipY = y;
+        });
+
+        assertThrows(IllegalStateException.class, () -> gate.run(false, true, () -> {
+            throw new IllegalStateException("stitch failed");
+        }));
+        assertEquals(0, gate.getActiveCount());
+        assertFalse(flags.flipY);
+
+        // A job with a different orientation is not blocked by the failed one
+        assertEquals(Boolean.TRUE, gate.run(true, true, () -> flags.flipX && flags.flipY));
+    }
+}
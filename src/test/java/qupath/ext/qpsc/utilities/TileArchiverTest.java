@@ -0,0 +1,127 @@
+package qupath.ext.qpsc.utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Round-trip tests for {@link TileArchiver}: archives written in parallel must
+ * open with {@link ZipFile} and reproduce every file, with incompressible
+ * tiles stored and compressible ones deflated.
+ */
+class TileArchiverTest {
+
+    private Path root;
+    private Path tiles;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("qpsc-archiver");
+        tiles = Files.createDirectories(root.resolve("A1"));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> walk = Files.walk(root)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    /** A smooth 16-bit ramp, like a flat-field tile: low entropy, compresses well. */
+    private static byte[] smoothTile(int pixels) {
+        byte[] data = new byte[pixels * 2];
+        for (int i = 0; i < pixels; i++) {
+            int v = 1000 + (i / 64) % 200;
+            data[2 * i] = (byte) v;
+            data[2 * i + 1] = (byte) (v >>> 8);
+        }
+        return data;
+    }
+
+    private static byte[] noiseTile(int bytes, long seed) {
+        byte[] data = new byte[bytes];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    private void assertRoundTrip(Path zip) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(tiles)) {
+            files = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+            assertEquals(files.size(), zipFile.size());
+            for (Path file : files) {
+                String name = tiles.relativize(file).toString().replace('\\', '/');
+                ZipEntry entry = zipFile.getEntry(name);
+                assertNotNull(entry, "missing entry " + name);
+                try (InputStream in = zipFile.getInputStream(entry)) {
+                    assertArrayEquals(Files.readAllBytes(file), in.readAllBytes(), name);
+                }
+            }
+        }
+    }
+
+    @Test
+    void storesNoiseAndDeflatesSmoothTiles() throws Exception {
+        Files.createDirectories(tiles.resolve("0.0"));
+        Files.createDirectories(tiles.resolve("90.0"));
+        for (int i = 0; i < 6; i++) {
+            Files.write(tiles.resolve("0.0").resolve(i + ".tif"), smoothTile(100_000));
+            Files.write(tiles.resolve("90.0").resolve(i + ".tif"), noiseTile(150_000, i));
+        }
+        StringBuilder config = new StringBuilder("dim = 2\n");
+        for (int i = 0; i < 50; i++) {
+            config.append(i).append(".tif; ; (").append(i * 1843.2).append(", 0.0)\n");
+        }
+        Files.writeString(tiles.resolve("TileConfiguration.txt"), config);
+        Path zip = root.resolve("A1.zip");
+
+        TileArchiver.Result result = TileArchiver.archive(tiles, zip, 3);
+
+        assertEquals(13, result.entries());
+        assertEquals(6, result.stored(), "only the noise tiles should be stored");
+        assertTrue(result.outputBytes() < result.inputBytes());
+        assertRoundTrip(zip);
+        try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+            assertEquals(ZipEntry.STORED, zipFile.getEntry("90.0/3.tif").getMethod());
+            assertEquals(ZipEntry.DEFLATED, zipFile.getEntry("0.0/3.tif").getMethod());
+        }
+    }
+
+    @Test
+    void zip64RecordsAreReadable() throws Exception {
+        Files.write(tiles.resolve("0.tif"), smoothTile(20_000));
+        Files.write(tiles.resolve("1.tif"), noiseTile(30_000, 7));
+        Files.write(tiles.resolve("empty.txt"), new byte[0]);
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(tiles)) {
+            files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        Path zip = root.resolve("A1-zip64.zip");
+
+        TileArchiver.archive(tiles, files, zip, 2, true);
+
+        assertRoundTrip(zip);
+    }
+
+    @Test
+    void entropyRanksNoiseAboveStructure() {
+        assertTrue(TileArchiver.sampleEntropy(noiseTile(200_000, 1)) > TileArchiver.STORE_ENTROPY_BITS);
+        assertTrue(TileArchiver.sampleEntropy(smoothTile(100_000)) < TileArchiver.STORE_ENTROPY_BITS);
+        assertEquals(0.0, TileArchiver.sampleEntropy(new byte[1000]));
+    }
+}
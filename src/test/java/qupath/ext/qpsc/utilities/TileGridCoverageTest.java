@@ -0,0 +1,136 @@
+package qupath.ext.qpsc.utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.BitSet;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link TileGridCoverage}: the row-scanline result must match a
+ * per-cell rectangle/polygon intersection test, for polygons with holes,
+ * open lines, and the grid sizing the tiler has always used.
+ */
+class TileGridCoverageTest {
+
+    /** A jagged star, like a hand-drawn tissue outline. */
+    private static double[][] star(int points, double cx, double cy, double inner, double outer, long seed) {
+        Random random = new Random(seed);
+        double[] xs = new double[points * 2];
+        double[] ys = new double[points * 2];
+        for (int i = 0; i < xs.length; i++) {
+            double r = (i % 2 == 0 ? outer : inner) * (0.8 + 0.4 * random.nextDouble());
+            double angle = Math.PI * i / points;
+            xs[i] = cx + r * Math.cos(angle);
+            ys[i] = cy + r * Math.sin(angle);
+        }
+        return new double[][] {xs, ys};
+    }
+
+    private static boolean insideRing(double[] xs, double[] ys, double px, double py) {
+        boolean inside = false;
+        for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+            if ((ys[i] > py) != (ys[j] > py) && px < (xs[j] - xs[i]) * (py - ys[i]) / (ys[j] - ys[i]) + xs[i]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /** Liang-Barsky: does the segment touch the closed rectangle? */
+    private static boolean segmentHitsRect(
+            double x0, double y0, double x1, double y1, double rx0, double ry0, double rx1, double ry1) {
+        double t0 = 0;
+        double t1 = 1;
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double[] p = {-dx, dx, -dy, dy};
+        double[] q = {x0 - rx0, rx1 - x0, y0 - ry0, ry1 - y0};
+        for (int k = 0; k < 4; k++) {
+            if (p[k] == 0) {
+                if (q[k] < 0) return false;
+            } else {
+                double t = q[k] / p[k];
+                if (p[k] < 0) t0 = Math.max(t0, t);
+                else t1 = Math.min(t1, t);
+            }
+        }
+        return t0 <= t1;
+    }
+
+    private static boolean ringHitsRect(double[] xs, double[] ys, double rx0, double ry0, double rx1, double ry1) {
+        for (int i = 0; i < xs.length; i++) {
+            int j = (i + 1) % xs.length;
+            if (segmentHitsRect(xs[i], ys[i], xs[j], ys[j], rx0, ry0, rx1, ry1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    void matchesPerCellIntersectionForPolygonWithHole() {
+        double[][] shell = star(40, 5000, 4000, 1500, 3800, 11);
+        double[] holeX = {4600, 5400, 5400, 4600};
+        double[] holeY = {3600, 3600, 4400, 4400};
+        TileGridCoverage.Outline outline = new TileGridCoverage.Outline();
+        int id = outline.newPolygon();
+        outline.addRing(shell[0], shell[1], id);
+        outline.addRing(holeX, holeY, id);
+        TileGridCoverage.Grid grid = TileGridCoverage.Grid.covering(800, 0, 8600, 8200, 300, 220, 10);
+
+        BitSet[] covered = TileGridCoverage.coveredCells(outline, grid);
+
+        int expectedCount = 0;
+        for (int r = 0; r < grid.nRows(); r++) {
+            for (int c = 0; c < grid.nCols(); c++) {
+                double rx0 = grid.cellX(c);
+                double ry0 = grid.cellY(r);
+                double rx1 = rx0 + grid.frameWidth();
+                double ry1 = ry0 + grid.frameHeight();
+                double cx = (rx0 + rx1) / 2;
+                double cy = (ry0 + ry1) / 2;
+                boolean centreInside =
+                        insideRing(shell[0], shell[1], cx, cy) && !insideRing(holeX, holeY, cx, cy);
+                boolean expected = centreInside
+                        || ringHitsRect(shell[0], shell[1], rx0, ry0, rx1, ry1)
+                        || ringHitsRect(holeX, holeY, rx0, ry0, rx1, ry1);
+                if (expected) {
+                    expectedCount++;
+                }
+                assertEquals(expected, covered[r].get(c), "cell row " + r + " col " + c);
+            }
+        }
+        assertTrue(expectedCount > 100);
+        // The hole is larger than a tile, so some cells inside the shell are skipped
+        int holeRow = (int) ((4000 - grid.startY()) / grid.yStep());
+        int holeCol = (int) ((5000 - grid.startX()) / grid.xStep());
+        assertFalse(covered[holeRow].get(holeCol));
+    }
+
+    @Test
+    void openLineCoversOnlyTheCellsItCrosses() {
+        TileGridCoverage.Outline outline = new TileGridCoverage.Outline();
+        outline.addEdge(50, 50, 950, 50, -1);
+        TileGridCoverage.Grid grid = TileGridCoverage.Grid.covering(0, 0, 1000, 1000, 100, 100, 0);
+
+        BitSet[] covered = TileGridCoverage.coveredCells(outline, grid);
+
+        assertEquals(10, covered[0].cardinality());
+        for (int r = 1; r < grid.nRows(); r++) {
+            assertTrue(covered[r].isEmpty(), "row " + r);
+        }
+    }
+
+    @Test
+    void gridSizingMatchesTheTiler() {
+        // 950 / 100 -> 10 columns; 1000 / 100 is exact -> 10 + 1 rows
+        TileGridCoverage.Grid grid = TileGridCoverage.Grid.covering(0, 0, 950, 1000, 100, 100, 0);
+        assertEquals(10, grid.nCols());
+        assertEquals(11, grid.nRows());
+        assertEquals(110, grid.cellCount());
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> TileGridCoverage.Grid.covering(0, 0, 1000, 1000, 100, 100, 100));
+    }
+}
@@ -0,0 +1,130 @@
+package qupath.ext.qpsc.utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.geom.AffineTransform;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link TileLayout}: text and sidecar round trips, the batch
+ * pixel-to-stage transform, and {@link TileLayout#load} preferring the sidecar
+ * only while it is current.
+ */
+class TileLayoutTest {
+
+    private Path dir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("qpsc-layout");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    private static TileLayout grid(int count) {
+        TileLayout.Builder builder = new TileLayout.Builder(TileLayout.Space.PIXEL);
+        for (int i = 0; i < count; i++) {
+            builder.add(1000.25 + (i % 10) * 1843.2, 2000.5 + (i / 10) * 1228.8);
+        }
+        return builder.build();
+    }
+
+    @Test
+    void textRoundTripKeepsTheLegacyFormat() throws Exception {
+        Path file = dir.resolve(TileLayout.STAGE_CONFIG);
+        grid(3).writeText(file, TileLayout.Space.PIXEL);
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals("dim = 2", lines.get(0));
+        assertEquals("0.tif; ; (1000.250, 2000.500)", lines.get(1));
+        assertEquals("2.tif; ; (4686.650, 2000.500)", lines.get(3));
+
+        TileLayout read = TileLayout.readText(file, TileLayout.Space.STAGE);
+        assertEquals(3, read.size());
+        assertEquals(2, read.index(2));
+        assertEquals(4686.65, read.x(TileLayout.Space.STAGE, 2), 1e-9);
+        assertFalse(read.has(TileLayout.Space.PIXEL));
+    }
+
+    @Test
+    void readTextSkipsJunkAndKeepsCustomLabels() throws Exception {
+        Path file = dir.resolve("custom.txt");
+        Files.writeString(
+                file,
+                "dim = 2\n# comment\n\n0.tif; ; (1.0, 2.0)\nbad.tif; ; (x, 3)\n"
+                        + "pos_7.tif ; ; ( -5.5 , 6.25 )\nnot a tile line\n");
+
+        TileLayout read = TileLayout.readText(file, TileLayout.Space.PIXEL);
+
+        assertEquals(2, read.size());
+        assertEquals("0.tif", read.label(0));
+        assertEquals("pos_7.tif", read.label(1));
+        assertEquals(-1, read.index(1));
+        assertEquals(-5.5, read.x(TileLayout.Space.PIXEL, 1));
+        assertEquals(6.25, read.y(TileLayout.Space.PIXEL, 1));
+    }
+
+    @Test
+    void sidecarRoundTripAfterTransform() throws Exception {
+        TileLayout layout = grid(25);
+        AffineTransform pixelToStage = new AffineTransform(0.5, 0.01, -0.02, -0.5, 12000, 8000);
+        layout.transformToStage(pixelToStage);
+        layout.fillZ(101.5);
+        layout.writeSidecar(dir);
+
+        TileLayout read = TileLayout.readSidecar(dir.resolve(TileLayout.SIDECAR_NAME));
+
+        assertEquals(25, read.size());
+        for (int i = 0; i < 25; i++) {
+            double[] expected = {layout.x(TileLayout.Space.PIXEL, i), layout.y(TileLayout.Space.PIXEL, i)};
+            pixelToStage.transform(expected, 0, expected, 0, 1);
+            assertEquals(expected[0], read.x(TileLayout.Space.STAGE, i));
+            assertEquals(expected[1], read.y(TileLayout.Space.STAGE, i));
+            assertEquals(layout.x(TileLayout.Space.PIXEL, i), read.x(TileLayout.Space.PIXEL, i));
+            assertEquals(101.5, read.z(i));
+            assertEquals(i + ".tif", read.label(i));
+        }
+    }
+
+    @Test
+    void loadUsesTheSidecarOnlyWhileItIsCurrent() throws Exception {
+        TileLayout layout = grid(4);
+        layout.writeText(dir.resolve(TileLayout.PIXEL_CONFIG), TileLayout.Space.PIXEL);
+        layout.transformToStage(AffineTransform.getScaleInstance(2, 2));
+        layout.writeText(dir.resolve(TileLayout.STAGE_CONFIG), TileLayout.Space.STAGE);
+        layout.writeSidecar(dir);
+        Files.setLastModifiedTime(dir.resolve(TileLayout.SIDECAR_NAME), FileTime.fromMillis(2_000_000_000_000L));
+
+        // Current sidecar: both spaces come from it, with full precision
+        TileLayout stage = TileLayout.load(dir, TileLayout.Space.STAGE);
+        assertEquals(2 * 1000.25, stage.x(TileLayout.Space.STAGE, 0));
+        assertTrue(stage.has(TileLayout.Space.PIXEL));
+
+        // Something else rewrites the text afterwards: the text wins
+        Files.writeString(dir.resolve(TileLayout.STAGE_CONFIG), "dim = 2\n0.tif; ; (7.0, 8.0)\n");
+        Files.setLastModifiedTime(dir.resolve(TileLayout.STAGE_CONFIG), FileTime.fromMillis(2_000_000_001_000L));
+        TileLayout rewritten = TileLayout.load(dir, TileLayout.Space.STAGE);
+        assertEquals(1, rewritten.size());
+        assertEquals(7.0, rewritten.x(TileLayout.Space.STAGE, 0));
+
+        // A corrupt sidecar falls back to the text as well
+        Files.write(dir.resolve(TileLayout.SIDECAR_NAME), new byte[] {1, 2, 3});
+        Files.setLastModifiedTime(dir.resolve(TileLayout.SIDECAR_NAME), FileTime.fromMillis(2_000_000_002_000L));
+        assertEquals(4, TileLayout.load(dir, TileLayout.Space.PIXEL).size());
+        assertThrows(IOException.class, () -> TileLayout.readSidecar(dir.resolve(TileLayout.SIDECAR_NAME)));
+    }
+}